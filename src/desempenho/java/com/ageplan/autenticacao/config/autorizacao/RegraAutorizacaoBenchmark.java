@@ -0,0 +1,64 @@
+package com.ageplan.autenticacao.config.autorizacao;
+
+import com.ageplan.autenticacao.usuario.Usuario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.access.expression.WebExpressionAuthorizationManager;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o custo por requisição da regra tipada {@link RegrasUsuario#ADMIN_INSTRUTOR_OU_PROPRIO}
+ * com o da expressão SpEL equivalente, para um usuário comum acessando o próprio cadastro.
+ * <p>
+ * Executado com {@code mvn -Pdesempenho verify -Djmh.filtro=RegraAutorizacaoBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegraAutorizacaoBenchmark {
+
+    private AuthorizationManager<RequestAuthorizationContext> spel;
+    private AuthorizationManager<RequestAuthorizationContext> tipada;
+    private Authentication autenticacao;
+    private RequestAuthorizationContext contexto;
+
+    @Setup
+    public void setUp() {
+        spel = new WebExpressionAuthorizationManager(
+                "hasRole('ADMIN') or hasRole('INSTRUTOR') or #id == authentication.principal.id.toString()");
+        tipada = RegraAutorizacaoManager.de(RegrasUsuario.ADMIN_INSTRUTOR_OU_PROPRIO);
+        Usuario usuario = new Usuario();
+        usuario.setId(2L);
+        autenticacao = UsernamePasswordAuthenticationToken.authenticated(usuario, null, AuthorityUtils.NO_AUTHORITIES);
+        contexto = new RequestAuthorizationContext(new MockHttpServletRequest("GET", "/api/usuarios/2"), Map.of("id", "2"));
+    }
+
+    @Benchmark
+    public boolean spel() {
+        return spel.check(() -> autenticacao, contexto).isGranted();
+    }
+
+    @Benchmark
+    public boolean tipada() {
+        return tipada.check(() -> autenticacao, contexto).isGranted();
+    }
+}
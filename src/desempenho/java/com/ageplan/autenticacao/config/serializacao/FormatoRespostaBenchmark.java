@@ -0,0 +1,96 @@
+package com.ageplan.autenticacao.config.serializacao;
+
+import com.ageplan.autenticacao.papel.Papel;
+import com.ageplan.autenticacao.usuario.UsuarioDTO;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o custo de codificar e decodificar usuários em JSON, CBOR e Smile, com o mapeador de cada
+ * formato derivado do mapeador JSON como em {@link SerializacaoBinariaConfig}. Mede um usuário isolado,
+ * como nas respostas de {@code GET /api/usuarios/{id}}, e uma página de {@value #TAMANHO_PAGINA}
+ * usuários, o tamanho padrão da listagem por chave.
+ * <p>
+ * Executado com {@code mvn -Pdesempenho verify -Djmh.filtro=FormatoRespostaBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatoRespostaBenchmark {
+
+    private static final int TAMANHO_PAGINA = 50;
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    private FormatoResposta formato;
+
+    private ObjectMapper mapeador;
+    private JavaType tipoPagina;
+    private UsuarioDTO usuario;
+    private List<UsuarioDTO> pagina;
+    private byte[] usuarioCodificado;
+    private byte[] paginaCodificada;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapeador = Jackson2ObjectMapperBuilder.json().build().copyWith(formato.criarFactory());
+        tipoPagina = mapeador.getTypeFactory().constructCollectionType(List.class, UsuarioDTO.class);
+        usuario = criarUsuario(1L);
+        pagina = new ArrayList<>(TAMANHO_PAGINA);
+        for (int i = 0; i < TAMANHO_PAGINA; i++) {
+            pagina.add(criarUsuario(i + 1L));
+        }
+        usuarioCodificado = mapeador.writeValueAsBytes(usuario);
+        paginaCodificada = mapeador.writeValueAsBytes(pagina);
+    }
+
+    @Benchmark
+    public byte[] codificarUsuario() throws IOException {
+        return mapeador.writeValueAsBytes(usuario);
+    }
+
+    @Benchmark
+    public UsuarioDTO decodificarUsuario() throws IOException {
+        return mapeador.readValue(usuarioCodificado, UsuarioDTO.class);
+    }
+
+    @Benchmark
+    public byte[] codificarPagina() throws IOException {
+        return mapeador.writeValueAsBytes(pagina);
+    }
+
+    @Benchmark
+    public List<UsuarioDTO> decodificarPagina() throws IOException {
+        return mapeador.readValue(paginaCodificada, tipoPagina);
+    }
+
+    private static UsuarioDTO criarUsuario(Long id) {
+        UsuarioDTO usuario = new UsuarioDTO();
+        usuario.setId(id);
+        usuario.setNomeCompleto("Usuário de Teste " + id);
+        usuario.setNomeUsuario("usuario" + id);
+        usuario.setEmail("usuario" + id + "@example.com");
+        usuario.setPapeis(Set.of(Papel.NomePapel.INSTRUTOR));
+        return usuario;
+    }
+}
@@ -0,0 +1,74 @@
+package com.ageplan.autenticacao.usuario;
+
+import com.ageplan.autenticacao.papel.Papel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o custo de localizar usuários em um {@link HashSet} grande a partir de instâncias recarregadas,
+ * que têm o mesmo id e o mesmo nome de usuário mas são outros objetos, e de comparar seus papéis.
+ * Com o hash pela chave natural a busca não percorre o conjunto: o custo cresce com a quantidade apenas
+ * pelas falhas de cache, que {@code papeisIguais} mede como referência sobre as mesmas instâncias.
+ * <p>
+ * Executado com {@code mvn -Pdesempenho verify -Djmh.filtro=IdentidadeEntidadesBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdentidadeEntidadesBenchmark {
+
+    @Param({"1000", "100000"})
+    private int quantidade;
+
+    private Set<Usuario> usuarios;
+    private Usuario[] recarregados;
+
+    @Setup
+    public void setUp() {
+        usuarios = new HashSet<>();
+        recarregados = new Usuario[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            usuarios.add(criarUsuario(i + 1L));
+            recarregados[i] = criarUsuario(i + 1L);
+        }
+    }
+
+    @Benchmark
+    public boolean contemUsuario() {
+        return usuarios.contains(recarregados[ThreadLocalRandom.current().nextInt(quantidade)]);
+    }
+
+    @Benchmark
+    public boolean papeisIguais() {
+        Usuario usuario = recarregados[ThreadLocalRandom.current().nextInt(quantidade)];
+        return usuario.getPapeis().containsAll(recarregados[0].getPapeis());
+    }
+
+    private static Usuario criarUsuario(Long id) {
+        Usuario usuario = new Usuario("Usuário " + id, "usuario" + id, "usuario" + id + "@example.com", "senha");
+        usuario.setId(id);
+        for (Papel.NomePapel nomePapel : Papel.NomePapel.values()) {
+            Papel papel = new Papel(nomePapel);
+            papel.setId((long) nomePapel.ordinal() + 1);
+            usuario.addPapel(papel);
+        }
+        return usuario;
+    }
+}
@@ -2,12 +2,22 @@ package com.ageplan.autenticacao;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class AutenticacaoApplication {
 
+    /**
+     * Quantidade máxima de passos de inicialização registrados para o endpoint /actuator/startup.
+     */
+    private static final int PASSOS_INICIALIZACAO = 4096;
+
     public static void main(String[] args) {
-        SpringApplication.run(AutenticacaoApplication.class, args);
+        SpringApplication application = new SpringApplication(AutenticacaoApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(PASSOS_INICIALIZACAO));
+        application.run(args);
     }
 
 }
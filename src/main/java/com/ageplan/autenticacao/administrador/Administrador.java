@@ -7,13 +7,13 @@ import jakarta.persistence.Entity;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Objects;
-
 @Entity
+@DynamicUpdate
 @NoArgsConstructor
 @Getter
 @Setter
@@ -27,8 +27,8 @@ public class Administrador extends Usuario {
     public Administrador(String departamento) {
         super();
         this.departamento = departamento;
+        // INSTRUTOR é implicado por ADMIN na HierarquiaPapeis e não precisa ser gravado
         this.addPapel(new Papel(Papel.NomePapel.ADMIN));
-        this.addPapel(new Papel(Papel.NomePapel.INSTRUTOR));
     }
 
     public void gerenciarFinancas() {
@@ -39,6 +39,13 @@ public class Administrador extends Usuario {
         logger.info("Gerenciando aspectos pedagógicos");
     }
 
+    /**
+     * Ministra uma aula. Como {@code ADMIN} implica {@code INSTRUTOR} na
+     * {@link com.ageplan.autenticacao.papel.HierarquiaPapeis}, todo administrador pode ministrar aulas; a
+     * verificação só falha se a hierarquia deixar de declarar essa implicação.
+     *
+     * @param assunto o assunto da aula
+     */
     public void ministrarAula(String assunto) {
         if (this.hasPapel(Papel.NomePapel.INSTRUTOR)) {
             logger.info("Administrador ministrando aula sobre {}", assunto);
@@ -47,22 +54,6 @@ public class Administrador extends Usuario {
         }
     }
 
-    @Override
-    public final boolean equals(Object o) {
-        if (this == o) return true;
-        if (!(o instanceof Administrador that)) return false;
-        if (!super.equals(o)) return false;
-
-        return Objects.equals(getDepartamento(), that.getDepartamento());
-    }
-
-    @Override
-    public int hashCode() {
-        int result = super.hashCode();
-        result = 31 * result + Objects.hashCode(getDepartamento());
-        return result;
-    }
-
     @Override
     public String toString() {
         return "Administrador{" +
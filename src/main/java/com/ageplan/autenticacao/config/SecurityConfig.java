@@ -1,18 +1,31 @@
 package com.ageplan.autenticacao.config;
 
+import com.ageplan.autenticacao.config.autorizacao.HierarquiaPapeisRoleHierarchy;
+import com.ageplan.autenticacao.config.concorrencia.LimitadorAdaptativo;
+import com.ageplan.autenticacao.config.concorrencia.LimiteConcorrenciaFilter;
 import com.ageplan.autenticacao.usuario.UsuarioService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpMethod;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchyAuthoritiesMapper;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
-import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.core.session.SessionRegistry;
+import org.springframework.security.core.session.SessionRegistryImpl;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.session.HttpSessionEventPublisher;
+
+import static com.ageplan.autenticacao.config.autorizacao.RegraAutorizacaoManager.de;
+import static com.ageplan.autenticacao.config.autorizacao.RegrasUsuario.*;
 
 /**
  * Classe de configuração de segurança do Spring Security.
@@ -20,7 +33,6 @@ import org.springframework.security.web.SecurityFilterChain;
  */
 @Configuration
 @EnableWebSecurity
-@EnableMethodSecurity
 public class SecurityConfig {
 
     /**
@@ -34,36 +46,94 @@ public class SecurityConfig {
         return new BCryptPasswordEncoder();
     }
 
+    /**
+     * Define a hierarquia de papéis usada na resolução das autoridades.
+     * As implicações entre papéis são declaradas em {@link com.ageplan.autenticacao.papel.HierarquiaPapeis}.
+     *
+     * @return uma instância de {@link HierarquiaPapeisRoleHierarchy}
+     */
+    @Bean
+    public RoleHierarchy roleHierarchy() {
+        return new HierarquiaPapeisRoleHierarchy();
+    }
+
     /**
      * Configura o gerenciador de autenticação com um provedor de autenticação DAO.
-     * O provedor utiliza o serviço de usuário e o codificador de senhas definidos.
+     * O provedor utiliza o serviço de usuário e o codificador de senhas definidos, e acrescenta às
+     * autoridades do usuário autenticado os papéis implicados pela hierarquia.
      *
-     * @param usuarioService o serviço de usuário a ser utilizado pelo provedor de autenticação
+     * @param usuarioService  o serviço de usuário a ser utilizado pelo provedor de autenticação
      * @param passwordEncoder o codificador de senhas a ser utilizado pelo provedor de autenticação
+     * @param roleHierarchy   a hierarquia de papéis
      * @return uma instância de {@link AuthenticationManager}
      */
     @Bean
-    public AuthenticationManager authenticationManager(UsuarioService usuarioService, PasswordEncoder passwordEncoder) {
+    public AuthenticationManager authenticationManager(UsuarioService usuarioService, PasswordEncoder passwordEncoder,
+                                                       RoleHierarchy roleHierarchy) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(usuarioService);
         authProvider.setPasswordEncoder(passwordEncoder);
+        authProvider.setAuthoritiesMapper(new RoleHierarchyAuthoritiesMapper(roleHierarchy));
         return new ProviderManager(authProvider);
     }
 
+    /**
+     * Define o registro das sessões autenticadas, consultado pela introspecção de IDs de sessão.
+     *
+     * @return uma instância de {@link SessionRegistryImpl}
+     */
+    @Bean
+    public SessionRegistry sessionRegistry() {
+        return new SessionRegistryImpl();
+    }
+
+    /**
+     * Publica os eventos de ciclo de vida das sessões HTTP, para que sessões encerradas saiam do registro.
+     *
+     * @return uma instância de {@link HttpSessionEventPublisher}
+     */
+    @Bean
+    public HttpSessionEventPublisher httpSessionEventPublisher() {
+        return new HttpSessionEventPublisher();
+    }
+
     /**
      * Configura a cadeia de filtros de segurança do Spring Security.
      * Define as regras de autorização para diferentes endpoints e configura o login e logout.
+     * As regras dos endpoints de usuários são {@link com.ageplan.autenticacao.config.autorizacao.RegraAutorizacao}
+     * montadas uma única vez, avaliadas sobre os papéis do usuário e as variáveis de caminho da rota.
+     * Logins, autenticações HTTP Basic e escritas de usuários passam antes pelo {@link LimiteConcorrenciaFilter}.
      *
-     * @param http o objeto {@link HttpSecurity} a ser configurado
+     * @param http            o objeto {@link HttpSecurity} a ser configurado
+     * @param sessionRegistry o registro das sessões autenticadas
+     * @param limitador       o limitador adaptativo de requisições simultâneas
+     * @param objectMapper    o mapeador usado nas respostas de sobrecarga
      * @return uma instância de {@link SecurityFilterChain}
      * @throws Exception se ocorrer um erro durante a configuração
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, SessionRegistry sessionRegistry,
+                                                   LimitadorAdaptativo limitador, ObjectMapper objectMapper) throws Exception {
+        if (limitador.isHabilitado()) {
+            http.addFilterBefore(new LimiteConcorrenciaFilter(limitador, objectMapper),
+                    UsernamePasswordAuthenticationFilter.class);
+        }
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/public/**", "/api/auth/**", "/login", "/logout", "/api/usuarios/registro").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/usuarios/me").authenticated()
+                        .requestMatchers(HttpMethod.GET, "/api/usuarios/exportacao").access(de(ADMIN))
+                        .requestMatchers(HttpMethod.POST, "/api/usuarios/lookup").access(de(ADMIN_OU_INSTRUTOR))
+                        .requestMatchers("/api/usuarios/lote/**").access(de(ADMIN))
+                        .requestMatchers(HttpMethod.GET, "/api/usuarios/{id}").access(de(ADMIN_INSTRUTOR_OU_PROPRIO))
+                        .requestMatchers(HttpMethod.PUT, "/api/usuarios/{id}").access(de(ADMIN_OU_PROPRIO))
+                        .requestMatchers(HttpMethod.PATCH, "/api/usuarios/{id}").access(de(ADMIN_OU_PROPRIO))
+                        .requestMatchers(HttpMethod.DELETE, "/api/usuarios/{id}").access(de(ADMIN))
+                        .requestMatchers(HttpMethod.GET, "/api/usuarios").access(de(ADMIN_OU_INSTRUTOR))
+                        .requestMatchers(HttpMethod.POST, "/api/usuarios").access(de(ADMIN))
+                        .requestMatchers(HttpMethod.POST, "/api/introspeccao").access(de(ADMIN))
+                        .requestMatchers("/actuator/startup", "/actuator/metrics/**").access(de(ADMIN))
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .requestMatchers("/api/professor/**").hasRole("PROFESSOR")
                         .requestMatchers("/api/aluno/**").hasRole("ALUNO")
@@ -80,6 +150,10 @@ public class SecurityConfig {
                         .deleteCookies("JSESSIONID")
                         .permitAll()
                 )
+                .sessionManagement(session -> session
+                        .maximumSessions(-1)
+                        .sessionRegistry(sessionRegistry)
+                )
                 .httpBasic(httpBasic -> {
                 });
 
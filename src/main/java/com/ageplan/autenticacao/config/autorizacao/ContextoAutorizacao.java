@@ -0,0 +1,63 @@
+package com.ageplan.autenticacao.config.autorizacao;
+
+import com.ageplan.autenticacao.papel.HierarquiaPapeis;
+import com.ageplan.autenticacao.papel.Papel;
+import com.ageplan.autenticacao.usuario.Usuario;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dados de uma requisição avaliados pelas {@link RegraAutorizacao}: o ID do usuário autenticado,
+ * os seus papéis e as variáveis de caminho da rota.
+ *
+ * @param usuarioId o identificador do usuário autenticado, ou {@code null} se não for conhecido
+ * @param papeis    os papéis do usuário autenticado
+ * @param variaveis as variáveis de caminho da requisição
+ */
+public record ContextoAutorizacao(Long usuarioId, Set<Papel.NomePapel> papeis, Map<String, String> variaveis) {
+
+    private static final String PREFIXO_ROLE = "ROLE_";
+    private static final Map<String, Papel.NomePapel> AUTORIDADES = indexarAutoridades();
+
+    /**
+     * Cria o contexto de uma requisição autenticada. As autoridades que não correspondem a um
+     * {@link Papel.NomePapel}, com ou sem o prefixo {@code ROLE_}, são ignoradas, e os papéis implicados
+     * pela {@link HierarquiaPapeis} são acrescentados.
+     *
+     * @param authentication a autenticação da requisição
+     * @param variaveis      as variáveis de caminho da requisição
+     * @return o contexto criado
+     */
+    public static ContextoAutorizacao de(Authentication authentication, Map<String, String> variaveis) {
+        Set<Papel.NomePapel> papeis = EnumSet.noneOf(Papel.NomePapel.class);
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            Papel.NomePapel papel = AUTORIDADES.get(authority.getAuthority());
+            if (papel != null) {
+                papeis.add(papel);
+            }
+        }
+        Long usuarioId = authentication.getPrincipal() instanceof Usuario usuario ? usuario.getId() : null;
+        return new ContextoAutorizacao(usuarioId, HierarquiaPapeis.expandir(papeis),
+                variaveis == null ? Collections.emptyMap() : variaveis);
+    }
+
+    /**
+     * Monta a tabela das autoridades reconhecidas, com e sem o prefixo {@code ROLE_}.
+     *
+     * @return os papéis indexados pelo nome da autoridade
+     */
+    private static Map<String, Papel.NomePapel> indexarAutoridades() {
+        Map<String, Papel.NomePapel> autoridades = new HashMap<>();
+        for (Papel.NomePapel papel : Papel.NomePapel.values()) {
+            autoridades.put(papel.name(), papel);
+            autoridades.put(PREFIXO_ROLE + papel.name(), papel);
+        }
+        return Map.copyOf(autoridades);
+    }
+}
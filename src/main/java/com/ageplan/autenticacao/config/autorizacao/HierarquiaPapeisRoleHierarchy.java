@@ -0,0 +1,55 @@
+package com.ageplan.autenticacao.config.autorizacao;
+
+import com.ageplan.autenticacao.papel.HierarquiaPapeis;
+import com.ageplan.autenticacao.papel.Papel;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link RoleHierarchy} do Spring Security baseado na tabela de alcançabilidade da {@link HierarquiaPapeis}.
+ * <p>
+ * As autoridades alcançáveis a partir de cada papel são montadas uma única vez, de modo que a
+ * resolução das autoridades de um usuário é apenas uma consulta por papel direto.
+ */
+public final class HierarquiaPapeisRoleHierarchy implements RoleHierarchy {
+
+    private static final String PREFIXO_ROLE = "ROLE_";
+
+    private final Map<String, List<GrantedAuthority>> alcancaveis = new HashMap<>();
+
+    public HierarquiaPapeisRoleHierarchy() {
+        for (Papel.NomePapel papel : Papel.NomePapel.values()) {
+            List<GrantedAuthority> autoridades = HierarquiaPapeis.alcancaveis(papel).stream()
+                    .<GrantedAuthority>map(implicado -> new SimpleGrantedAuthority(PREFIXO_ROLE + implicado.name()))
+                    .toList();
+            alcancaveis.put(papel.name(), autoridades);
+            alcancaveis.put(PREFIXO_ROLE + papel.name(), autoridades);
+        }
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getReachableGrantedAuthorities(
+            Collection<? extends GrantedAuthority> authorities) {
+        if (authorities == null || authorities.isEmpty()) {
+            return List.of();
+        }
+        Set<GrantedAuthority> alcancadas = new LinkedHashSet<>();
+        for (GrantedAuthority authority : authorities) {
+            List<GrantedAuthority> implicadas = alcancaveis.get(authority.getAuthority());
+            if (implicadas == null) {
+                alcancadas.add(authority);
+            } else {
+                alcancadas.addAll(implicadas);
+            }
+        }
+        return alcancadas;
+    }
+}
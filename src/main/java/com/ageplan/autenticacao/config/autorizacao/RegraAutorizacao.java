@@ -0,0 +1,64 @@
+package com.ageplan.autenticacao.config.autorizacao;
+
+import com.ageplan.autenticacao.papel.Papel;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Regra de autorização tipada, avaliada sobre um {@link ContextoAutorizacao}.
+ * <p>
+ * As regras são montadas uma única vez na inicialização, pela combinação das fábricas desta interface,
+ * e avaliadas como predicados Java comuns, sem análise ou interpretação de expressões a cada requisição.
+ */
+@FunctionalInterface
+public interface RegraAutorizacao {
+
+    /**
+     * Avalia a regra.
+     *
+     * @param contexto os dados da requisição
+     * @return true se o acesso for permitido
+     */
+    boolean permite(ContextoAutorizacao contexto);
+
+    /**
+     * Combina esta regra com outra, permitindo o acesso se qualquer uma delas permitir.
+     *
+     * @param outra a outra regra
+     * @return a regra combinada
+     */
+    default RegraAutorizacao ou(RegraAutorizacao outra) {
+        return contexto -> permite(contexto) || outra.permite(contexto);
+    }
+
+    /**
+     * Regra que exige ao menos um dos papéis informados.
+     *
+     * @param papel  o primeiro papel aceito
+     * @param outros os demais papéis aceitos
+     * @return a regra criada
+     */
+    static RegraAutorizacao papel(Papel.NomePapel papel, Papel.NomePapel... outros) {
+        Set<Papel.NomePapel> aceitos = EnumSet.of(papel, outros);
+        return contexto -> {
+            for (Papel.NomePapel possuido : contexto.papeis()) {
+                if (aceitos.contains(possuido)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    /**
+     * Regra que exige que a variável de caminho informada seja o ID do próprio usuário autenticado.
+     *
+     * @param variavel o nome da variável de caminho com o ID do usuário
+     * @return a regra criada
+     */
+    static RegraAutorizacao proprioUsuario(String variavel) {
+        return contexto -> contexto.usuarioId() != null
+                && contexto.usuarioId().toString().equals(contexto.variaveis().get(variavel));
+    }
+}
@@ -0,0 +1,46 @@
+package com.ageplan.autenticacao.config.autorizacao;
+
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.function.Supplier;
+
+/**
+ * {@link AuthorizationManager} que aplica uma {@link RegraAutorizacao} às requisições HTTP.
+ * Requisições anônimas são sempre negadas.
+ */
+public final class RegraAutorizacaoManager implements AuthorizationManager<RequestAuthorizationContext> {
+
+    private static final AuthorizationDecision PERMITIDO = new AuthorizationDecision(true);
+    private static final AuthorizationDecision NEGADO = new AuthorizationDecision(false);
+
+    private final AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+    private final RegraAutorizacao regra;
+
+    private RegraAutorizacaoManager(RegraAutorizacao regra) {
+        this.regra = regra;
+    }
+
+    /**
+     * Cria um gerenciador para uma regra.
+     *
+     * @param regra a regra a ser aplicada
+     * @return o gerenciador criado
+     */
+    public static RegraAutorizacaoManager de(RegraAutorizacao regra) {
+        return new RegraAutorizacaoManager(regra);
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext object) {
+        Authentication autenticacao = authentication.get();
+        if (autenticacao == null || !autenticacao.isAuthenticated() || trustResolver.isAnonymous(autenticacao)) {
+            return NEGADO;
+        }
+        return regra.permite(ContextoAutorizacao.de(autenticacao, object.getVariables())) ? PERMITIDO : NEGADO;
+    }
+}
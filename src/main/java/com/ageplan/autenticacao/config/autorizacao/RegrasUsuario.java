@@ -0,0 +1,36 @@
+package com.ageplan.autenticacao.config.autorizacao;
+
+import com.ageplan.autenticacao.papel.Papel;
+
+import static com.ageplan.autenticacao.config.autorizacao.RegraAutorizacao.papel;
+import static com.ageplan.autenticacao.config.autorizacao.RegraAutorizacao.proprioUsuario;
+
+/**
+ * Regras de autorização dos endpoints de usuários, montadas uma única vez na carga da classe.
+ */
+public final class RegrasUsuario {
+
+    /**
+     * Somente administradores.
+     */
+    public static final RegraAutorizacao ADMIN = papel(Papel.NomePapel.ADMIN);
+
+    /**
+     * Administradores e instrutores.
+     */
+    public static final RegraAutorizacao ADMIN_OU_INSTRUTOR = papel(Papel.NomePapel.ADMIN, Papel.NomePapel.INSTRUTOR);
+
+    /**
+     * Administradores ou o próprio usuário indicado pela variável {@code id}.
+     */
+    public static final RegraAutorizacao ADMIN_OU_PROPRIO = ADMIN.ou(proprioUsuario("id"));
+
+    /**
+     * Administradores, instrutores ou o próprio usuário indicado pela variável {@code id}.
+     */
+    public static final RegraAutorizacao ADMIN_INSTRUTOR_OU_PROPRIO = ADMIN_OU_INSTRUTOR.ou(proprioUsuario("id"));
+
+    private RegrasUsuario() {
+        throw new AssertionError("A classe utilitária RegrasUsuario não deve ser instanciada.");
+    }
+}
@@ -0,0 +1,70 @@
+package com.ageplan.autenticacao.config.cache;
+
+import com.ageplan.autenticacao.papel.Papel;
+import com.ageplan.autenticacao.papel.PapelAlteradoEvent;
+import com.ageplan.autenticacao.usuario.Usuario;
+import com.ageplan.autenticacao.usuario.UsuarioAlteradoEvent;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Invalida as regiões do cache de segundo nível do Hibernate quando usuários ou papéis são alterados.
+ * <p>
+ * As alterações feitas pela sessão já são refletidas no cache pelo próprio Hibernate; esta classe cobre
+ * as escritas que não passam pela sessão (operações em lote e SQL nativo) e as coleções
+ * {@code usuario_papel} que referenciam um papel alterado. A invalidação ocorre somente após o commit.
+ */
+@Component
+public class CacheSegundoNivelInvalidador {
+
+    private static final String PAPEIS_DO_USUARIO = Usuario.class.getName() + ".papeis";
+
+    private final Cache cache;
+
+    /**
+     * Construtor que obtém o cache de segundo nível da fábrica de sessões.
+     *
+     * @param entityManagerFactory a fábrica de gerenciadores de entidade da aplicação
+     */
+    public CacheSegundoNivelInvalidador(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    /**
+     * Remove do cache os usuários afetados e as suas coleções de papéis.
+     *
+     * @param event o evento de alteração de usuários
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsuarioAlterado(UsuarioAlteradoEvent event) {
+        if (event.isTodos()) {
+            cache.evictEntityData(Usuario.class);
+            cache.evictNaturalIdData(Usuario.class);
+            cache.evictCollectionData(PAPEIS_DO_USUARIO);
+            return;
+        }
+        for (Long id : event.ids()) {
+            cache.evictEntityData(Usuario.class, id);
+            cache.evictCollectionData(PAPEIS_DO_USUARIO, id);
+        }
+    }
+
+    /**
+     * Remove do cache o papel alterado e as coleções de papéis dos usuários, que podem referenciá-lo.
+     *
+     * @param event o evento de alteração de papel
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPapelAlterado(PapelAlteradoEvent event) {
+        if (event.isTodos()) {
+            cache.evictEntityData(Papel.class);
+        } else {
+            cache.evictEntityData(Papel.class, event.id());
+        }
+        cache.evictNaturalIdData(Papel.class);
+        cache.evictCollectionData(PAPEIS_DO_USUARIO);
+    }
+}
@@ -0,0 +1,164 @@
+package com.ageplan.autenticacao.config.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.ResourceHolderSupport;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalescência de carregamentos concorrentes da mesma chave ("single-flight").
+ * <p>
+ * Quando várias threads pedem ao mesmo tempo o mesmo valor, por exemplo logo após a expiração do cache
+ * de um usuário muito acessado ou durante um deploy, apenas a primeira executa a consulta; as demais
+ * aguardam o resultado dela e recebem o mesmo valor, ou a mesma exceção. Nada é guardado após o término:
+ * a próxima chamada volta a consultar o banco.
+ * <p>
+ * A consulta da primeira thread é executada em uma transação somente-leitura própria, limitada pelo
+ * tempo máximo configurado com precisão de milissegundos; as threads que aguardam não abrem transação e,
+ * portanto, não ocupam conexões do pool. Com a fragmentação, o fragmento é escolhido pelo carregador dentro
+ * dessa transação, antes do primeiro comando, já que a conexão só é obtida nesse momento. Se o chamador já
+ * estiver em uma transação, o carregamento é executado diretamente nela, sem coalescência, para que ele
+ * enxergue as próprias alterações ainda não confirmadas.
+ * <p>
+ * Uma thread que se junta a um carregamento iniciado antes de um commit recebe o valor anterior a ele.
+ * Quem guarda o resultado deve usar a versão contida no próprio valor, e não uma lida separadamente.
+ */
+@Component
+public class CarregamentoUnico {
+
+    private final Map<Chave, CompletableFuture<Object>> emAndamento = new ConcurrentHashMap<>();
+    private final Map<String, Metricas> metricas = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate leitura;
+    private final long tempoLimiteMs;
+
+    /**
+     * Construtor que injeta as dependências necessárias.
+     *
+     * @param meterRegistry      o registro de métricas
+     * @param transactionManager o gerenciador das transações de leitura
+     * @param tempoLimiteMs      o tempo máximo de uma consulta e da espera pelo seu resultado, em milissegundos
+     */
+    @Autowired
+    public CarregamentoUnico(MeterRegistry meterRegistry, PlatformTransactionManager transactionManager,
+                             @Value("${carregamento.unico.tempo-limite-ms:5000}") long tempoLimiteMs) {
+        this.meterRegistry = meterRegistry;
+        this.tempoLimiteMs = tempoLimiteMs;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+        Gauge.builder("carregamento.unico.em.andamento", emAndamento, Map::size)
+                .description("Carregamentos em execução que podem receber chamadas coalescidas")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Retorna o valor de uma chave, executando o carregador apenas se nenhum carregamento da mesma chave
+     * estiver em andamento; caso contrário, aguarda o resultado do carregamento em andamento.
+     *
+     * @param tipo       o tipo da consulta, que separa as chaves e identifica as métricas
+     * @param chave      a chave consultada
+     * @param carregador a consulta que produz o valor
+     * @param <V>        o tipo do valor
+     * @return o valor carregado
+     * @throws QueryTimeoutException se o carregamento em andamento não terminar dentro do tempo limite
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V carregar(String tipo, Object chave, Supplier<V> carregador) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return carregador.get();
+        }
+        Metricas metricasDoTipo = metricas.computeIfAbsent(tipo, this::registrarMetricas);
+        Chave chaveTipada = new Chave(tipo, chave);
+        CompletableFuture<Object> carregamento = new CompletableFuture<>();
+        CompletableFuture<Object> existente = emAndamento.putIfAbsent(chaveTipada, carregamento);
+        if (existente != null) {
+            metricasDoTipo.coalescidos().increment();
+            return (V) aguardar(existente, metricasDoTipo);
+        }
+
+        metricasDoTipo.carregamentos().increment();
+        try {
+            V valor = leitura.execute(status -> {
+                limitarTransacao();
+                return carregador.get();
+            });
+            carregamento.complete(valor);
+            return valor;
+        } catch (RuntimeException | Error e) {
+            carregamento.completeExceptionally(e);
+            throw e;
+        } finally {
+            emAndamento.remove(chaveTipada, carregamento);
+        }
+    }
+
+    /**
+     * Aplica o tempo limite aos recursos da transação corrente. O {@link TransactionTemplate} só aceita
+     * segundos inteiros; o prazo em milissegundos é conferido pelo Spring antes de cada comando e repassado
+     * como tempo limite das consultas.
+     */
+    private void limitarTransacao() {
+        for (Object recurso : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (recurso instanceof ResourceHolderSupport holder) {
+                holder.setTimeoutInMillis(tempoLimiteMs);
+            }
+        }
+    }
+
+    private Object aguardar(CompletableFuture<Object> carregamento, Metricas metricasDoTipo) {
+        try {
+            return carregamento.get(tempoLimiteMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            metricasDoTipo.tempoEsgotado().increment();
+            throw new QueryTimeoutException("O carregamento em andamento não terminou em " + tempoLimiteMs + " ms", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido enquanto aguardava o carregamento em andamento", e);
+        }
+    }
+
+    private Metricas registrarMetricas(String tipo) {
+        return new Metricas(
+                Counter.builder("carregamento.unico.carregamentos")
+                        .description("Consultas executadas pelo carregamento único")
+                        .tag("tipo", tipo)
+                        .register(meterRegistry),
+                Counter.builder("carregamento.unico.coalescidos")
+                        .description("Chamadas atendidas pelo resultado de uma consulta já em andamento")
+                        .tag("tipo", tipo)
+                        .register(meterRegistry),
+                Counter.builder("carregamento.unico.tempo.esgotado")
+                        .description("Chamadas que desistiram de aguardar uma consulta em andamento")
+                        .tag("tipo", tipo)
+                        .register(meterRegistry));
+    }
+
+    private record Chave(String tipo, Object chave) {
+    }
+
+    private record Metricas(Counter carregamentos, Counter coalescidos, Counter tempoEsgotado) {
+    }
+}
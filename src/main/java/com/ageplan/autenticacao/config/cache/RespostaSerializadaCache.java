@@ -0,0 +1,274 @@
+package com.ageplan.autenticacao.config.cache;
+
+import com.ageplan.autenticacao.config.serializacao.FormatoResposta;
+import com.ageplan.autenticacao.papel.PapelAlteradoEvent;
+import com.ageplan.autenticacao.usuario.UsuarioAlteradoEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Cache dos corpos de resposta já serializados dos endpoints de leitura mais acessados.
+ * <p>
+ * Cada recurso tem uma entrada com os corpos já serializados em cada {@link FormatoResposta}, marcada
+ * com a versão do conteúdo e com a geração dos papéis. Como as respostas de usuários também trazem
+ * os nomes dos papéis, uma alteração de papel apenas avança a geração: as entradas anteriores deixam
+ * de ser aproveitadas, sem percorrer o cache, e são substituídas no próximo acesso ou descartadas
+ * pelo limite de tamanho. As entradas dos usuários alterados são removidas após o commit.
+ * O tamanho total é limitado em bytes.
+ */
+@Component
+public class RespostaSerializadaCache {
+
+    /**
+     * Recurso das respostas de um único usuário.
+     */
+    public static final String USUARIO = "usuario";
+
+    /**
+     * Recurso da resposta com a lista de papéis.
+     */
+    public static final String PAPEIS = "papeis";
+
+    private final Map<FormatoResposta, ObjectMapper> mapeadores = new EnumMap<>(FormatoResposta.class);
+    private final Cache<Chave, Entrada> cache;
+    private final AtomicLong geracaoPapeis = new AtomicLong();
+
+    private final Counter acertos;
+    private final Counter falhas;
+    private final Counter bytesEconomizados;
+
+    /**
+     * Construtor que injeta as dependências necessárias.
+     *
+     * @param objectMapper  o mapeador JSON da aplicação
+     * @param meterRegistry o registro de métricas
+     * @param tamanhoMaximo o total de bytes que o cache pode manter
+     */
+    @Autowired
+    public RespostaSerializadaCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                    @Value("${resposta.cache.tamanho-maximo-bytes:33554432}") long tamanhoMaximo) {
+        for (FormatoResposta formato : FormatoResposta.values()) {
+            mapeadores.put(formato, objectMapper.copyWith(formato.criarFactory()));
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(tamanhoMaximo)
+                .<Chave, Entrada>weigher((chave, entrada) -> entrada.peso())
+                .build();
+        this.acertos = Counter.builder("resposta.cache.acertos")
+                .description("Respostas servidas a partir dos bytes em cache")
+                .register(meterRegistry);
+        this.falhas = Counter.builder("resposta.cache.falhas")
+                .description("Respostas que precisaram ser serializadas")
+                .register(meterRegistry);
+        this.bytesEconomizados = Counter.builder("resposta.cache.bytes.economizados")
+                .description("Bytes servidos sem serialização")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("resposta.cache.taxa.acertos", this, RespostaSerializadaCache::taxaDeAcertos)
+                .description("Proporção de respostas servidas a partir do cache")
+                .register(meterRegistry);
+        Gauge.builder("resposta.cache.entradas", cache, Cache::estimatedSize)
+                .description("Quantidade estimada de respostas em cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Retorna os bytes da resposta JSON de um recurso em uma versão, serializando o valor apenas se
+     * essa versão ainda não estiver em cache.
+     *
+     * @param recurso o nome do recurso
+     * @param id      o identificador do recurso
+     * @param versao  a versão do conteúdo
+     * @param valor   o fornecedor do valor a ser serializado em caso de falha
+     * @return o corpo JSON da resposta, em UTF-8
+     */
+    public byte[] obter(String recurso, Object id, long versao, Supplier<?> valor) {
+        return obter(recurso, id, versao, FormatoResposta.JSON, valor);
+    }
+
+    /**
+     * Retorna os bytes da resposta de um recurso em uma versão e formato, serializando o valor
+     * apenas se essa combinação ainda não estiver em cache.
+     *
+     * @param recurso o nome do recurso
+     * @param id      o identificador do recurso
+     * @param versao  a versão do conteúdo
+     * @param formato o formato negociado da resposta
+     * @param valor   o fornecedor do valor a ser serializado em caso de falha
+     * @return o corpo da resposta no formato pedido
+     */
+    public byte[] obter(String recurso, Object id, long versao, FormatoResposta formato, Supplier<?> valor) {
+        return obter(recurso, id, versao, formato, valor, carregado -> versao).corpo();
+    }
+
+    /**
+     * Retorna a resposta de um recurso cuja versão é conferida novamente no valor carregado. A versão
+     * informada só decide se os bytes em cache podem ser usados; em caso de falha, o corpo é gravado com
+     * a versão do valor efetivamente carregado, que pode ser anterior ou posterior à informada quando
+     * houver uma escrita entre a leitura da versão e a do valor.
+     *
+     * @param recurso       o nome do recurso
+     * @param id            o identificador do recurso
+     * @param versao        a versão esperada do conteúdo
+     * @param formato       o formato negociado da resposta
+     * @param valor         o fornecedor do valor a ser serializado em caso de falha
+     * @param versaoDoValor a função que lê a versão do valor carregado
+     * @param <T>           o tipo do valor
+     * @return o corpo da resposta e a versão a que ele corresponde
+     */
+    public <T> Resposta obter(String recurso, Object id, long versao, FormatoResposta formato,
+                              Supplier<? extends T> valor, ToLongFunction<? super T> versaoDoValor) {
+        Chave chave = new Chave(recurso, id);
+        long geracao = geracaoPapeis.get();
+        Entrada entrada = cache.getIfPresent(chave);
+        byte[] bytes = entrada != null ? entrada.corpo(versao, geracao, formato) : null;
+        if (bytes != null) {
+            acertos.increment();
+            bytesEconomizados.increment(bytes.length);
+            return new Resposta(versao, bytes);
+        }
+        falhas.increment();
+        T carregado = valor.get();
+        long versaoCarregada = versaoDoValor.applyAsLong(carregado);
+        byte[] serializado = serializar(formato, carregado);
+        cache.asMap().compute(chave, (c, atual) -> atual == null
+                ? Entrada.de(versaoCarregada, geracao, formato, serializado)
+                : atual.com(versaoCarregada, geracao, formato, serializado));
+        return new Resposta(versaoCarregada, serializado);
+    }
+
+    /**
+     * Retorna a versão atual da lista de papéis, incrementada a cada alteração de papel.
+     *
+     * @return a geração atual dos papéis
+     */
+    public long getGeracaoPapeis() {
+        return geracaoPapeis.get();
+    }
+
+    /**
+     * Remove as respostas dos usuários alterados.
+     *
+     * @param event o evento de alteração de usuários
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsuarioAlterado(UsuarioAlteradoEvent event) {
+        if (event.isTodos()) {
+            cache.asMap().keySet().removeIf(chave -> USUARIO.equals(chave.recurso()));
+            return;
+        }
+        event.ids().forEach(id -> cache.invalidate(new Chave(USUARIO, id)));
+    }
+
+    /**
+     * Avança a geração dos papéis, o que invalida de uma vez a lista de papéis e as respostas de usuários.
+     *
+     * @param event o evento de alteração de papel
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPapelAlterado(PapelAlteradoEvent event) {
+        geracaoPapeis.incrementAndGet();
+    }
+
+    /**
+     * Calcula a proporção de acertos desde o início da aplicação.
+     *
+     * @return a taxa de acertos, entre 0 e 1
+     */
+    private double taxaDeAcertos() {
+        double total = acertos.count() + falhas.count();
+        return total == 0 ? 0 : acertos.count() / total;
+    }
+
+    /**
+     * Serializa um valor no formato informado.
+     *
+     * @param formato o formato da resposta
+     * @param valor   o valor a ser serializado
+     * @return os bytes da representação
+     */
+    private byte[] serializar(FormatoResposta formato, Object valor) {
+        try {
+            return mapeadores.get(formato).writeValueAsBytes(valor);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Corpo de uma resposta e a versão do conteúdo que ele representa.
+     *
+     * @param versao a versão do conteúdo serializado
+     * @param corpo  os bytes da resposta
+     */
+    public record Resposta(long versao, byte[] corpo) {
+    }
+
+    /**
+     * Chave das respostas em cache de um recurso.
+     *
+     * @param recurso o nome do recurso
+     * @param id      o identificador do recurso
+     */
+    private record Chave(String recurso, Object id) {
+    }
+
+    /**
+     * Corpos serializados de um recurso em uma versão e geração dos papéis, um por formato.
+     *
+     * @param versao  a versão do conteúdo
+     * @param geracao a geração dos papéis em que os corpos foram serializados
+     * @param corpos  os corpos por formato, que não são alterados depois de criados
+     */
+    private record Entrada(long versao, long geracao, Map<FormatoResposta, byte[]> corpos) {
+
+        static Entrada de(long versao, long geracao, FormatoResposta formato, byte[] corpo) {
+            Map<FormatoResposta, byte[]> corpos = new EnumMap<>(FormatoResposta.class);
+            corpos.put(formato, corpo);
+            return new Entrada(versao, geracao, corpos);
+        }
+
+        /**
+         * Retorna o corpo no formato pedido, se esta entrada for da versão e da geração informadas.
+         */
+        byte[] corpo(long versao, long geracao, FormatoResposta formato) {
+            return this.versao == versao && this.geracao == geracao ? corpos.get(formato) : null;
+        }
+
+        /**
+         * Retorna uma entrada com o corpo acrescentado. Corpos de outra versão ou geração são descartados,
+         * e um corpo mais antigo que esta entrada não a substitui.
+         */
+        Entrada com(long versao, long geracao, FormatoResposta formato, byte[] corpo) {
+            if (versao < this.versao || geracao < this.geracao) {
+                return this;
+            }
+            if (versao != this.versao || geracao != this.geracao) {
+                return de(versao, geracao, formato, corpo);
+            }
+            Map<FormatoResposta, byte[]> novos = new EnumMap<>(corpos);
+            novos.put(formato, corpo);
+            return new Entrada(versao, geracao, novos);
+        }
+
+        int peso() {
+            return corpos.values().stream().mapToInt(corpo -> corpo.length).sum();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.ageplan.autenticacao.config.concorrencia;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Limite adaptativo de requisições simultâneas nos endpoints de autenticação e de escrita de usuários.
+ * <p>
+ * O limite segue a regra AIMD guiada pela latência: é reduzido multiplicativamente quando uma requisição
+ * demora mais que {@code tolerancia} vezes a menor latência recente da sua prioridade, ou termina em erro
+ * do servidor, e cresce uma unidade quando as requisições em andamento ocupam ao menos metade dele. A menor
+ * latência é renovada a cada {@code janela} amostras, para acompanhar mudanças do banco ou do custo do BCrypt,
+ * e é mantida separadamente por prioridade, porque um login com BCrypt é naturalmente mais lento que uma
+ * escrita de uma sessão já autenticada.
+ * <p>
+ * Requisições de sessões já autenticadas podem ocupar todo o limite; logins e autenticações HTTP Basic
+ * ocupam no máximo a fração {@code fracaoNovas} dele, de modo que, sob sobrecarga, são as primeiras a
+ * serem recusadas.
+ */
+@Component
+public class LimitadorAdaptativo {
+
+    private static final double FATOR_REDUCAO = 0.9;
+
+    /**
+     * Prioridade de uma requisição limitada.
+     */
+    public enum Prioridade {
+
+        /**
+         * Requisição de uma sessão já autenticada.
+         */
+        AUTENTICADA,
+
+        /**
+         * Login ou requisição que precisa verificar credenciais.
+         */
+        NOVA
+    }
+
+    private final AtomicInteger emAndamento = new AtomicInteger();
+    private final Map<Prioridade, Referencia> referencias = new EnumMap<>(Prioridade.class);
+    private final Map<Prioridade, Counter> rejeitadas = new EnumMap<>(Prioridade.class);
+    private final boolean habilitado;
+    private final int limiteMinimo;
+    private final int limiteMaximo;
+    private final double tolerancia;
+    private final double fracaoNovas;
+    private final int janela;
+    private final LongSupplier relogioNs;
+    private volatile double limite;
+
+    /**
+     * Construtor que injeta as dependências necessárias.
+     *
+     * @param meterRegistry o registro de métricas
+     * @param habilitado    indica se o limite é aplicado
+     * @param limiteInicial o limite usado antes das primeiras amostras
+     * @param limiteMinimo  o menor limite possível
+     * @param limiteMaximo  o maior limite possível
+     * @param tolerancia    quantas vezes a menor latência recente uma requisição pode levar sem reduzir o limite
+     * @param fracaoNovas   a fração do limite disponível para logins e autenticações HTTP Basic
+     * @param janela        a quantidade de amostras após a qual a menor latência é renovada
+     */
+    @Autowired
+    public LimitadorAdaptativo(MeterRegistry meterRegistry,
+                               @Value("${limite.concorrencia.habilitado:true}") boolean habilitado,
+                               @Value("${limite.concorrencia.inicial:50}") int limiteInicial,
+                               @Value("${limite.concorrencia.minimo:8}") int limiteMinimo,
+                               @Value("${limite.concorrencia.maximo:500}") int limiteMaximo,
+                               @Value("${limite.concorrencia.tolerancia:2.0}") double tolerancia,
+                               @Value("${limite.concorrencia.fracao-novas:0.75}") double fracaoNovas,
+                               @Value("${limite.concorrencia.janela:1000}") int janela) {
+        this(meterRegistry, habilitado, limiteInicial, limiteMinimo, limiteMaximo, tolerancia, fracaoNovas, janela,
+                System::nanoTime);
+    }
+
+    LimitadorAdaptativo(MeterRegistry meterRegistry, boolean habilitado, int limiteInicial, int limiteMinimo,
+                        int limiteMaximo, double tolerancia, double fracaoNovas, int janela, LongSupplier relogioNs) {
+        this.habilitado = habilitado;
+        this.limiteMinimo = limiteMinimo;
+        this.limiteMaximo = limiteMaximo;
+        this.tolerancia = tolerancia;
+        this.fracaoNovas = fracaoNovas;
+        this.janela = janela;
+        this.relogioNs = relogioNs;
+        this.limite = Math.clamp(limiteInicial, limiteMinimo, limiteMaximo);
+        for (Prioridade prioridade : Prioridade.values()) {
+            referencias.put(prioridade, new Referencia());
+            rejeitadas.put(prioridade, Counter.builder("limite.concorrencia.rejeitadas")
+                    .description("Requisições recusadas com 503 por exceder o limite de concorrência")
+                    .tag("prioridade", prioridade.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+        Gauge.builder("limite.concorrencia.limite", this, LimitadorAdaptativo::getLimite)
+                .description("Limite atual de requisições simultâneas")
+                .register(meterRegistry);
+        Gauge.builder("limite.concorrencia.em.andamento", emAndamento, AtomicInteger::get)
+                .description("Requisições limitadas em andamento")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Tenta reservar uma vaga para uma requisição.
+     *
+     * @param prioridade a prioridade da requisição
+     * @return a permissão, que deve ser concluída ao fim da requisição, ou vazio se não houver vaga
+     */
+    public Optional<Permissao> adquirir(Prioridade prioridade) {
+        int teto = teto(prioridade);
+        while (true) {
+            int atual = emAndamento.get();
+            if (atual >= teto) {
+                rejeitadas.get(prioridade).increment();
+                return Optional.empty();
+            }
+            if (emAndamento.compareAndSet(atual, atual + 1)) {
+                return Optional.of(new Permissao(prioridade, relogioNs.getAsLong()));
+            }
+        }
+    }
+
+    /**
+     * Indica se o limite é aplicado.
+     *
+     * @return {@code true} se o limite estiver habilitado
+     */
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Retorna o limite atual de requisições simultâneas.
+     *
+     * @return o limite atual
+     */
+    public int getLimite() {
+        return (int) limite;
+    }
+
+    /**
+     * Retorna a quantidade de requisições limitadas em andamento.
+     *
+     * @return as requisições em andamento
+     */
+    public int getEmAndamento() {
+        return emAndamento.get();
+    }
+
+    private int teto(Prioridade prioridade) {
+        int atual = (int) limite;
+        return prioridade == Prioridade.AUTENTICADA ? atual : Math.max(1, (int) (atual * fracaoNovas));
+    }
+
+    private synchronized void registrar(Prioridade prioridade, long latenciaNs, int ocupadas, boolean falha) {
+        long menorLatencia = referencias.get(prioridade).registrar(latenciaNs, janela);
+        if (falha || latenciaNs > menorLatencia * tolerancia) {
+            limite = Math.max(limiteMinimo, limite * FATOR_REDUCAO);
+        } else if (ocupadas * 2 >= limite) {
+            limite = Math.min(limiteMaximo, limite + 1);
+        }
+    }
+
+    /**
+     * Vaga reservada por uma requisição, que deve ser concluída exatamente uma vez.
+     */
+    public final class Permissao {
+
+        private final Prioridade prioridade;
+        private final long inicio;
+
+        private Permissao(Prioridade prioridade, long inicio) {
+            this.prioridade = prioridade;
+            this.inicio = inicio;
+        }
+
+        /**
+         * Libera a vaga e registra a latência observada.
+         *
+         * @param falha indica se a requisição terminou em erro do servidor, o que também reduz o limite
+         */
+        public void concluir(boolean falha) {
+            int ocupadas = emAndamento.getAndDecrement();
+            registrar(prioridade, relogioNs.getAsLong() - inicio, ocupadas, falha);
+        }
+    }
+
+    /**
+     * Menor latência recente de uma prioridade. Acessada apenas sob o monitor do limitador.
+     */
+    private static final class Referencia {
+
+        private long menor = Long.MAX_VALUE;
+        private long menorDaJanela = Long.MAX_VALUE;
+        private int amostras;
+
+        long registrar(long latenciaNs, int janela) {
+            menor = Math.min(menor, latenciaNs);
+            menorDaJanela = Math.min(menorDaJanela, latenciaNs);
+            if (++amostras >= janela) {
+                menor = menorDaJanela;
+                menorDaJanela = Long.MAX_VALUE;
+                amostras = 0;
+            }
+            return menor;
+        }
+    }
+}
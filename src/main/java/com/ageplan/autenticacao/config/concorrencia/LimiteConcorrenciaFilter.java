@@ -0,0 +1,115 @@
+package com.ageplan.autenticacao.config.concorrencia;
+
+import com.ageplan.autenticacao.config.concorrencia.LimitadorAdaptativo.Permissao;
+import com.ageplan.autenticacao.config.concorrencia.LimitadorAdaptativo.Prioridade;
+import com.ageplan.autenticacao.config.exceptions.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Filtro que aplica o {@link LimitadorAdaptativo} antes da autenticação, recusando com 503 o excesso de
+ * requisições de login, de autenticação HTTP Basic e de escrita de usuários, em vez de enfileirá-las atrás
+ * do BCrypt e do pool de conexões. As demais requisições não passam pelo limite.
+ */
+public class LimiteConcorrenciaFilter extends OncePerRequestFilter {
+
+    private static final String LOGIN = "/api/login";
+    private static final String USUARIOS = "/api/usuarios";
+    private static final Set<String> ESCRITAS = Set.of(
+            HttpMethod.POST.name(), HttpMethod.PUT.name(), HttpMethod.PATCH.name(), HttpMethod.DELETE.name());
+
+    private final LimitadorAdaptativo limitador;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Construtor que injeta as dependências necessárias.
+     *
+     * @param limitador    o limitador de requisições simultâneas
+     * @param objectMapper o mapeador usado para escrever a resposta de erro
+     */
+    public LimiteConcorrenciaFilter(LimitadorAdaptativo limitador, ObjectMapper objectMapper) {
+        this.limitador = limitador;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String caminho = request.getRequestURI().substring(request.getContextPath().length());
+        return !ehLogin(request, caminho) && !ehHttpBasic(request) && !ehEscritaDeUsuarios(request, caminho);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String caminho = request.getRequestURI().substring(request.getContextPath().length());
+        Prioridade prioridade = !ehLogin(request, caminho) && sessaoAutenticada(request)
+                ? Prioridade.AUTENTICADA
+                : Prioridade.NOVA;
+        Optional<Permissao> permissao = limitador.adquirir(prioridade);
+        if (permissao.isEmpty()) {
+            recusar(response);
+            return;
+        }
+        boolean falha = true;
+        try {
+            filterChain.doFilter(request, response);
+            falha = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            permissao.get().concluir(falha);
+        }
+    }
+
+    private void recusar(HttpServletResponse response) throws IOException {
+        ErrorResponse erro = new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Serviço sobrecarregado, tente novamente em instantes");
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), erro);
+    }
+
+    private static boolean ehLogin(HttpServletRequest request, String caminho) {
+        return HttpMethod.POST.matches(request.getMethod()) && LOGIN.equals(caminho);
+    }
+
+    private static boolean ehHttpBasic(HttpServletRequest request) {
+        String autorizacao = request.getHeader(HttpHeaders.AUTHORIZATION);
+        return autorizacao != null && autorizacao.regionMatches(true, 0, "Basic ", 0, 6);
+    }
+
+    private static boolean ehEscritaDeUsuarios(HttpServletRequest request, String caminho) {
+        return ESCRITAS.contains(request.getMethod())
+                && (caminho.equals(USUARIOS) || caminho.startsWith(USUARIOS + "/"));
+    }
+
+    private static boolean sessaoAutenticada(HttpServletRequest request) {
+        HttpSession sessao = request.getSession(false);
+        if (sessao == null) {
+            return false;
+        }
+        Object contexto = sessao.getAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY);
+        if (!(contexto instanceof SecurityContext securityContext)) {
+            return false;
+        }
+        Authentication autenticacao = securityContext.getAuthentication();
+        return autenticacao != null && autenticacao.isAuthenticated()
+                && !(autenticacao instanceof AnonymousAuthenticationToken);
+    }
+}
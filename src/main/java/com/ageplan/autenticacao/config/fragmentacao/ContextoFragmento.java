@@ -0,0 +1,39 @@
+package com.ageplan.autenticacao.config.fragmentacao;
+
+/**
+ * Guarda, por thread, o fragmento em que a transação corrente deve executar.
+ * Lido pelo {@link FragmentoRoutingDataSource} no momento em que a conexão é obtida.
+ */
+public final class ContextoFragmento {
+
+    private static final ThreadLocal<Integer> FRAGMENTO = new ThreadLocal<>();
+
+    private ContextoFragmento() {
+        throw new AssertionError("A classe utilitária ContextoFragmento não deve ser instanciada.");
+    }
+
+    /**
+     * Retorna o fragmento definido para a thread corrente.
+     *
+     * @return o número do fragmento, ou {@code null} se nenhum foi definido
+     */
+    public static Integer atual() {
+        return FRAGMENTO.get();
+    }
+
+    /**
+     * Define o fragmento da thread corrente.
+     *
+     * @param fragmento o número do fragmento
+     */
+    public static void definir(int fragmento) {
+        FRAGMENTO.set(fragmento);
+    }
+
+    /**
+     * Remove o fragmento definido para a thread corrente.
+     */
+    public static void limpar() {
+        FRAGMENTO.remove();
+    }
+}
@@ -0,0 +1,188 @@
+package com.ageplan.autenticacao.config.fragmentacao;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Configuração da fragmentação dos usuários entre vários bancos, ativada por {@code fragmentacao.habilitada=true}.
+ * <p>
+ * O DataSource da aplicação passa a ser um {@link FragmentoRoutingDataSource} sobre os fragmentos configurados,
+ * envolvido por um {@link LazyConnectionDataSourceProxy}: a conexão física só é obtida no primeiro comando da
+ * transação, depois de o {@link RoteadorUsuarios} ter escolhido o fragmento, mesmo nas transações somente
+ * leitura, em que o {@code JpaTransactionManager} prepara a conexão já na abertura.
+ * Cada fragmento é migrado com os scripts da aplicação e com {@code db/fragmento}, que ajusta a geração de ids;
+ * o índice global é migrado com {@code db/indice}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "fragmentacao", name = "habilitada", havingValue = "true")
+@EnableConfigurationProperties(FragmentacaoProperties.class)
+public class FragmentacaoConfig {
+
+    /**
+     * DataSource da aplicação, que adia a obtenção da conexão até o primeiro comando para que o roteamento
+     * aconteça depois de o fragmento ter sido escolhido.
+     *
+     * @param fragmentoRoutingDataSource o DataSource com roteamento entre os fragmentos
+     * @return o DataSource de conexão tardia
+     */
+    @Bean
+    @Primary
+    public LazyConnectionDataSourceProxy dataSource(FragmentoRoutingDataSource fragmentoRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(fragmentoRoutingDataSource);
+        dataSource.setDefaultAutoCommit(false);
+        return dataSource;
+    }
+
+    /**
+     * DataSource que direciona cada transação ao fragmento escolhido.
+     *
+     * @param properties as propriedades da fragmentação
+     * @return o DataSource com roteamento entre os fragmentos
+     */
+    @Bean
+    public FragmentoRoutingDataSource fragmentoRoutingDataSource(FragmentacaoProperties properties) {
+        List<FragmentacaoProperties.Fonte> fragmentos = properties.fragmentos();
+        if (fragmentos == null || fragmentos.isEmpty()) {
+            throw new IllegalStateException("Informe ao menos um banco em fragmentacao.fragmentos");
+        }
+        Map<Object, Object> destinos = new HashMap<>();
+        for (int fragmento = 0; fragmento < fragmentos.size(); fragmento++) {
+            destinos.put(fragmento, criarDataSource(fragmentos.get(fragmento), "fragmento-" + fragmento));
+        }
+        FragmentoRoutingDataSource dataSource = new FragmentoRoutingDataSource();
+        dataSource.setTargetDataSources(destinos);
+        dataSource.setDefaultTargetDataSource(destinos.get(0));
+        return dataSource;
+    }
+
+    /**
+     * Faz o Hibernate adiar a obtenção da conexão até o primeiro comando, já que as conexões
+     * dos fragmentos são criadas sem auto-commit.
+     *
+     * @return o customizador das propriedades do Hibernate
+     */
+    @Bean
+    public HibernatePropertiesCustomizer conexaoTardiaCustomizer() {
+        return propriedades -> propriedades.put(AvailableSettings.CONNECTION_PROVIDER_DISABLES_AUTOCOMMIT, true);
+    }
+
+    /**
+     * Substitui a migração do DataSource principal pela migração de cada fragmento.
+     *
+     * @param dataSource o DataSource com roteamento entre os fragmentos
+     * @return a estratégia de migração
+     */
+    @Bean
+    public FlywayMigrationStrategy migracaoFragmentos(FragmentoRoutingDataSource dataSource) {
+        return flyway -> {
+            Map<Object, DataSource> fragmentos = dataSource.getResolvedDataSources();
+            for (Map.Entry<Object, DataSource> entrada : fragmentos.entrySet()) {
+                int fragmento = (Integer) entrada.getKey();
+                Flyway.configure()
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(entrada.getValue())
+                        .locations(Stream.concat(
+                                Stream.of(flyway.getConfiguration().getLocations()).map(Object::toString),
+                                Stream.of("classpath:db/fragmento/" + fornecedor(entrada.getValue())))
+                                .toArray(String[]::new))
+                        .placeholders(Map.of(
+                                "primeiro_id", String.valueOf(fragmento + 1),
+                                "total_fragmentos", String.valueOf(fragmentos.size())))
+                        .load()
+                        .migrate();
+            }
+        };
+    }
+
+    /**
+     * Banco do índice global de nomes de usuário e emails. Os comandos do índice usam auto-commit.
+     *
+     * @param properties as propriedades da fragmentação
+     * @return o pool de conexões do índice
+     */
+    @Bean
+    public HikariDataSource indiceUsuariosDataSource(FragmentacaoProperties properties) {
+        if (properties.indice() == null) {
+            throw new IllegalStateException("Informe o banco do índice global em fragmentacao.indice");
+        }
+        HikariDataSource dataSource = criarDataSource(properties.indice(), "indice-usuarios");
+        dataSource.setAutoCommit(true);
+        return dataSource;
+    }
+
+    /**
+     * Índice global de nomes de usuário e emails, migrado com {@code db/indice}.
+     *
+     * @param indiceUsuariosDataSource o banco do índice global
+     * @return o índice global
+     */
+    @Bean
+    public IndiceGlobalUsuarios indiceGlobalUsuarios(HikariDataSource indiceUsuariosDataSource) {
+        Flyway.configure()
+                .dataSource(indiceUsuariosDataSource)
+                .locations("classpath:db/indice/" + fornecedor(indiceUsuariosDataSource))
+                .load()
+                .migrate();
+        return new IndiceGlobalUsuarios(indiceUsuariosDataSource);
+    }
+
+    /**
+     * Roteador que distribui os usuários entre os fragmentos.
+     *
+     * @param indiceGlobalUsuarios o índice global
+     * @param properties           as propriedades da fragmentação
+     * @param transactionManager   o gerenciador de transações da aplicação
+     * @return o roteador de usuários
+     */
+    @Bean
+    public RoteadorUsuariosFragmentado roteadorUsuarios(IndiceGlobalUsuarios indiceGlobalUsuarios,
+                                                        FragmentacaoProperties properties,
+                                                        PlatformTransactionManager transactionManager) {
+        return new RoteadorUsuariosFragmentado(indiceGlobalUsuarios, properties.fragmentos().size(), transactionManager);
+    }
+
+    /**
+     * Cria o pool de conexões de um banco, sem auto-commit.
+     *
+     * @param fonte os dados de conexão
+     * @param nome  o nome do pool
+     * @return o pool de conexões
+     */
+    private static HikariDataSource criarDataSource(FragmentacaoProperties.Fonte fonte, String nome) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(nome);
+        dataSource.setJdbcUrl(fonte.url());
+        dataSource.setUsername(fonte.usuario());
+        dataSource.setPassword(fonte.senha());
+        dataSource.setAutoCommit(false);
+        return dataSource;
+    }
+
+    /**
+     * Identifica o banco pela URL JDBC, com os mesmos nomes usados em {@code {vendor}} (h2, postgresql).
+     *
+     * @param dataSource o pool de conexões
+     * @return o identificador do banco
+     */
+    private static String fornecedor(DataSource dataSource) {
+        String url = ((HikariDataSource) dataSource).getJdbcUrl();
+        return DatabaseDriver.fromJdbcUrl(url).getId();
+    }
+}
@@ -0,0 +1,26 @@
+package com.ageplan.autenticacao.config.fragmentacao;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Propriedades da fragmentação (sharding) da tabela de usuários, com o prefixo {@code fragmentacao}.
+ *
+ * @param habilitada indica se os usuários são distribuídos entre vários bancos
+ * @param fragmentos os bancos que guardam os usuários, na ordem que define o número de cada fragmento
+ * @param indice     o banco do índice global de nomes de usuário e emails
+ */
+@ConfigurationProperties(prefix = "fragmentacao")
+public record FragmentacaoProperties(boolean habilitada, List<Fonte> fragmentos, Fonte indice) {
+
+    /**
+     * Dados de conexão de um banco.
+     *
+     * @param url     a URL JDBC
+     * @param usuario o usuário do banco
+     * @param senha   a senha do banco
+     */
+    public record Fonte(String url, String usuario, String senha) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.ageplan.autenticacao.config.fragmentacao;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * DataSource que entrega a conexão do fragmento definido em {@link ContextoFragmento}.
+ * Sem fragmento definido, usa o fragmento padrão (0), onde ficam os dados de referência como os papéis.
+ * <p>
+ * A aplicação o usa por trás de um {@code LazyConnectionDataSourceProxy} (ver {@code FragmentacaoConfig}), de modo
+ * que a conexão só é obtida no primeiro comando da transação e o serviço pode escolher o fragmento depois de a
+ * transação ter sido aberta.
+ */
+public class FragmentoRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ContextoFragmento.atual();
+    }
+
+    /**
+     * Fecha os pools de conexões dos fragmentos.
+     *
+     * @throws Exception se algum pool não puder ser fechado
+     */
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : getResolvedDataSources().values()) {
+            if (dataSource instanceof AutoCloseable fechavel) {
+                fechavel.close();
+            }
+        }
+    }
+}
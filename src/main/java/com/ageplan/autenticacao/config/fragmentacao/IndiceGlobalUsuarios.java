@@ -0,0 +1,72 @@
+package com.ageplan.autenticacao.config.fragmentacao;
+
+import com.ageplan.autenticacao.config.fragmentacao.RoteadorUsuarios.TipoChave;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.OptionalInt;
+
+/**
+ * Índice global que associa cada nome de usuário e email normalizados ao fragmento que guarda o usuário.
+ * <p>
+ * A chave primária {@code (tipo, chave)} da tabela {@code indice_usuario} garante a unicidade entre todos
+ * os fragmentos: uma chave é reservada antes de o usuário ser gravado e a inserção duplicada falha.
+ * Cada comando executa na sua própria transação, fora da transação do fragmento.
+ */
+public class IndiceGlobalUsuarios {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Construtor que recebe o banco do índice, já migrado.
+     *
+     * @param dataSource o banco do índice global
+     */
+    public IndiceGlobalUsuarios(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Reserva uma chave para o fragmento informado.
+     *
+     * @param tipo      o tipo da chave
+     * @param chave     o valor normalizado
+     * @param fragmento o fragmento que guarda o usuário
+     * @throws IllegalArgumentException se a chave já estiver reservada
+     */
+    public void reservar(TipoChave tipo, String chave, int fragmento) {
+        try {
+            jdbcTemplate.update("INSERT INTO indice_usuario (tipo, chave, fragmento) VALUES (?, ?, ?)",
+                    tipo.name(), chave, fragmento);
+        } catch (DuplicateKeyException e) {
+            throw new IllegalArgumentException(tipo == TipoChave.EMAIL
+                    ? "Email já está em uso"
+                    : "Nome de usuário já está em uso", e);
+        }
+    }
+
+    /**
+     * Libera uma chave reservada.
+     *
+     * @param tipo  o tipo da chave
+     * @param chave o valor normalizado
+     */
+    public void liberar(TipoChave tipo, String chave) {
+        jdbcTemplate.update("DELETE FROM indice_usuario WHERE tipo = ? AND chave = ?", tipo.name(), chave);
+    }
+
+    /**
+     * Localiza o fragmento que guarda a chave.
+     *
+     * @param tipo  o tipo da chave
+     * @param chave o valor normalizado
+     * @return o fragmento, ou vazio se a chave não estiver reservada
+     */
+    public OptionalInt localizar(TipoChave tipo, String chave) {
+        List<Integer> fragmentos = jdbcTemplate.queryForList(
+                "SELECT fragmento FROM indice_usuario WHERE tipo = ? AND chave = ?", Integer.class, tipo.name(), chave);
+        return fragmentos.isEmpty() ? OptionalInt.empty() : OptionalInt.of(fragmentos.get(0));
+    }
+}
@@ -0,0 +1,84 @@
+package com.ageplan.autenticacao.config.fragmentacao;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Escolhe o banco em que as operações de usuário são executadas.
+ * <p>
+ * Os métodos que direcionam a transação corrente devem ser chamados pelo serviço antes do primeiro
+ * comando SQL da transação. Com a fragmentação desabilitada ({@link RoteadorUsuariosUnico}) eles não
+ * fazem nada e a unicidade continua garantida pelas restrições do banco único.
+ */
+public interface RoteadorUsuarios {
+
+    /**
+     * Direciona a transação corrente para o fragmento que guarda o usuário com o id informado.
+     *
+     * @param id o identificador do usuário
+     */
+    void porId(Long id);
+
+    /**
+     * Direciona a transação corrente para o fragmento que guarda o nome de usuário ou email informado.
+     *
+     * @param login o nome de usuário ou email, com ou sem normalização
+     */
+    void porLogin(String login);
+
+    /**
+     * Reserva o nome de usuário e o email de um novo usuário e direciona a transação corrente para o
+     * fragmento em que ele será gravado. A reserva é desfeita se a transação não for confirmada.
+     *
+     * @param nomeUsuarioNormalizado o nome de usuário normalizado
+     * @param emailNormalizado       o email normalizado
+     * @throws IllegalArgumentException se o nome de usuário ou o email já estiverem em uso
+     */
+    void paraNovoUsuario(String nomeUsuarioNormalizado, String emailNormalizado);
+
+    /**
+     * Troca a reserva de um nome de usuário ou email do usuário da transação corrente. A nova chave é
+     * reservada imediatamente e a anterior só é liberada após o commit.
+     *
+     * @param tipo     o tipo da chave
+     * @param anterior o valor normalizado atual
+     * @param nova     o novo valor normalizado
+     * @throws IllegalArgumentException se a nova chave já estiver em uso
+     */
+    void trocarChave(TipoChave tipo, String anterior, String nova);
+
+    /**
+     * Libera no índice global, após o commit, as chaves dos usuários excluídos pela transação corrente,
+     * para que possam ser usadas por novos cadastros. Deve ser chamado antes da exclusão, enquanto os
+     * usuários ainda são visíveis; sem índice global, as chaves não são consultadas.
+     *
+     * @param chaves a consulta das chaves dos usuários que serão excluídos
+     */
+    void liberarChaves(Supplier<List<ChavesUsuario>> chaves);
+
+    /**
+     * Executa a consulta em todos os fragmentos, cada um na sua própria transação somente leitura.
+     *
+     * @param consulta a consulta executada em cada fragmento
+     * @param <T>      o tipo do resultado
+     * @return um resultado por fragmento
+     */
+    <T> List<T> emTodos(Supplier<T> consulta);
+
+    /**
+     * Tipos de chave únicas mantidas no índice global.
+     */
+    enum TipoChave {
+        NOME_USUARIO,
+        EMAIL
+    }
+
+    /**
+     * Chaves únicas de um usuário mantidas no índice global.
+     *
+     * @param nomeUsuarioNormalizado o nome de usuário normalizado
+     * @param emailNormalizado       o email normalizado
+     */
+    record ChavesUsuario(String nomeUsuarioNormalizado, String emailNormalizado) {
+    }
+}
@@ -0,0 +1,208 @@
+package com.ageplan.autenticacao.config.fragmentacao;
+
+import com.ageplan.autenticacao.usuario.Usuario;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * Roteador que distribui os usuários entre vários fragmentos.
+ * <p>
+ * Um novo usuário é gravado no fragmento dado pelo hash estável (CRC32) do seu nome de usuário normalizado.
+ * Cada fragmento gera ids a partir de {@code fragmento + 1} com incremento igual ao total de fragmentos
+ * (migração {@code db/fragmento}), de modo que o fragmento de um id é obtido por aritmética, sem consulta.
+ * Nomes de usuário e emails são resolvidos pelo {@link IndiceGlobalUsuarios}, que também garante a unicidade
+ * entre fragmentos. Consultas sem chave são executadas em paralelo em todos os fragmentos.
+ */
+public class RoteadorUsuariosFragmentado implements RoteadorUsuarios, AutoCloseable {
+
+    private final IndiceGlobalUsuarios indice;
+    private final int totalFragmentos;
+    private final TransactionTemplate leituraIsolada;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Construtor que recebe o índice global e a quantidade de fragmentos.
+     *
+     * @param indice             o índice global de nomes de usuário e emails
+     * @param totalFragmentos    a quantidade de fragmentos
+     * @param transactionManager o gerenciador de transações da aplicação
+     */
+    public RoteadorUsuariosFragmentado(IndiceGlobalUsuarios indice, int totalFragmentos,
+                                       PlatformTransactionManager transactionManager) {
+        this.indice = indice;
+        this.totalFragmentos = totalFragmentos;
+        this.leituraIsolada = new TransactionTemplate(transactionManager);
+        this.leituraIsolada.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.leituraIsolada.setReadOnly(true);
+    }
+
+    /**
+     * Calcula o fragmento que gerou o id.
+     *
+     * @param id              o identificador do usuário
+     * @param totalFragmentos a quantidade de fragmentos
+     * @return o número do fragmento
+     */
+    static int fragmentoDoId(long id, int totalFragmentos) {
+        return (int) Math.floorMod(id - 1, (long) totalFragmentos);
+    }
+
+    /**
+     * Calcula o fragmento de uma chave pelo seu CRC32, que não depende da JVM nem da execução.
+     *
+     * @param chave           o valor normalizado
+     * @param totalFragmentos a quantidade de fragmentos
+     * @return o número do fragmento
+     */
+    static int fragmentoDaChave(String chave, int totalFragmentos) {
+        CRC32 crc = new CRC32();
+        crc.update(chave.getBytes(StandardCharsets.UTF_8));
+        return (int) (crc.getValue() % totalFragmentos);
+    }
+
+    @Override
+    public void porId(Long id) {
+        if (id != null) {
+            direcionar(fragmentoDoId(id, totalFragmentos));
+        }
+    }
+
+    @Override
+    public void porLogin(String login) {
+        if (login == null) {
+            return;
+        }
+        String normalizado = Usuario.normalizar(login);
+        OptionalInt fragmento = normalizado.indexOf('@') >= 0
+                ? indice.localizar(TipoChave.EMAIL, normalizado)
+                : OptionalInt.empty();
+        if (fragmento.isEmpty()) {
+            fragmento = indice.localizar(TipoChave.NOME_USUARIO, normalizado);
+        }
+        fragmento.ifPresent(this::direcionar);
+    }
+
+    @Override
+    public void paraNovoUsuario(String nomeUsuarioNormalizado, String emailNormalizado) {
+        int fragmento = fragmentoDaChave(nomeUsuarioNormalizado, totalFragmentos);
+        indice.reservar(TipoChave.NOME_USUARIO, nomeUsuarioNormalizado, fragmento);
+        try {
+            indice.reservar(TipoChave.EMAIL, emailNormalizado, fragmento);
+        } catch (RuntimeException e) {
+            indice.liberar(TipoChave.NOME_USUARIO, nomeUsuarioNormalizado);
+            throw e;
+        }
+        direcionar(fragmento);
+        aoConcluir(confirmada -> {
+            if (!confirmada) {
+                indice.liberar(TipoChave.NOME_USUARIO, nomeUsuarioNormalizado);
+                indice.liberar(TipoChave.EMAIL, emailNormalizado);
+            }
+        });
+    }
+
+    @Override
+    public void trocarChave(TipoChave tipo, String anterior, String nova) {
+        Integer fragmento = ContextoFragmento.atual();
+        if (fragmento == null) {
+            throw new IllegalStateException("A transação não está direcionada a um fragmento");
+        }
+        indice.reservar(tipo, nova, fragmento);
+        aoConcluir(confirmada -> indice.liberar(tipo, confirmada ? anterior : nova));
+    }
+
+    @Override
+    public void liberarChaves(Supplier<List<ChavesUsuario>> chaves) {
+        List<ChavesUsuario> excluidos = chaves.get();
+        if (excluidos.isEmpty()) {
+            return;
+        }
+        aoConcluir(confirmada -> {
+            if (confirmada) {
+                for (ChavesUsuario chave : excluidos) {
+                    indice.liberar(TipoChave.NOME_USUARIO, chave.nomeUsuarioNormalizado());
+                    indice.liberar(TipoChave.EMAIL, chave.emailNormalizado());
+                }
+            }
+        });
+    }
+
+    @Override
+    public <T> List<T> emTodos(Supplier<T> consulta) {
+        List<CompletableFuture<T>> resultados = new ArrayList<>(totalFragmentos);
+        for (int fragmento = 0; fragmento < totalFragmentos; fragmento++) {
+            int atual = fragmento;
+            resultados.add(CompletableFuture.supplyAsync(() -> {
+                ContextoFragmento.definir(atual);
+                try {
+                    return leituraIsolada.execute(status -> consulta.get());
+                } finally {
+                    ContextoFragmento.limpar();
+                }
+            }, executor));
+        }
+        return resultados.stream().map(CompletableFuture::join).toList();
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    /**
+     * Define o fragmento da transação corrente, que não pode mudar depois de escolhido.
+     * O fragmento é removido da thread quando a transação termina.
+     *
+     * @param fragmento o número do fragmento
+     * @throws IllegalStateException se a transação já estiver em outro fragmento
+     */
+    private void direcionar(int fragmento) {
+        Integer atual = ContextoFragmento.atual();
+        if (atual != null) {
+            if (atual != fragmento) {
+                throw new IllegalStateException("A transação já está no fragmento " + atual);
+            }
+            return;
+        }
+        ContextoFragmento.definir(fragmento);
+        aoConcluir(confirmada -> ContextoFragmento.limpar());
+    }
+
+    /**
+     * Registra uma ação para o término da transação corrente.
+     *
+     * @param acao a ação, que recebe {@code true} se a transação foi confirmada
+     */
+    private static void aoConcluir(AcaoConclusao acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("O roteamento de usuários exige uma transação ativa");
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                acao.executar(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    /**
+     * Ação executada ao término de uma transação.
+     */
+    @FunctionalInterface
+    private interface AcaoConclusao {
+        void executar(boolean confirmada);
+    }
+}
@@ -0,0 +1,45 @@
+package com.ageplan.autenticacao.config.fragmentacao;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Roteador usado quando a fragmentação está desabilitada: todos os usuários ficam no banco único.
+ */
+@Component
+@ConditionalOnProperty(prefix = "fragmentacao", name = "habilitada", havingValue = "false", matchIfMissing = true)
+public class RoteadorUsuariosUnico implements RoteadorUsuarios {
+
+    @Override
+    public void porId(Long id) {
+        // banco único: nada a direcionar
+    }
+
+    @Override
+    public void porLogin(String login) {
+        // banco único: nada a direcionar
+    }
+
+    @Override
+    public void paraNovoUsuario(String nomeUsuarioNormalizado, String emailNormalizado) {
+        // a unicidade é garantida pelas restrições do banco único
+    }
+
+    @Override
+    public void trocarChave(TipoChave tipo, String anterior, String nova) {
+        // a unicidade é garantida pelas restrições do banco único
+    }
+
+    @Override
+    public void liberarChaves(Supplier<List<ChavesUsuario>> chaves) {
+        // sem índice global: as restrições do banco único consideram apenas os usuários ativos
+    }
+
+    @Override
+    public <T> List<T> emTodos(Supplier<T> consulta) {
+        return List.of(consulta.get());
+    }
+}
@@ -0,0 +1,39 @@
+package com.ageplan.autenticacao.config.invalidacao;
+
+/**
+ * Canal que entrega as mensagens de invalidação a todos os nós.
+ */
+public interface BarramentoInvalidacao {
+
+    /**
+     * Envia uma mensagem a todos os nós, inclusive ao próprio.
+     *
+     * @param mensagem a mensagem codificada
+     */
+    void publicar(String mensagem);
+
+    /**
+     * Registra o receptor das mensagens deste nó.
+     *
+     * @param receptor o receptor
+     */
+    void assinar(Receptor receptor);
+
+    /**
+     * Receptor das mensagens entregues pelo barramento.
+     */
+    interface Receptor {
+
+        /**
+         * Recebe uma mensagem.
+         *
+         * @param mensagem a mensagem codificada
+         */
+        void receber(String mensagem);
+
+        /**
+         * Avisa que mensagens podem ter sido perdidas, por exemplo após a queda da conexão.
+         */
+        void mensagensPerdidas();
+    }
+}
@@ -0,0 +1,23 @@
+package com.ageplan.autenticacao.config.invalidacao;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Barramento em processo, usado em desenvolvimento e nos testes: entrega as mensagens, na thread que
+ * publica, a todos os receptores registrados na mesma instância.
+ */
+public class BarramentoInvalidacaoLocal implements BarramentoInvalidacao {
+
+    private final List<Receptor> receptores = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publicar(String mensagem) {
+        receptores.forEach(receptor -> receptor.receber(mensagem));
+    }
+
+    @Override
+    public void assinar(Receptor receptor) {
+        receptores.add(receptor);
+    }
+}
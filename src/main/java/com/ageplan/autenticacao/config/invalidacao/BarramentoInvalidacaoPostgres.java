@@ -0,0 +1,199 @@
+package com.ageplan.autenticacao.config.invalidacao;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Barramento sobre o LISTEN/NOTIFY do PostgreSQL.
+ * <p>
+ * Usa duas conexões próprias, fora do pool: uma fica em LISTEN no canal e entrega as notificações a uma
+ * thread dedicada, e a outra publica com {@code pg_notify} em auto-commit. Se a conexão de escuta cair,
+ * ela é refeita e os receptores são avisados de que mensagens podem ter sido perdidas.
+ * <p>
+ * Mensagens que não puderam ser publicadas ficam pendentes, na ordem, e são reenviadas antes da próxima
+ * publicação ou quando a thread de escuta está ociosa. Uma falha de um receptor é registrada e não
+ * interrompe a entrega das demais notificações.
+ */
+public class BarramentoInvalidacaoPostgres implements BarramentoInvalidacao, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(BarramentoInvalidacaoPostgres.class);
+
+    private static final Pattern NOME_CANAL = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final int ESPERA_NOTIFICACOES_MS = 500;
+    private static final long ESPERA_RECONEXAO_MS = 1000;
+    private static final int LIMITE_PENDENTES = 1000;
+
+    private final String url;
+    private final String usuario;
+    private final String senha;
+    private final String canal;
+    private final List<Receptor> receptores = new CopyOnWriteArrayList<>();
+    private final Thread escuta;
+    private final Deque<String> pendentes = new ArrayDeque<>();
+    private volatile boolean ativo = true;
+    private Connection conexaoPublicacao;
+
+    /**
+     * Construtor que recebe os dados de conexão e o canal.
+     *
+     * @param url     a URL JDBC do PostgreSQL
+     * @param usuario o usuário do banco
+     * @param senha   a senha do banco
+     * @param canal   o nome do canal do LISTEN/NOTIFY
+     * @throws IllegalArgumentException se o nome do canal não for um identificador simples
+     */
+    public BarramentoInvalidacaoPostgres(String url, String usuario, String senha, String canal) {
+        if (!NOME_CANAL.matcher(canal).matches()) {
+            throw new IllegalArgumentException("Nome de canal inválido: " + canal);
+        }
+        this.url = url;
+        this.usuario = usuario;
+        this.senha = senha;
+        this.canal = canal;
+        this.escuta = Thread.ofPlatform().name("invalidacao-listen").daemon().unstarted(this::escutar);
+    }
+
+    @Override
+    public synchronized void publicar(String mensagem) {
+        if (pendentes.size() == LIMITE_PENDENTES) {
+            // os outros nós percebem a mensagem descartada pelo salto na sequência e descartam os seus caches
+            logger.warn("Limite de {} invalidações pendentes no canal {} atingido; descartando a mais antiga",
+                    LIMITE_PENDENTES, canal);
+            pendentes.removeFirst();
+        }
+        pendentes.addLast(mensagem);
+        enviarPendentes();
+    }
+
+    @Override
+    public synchronized void assinar(Receptor receptor) {
+        receptores.add(receptor);
+        if (escuta.getState() == Thread.State.NEW) {
+            escuta.start();
+        }
+    }
+
+    @Override
+    public void close() {
+        ativo = false;
+        escuta.interrupt();
+        synchronized (this) {
+            fecharConexaoPublicacao();
+        }
+    }
+
+    /**
+     * Reenvia as mensagens pendentes, se houver, reabrindo a conexão de publicação.
+     */
+    private synchronized void reenviarPendentes() {
+        if (!pendentes.isEmpty()) {
+            enviarPendentes();
+        }
+    }
+
+    /**
+     * Publica as mensagens pendentes na ordem; a que falhar e as seguintes continuam pendentes.
+     */
+    private void enviarPendentes() {
+        try {
+            if (conexaoPublicacao == null || conexaoPublicacao.isClosed()) {
+                conexaoPublicacao = DriverManager.getConnection(url, usuario, senha);
+            }
+            try (PreparedStatement notificacao = conexaoPublicacao.prepareStatement("SELECT pg_notify(?, ?)")) {
+                while (!pendentes.isEmpty()) {
+                    notificacao.setString(1, canal);
+                    notificacao.setString(2, pendentes.peekFirst());
+                    notificacao.execute();
+                    pendentes.removeFirst();
+                }
+            }
+        } catch (SQLException e) {
+            logger.warn("Falha ao publicar no canal {}; {} invalidações pendentes serão reenviadas",
+                    canal, pendentes.size(), e);
+            fecharConexaoPublicacao();
+        }
+    }
+
+    /**
+     * Laço da thread de escuta: mantém a conexão em LISTEN e entrega as notificações aos receptores.
+     */
+    private void escutar() {
+        boolean reconexao = false;
+        while (ativo) {
+            try (Connection conexao = DriverManager.getConnection(url, usuario, senha);
+                 Statement comando = conexao.createStatement()) {
+                comando.execute("LISTEN " + canal);
+                if (reconexao) {
+                    entregar(Receptor::mensagensPerdidas);
+                }
+                reconexao = true;
+                PGConnection pgConnection = conexao.unwrap(PGConnection.class);
+                while (ativo) {
+                    PGNotification[] notificacoes = pgConnection.getNotifications(ESPERA_NOTIFICACOES_MS);
+                    if (notificacoes == null) {
+                        reenviarPendentes();
+                        continue;
+                    }
+                    for (PGNotification notificacao : notificacoes) {
+                        if (canal.equals(notificacao.getName())) {
+                            entregar(receptor -> receptor.receber(notificacao.getParameter()));
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (ativo) {
+                    logger.warn("Conexão de escuta do canal {} perdida; reconectando", canal, e);
+                    aguardarReconexao();
+                }
+            }
+        }
+    }
+
+    /**
+     * Entrega um evento a cada receptor, registrando a falha de um sem deixar de entregar aos demais.
+     */
+    private void entregar(Consumer<Receptor> entrega) {
+        for (Receptor receptor : receptores) {
+            try {
+                entrega.accept(receptor);
+            } catch (RuntimeException e) {
+                logger.error("Falha ao processar a invalidação recebida no canal {}", canal, e);
+            }
+        }
+    }
+
+    private void aguardarReconexao() {
+        try {
+            Thread.sleep(ESPERA_RECONEXAO_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ativo = false;
+        }
+    }
+
+    private void fecharConexaoPublicacao() {
+        if (conexaoPublicacao == null) {
+            return;
+        }
+        try {
+            conexaoPublicacao.close();
+        } catch (SQLException e) {
+            logger.debug("Falha ao fechar a conexão de publicação", e);
+        }
+        conexaoPublicacao = null;
+    }
+}
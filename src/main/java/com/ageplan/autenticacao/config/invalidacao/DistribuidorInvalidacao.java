@@ -0,0 +1,184 @@
+package com.ageplan.autenticacao.config.invalidacao;
+
+import com.ageplan.autenticacao.papel.PapelAlteradoEvent;
+import com.ageplan.autenticacao.usuario.UsuarioAlteradoEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Propaga as alterações de usuários e papéis aos outros nós e aplica as alterações recebidas deles.
+ * <p>
+ * Após o commit, os eventos {@link UsuarioAlteradoEvent} e {@link PapelAlteradoEvent} deste nó são acumulados
+ * por uma janela curta e enviados em uma única {@link MensagemInvalidacao} numerada. As mensagens de outros nós
+ * são republicadas como os mesmos eventos, de modo que os caches locais as tratam como alterações locais.
+ * Se a sequência de um nó saltar ou o barramento avisar de perdas, todos os caches são descartados.
+ */
+public class DistribuidorInvalidacao implements BarramentoInvalidacao.Receptor, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DistribuidorInvalidacao.class);
+
+    private static final ThreadLocal<Boolean> APLICANDO_REMOTA = ThreadLocal.withInitial(() -> false);
+
+    private final String origem = UUID.randomUUID().toString().substring(0, 8);
+    private final BarramentoInvalidacao barramento;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long janelaMs;
+    private final ScheduledExecutorService agendador = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("invalidacao-envio").daemon().factory());
+    private final AtomicBoolean envioAgendado = new AtomicBoolean();
+    private final Map<String, Long> ultimasSequencias = new ConcurrentHashMap<>();
+    private final Object pendentesLock = new Object();
+    private long sequencia;
+    private Set<Long> usuariosPendentes = new HashSet<>();
+    private Set<Long> papeisPendentes = new HashSet<>();
+
+    /**
+     * Construtor que registra o distribuidor no barramento.
+     *
+     * @param barramento     o barramento entre os nós
+     * @param eventPublisher o publicador dos eventos locais
+     * @param janelaMs       o tempo, em milissegundos, durante o qual as alterações são acumuladas
+     */
+    public DistribuidorInvalidacao(BarramentoInvalidacao barramento, ApplicationEventPublisher eventPublisher, long janelaMs) {
+        this.barramento = barramento;
+        this.eventPublisher = eventPublisher;
+        this.janelaMs = janelaMs;
+        barramento.assinar(this);
+    }
+
+    /**
+     * Acumula os usuários alterados por este nó para o próximo envio.
+     *
+     * @param event o evento de alteração de usuários
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsuarioAlterado(UsuarioAlteradoEvent event) {
+        if (APLICANDO_REMOTA.get()) {
+            return;
+        }
+        synchronized (pendentesLock) {
+            if (event.isTodos()) {
+                usuariosPendentes = null;
+            } else if (usuariosPendentes != null) {
+                usuariosPendentes.addAll(event.ids());
+            }
+        }
+        agendarEnvio();
+    }
+
+    /**
+     * Acumula os papéis alterados por este nó para o próximo envio.
+     *
+     * @param event o evento de alteração de papel
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPapelAlterado(PapelAlteradoEvent event) {
+        if (APLICANDO_REMOTA.get()) {
+            return;
+        }
+        synchronized (pendentesLock) {
+            if (event.isTodos()) {
+                papeisPendentes = null;
+            } else if (papeisPendentes != null) {
+                papeisPendentes.add(event.id());
+            }
+        }
+        agendarEnvio();
+    }
+
+    /**
+     * Envia em uma única mensagem as alterações acumuladas, se houver.
+     */
+    void enviarPendentes() {
+        envioAgendado.set(false);
+        MensagemInvalidacao mensagem;
+        synchronized (pendentesLock) {
+            boolean vazia = usuariosPendentes != null && usuariosPendentes.isEmpty()
+                    && papeisPendentes != null && papeisPendentes.isEmpty();
+            if (vazia) {
+                return;
+            }
+            mensagem = new MensagemInvalidacao(origem, ++sequencia, usuariosPendentes, papeisPendentes);
+            usuariosPendentes = new HashSet<>();
+            papeisPendentes = new HashSet<>();
+        }
+        barramento.publicar(mensagem.codificar());
+    }
+
+    @Override
+    public void receber(String texto) {
+        MensagemInvalidacao mensagem = MensagemInvalidacao.decodificar(texto);
+        if (origem.equals(mensagem.origem())) {
+            return;
+        }
+        Long ultima = ultimasSequencias.put(mensagem.origem(), mensagem.sequencia());
+        if (ultima != null && mensagem.sequencia() <= ultima) {
+            ultimasSequencias.put(mensagem.origem(), ultima);
+            return;
+        }
+        if (ultima != null && mensagem.sequencia() != ultima + 1) {
+            logger.warn("Mensagens {}..{} do nó {} perdidas; descartando todos os caches",
+                    ultima + 1, mensagem.sequencia() - 1, mensagem.origem());
+            descartarTudo();
+            return;
+        }
+        aplicar(mensagem);
+    }
+
+    @Override
+    public void mensagensPerdidas() {
+        logger.warn("O barramento de invalidação pode ter perdido mensagens; descartando todos os caches");
+        descartarTudo();
+    }
+
+    @Override
+    public void close() {
+        agendador.shutdown();
+        enviarPendentes();
+    }
+
+    /**
+     * Publica localmente as alterações recebidas de outro nó.
+     *
+     * @param mensagem a mensagem recebida
+     */
+    private void aplicar(MensagemInvalidacao mensagem) {
+        APLICANDO_REMOTA.set(true);
+        try {
+            if (mensagem.usuarios() == null || !mensagem.usuarios().isEmpty()) {
+                eventPublisher.publishEvent(mensagem.usuarios() == null
+                        ? UsuarioAlteradoEvent.todos()
+                        : UsuarioAlteradoEvent.de(mensagem.usuarios()));
+            }
+            if (mensagem.papeis() == null) {
+                eventPublisher.publishEvent(PapelAlteradoEvent.todos());
+            } else {
+                mensagem.papeis().forEach(id -> eventPublisher.publishEvent(new PapelAlteradoEvent(id)));
+            }
+        } finally {
+            APLICANDO_REMOTA.remove();
+        }
+    }
+
+    private void descartarTudo() {
+        aplicar(new MensagemInvalidacao(origem, 0, null, null));
+    }
+
+    private void agendarEnvio() {
+        if (envioAgendado.compareAndSet(false, true)) {
+            agendador.schedule(this::enviarPendentes, janelaMs, TimeUnit.MILLISECONDS);
+        }
+    }
+}
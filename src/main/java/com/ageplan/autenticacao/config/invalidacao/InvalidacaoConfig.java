@@ -0,0 +1,62 @@
+package com.ageplan.autenticacao.config.invalidacao;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuração da invalidação de caches entre nós.
+ * <p>
+ * O barramento é escolhido por {@code invalidacao.barramento}: {@code postgres} usa o LISTEN/NOTIFY do
+ * PostgreSQL (produção) e {@code local}, o padrão, entrega as mensagens apenas dentro do processo.
+ */
+@Configuration
+public class InvalidacaoConfig {
+
+    /**
+     * Barramento sobre o LISTEN/NOTIFY do PostgreSQL.
+     *
+     * @param url     a URL JDBC, por padrão a do DataSource da aplicação
+     * @param usuario o usuário do banco
+     * @param senha   a senha do banco
+     * @param canal   o nome do canal
+     * @return o barramento
+     */
+    @Bean
+    @ConditionalOnProperty(name = "invalidacao.barramento", havingValue = "postgres")
+    public BarramentoInvalidacaoPostgres barramentoInvalidacaoPostgres(
+            @Value("${invalidacao.postgres.url:${spring.datasource.url}}") String url,
+            @Value("${invalidacao.postgres.usuario:${spring.datasource.username}}") String usuario,
+            @Value("${invalidacao.postgres.senha:${spring.datasource.password}}") String senha,
+            @Value("${invalidacao.postgres.canal:invalidacao_usuarios}") String canal) {
+        return new BarramentoInvalidacaoPostgres(url, usuario, senha, canal);
+    }
+
+    /**
+     * Barramento em processo, usado em desenvolvimento e nos testes.
+     *
+     * @return o barramento
+     */
+    @Bean
+    @ConditionalOnProperty(name = "invalidacao.barramento", havingValue = "local", matchIfMissing = true)
+    public BarramentoInvalidacaoLocal barramentoInvalidacaoLocal() {
+        return new BarramentoInvalidacaoLocal();
+    }
+
+    /**
+     * Distribuidor que publica as alterações deste nó e aplica as dos outros.
+     *
+     * @param barramento     o barramento escolhido
+     * @param eventPublisher o publicador dos eventos locais
+     * @param janelaMs       a janela de acúmulo das alterações, em milissegundos
+     * @return o distribuidor
+     */
+    @Bean
+    public DistribuidorInvalidacao distribuidorInvalidacao(BarramentoInvalidacao barramento,
+                                                           ApplicationEventPublisher eventPublisher,
+                                                           @Value("${invalidacao.janela-ms:2}") long janelaMs) {
+        return new DistribuidorInvalidacao(barramento, eventPublisher, janelaMs);
+    }
+}
@@ -0,0 +1,71 @@
+package com.ageplan.autenticacao.config.invalidacao;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Mensagem trocada entre os nós com os usuários e papéis a invalidar.
+ * <p>
+ * A forma textual é compacta, por exemplo {@code a1b2;42;15,16;*}: origem, sequência, ids de usuários e ids
+ * de papéis, em que {@code *} invalida todos e o campo vazio não invalida nenhum. Conjuntos maiores que
+ * {@value #MAXIMO_IDS} ids viram {@code *}, o que mantém a mensagem abaixo do limite do NOTIFY (8000 bytes).
+ *
+ * @param origem    o identificador do nó que publicou a mensagem
+ * @param sequencia o número da mensagem no nó de origem, começando em 1
+ * @param usuarios  os ids dos usuários alterados, ou {@code null} para todos
+ * @param papeis    os ids dos papéis alterados, ou {@code null} para todos
+ */
+public record MensagemInvalidacao(String origem, long sequencia, Set<Long> usuarios, Set<Long> papeis) {
+
+    /**
+     * Quantidade máxima de ids enviados por conjunto.
+     */
+    static final int MAXIMO_IDS = 400;
+
+    private static final String TODOS = "*";
+    private static final String SEPARADOR = ";";
+
+    /**
+     * Converte a mensagem para a forma textual.
+     *
+     * @return a mensagem codificada
+     */
+    public String codificar() {
+        return origem + SEPARADOR + sequencia + SEPARADOR + codificarIds(usuarios) + SEPARADOR + codificarIds(papeis);
+    }
+
+    /**
+     * Lê uma mensagem da forma textual.
+     *
+     * @param texto a mensagem codificada
+     * @return a mensagem
+     * @throws IllegalArgumentException se o texto não estiver no formato esperado
+     */
+    public static MensagemInvalidacao decodificar(String texto) {
+        String[] partes = texto.split(SEPARADOR, -1);
+        if (partes.length != 4) {
+            throw new IllegalArgumentException("Mensagem de invalidação inválida: " + texto);
+        }
+        return new MensagemInvalidacao(partes[0], Long.parseLong(partes[1]), decodificarIds(partes[2]),
+                decodificarIds(partes[3]));
+    }
+
+    private static String codificarIds(Set<Long> ids) {
+        if (ids == null || ids.size() > MAXIMO_IDS) {
+            return TODOS;
+        }
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private static Set<Long> decodificarIds(String ids) {
+        if (TODOS.equals(ids)) {
+            return null;
+        }
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        return Arrays.stream(ids.split(",")).map(Long::valueOf).collect(Collectors.toCollection(HashSet::new));
+    }
+}
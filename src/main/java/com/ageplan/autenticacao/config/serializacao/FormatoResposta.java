@@ -0,0 +1,106 @@
+package com.ageplan.autenticacao.config.serializacao;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Enumeração dos formatos de representação negociáveis pelos endpoints da API.
+ * <p>
+ * O JSON continua sendo o formato padrão; CBOR e Smile são formatos binários com o mesmo contrato
+ * de DTOs, destinados às chamadas entre serviços.
+ */
+public enum FormatoResposta {
+    JSON(MediaType.APPLICATION_JSON, JsonFactory::new),
+    CBOR(MediaType.valueOf("application/cbor"), CBORFactory::new),
+    SMILE(MediaType.valueOf("application/x-jackson-smile"), SmileFactory::new);
+
+    private final MediaType mediaType;
+    private final Supplier<JsonFactory> factory;
+
+    FormatoResposta(MediaType mediaType, Supplier<JsonFactory> factory) {
+        this.mediaType = mediaType;
+        this.factory = factory;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Cria uma nova fábrica Jackson para o formato.
+     *
+     * @return a fábrica de geradores e parsers do formato
+     */
+    public JsonFactory criarFactory() {
+        return factory.get();
+    }
+
+    /**
+     * Escolhe o formato da resposta a partir do cabeçalho Accept, respeitando os valores de qualidade.
+     * A qualidade de cada formato é a da faixa mais específica que o inclui, de modo que
+     * {@code q=0} recusa o formato mesmo quando um curinga o aceitaria. Em caso de empate vence a faixa
+     * que aparece primeiro no cabeçalho. Curingas, cabeçalhos ausentes ou inválidos, ou sem nenhum
+     * formato aceito, resultam em JSON.
+     *
+     * @param accept o valor do cabeçalho Accept, possivelmente nulo
+     * @return o formato aceito de maior qualidade
+     */
+    public static FormatoResposta negociar(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        List<MediaType> aceitos;
+        try {
+            aceitos = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        FormatoResposta escolhido = JSON;
+        double melhorQualidade = 0;
+        int melhorPosicao = Integer.MAX_VALUE;
+        for (FormatoResposta formato : values()) {
+            int posicao = faixaMaisEspecifica(formato.mediaType, aceitos);
+            if (posicao < 0) {
+                continue;
+            }
+            double qualidade = aceitos.get(posicao).getQualityValue();
+            if (qualidade > melhorQualidade || (qualidade == melhorQualidade && qualidade > 0 && posicao < melhorPosicao)) {
+                escolhido = formato;
+                melhorQualidade = qualidade;
+                melhorPosicao = posicao;
+            }
+        }
+        return escolhido;
+    }
+
+    /**
+     * Encontra a faixa mais específica do Accept que inclui um tipo de mídia.
+     *
+     * @param tipo     o tipo de mídia do formato
+     * @param aceitos  as faixas do cabeçalho Accept, na ordem em que aparecem
+     * @return a posição da faixa, ou -1 se nenhuma incluir o tipo
+     */
+    private static int faixaMaisEspecifica(MediaType tipo, List<MediaType> aceitos) {
+        int posicao = -1;
+        for (int i = 0; i < aceitos.size(); i++) {
+            MediaType aceito = aceitos.get(i);
+            if (aceito.includes(tipo) && (posicao < 0 || especificidade(aceito) > especificidade(aceitos.get(posicao)))) {
+                posicao = i;
+            }
+        }
+        return posicao;
+    }
+
+    private static int especificidade(MediaType faixa) {
+        if (faixa.isWildcardType()) {
+            return 0;
+        }
+        return faixa.isWildcardSubtype() ? 1 : 2;
+    }
+}
@@ -0,0 +1,42 @@
+package com.ageplan.autenticacao.config.serializacao;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Configuração dos conversores HTTP binários (CBOR e Smile).
+ * <p>
+ * Os conversores reutilizam a configuração do {@link ObjectMapper} da aplicação, de modo que os DTOs
+ * mantêm o mesmo contrato em qualquer formato. A escolha do formato segue os cabeçalhos Accept e
+ * Content-Type da requisição, e o JSON continua sendo o padrão.
+ */
+@Configuration
+public class SerializacaoBinariaConfig {
+
+    /**
+     * Conversor para o formato CBOR ({@code application/cbor}).
+     *
+     * @param objectMapper o mapeador JSON da aplicação
+     * @return o conversor CBOR
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2CborHttpMessageConverter(
+                objectMapper.copyWith(FormatoResposta.CBOR.criarFactory()));
+    }
+
+    /**
+     * Conversor para o formato Smile ({@code application/x-jackson-smile}).
+     *
+     * @param objectMapper o mapeador JSON da aplicação
+     * @return o conversor Smile
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2SmileHttpMessageConverter(
+                objectMapper.copyWith(FormatoResposta.SMILE.criarFactory()));
+    }
+}
@@ -0,0 +1,80 @@
+package com.ageplan.autenticacao.introspeccao;
+
+import com.ageplan.autenticacao.config.exceptions.ErrorResponse;
+import com.ageplan.autenticacao.usuario.Usuario;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controlador REST para a emissão de tokens de acesso e a introspecção de credenciais.
+ * Os serviços consumidores usam a introspecção para autorizar as suas próprias requisições em lote.
+ */
+@RestController
+@RequestMapping("/api")
+public class IntrospeccaoController {
+
+    private final IntrospeccaoService introspeccaoService;
+
+    /**
+     * Construtor que injeta o serviço de introspecção.
+     *
+     * @param introspeccaoService o serviço de introspecção a ser injetado
+     */
+    @Autowired
+    public IntrospeccaoController(IntrospeccaoService introspeccaoService) {
+        this.introspeccaoService = introspeccaoService;
+    }
+
+    /**
+     * Endpoint para verificar um lote de tokens de acesso e IDs de sessão.
+     *
+     * @param requisicao as credenciais a serem verificadas
+     * @return uma ResponseEntity contendo o resultado de cada credencial e o status HTTP 200 (OK)
+     */
+    @PostMapping("/introspeccao")
+    public ResponseEntity<RespostaIntrospeccaoDTO> introspectar(@RequestBody RequisicaoIntrospeccaoDTO requisicao) {
+        return ResponseEntity.ok(introspeccaoService.introspectar(requisicao));
+    }
+
+    /**
+     * Endpoint para emitir um token de acesso para o usuário autenticado.
+     *
+     * @param usuario o usuário autenticado
+     * @return uma ResponseEntity contendo o token emitido e o status HTTP 201 (Created)
+     */
+    @PostMapping("/tokens")
+    public ResponseEntity<TokenEmitidoDTO> emitirToken(@AuthenticationPrincipal Usuario usuario) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(introspeccaoService.emitirToken(usuario));
+    }
+
+    /**
+     * Endpoint para revogar um token de acesso do usuário autenticado.
+     * O token é recebido no corpo, e não na URL, para não ser registrado em logs de acesso.
+     *
+     * @param usuario   o usuário autenticado
+     * @param revogacao o token a revogar
+     * @return uma ResponseEntity com o status HTTP 204 (No Content)
+     */
+    @PostMapping("/tokens/revogacao")
+    public ResponseEntity<Void> revogarToken(@AuthenticationPrincipal Usuario usuario,
+                                             @Valid @RequestBody RevogacaoTokenDTO revogacao) {
+        introspeccaoService.revogarToken(usuario, revogacao.token());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Manipulador de exceção para IllegalArgumentException.
+     *
+     * @param e a exceção lançada
+     * @return uma ResponseEntity contendo a resposta de erro e o status HTTP 400 (Bad Request)
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException e) {
+        ErrorResponse errorResponse = new ErrorResponse(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+}
@@ -0,0 +1,27 @@
+package com.ageplan.autenticacao.introspeccao;
+
+import com.ageplan.autenticacao.usuario.Usuario;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositório de leitura dos dados de autorização dos usuários.
+ * Expõe apenas projeções, sem carregar entidades no contexto de persistência.
+ */
+public interface IntrospeccaoRepository extends Repository<Usuario, Long> {
+
+    /**
+     * Busca os dados de autorização de um conjunto de usuários, com uma linha por papel.
+     *
+     * @param ids os identificadores dos usuários
+     * @return as linhas encontradas
+     */
+    @Query("SELECT new com.ageplan.autenticacao.introspeccao.PrincipalLinha(u.id, u.nomeUsuario, u.enabled, " +
+            "u.accountNonLocked, u.accountNonExpired, u.credentialsNonExpired, p.nomePapel) " +
+            "FROM Usuario u LEFT JOIN u.papeis p WHERE u.id IN :ids")
+    List<PrincipalLinha> findPrincipaisByIdIn(@Param("ids") Collection<Long> ids);
+}
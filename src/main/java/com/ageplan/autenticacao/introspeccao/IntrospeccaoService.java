@@ -0,0 +1,138 @@
+package com.ageplan.autenticacao.introspeccao;
+
+import com.ageplan.autenticacao.usuario.Usuario;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.session.SessionInformation;
+import org.springframework.security.core.session.SessionRegistry;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Serviço de introspecção de credenciais.
+ * <p>
+ * Resolve tokens de acesso e IDs de sessão para os seus donos somente com consultas em memória e
+ * busca todos os principais envolvidos de uma só vez no {@link PrincipalCache}. Uma única chamada
+ * pode assim autorizar centenas de requisições dos serviços consumidores, sem verificar senhas.
+ */
+@Service
+public class IntrospeccaoService {
+
+    private final TokenAcessoStore tokenAcessoStore;
+    private final PrincipalCache principalCache;
+    private final SessionRegistry sessionRegistry;
+    private final int tamanhoMaximoLote;
+
+    /**
+     * Construtor que injeta as dependências necessárias.
+     *
+     * @param tokenAcessoStore  o armazenamento de tokens de acesso
+     * @param principalCache    o cache de principais
+     * @param sessionRegistry   o registro de sessões do Spring Security
+     * @param tamanhoMaximoLote a quantidade máxima de credenciais por introspecção
+     */
+    @Autowired
+    public IntrospeccaoService(TokenAcessoStore tokenAcessoStore, PrincipalCache principalCache,
+                               SessionRegistry sessionRegistry,
+                               @Value("${introspeccao.lote.tamanho-maximo:1000}") int tamanhoMaximoLote) {
+        this.tokenAcessoStore = tokenAcessoStore;
+        this.principalCache = principalCache;
+        this.sessionRegistry = sessionRegistry;
+        this.tamanhoMaximoLote = tamanhoMaximoLote;
+    }
+
+    /**
+     * Verifica um lote de credenciais.
+     *
+     * @param requisicao as credenciais a serem verificadas
+     * @return o resultado de cada credencial, na ordem em que foram enviadas
+     * @throws IllegalArgumentException se o lote exceder o tamanho máximo
+     */
+    public RespostaIntrospeccaoDTO introspectar(RequisicaoIntrospeccaoDTO requisicao) {
+        List<String> tokens = requisicao.getTokens() == null ? List.of() : requisicao.getTokens();
+        List<String> sessoes = requisicao.getSessoes() == null ? List.of() : requisicao.getSessoes();
+        if (tokens.size() + sessoes.size() > tamanhoMaximoLote) {
+            throw new IllegalArgumentException("A introspecção aceita no máximo " + tamanhoMaximoLote + " credenciais por requisição");
+        }
+
+        Map<String, Long> donosTokens = new HashMap<>();
+        tokenAcessoStore.validar(tokens).forEach((token, acesso) -> donosTokens.put(token, acesso.usuarioId()));
+        Map<String, Long> donosSessoes = donosDasSessoes(sessoes);
+
+        Set<Long> ids = new HashSet<>(donosTokens.values());
+        ids.addAll(donosSessoes.values());
+        Map<Long, UsuarioPrincipal> principais = principalCache.obterTodos(ids);
+
+        return new RespostaIntrospeccaoDTO(
+                resolver(tokens, donosTokens::get, principais),
+                resolver(sessoes, donosSessoes::get, principais));
+    }
+
+    /**
+     * Emite um token de acesso para o usuário autenticado.
+     *
+     * @param usuario o usuário autenticado
+     * @return o token emitido e a sua validade
+     */
+    public TokenEmitidoDTO emitirToken(Usuario usuario) {
+        String token = tokenAcessoStore.emitir(usuario.getId());
+        return new TokenEmitidoDTO(token, tokenAcessoStore.getValidade().toSeconds());
+    }
+
+    /**
+     * Revoga um token de acesso do usuário autenticado. Tokens de outros usuários são ignorados.
+     *
+     * @param usuario o usuário autenticado
+     * @param token   o token a revogar
+     */
+    public void revogarToken(Usuario usuario, String token) {
+        TokenAcesso acesso = tokenAcessoStore.validar(List.of(token)).get(token);
+        if (acesso != null && acesso.usuarioId().equals(usuario.getId())) {
+            tokenAcessoStore.revogar(token);
+        }
+    }
+
+    /**
+     * Resolve os donos das sessões ativas registradas.
+     *
+     * @param sessoes os IDs de sessão
+     * @return os IDs dos usuários donos das sessões ativas, indexados pelo ID da sessão
+     */
+    private Map<String, Long> donosDasSessoes(List<String> sessoes) {
+        Map<String, Long> donos = new HashMap<>();
+        for (String sessao : sessoes) {
+            SessionInformation informacao = sessionRegistry.getSessionInformation(sessao);
+            if (informacao != null && !informacao.isExpired() && informacao.getPrincipal() instanceof Usuario usuario) {
+                donos.put(sessao, usuario.getId());
+            }
+        }
+        return donos;
+    }
+
+    /**
+     * Monta os resultados de uma lista de credenciais.
+     *
+     * @param credenciais as credenciais, na ordem em que foram enviadas
+     * @param dono        a função que retorna o ID do dono de uma credencial válida
+     * @param principais  os principais dos donos
+     * @return os resultados, na mesma ordem das credenciais
+     */
+    private static List<ResultadoIntrospeccaoDTO> resolver(List<String> credenciais, Function<String, Long> dono,
+                                                           Map<Long, UsuarioPrincipal> principais) {
+        List<ResultadoIntrospeccaoDTO> resultados = new ArrayList<>(credenciais.size());
+        for (String credencial : credenciais) {
+            Long usuarioId = dono.apply(credencial);
+            resultados.add(usuarioId == null
+                    ? ResultadoIntrospeccaoDTO.inativo(credencial)
+                    : ResultadoIntrospeccaoDTO.de(credencial, principais.get(usuarioId)));
+        }
+        return resultados;
+    }
+}
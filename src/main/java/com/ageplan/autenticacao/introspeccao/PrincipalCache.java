@@ -0,0 +1,128 @@
+package com.ageplan.autenticacao.introspeccao;
+
+import com.ageplan.autenticacao.papel.PapelAlteradoEvent;
+import com.ageplan.autenticacao.usuario.UsuarioAlteradoEvent;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cache em memória dos {@link UsuarioPrincipal} indexados pelo ID do usuário.
+ * <p>
+ * As falhas são carregadas em lote, com uma consulta por bloco de IDs, de modo que uma introspecção
+ * com centenas de credenciais faz no máximo algumas idas ao banco. As entradas de usuários alterados
+ * são removidas após o commit.
+ */
+@Component
+public class PrincipalCache {
+
+    /**
+     * Quantidade máxima de IDs em uma cláusula IN.
+     */
+    private static final int TAMANHO_LOTE_IDS = 1000;
+
+    private final LoadingCache<Long, UsuarioPrincipal> cache;
+
+    /**
+     * Construtor que injeta as dependências necessárias.
+     *
+     * @param introspeccaoRepository o repositório dos dados de autorização
+     * @param tamanhoMaximo          a quantidade máxima de principais em cache
+     * @param validade               o tempo máximo que um principal permanece em cache
+     */
+    @Autowired
+    public PrincipalCache(IntrospeccaoRepository introspeccaoRepository,
+                          @Value("${introspeccao.principal.tamanho-maximo:100000}") long tamanhoMaximo,
+                          @Value("${introspeccao.principal.validade:PT10M}") Duration validade) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(validade)
+                .build(new CacheLoader<>() {
+                    @Override
+                    public UsuarioPrincipal load(Long id) {
+                        return loadAll(Set.of(id)).get(id);
+                    }
+
+                    @Override
+                    public Map<Long, UsuarioPrincipal> loadAll(Set<? extends Long> ids) {
+                        return carregar(introspeccaoRepository, ids);
+                    }
+                });
+    }
+
+    /**
+     * Busca os principais de um conjunto de usuários. Usuários inexistentes não aparecem no resultado.
+     *
+     * @param ids os identificadores dos usuários
+     * @return os principais encontrados, indexados pelo ID
+     */
+    public Map<Long, UsuarioPrincipal> obterTodos(Collection<Long> ids) {
+        return cache.getAll(ids);
+    }
+
+    /**
+     * Retorna os IDs dos principais mais acessados, do mais para o menos acessado.
+     *
+     * @param limite a quantidade máxima de IDs
+     * @return os IDs dos principais mais acessados
+     */
+    public List<Long> quentes(int limite) {
+        return cache.policy().eviction()
+                .map(eviction -> List.copyOf(eviction.hottest(limite).keySet()))
+                .orElseGet(() -> cache.asMap().keySet().stream().limit(limite).toList());
+    }
+
+    /**
+     * Remove os principais dos usuários alterados.
+     *
+     * @param event o evento de alteração de usuários
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsuarioAlterado(UsuarioAlteradoEvent event) {
+        if (event.isTodos()) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidateAll(event.ids());
+        }
+    }
+
+    /**
+     * Remove todos os principais, pois a alteração de um papel pode mudar o nome de papel de vários usuários.
+     *
+     * @param event o evento de alteração de papel
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPapelAlterado(PapelAlteradoEvent event) {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Carrega os principais do banco, em blocos de IDs.
+     *
+     * @param introspeccaoRepository o repositório dos dados de autorização
+     * @param ids                    os identificadores a carregar
+     * @return os principais encontrados
+     */
+    private static Map<Long, UsuarioPrincipal> carregar(IntrospeccaoRepository introspeccaoRepository,
+                                                        Set<? extends Long> ids) {
+        List<Long> pendentes = new ArrayList<>(ids);
+        Map<Long, UsuarioPrincipal> principais = new HashMap<>(pendentes.size() * 2);
+        for (int inicio = 0; inicio < pendentes.size(); inicio += TAMANHO_LOTE_IDS) {
+            List<Long> lote = pendentes.subList(inicio, Math.min(inicio + TAMANHO_LOTE_IDS, pendentes.size()));
+            principais.putAll(PrincipalLinha.agrupar(introspeccaoRepository.findPrincipaisByIdIn(lote)));
+        }
+        return principais;
+    }
+}
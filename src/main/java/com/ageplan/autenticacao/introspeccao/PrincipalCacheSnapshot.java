@@ -0,0 +1,165 @@
+package com.ageplan.autenticacao.introspeccao;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Grava os IDs dos principais mais acessados em um arquivo local ao desligar e os carrega ao iniciar,
+ * para que o nó volte a atender com o {@link PrincipalCache} já aquecido.
+ * <p>
+ * O arquivo guarda apenas IDs, nunca nomes de usuário ou papéis: um cabeçalho com a assinatura, o formato e a
+ * quantidade de entradas, seguido dos IDs, lido e escrito por mapeamento em memória. Ao restaurar, os principais
+ * são carregados do banco pelo próprio {@link PrincipalCache}, com uma consulta IN por bloco de IDs, e por isso
+ * chegam ao cache sempre atuais. O arquivo e o seu diretório são criados acessíveis apenas ao dono do processo.
+ */
+@Component
+public class PrincipalCacheSnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrincipalCacheSnapshot.class);
+
+    private static final int ASSINATURA = 0x50534e50; // "PSNP"
+    private static final int FORMATO = 2;
+    private static final int TAMANHO_CABECALHO = 3 * Integer.BYTES;
+
+    private final PrincipalCache principalCache;
+    private final Path arquivo;
+    private final int quantidadeMaxima;
+
+    /**
+     * Construtor que injeta as dependências necessárias.
+     *
+     * @param principalCache   o cache de principais
+     * @param arquivo          o arquivo do snapshot; vazio desabilita o snapshot
+     * @param quantidadeMaxima a quantidade máxima de principais gravados
+     */
+    @Autowired
+    public PrincipalCacheSnapshot(PrincipalCache principalCache,
+                                  @Value("${introspeccao.principal.snapshot.arquivo:${user.home}/.ageplan/autenticacao/principais.snapshot}") String arquivo,
+                                  @Value("${introspeccao.principal.snapshot.quantidade-maxima:50000}") int quantidadeMaxima) {
+        this.principalCache = principalCache;
+        this.arquivo = arquivo.isBlank() ? null : Path.of(arquivo);
+        this.quantidadeMaxima = quantidadeMaxima;
+    }
+
+    /**
+     * Carrega no cache os principais gravados no último desligamento.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void restaurar() {
+        if (arquivo == null || !Files.isRegularFile(arquivo)) {
+            return;
+        }
+        try {
+            List<Long> ids = ler(arquivo);
+            List<Long> limitados = ids.subList(0, Math.min(ids.size(), quantidadeMaxima));
+            Map<Long, UsuarioPrincipal> carregados = principalCache.obterTodos(limitados);
+            logger.info("{} de {} principais restaurados de {}", carregados.size(), ids.size(), arquivo);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Snapshot de principais {} ignorado", arquivo, e);
+        }
+    }
+
+    /**
+     * Grava os IDs dos principais mais acessados ao desligar.
+     */
+    @PreDestroy
+    public void gravar() {
+        if (arquivo == null) {
+            return;
+        }
+        try {
+            List<Long> quentes = principalCache.quentes(quantidadeMaxima);
+            gravar(arquivo, quentes);
+            logger.info("{} principais gravados em {}", quentes.size(), arquivo);
+        } catch (IOException e) {
+            logger.warn("Falha ao gravar o snapshot de principais em {}", arquivo, e);
+        }
+    }
+
+    /**
+     * Grava os IDs no arquivo, substituindo o anterior de forma atômica.
+     *
+     * @param arquivo o arquivo do snapshot
+     * @param ids     os IDs a gravar
+     * @throws IOException se o arquivo não puder ser escrito
+     */
+    static void gravar(Path arquivo, Collection<Long> ids) throws IOException {
+        if (arquivo.getParent() != null) {
+            Files.createDirectories(arquivo.getParent(), permissoes("rwx------"));
+        }
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        Files.deleteIfExists(temporario);
+        try (FileChannel canal = FileChannel.open(temporario, Set.of(StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE), permissoes("rw-------"))) {
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0,
+                    TAMANHO_CABECALHO + (long) ids.size() * Long.BYTES);
+            buffer.putInt(ASSINATURA).putInt(FORMATO).putInt(ids.size());
+            for (Long id : ids) {
+                buffer.putLong(id);
+            }
+            buffer.force();
+        }
+        Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Lê os IDs gravados no arquivo.
+     *
+     * @param arquivo o arquivo do snapshot
+     * @return os IDs, na ordem gravada
+     * @throws IOException              se o arquivo não puder ser lido
+     * @throws IllegalArgumentException se o arquivo não estiver no formato esperado
+     */
+    static List<Long> ler(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            if (buffer.remaining() < TAMANHO_CABECALHO || buffer.getInt() != ASSINATURA || buffer.getInt() != FORMATO) {
+                throw new IllegalArgumentException("Formato de snapshot desconhecido");
+            }
+            int quantidade = buffer.getInt();
+            if (quantidade < 0 || (long) quantidade * Long.BYTES != buffer.remaining()) {
+                throw new IllegalArgumentException("Snapshot truncado");
+            }
+            List<Long> ids = new ArrayList<>(quantidade);
+            for (int i = 0; i < quantidade; i++) {
+                ids.add(buffer.getLong());
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * Permissões POSIX para a criação de arquivos e diretórios, quando o sistema de arquivos as suporta.
+     *
+     * @param permissoes as permissões no formato de {@link PosixFilePermissions#fromString(String)}
+     * @return os atributos de criação, vazios fora de sistemas POSIX
+     */
+    private static FileAttribute<?>[] permissoes(String permissoes) {
+        if (!FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            return new FileAttribute<?>[0];
+        }
+        return new FileAttribute<?>[]{PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString(permissoes))};
+    }
+}
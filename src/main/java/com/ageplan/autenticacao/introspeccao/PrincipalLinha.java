@@ -0,0 +1,57 @@
+package com.ageplan.autenticacao.introspeccao;
+
+import com.ageplan.autenticacao.papel.HierarquiaPapeis;
+import com.ageplan.autenticacao.papel.Papel;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Projeção de leitura dos dados de autorização de um usuário, com uma linha por papel atribuído.
+ *
+ * @param id                    o identificador do usuário
+ * @param nomeUsuario           o nome de usuário
+ * @param enabled               se a conta está habilitada
+ * @param accountNonLocked      se a conta não está bloqueada
+ * @param accountNonExpired     se a conta não está expirada
+ * @param credentialsNonExpired se as credenciais não estão expiradas
+ * @param nomePapel             o papel desta linha, ou {@code null} se o usuário não tiver papéis
+ */
+public record PrincipalLinha(Long id, String nomeUsuario, boolean enabled, boolean accountNonLocked,
+                             boolean accountNonExpired, boolean credentialsNonExpired, Papel.NomePapel nomePapel) {
+
+    /**
+     * Agrupa as linhas por usuário, expandindo os papéis diretos nos papéis efetivos da {@link HierarquiaPapeis}.
+     *
+     * @param linhas as linhas retornadas pela consulta
+     * @return os principais indexados pelo ID do usuário
+     */
+    public static Map<Long, UsuarioPrincipal> agrupar(Collection<PrincipalLinha> linhas) {
+        Map<Long, PrincipalLinha> primeiras = new LinkedHashMap<>();
+        Map<Long, Set<Papel.NomePapel>> papeis = new HashMap<>();
+        for (PrincipalLinha linha : linhas) {
+            primeiras.putIfAbsent(linha.id(), linha);
+            Set<Papel.NomePapel> papeisDoUsuario = papeis.computeIfAbsent(linha.id(), id -> EnumSet.noneOf(Papel.NomePapel.class));
+            if (linha.nomePapel() != null) {
+                papeisDoUsuario.add(linha.nomePapel());
+            }
+        }
+        Map<Long, UsuarioPrincipal> principais = new HashMap<>(primeiras.size() * 2);
+        primeiras.forEach((id, linha) -> principais.put(id, new UsuarioPrincipal(id, linha.nomeUsuario(),
+                linha.isAtivo(), HierarquiaPapeis.expandir(papeis.get(id)))));
+        return principais;
+    }
+
+    /**
+     * Indica se a conta pode ser usada para autenticação.
+     *
+     * @return true se a conta estiver habilitada, não bloqueada e não expirada
+     */
+    private boolean isAtivo() {
+        return enabled && accountNonLocked && accountNonExpired && credentialsNonExpired;
+    }
+}
@@ -0,0 +1,31 @@
+package com.ageplan.autenticacao.introspeccao;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) com as credenciais a serem verificadas em uma introspecção.
+ * Tokens de acesso e IDs de sessão podem ser enviados juntos na mesma requisição.
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+public class RequisicaoIntrospeccaoDTO implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Tokens de acesso opacos a verificar.
+     */
+    private List<String> tokens = List.of();
+
+    /**
+     * IDs de sessão HTTP a verificar.
+     */
+    private List<String> sessoes = List.of();
+}
@@ -0,0 +1,12 @@
+package com.ageplan.autenticacao.introspeccao;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) com os resultados de uma introspecção, na mesma ordem das credenciais enviadas.
+ *
+ * @param tokens  os resultados dos tokens de acesso
+ * @param sessoes os resultados dos IDs de sessão
+ */
+public record RespostaIntrospeccaoDTO(List<ResultadoIntrospeccaoDTO> tokens, List<ResultadoIntrospeccaoDTO> sessoes) {
+}
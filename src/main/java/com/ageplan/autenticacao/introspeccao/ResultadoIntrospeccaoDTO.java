@@ -0,0 +1,41 @@
+package com.ageplan.autenticacao.introspeccao;
+
+import com.ageplan.autenticacao.papel.Papel;
+
+import java.util.Set;
+
+/**
+ * Data Transfer Object (DTO) com o resultado da verificação de uma credencial.
+ * Credenciais inativas não revelam a qual usuário pertencem.
+ *
+ * @param credencial o token ou ID de sessão verificado
+ * @param ativo      se a credencial é válida e o usuário pode ser autorizado
+ * @param usuarioId  o identificador do usuário, ou {@code null} se a credencial estiver inativa
+ * @param papeis     os papéis do usuário, vazio se a credencial estiver inativa
+ */
+public record ResultadoIntrospeccaoDTO(String credencial, boolean ativo, Long usuarioId, Set<Papel.NomePapel> papeis) {
+
+    /**
+     * Cria o resultado de uma credencial inativa.
+     *
+     * @param credencial a credencial verificada
+     * @return o resultado criado
+     */
+    public static ResultadoIntrospeccaoDTO inativo(String credencial) {
+        return new ResultadoIntrospeccaoDTO(credencial, false, null, Set.of());
+    }
+
+    /**
+     * Cria o resultado de uma credencial a partir do principal do seu dono.
+     *
+     * @param credencial a credencial verificada
+     * @param principal  o principal do dono da credencial, ou {@code null} se ele não existir
+     * @return o resultado criado
+     */
+    public static ResultadoIntrospeccaoDTO de(String credencial, UsuarioPrincipal principal) {
+        if (principal == null || !principal.ativo()) {
+            return inativo(credencial);
+        }
+        return new ResultadoIntrospeccaoDTO(credencial, true, principal.id(), principal.papeis());
+    }
+}
@@ -0,0 +1,12 @@
+package com.ageplan.autenticacao.introspeccao;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * Data Transfer Object (DTO) com o token de acesso a revogar.
+ * O token segue no corpo da requisição para não aparecer em URLs, logs de acesso ou históricos.
+ *
+ * @param token o token de acesso opaco
+ */
+public record RevogacaoTokenDTO(@NotBlank(message = "Token é obrigatório") String token) {
+}
@@ -0,0 +1,22 @@
+package com.ageplan.autenticacao.introspeccao;
+
+import java.time.Instant;
+
+/**
+ * Registro de um token de acesso opaco emitido para um usuário.
+ *
+ * @param usuarioId o identificador do usuário dono do token
+ * @param expiraEm  o instante em que o token deixa de ser válido
+ */
+public record TokenAcesso(Long usuarioId, Instant expiraEm) {
+
+    /**
+     * Indica se o token ainda é válido em um instante.
+     *
+     * @param agora o instante de referência
+     * @return true se o token não estiver expirado
+     */
+    public boolean isValido(Instant agora) {
+        return agora.isBefore(expiraEm);
+    }
+}
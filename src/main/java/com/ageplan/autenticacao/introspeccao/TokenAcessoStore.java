@@ -0,0 +1,133 @@
+package com.ageplan.autenticacao.introspeccao;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Armazenamento em memória dos tokens de acesso opacos.
+ * <p>
+ * Um token é uma sequência aleatória de 256 bits, sem nenhuma informação embutida, e sua validação
+ * é apenas uma consulta em memória. Cada entrada expira sozinha ao fim da validade do token. A situação
+ * e os papéis do dono são resolvidos a cada introspecção pelo {@link PrincipalCache}, de modo que um
+ * usuário removido ou desativado deixa de ter tokens ativos sem que eles precisem ser revogados.
+ */
+@Component
+public class TokenAcessoStore {
+
+    private static final int TAMANHO_TOKEN_BYTES = 32;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    private final Cache<String, TokenAcesso> tokens;
+    private final Duration validade;
+    private final Clock clock;
+
+    /**
+     * Construtor que injeta as configurações do armazenamento.
+     *
+     * @param tamanhoMaximo a quantidade máxima de tokens ativos
+     * @param validade      o tempo de vida de um token
+     */
+    @Autowired
+    public TokenAcessoStore(@Value("${introspeccao.token.tamanho-maximo:1000000}") long tamanhoMaximo,
+                            @Value("${introspeccao.token.validade:PT1H}") Duration validade) {
+        this(tamanhoMaximo, validade, Clock.systemUTC());
+    }
+
+    TokenAcessoStore(long tamanhoMaximo, Duration validade, Clock clock) {
+        this.validade = validade;
+        this.clock = clock;
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfter(new ExpiracaoToken(clock))
+                .build();
+    }
+
+    /**
+     * Emite um novo token para um usuário.
+     *
+     * @param usuarioId o identificador do usuário
+     * @return o token emitido
+     */
+    public String emitir(Long usuarioId) {
+        byte[] bytes = new byte[TAMANHO_TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String token = encoder.encodeToString(bytes);
+        tokens.put(token, new TokenAcesso(usuarioId, clock.instant().plus(validade)));
+        return token;
+    }
+
+    public Duration getValidade() {
+        return validade;
+    }
+
+    /**
+     * Busca os registros válidos de um conjunto de tokens. Tokens desconhecidos ou expirados
+     * não aparecem no resultado.
+     *
+     * @param valores os tokens a validar
+     * @return os registros válidos, indexados pelo token
+     */
+    public Map<String, TokenAcesso> validar(Collection<String> valores) {
+        Instant agora = clock.instant();
+        Map<String, TokenAcesso> validos = new HashMap<>(valores.size() * 2);
+        tokens.getAllPresent(valores).forEach((token, acesso) -> {
+            if (acesso.isValido(agora)) {
+                validos.put(token, acesso);
+            }
+        });
+        return validos;
+    }
+
+    /**
+     * Revoga um token.
+     *
+     * @param token o token a revogar
+     */
+    public void revogar(String token) {
+        tokens.invalidate(token);
+    }
+
+    /**
+     * Expira cada entrada no instante de validade do seu token. Leituras e substituições não alteram
+     * o prazo restante.
+     */
+    private record ExpiracaoToken(Clock clock) implements Expiry<String, TokenAcesso> {
+
+        @Override
+        public long expireAfterCreate(String token, TokenAcesso acesso, long currentTime) {
+            Duration restante = Duration.between(clock.instant(), acesso.expiraEm());
+            if (restante.isNegative()) {
+                return 0;
+            }
+            try {
+                return restante.toNanos();
+            } catch (ArithmeticException e) {
+                return Long.MAX_VALUE;
+            }
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, TokenAcesso acesso, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String token, TokenAcesso acesso, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
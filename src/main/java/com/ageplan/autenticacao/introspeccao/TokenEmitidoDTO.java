@@ -0,0 +1,10 @@
+package com.ageplan.autenticacao.introspeccao;
+
+/**
+ * Data Transfer Object (DTO) com um token de acesso recém-emitido.
+ *
+ * @param token            o token de acesso opaco
+ * @param expiraEmSegundos o tempo de vida do token, em segundos
+ */
+public record TokenEmitidoDTO(String token, long expiraEmSegundos) {
+}
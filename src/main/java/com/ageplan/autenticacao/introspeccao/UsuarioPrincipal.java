@@ -0,0 +1,26 @@
+package com.ageplan.autenticacao.introspeccao;
+
+import com.ageplan.autenticacao.papel.Papel;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Representação imutável e compacta de um usuário para fins de autorização.
+ * É o valor mantido em cache pelo {@link PrincipalCache}, e por isso guarda apenas o necessário
+ * para responder a uma introspecção.
+ *
+ * @param id          o identificador do usuário
+ * @param nomeUsuario o nome de usuário
+ * @param ativo       se a conta está habilitada, não bloqueada e não expirada
+ * @param papeis      os papéis atribuídos ao usuário
+ */
+public record UsuarioPrincipal(Long id, String nomeUsuario, boolean ativo, Set<Papel.NomePapel> papeis) {
+
+    public UsuarioPrincipal {
+        papeis = papeis.isEmpty()
+                ? Collections.emptySet()
+                : Collections.unmodifiableSet(EnumSet.copyOf(papeis));
+    }
+}
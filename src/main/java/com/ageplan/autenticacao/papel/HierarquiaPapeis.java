@@ -0,0 +1,125 @@
+package com.ageplan.autenticacao.papel;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hierarquia declarativa dos papéis do sistema.
+ * <p>
+ * Cada papel declara apenas os papéis que implica diretamente. Na carga da classe, as declarações são
+ * resolvidas em uma tabela imutável de alcançabilidade, de modo que saber se um papel implica outro é
+ * uma única consulta. Os usuários guardam somente os seus papéis diretos.
+ */
+public final class HierarquiaPapeis {
+
+    /**
+     * Papéis implicados diretamente por cada papel.
+     */
+    private static final Map<Papel.NomePapel, Set<Papel.NomePapel>> IMPLICACOES = Map.of(
+            Papel.NomePapel.ADMIN, EnumSet.of(Papel.NomePapel.INSTRUTOR)
+    );
+
+    /**
+     * Papéis alcançáveis a partir de cada papel, incluindo o próprio.
+     */
+    private static final Map<Papel.NomePapel, Set<Papel.NomePapel>> ALCANCAVEIS = resolver();
+
+    /**
+     * Papéis que implicam cada papel, incluindo o próprio.
+     */
+    private static final Map<Papel.NomePapel, Set<Papel.NomePapel>> IMPLICANTES = inverter(ALCANCAVEIS);
+
+    private HierarquiaPapeis() {
+        throw new AssertionError("A classe utilitária HierarquiaPapeis não deve ser instanciada.");
+    }
+
+    /**
+     * Retorna os papéis alcançáveis a partir de um papel, incluindo o próprio.
+     *
+     * @param papel o papel de origem
+     * @return o conjunto imutável dos papéis alcançáveis
+     */
+    public static Set<Papel.NomePapel> alcancaveis(Papel.NomePapel papel) {
+        return ALCANCAVEIS.get(papel);
+    }
+
+    /**
+     * Retorna os papéis que implicam um papel, incluindo o próprio. Como os usuários guardam somente os
+     * papéis diretos, é o conjunto a consultar para encontrar quem possui o papel de forma efetiva.
+     *
+     * @param papel o papel exigido
+     * @return o conjunto imutável dos papéis que o implicam
+     */
+    public static Set<Papel.NomePapel> implicantes(Papel.NomePapel papel) {
+        return IMPLICANTES.get(papel);
+    }
+
+    /**
+     * Verifica se um papel implica outro, direta ou indiretamente.
+     *
+     * @param possuido o papel atribuído ao usuário
+     * @param exigido  o papel exigido
+     * @return true se o papel possuído for o exigido ou o implicar
+     */
+    public static boolean implica(Papel.NomePapel possuido, Papel.NomePapel exigido) {
+        return ALCANCAVEIS.get(possuido).contains(exigido);
+    }
+
+    /**
+     * Expande um conjunto de papéis diretos em todos os papéis efetivos.
+     *
+     * @param papeis os papéis diretos
+     * @return um novo conjunto com os papéis diretos e os implicados
+     */
+    public static Set<Papel.NomePapel> expandir(Collection<Papel.NomePapel> papeis) {
+        Set<Papel.NomePapel> efetivos = EnumSet.noneOf(Papel.NomePapel.class);
+        for (Papel.NomePapel papel : papeis) {
+            efetivos.addAll(ALCANCAVEIS.get(papel));
+        }
+        return efetivos;
+    }
+
+    /**
+     * Calcula o fecho transitivo das implicações declaradas.
+     *
+     * @return a tabela de alcançabilidade
+     */
+    private static Map<Papel.NomePapel, Set<Papel.NomePapel>> resolver() {
+        Map<Papel.NomePapel, Set<Papel.NomePapel>> tabela = new EnumMap<>(Papel.NomePapel.class);
+        for (Papel.NomePapel origem : Papel.NomePapel.values()) {
+            Set<Papel.NomePapel> alcancados = EnumSet.of(origem);
+            Deque<Papel.NomePapel> pendentes = new ArrayDeque<>(alcancados);
+            while (!pendentes.isEmpty()) {
+                for (Papel.NomePapel implicado : IMPLICACOES.getOrDefault(pendentes.pop(), Set.of())) {
+                    if (alcancados.add(implicado)) {
+                        pendentes.push(implicado);
+                    }
+                }
+            }
+            tabela.put(origem, Collections.unmodifiableSet(alcancados));
+        }
+        return Collections.unmodifiableMap(tabela);
+    }
+
+    /**
+     * Inverte a tabela de alcançabilidade.
+     *
+     * @param alcancaveis a tabela de alcançabilidade
+     * @return a tabela dos papéis que implicam cada papel
+     */
+    private static Map<Papel.NomePapel, Set<Papel.NomePapel>> inverter(Map<Papel.NomePapel, Set<Papel.NomePapel>> alcancaveis) {
+        Map<Papel.NomePapel, Set<Papel.NomePapel>> tabela = new EnumMap<>(Papel.NomePapel.class);
+        for (Papel.NomePapel papel : Papel.NomePapel.values()) {
+            tabela.put(papel, EnumSet.noneOf(Papel.NomePapel.class));
+        }
+        alcancaveis.forEach((origem, alcancados) -> alcancados.forEach(alcancado -> tabela.get(alcancado).add(origem)));
+        tabela.replaceAll((papel, implicantes) -> Collections.unmodifiableSet(implicantes));
+        return Collections.unmodifiableMap(tabela);
+    }
+}
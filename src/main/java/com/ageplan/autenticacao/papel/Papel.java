@@ -5,14 +5,24 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.io.Serial;
 import java.io.Serializable;
 
 /**
  * Entidade que representa os diferentes papéis que um usuário pode ter no sistema.
+ * <p>
+ * Os papéis raramente mudam, por isso a entidade e o seu identificador natural ({@link NomePapel})
+ * são mantidos no cache de segundo nível.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "papel")
+@NaturalIdCache(region = "papel-natural-id")
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -32,6 +42,7 @@ public class Papel implements Serializable {
      * Nome do papel, representado pelo enum {@link NomePapel}.
      * Deve ser único e não nulo.
      */
+    @NaturalId(mutable = true)
     @Enumerated(EnumType.STRING)
     @Column(unique = true, nullable = false)
     private NomePapel nomePapel;
@@ -47,6 +58,9 @@ public class Papel implements Serializable {
 
     /**
      * Verifica se dois objetos Papel são iguais.
+     * <p>
+     * A comparação usa o identificador natural {@link NomePapel}, que é único e já está definido
+     * antes de o papel ser persistido. Papéis sem nome só são iguais a si mesmos.
      *
      * @param o o objeto a ser comparado
      * @return true se os objetos forem iguais, false caso contrário
@@ -56,19 +70,19 @@ public class Papel implements Serializable {
         if (this == o) return true;
         if (!(o instanceof Papel papel)) return false;
 
-        return getId().equals(papel.getId()) && getNomePapel() == papel.getNomePapel();
+        NomePapel nome = getNomePapel();
+        return nome != null && nome == papel.getNomePapel();
     }
 
     /**
-     * Calcula o hash code do objeto Papel.
+     * Calcula o hash code do objeto Papel a partir do identificador natural.
      *
      * @return o hash code do objeto
      */
     @Override
-    public int hashCode() {
-        int result = getId().hashCode();
-        result = 31 * result + getNomePapel().hashCode();
-        return result;
+    public final int hashCode() {
+        NomePapel nome = getNomePapel();
+        return nome != null ? nome.hashCode() : System.identityHashCode(this);
     }
 
     /**
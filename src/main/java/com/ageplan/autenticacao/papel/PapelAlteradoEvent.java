@@ -0,0 +1,28 @@
+package com.ageplan.autenticacao.papel;
+
+/**
+ * Evento publicado pelo {@link PapelService} sempre que um papel é criado, alterado ou removido.
+ * Os caches que guardam papéis escutam este evento para invalidar as suas entradas.
+ *
+ * @param id o identificador do papel afetado, ou {@code null} quando todos devem ser invalidados
+ */
+public record PapelAlteradoEvent(Long id) {
+
+    /**
+     * Cria um evento que invalida os dados de todos os papéis.
+     *
+     * @return o evento criado
+     */
+    public static PapelAlteradoEvent todos() {
+        return new PapelAlteradoEvent(null);
+    }
+
+    /**
+     * Indica se o evento afeta todos os papéis.
+     *
+     * @return true se todos os papéis devem ser invalidados, false caso contrário
+     */
+    public boolean isTodos() {
+        return id == null;
+    }
+}
@@ -1,13 +1,14 @@
 package com.ageplan.autenticacao.papel;
 
+import com.ageplan.autenticacao.config.cache.RespostaSerializadaCache;
+import com.ageplan.autenticacao.config.serializacao.FormatoResposta;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 /**
  * Controlador REST para gerenciar as operações relacionadas à entidade {@link Papel}.
  * Fornece endpoints para criar, buscar, atualizar e deletar papéis no sistema.
@@ -17,15 +18,18 @@ import java.util.List;
 public class PapelController {
 
     private final PapelService papelService;
+    private final RespostaSerializadaCache respostaCache;
 
     /**
-     * Construtor que injeta o serviço de papel.
+     * Construtor que injeta as dependências do controlador.
      *
-     * @param papelService o serviço de papel a ser injetado
+     * @param papelService  o serviço de papel a ser injetado
+     * @param respostaCache o cache das respostas já serializadas
      */
     @Autowired
-    public PapelController(PapelService papelService) {
+    public PapelController(PapelService papelService, RespostaSerializadaCache respostaCache) {
         this.papelService = papelService;
+        this.respostaCache = respostaCache;
     }
 
     /**
@@ -54,13 +58,18 @@ public class PapelController {
 
     /**
      * Endpoint para buscar todos os papéis cadastrados no sistema.
+     * A lista é serializada uma única vez por alteração de papéis e por formato negociado (JSON, CBOR
+     * ou Smile) e reaproveitada do {@link RespostaSerializadaCache}.
      *
-     * @return uma ResponseEntity contendo a lista de DTOs dos papéis encontrados e o status HTTP 200 (OK)
+     * @param accept o cabeçalho Accept da requisição
+     * @return uma ResponseEntity contendo a lista de papéis encontrados e o status HTTP 200 (OK)
      */
     @GetMapping
-    public ResponseEntity<List<PapelDTO>> getAllPapeis() {
-        List<PapelDTO> papeis = papelService.getAllPapeis();
-        return ResponseEntity.ok(papeis);
+    public ResponseEntity<byte[]> getAllPapeis(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        FormatoResposta formato = FormatoResposta.negociar(accept);
+        byte[] papeis = respostaCache.obter(RespostaSerializadaCache.PAPEIS, RespostaSerializadaCache.PAPEIS,
+                respostaCache.getGeracaoPapeis(), formato, papelService::getAllPapeis);
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).contentType(formato.getMediaType()).body(papeis);
     }
 
     /**
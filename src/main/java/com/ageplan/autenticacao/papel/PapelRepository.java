@@ -3,22 +3,13 @@ package com.ageplan.autenticacao.papel;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
-
 /**
  * Repositório para gerenciar a entidade {@link Papel}.
  * Fornece métodos para realizar operações de CRUD e consultas específicas na base de dados.
+ * A busca pelo nome do papel é declarada em {@link PapelRepositoryCustom}.
  */
 @Repository
-public interface PapelRepository extends JpaRepository<Papel, Long> {
-
-    /**
-     * Encontra um papel pelo nome.
-     *
-     * @param nomePapel o nome do papel a ser encontrado
-     * @return um {@link Optional} contendo o papel encontrado, ou vazio se não encontrado
-     */
-    Optional<Papel> findByNomePapel(Papel.NomePapel nomePapel);
+public interface PapelRepository extends JpaRepository<Papel, Long>, PapelRepositoryCustom {
 
     /**
      * Verifica se um papel existe pelo nome.
@@ -0,0 +1,20 @@
+package com.ageplan.autenticacao.papel;
+
+import java.util.Optional;
+
+/**
+ * Fragmento de repositório com consultas de {@link Papel} que não podem ser expressas
+ * por métodos derivados do Spring Data.
+ */
+public interface PapelRepositoryCustom {
+
+    /**
+     * Encontra um papel pelo nome.
+     * A busca é feita pelo identificador natural, sendo resolvida pelo cache de segundo nível
+     * sempre que possível.
+     *
+     * @param nomePapel o nome do papel a ser encontrado
+     * @return um {@link Optional} contendo o papel encontrado, ou vazio se não encontrado
+     */
+    Optional<Papel> findByNomePapel(Papel.NomePapel nomePapel);
+}
@@ -0,0 +1,25 @@
+package com.ageplan.autenticacao.papel;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Implementação do fragmento {@link PapelRepositoryCustom}.
+ */
+class PapelRepositoryImpl implements PapelRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Papel> findByNomePapel(Papel.NomePapel nomePapel) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Papel.class)
+                .loadOptional(nomePapel);
+    }
+}
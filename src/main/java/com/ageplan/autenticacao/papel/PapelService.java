@@ -2,6 +2,7 @@ package com.ageplan.autenticacao.papel;
 
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -18,6 +19,9 @@ public class PapelService {
     @Autowired
     private PapelRepository papelRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Insere um novo papel no sistema.
      *
@@ -34,6 +38,7 @@ public class PapelService {
         papel.setNomePapel(papelDTO.getNomePapel());
 
         Papel savedPapel = papelRepository.save(papel);
+        eventPublisher.publishEvent(new PapelAlteradoEvent(savedPapel.getId()));
         return new PapelDTO(savedPapel);
     }
 
@@ -76,6 +81,7 @@ public class PapelService {
         papel.setNomePapel(papelDTO.getNomePapel());
 
         Papel updatedPapel = papelRepository.save(papel);
+        eventPublisher.publishEvent(new PapelAlteradoEvent(id));
         return new PapelDTO(updatedPapel);
     }
 
@@ -90,5 +96,6 @@ public class PapelService {
             throw new EntityNotFoundException(MENSAGEM);
         }
         papelRepository.deleteById(id);
+        eventPublisher.publishEvent(new PapelAlteradoEvent(id));
     }
 }
\ No newline at end of file
@@ -39,7 +39,6 @@ public abstract class Pessoa implements Serializable {
     @Setter
     private String nomeCompleto;
 
-
     /**
      * Define o identificador da pessoa.
      *
@@ -53,30 +52,46 @@ public abstract class Pessoa implements Serializable {
 
     /**
      * Verifica se dois objetos Pessoa são iguais.
+     * <p>
+     * A identidade é definida apenas pelo identificador: toda a hierarquia de pessoas é gravada na mesma
+     * tabela e compartilha a mesma sequência de ids, por isso um {@code Usuario} carregado por proxy é igual
+     * ao {@code Administrador} correspondente. Entidades ainda não persistidas só são iguais a si mesmas.
+     * O identificador é lido pelo getter para que proxies não inicializados respondam sem consultar o banco.
      *
      * @param o o objeto a ser comparado
      * @return true se os objetos forem iguais, false caso contrário
      */
     @Override
-    public boolean equals(Object o) {
+    public final boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof Pessoa pessoa)) return false;
 
-        return Objects.equals(getId(), pessoa.getId()) && Objects.equals(getNomeCompleto(), pessoa.getNomeCompleto());
+        Long idPessoa = getId();
+        return idPessoa != null && idPessoa.equals(pessoa.getId());
     }
 
     /**
      * Calcula o hash code do objeto Pessoa.
+     * <p>
+     * O valor vem da chave natural da subclasse, e não do identificador, de modo que não muda quando a entidade
+     * recebe o id ao ser persistida e coincide entre a instância persistida, a recarregada do banco e os proxies.
+     * Pessoas com o mesmo id têm a mesma chave natural, o que mantém o contrato com {@link #equals(Object)}.
+     * Uma entidade cuja chave natural for alterada precisa ser reinserida nos conjuntos que a contêm.
      *
      * @return o hash code do objeto
      */
     @Override
-    public int hashCode() {
-        int result = Objects.hashCode(getId());
-        result = 31 * result + Objects.hashCode(getNomeCompleto());
-        return result;
+    public final int hashCode() {
+        return Objects.hashCode(chaveNatural());
     }
 
+    /**
+     * Retorna a chave natural da pessoa, usada no {@link #hashCode()}.
+     *
+     * @return a chave natural, ou {@code null} se ainda não tiver sido informada
+     */
+    protected abstract Object chaveNatural();
+
     /**
      * Retorna uma representação em string do objeto Pessoa.
      *
@@ -0,0 +1,44 @@
+package com.ageplan.autenticacao.usuario;
+
+import com.ageplan.autenticacao.papel.Papel;
+import jakarta.validation.constraints.Email;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Set;
+
+/**
+ * Data Transfer Object (DTO) com os campos de uma atualização parcial (PATCH) de usuário.
+ * Apenas os campos informados são alterados; campos ausentes ou {@code null} mantêm o valor atual.
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+public class AtualizacaoParcialUsuarioDTO implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Novo nome completo do usuário.
+     */
+    private String nomeCompleto;
+
+    /**
+     * Novo nome de usuário utilizado para login.
+     */
+    private String nomeUsuario;
+
+    /**
+     * Novo endereço de e-mail do usuário.
+     */
+    @Email(message = "Email deve ser válido")
+    private String email;
+
+    /**
+     * Novo conjunto de papéis do usuário, que substitui o atual.
+     */
+    private Set<Papel.NomePapel> papeis;
+}
@@ -0,0 +1,31 @@
+package com.ageplan.autenticacao.usuario;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) com os usuários a serem buscados de uma só vez,
+ * indicados pelos seus identificadores, pelos seus nomes de usuário ou por ambos.
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+public class BuscaLoteDTO implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Identificadores dos usuários buscados.
+     */
+    private List<Long> ids = List.of();
+
+    /**
+     * Nomes de usuário dos usuários buscados.
+     */
+    private List<String> nomesUsuario = List.of();
+}
@@ -0,0 +1,19 @@
+package com.ageplan.autenticacao.usuario;
+
+import com.ageplan.autenticacao.papel.Papel;
+
+/**
+ * Critérios opcionais para selecionar usuários em exportações e operações em lote.
+ * Critérios nulos não restringem a seleção.
+ *
+ * @param papel      o papel que os usuários devem possuir
+ * @param tipo       o tipo concreto dos usuários
+ * @param habilitado se os usuários devem estar habilitados ou desabilitados
+ */
+public record FiltroUsuario(Papel.NomePapel papel, TipoUsuario tipo, Boolean habilitado) {
+
+    /**
+     * Filtro que seleciona todos os usuários.
+     */
+    public static final FiltroUsuario TODOS = new FiltroUsuario(null, null, null);
+}
@@ -0,0 +1,24 @@
+package com.ageplan.autenticacao.usuario;
+
+/**
+ * Formatos suportados pela exportação de usuários.
+ */
+public enum FormatoExportacao {
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private final String contentType;
+
+    FormatoExportacao(String contentType) {
+        this.contentType = contentType;
+    }
+
+    /**
+     * Retorna o tipo de conteúdo HTTP do formato.
+     *
+     * @return o tipo de conteúdo
+     */
+    public String getContentType() {
+        return contentType;
+    }
+}
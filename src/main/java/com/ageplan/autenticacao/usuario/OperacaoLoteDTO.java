@@ -0,0 +1,52 @@
+package com.ageplan.autenticacao.usuario;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) que descreve uma operação em lote sobre usuários.
+ * Os usuários afetados são indicados por uma lista de identificadores ou por um filtro, nunca pelos dois.
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+public class OperacaoLoteDTO implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Identificadores dos usuários afetados.
+     */
+    private List<Long> ids;
+
+    /**
+     * Filtro que seleciona os usuários afetados.
+     */
+    private FiltroUsuario filtro;
+
+    /**
+     * Novo valor de {@code enabled}, usado apenas na alteração de situação.
+     */
+    private Boolean enabled;
+
+    /**
+     * Novo valor de {@code accountNonLocked}, usado apenas na alteração de situação.
+     */
+    private Boolean accountNonLocked;
+
+    /**
+     * Verifica se a operação indica os usuários de forma válida.
+     *
+     * @throws IllegalArgumentException se nenhum ou ambos os critérios forem informados
+     */
+    public void validarSelecao() {
+        if ((ids == null) == (filtro == null)) {
+            throw new IllegalArgumentException("Informe a lista de ids ou o filtro dos usuários, mas não ambos");
+        }
+    }
+}
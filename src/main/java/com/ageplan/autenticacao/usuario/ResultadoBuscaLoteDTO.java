@@ -0,0 +1,14 @@
+package com.ageplan.autenticacao.usuario;
+
+import java.util.Map;
+
+/**
+ * Data Transfer Object (DTO) com o resultado de uma busca de usuários em lote.
+ * Cada valor informado na busca aparece como chave, na ordem em que foi enviado,
+ * associado ao usuário encontrado ou a {@code null} se ele não existir.
+ *
+ * @param porId          os usuários buscados pelo identificador
+ * @param porNomeUsuario os usuários buscados pelo nome de usuário
+ */
+public record ResultadoBuscaLoteDTO(Map<Long, UsuarioDTO> porId, Map<String, UsuarioDTO> porNomeUsuario) {
+}
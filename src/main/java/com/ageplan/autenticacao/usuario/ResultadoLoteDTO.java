@@ -0,0 +1,9 @@
+package com.ageplan.autenticacao.usuario;
+
+/**
+ * Data Transfer Object (DTO) com o resultado de uma operação em lote sobre usuários.
+ *
+ * @param afetados a quantidade de registros afetados pela operação
+ */
+public record ResultadoLoteDTO(long afetados) {
+}
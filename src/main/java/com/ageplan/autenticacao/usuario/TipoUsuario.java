@@ -0,0 +1,37 @@
+package com.ageplan.autenticacao.usuario;
+
+/**
+ * Enumeração dos tipos concretos de {@link Usuario}, correspondentes aos valores da coluna
+ * discriminadora {@code tipo_usuario}.
+ */
+public enum TipoUsuario {
+    USUARIO("Usuario", "Usuario"),
+    ADMINISTRADOR("Administrador", "ADMIN"),
+    INSTRUTOR("Instrutor", "INSTRUTOR");
+
+    private final String nomeEntidade;
+    private final String valorDiscriminador;
+
+    TipoUsuario(String nomeEntidade, String valorDiscriminador) {
+        this.nomeEntidade = nomeEntidade;
+        this.valorDiscriminador = valorDiscriminador;
+    }
+
+    /**
+     * Retorna o nome da entidade JPA correspondente, utilizado em expressões {@code TYPE()} do JPQL.
+     *
+     * @return o nome da entidade
+     */
+    public String getNomeEntidade() {
+        return nomeEntidade;
+    }
+
+    /**
+     * Retorna o valor gravado na coluna {@code tipo_usuario}, utilizado em consultas SQL nativas.
+     *
+     * @return o valor do discriminador
+     */
+    public String getValorDiscriminador() {
+        return valorDiscriminador;
+    }
+}
@@ -1,26 +1,49 @@
 package com.ageplan.autenticacao.usuario;
 
+import com.ageplan.autenticacao.papel.HierarquiaPapeis;
 import com.ageplan.autenticacao.papel.Papel;
 import com.ageplan.autenticacao.pessoa.Pessoa;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.SoftDelete;
+import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.Objects;
+import java.util.Locale;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * Entidade que representa um usuário no sistema.
  * Extende a classe {@link Pessoa} e implementa a interface {@link UserDetails} para integração com o Spring Security.
+ * <p>
+ * A entidade é mantida no cache de segundo nível e o nome de usuário é o seu identificador natural,
+ * de modo que buscas repetidas pelo mesmo usuário são resolvidas pelo cache, inclusive entre transações.
+ * <p>
+ * A exclusão é lógica: a coluna {@code excluido} é marcada e o Hibernate passa a ignorar o registro em
+ * todas as consultas. As linhas marcadas são removidas posteriormente pelo {@link UsuarioExpurgoJob}.
+ * <p>
+ * Os UPDATEs são gerados com {@link DynamicUpdate} e contêm apenas as colunas alteradas, o que mantém
+ * as edições frequentes de perfil longe das colunas indexadas que não mudaram.
  */
 @Entity
+@DynamicUpdate
+@SoftDelete(columnName = "excluido")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "usuario")
+@NaturalIdCache(region = "usuario-natural-id")
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -30,17 +53,34 @@ import java.util.stream.Collectors;
 public class Usuario extends Pessoa implements UserDetails {
 
     @NotBlank(message = "Nome de usuário é obrigatório")
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String nomeUsuario;
 
+    /**
+     * Nome de usuário normalizado por {@link #normalizar(String)}, usado como identificador natural
+     * nas buscas de login sem distinção de maiúsculas e minúsculas. Mantido pelo UsuarioService.
+     * É único apenas entre os usuários não excluídos (migração V4).
+     */
+    @NaturalId(mutable = true)
+    @Column(nullable = false)
+    private String nomeUsuarioNormalizado;
+
     @NotBlank(message = "Email é obrigatório")
     @Email(message = "Email deve ser válido")
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String email;
 
+    /**
+     * Email normalizado por {@link #normalizar(String)}, usado no login por email. Mantido pelo UsuarioService.
+     * É único apenas entre os usuários não excluídos (migração V4).
+     */
+    @Column(nullable = false)
+    private String emailNormalizado;
+
     @NotBlank(message = "Senha é obrigatória")
     private String senha;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "usuario-papeis")
     @ManyToMany(fetch = FetchType.EAGER, cascade = {CascadeType.DETACH, CascadeType.MERGE, CascadeType.PERSIST, CascadeType.REFRESH})
     @JoinTable(
             name = "usuario_papel",
@@ -60,6 +100,59 @@ public class Usuario extends Pessoa implements UserDetails {
     @Column(nullable = false)
     private boolean enabled = true;
 
+    /**
+     * Versão do registro, incrementada a cada escrita. Compõe o ETag das respostas e
+     * garante o controle de concorrência otimista.
+     */
+    @Version
+    @Column(nullable = false)
+    private Long versao;
+
+    /**
+     * Momento da última escrita do registro, exposto no cabeçalho Last-Modified.
+     */
+    @UpdateTimestamp
+    private Instant atualizadoEm;
+
+    /**
+     * Construtor que recebe os dados básicos do usuário e preenche as formas normalizadas
+     * do nome de usuário e do email.
+     *
+     * @param nomeCompleto o nome completo
+     * @param nomeUsuario  o nome de usuário
+     * @param email        o email
+     * @param senha        a senha já codificada
+     */
+    public Usuario(String nomeCompleto, String nomeUsuario, String email, String senha) {
+        setNomeCompleto(nomeCompleto);
+        this.nomeUsuario = nomeUsuario;
+        this.nomeUsuarioNormalizado = normalizar(nomeUsuario);
+        this.email = email;
+        this.emailNormalizado = normalizar(email);
+        this.senha = senha;
+    }
+
+    /**
+     * Normaliza um nome de usuário ou email para comparação sem distinção de maiúsculas e minúsculas.
+     *
+     * @param valor o valor informado
+     * @return o valor sem espaços nas extremidades e em minúsculas, ou {@code null} se o valor for nulo
+     */
+    public static String normalizar(String valor) {
+        return valor == null ? null : valor.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A chave natural do usuário é o nome de usuário normalizado, calculado a partir de {@link #nomeUsuario}
+     * para que instâncias ainda não preparadas pelo UsuarioService tenham o mesmo hash das persistidas.
+     *
+     * @return o nome de usuário normalizado
+     */
+    @Override
+    protected Object chaveNatural() {
+        return normalizar(nomeUsuario);
+    }
+
     public void addPapel(Papel papel) {
         this.papeis.add(papel);
     }
@@ -69,7 +162,7 @@ public class Usuario extends Pessoa implements UserDetails {
     }
 
     public boolean hasPapel(Papel.NomePapel nomePapel) {
-        return this.papeis.stream().anyMatch(papel -> papel.getNomePapel() == nomePapel);
+        return this.papeis.stream().anyMatch(papel -> HierarquiaPapeis.implica(papel.getNomePapel(), nomePapel));
     }
 
     @Override
@@ -98,34 +191,4 @@ public class Usuario extends Pessoa implements UserDetails {
                 ", papeis=" + papeis +
                 '}';
     }
-
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (!(o instanceof Usuario usuario)) return false;
-        if (!super.equals(o)) return false;
-
-        return isAccountNonExpired() == usuario.isAccountNonExpired() &&
-                isAccountNonLocked() == usuario.isAccountNonLocked() &&
-                isCredentialsNonExpired() == usuario.isCredentialsNonExpired() &&
-                isEnabled() == usuario.isEnabled() &&
-                Objects.equals(getNomeUsuario(), usuario.getNomeUsuario()) &&
-                Objects.equals(getEmail(), usuario.getEmail()) &&
-                Objects.equals(getSenha(), usuario.getSenha()) &&
-                Objects.equals(getPapeis(), usuario.getPapeis());
-    }
-
-    @Override
-    public int hashCode() {
-        int result = super.hashCode();
-        result = 31 * result + Objects.hashCode(getNomeUsuario());
-        result = 31 * result + Objects.hashCode(getEmail());
-        result = 31 * result + Objects.hashCode(getSenha());
-        result = 31 * result + Objects.hashCode(getPapeis());
-        result = 31 * result + Boolean.hashCode(isAccountNonExpired());
-        result = 31 * result + Boolean.hashCode(isAccountNonLocked());
-        result = 31 * result + Boolean.hashCode(isCredentialsNonExpired());
-        result = 31 * result + Boolean.hashCode(isEnabled());
-        return result;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.ageplan.autenticacao.usuario;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Evento publicado pelo {@link UsuarioService} sempre que usuários são criados, alterados ou removidos.
+ * Os caches que guardam dados de usuários escutam este evento para invalidar as suas entradas.
+ *
+ * @param ids os identificadores dos usuários afetados, ou {@code null} quando todos devem ser invalidados
+ */
+public record UsuarioAlteradoEvent(Set<Long> ids) {
+
+    /**
+     * Cria um evento para um único usuário.
+     *
+     * @param id o identificador do usuário afetado
+     * @return o evento criado
+     */
+    public static UsuarioAlteradoEvent de(Long id) {
+        return new UsuarioAlteradoEvent(Set.of(id));
+    }
+
+    /**
+     * Cria um evento para um conjunto de usuários.
+     *
+     * @param ids os identificadores dos usuários afetados
+     * @return o evento criado
+     */
+    public static UsuarioAlteradoEvent de(Collection<Long> ids) {
+        return new UsuarioAlteradoEvent(Set.copyOf(ids));
+    }
+
+    /**
+     * Cria um evento que invalida os dados de todos os usuários.
+     *
+     * @return o evento criado
+     */
+    public static UsuarioAlteradoEvent todos() {
+        return new UsuarioAlteradoEvent(null);
+    }
+
+    /**
+     * Indica se o evento afeta todos os usuários.
+     *
+     * @return true se todos os usuários devem ser invalidados, false caso contrário
+     */
+    public boolean isTodos() {
+        return ids == null;
+    }
+}
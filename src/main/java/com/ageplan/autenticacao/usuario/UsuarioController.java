@@ -1,19 +1,33 @@
 package com.ageplan.autenticacao.usuario;
 
+import com.ageplan.autenticacao.config.autorizacao.ContextoAutorizacao;
+import com.ageplan.autenticacao.config.autorizacao.RegrasUsuario;
+import com.ageplan.autenticacao.config.cache.RespostaSerializadaCache;
 import com.ageplan.autenticacao.config.exceptions.ErrorResponse;
+import com.ageplan.autenticacao.config.serializacao.FormatoResposta;
 import com.ageplan.autenticacao.config.exceptions.ResourceNotFoundException;
+import com.ageplan.autenticacao.papel.Papel;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
 import java.net.URI;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Controlador REST para gerenciar as operações relacionadas à entidade {@link Usuario}.
@@ -24,15 +38,22 @@ import java.net.URI;
 public class UsuarioController {
 
     private final UsuarioService usuarioService;
+    private final UsuarioExportador usuarioExportador;
+    private final RespostaSerializadaCache respostaCache;
 
     /**
-     * Construtor que injeta o serviço de usuário.
+     * Construtor que injeta as dependências do controlador.
      *
-     * @param usuarioService o serviço de usuário a ser injetado
+     * @param usuarioService    o serviço de usuário a ser injetado
+     * @param usuarioExportador o componente de exportação de usuários
+     * @param respostaCache     o cache das respostas já serializadas
      */
     @Autowired
-    public UsuarioController(UsuarioService usuarioService) {
+    public UsuarioController(UsuarioService usuarioService, UsuarioExportador usuarioExportador,
+                             RespostaSerializadaCache respostaCache) {
         this.usuarioService = usuarioService;
+        this.usuarioExportador = usuarioExportador;
+        this.respostaCache = respostaCache;
     }
 
     /**
@@ -42,7 +63,6 @@ public class UsuarioController {
      * @return uma ResponseEntity contendo o DTO do usuário criado e o status HTTP 201 (Created)
      */
     @PostMapping
-    @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<UsuarioDTO> criarUsuario(@Valid @RequestBody UsuarioDTO usuarioDTO) {
         UsuarioDTO novoUsuario = usuarioService.criarUsuario(usuarioDTO);
         URI location = ServletUriComponentsBuilder
@@ -55,27 +75,42 @@ public class UsuarioController {
 
     /**
      * Endpoint para buscar um usuário pelo seu identificador.
+     * Responde com ETag e Last-Modified; se o cliente já possuir a versão atual (If-None-Match),
+     * retorna o status HTTP 304 (Not Modified) sem montar o DTO. O corpo de cada versão é serializado
+     * uma única vez por formato negociado (JSON, CBOR ou Smile) e reaproveitado do
+     * {@link RespostaSerializadaCache}.
      *
-     * @param id o identificador do usuário a ser buscado
-     * @return uma ResponseEntity contendo o DTO do usuário encontrado e o status HTTP 200 (OK)
+     * @param id      o identificador do usuário a ser buscado
+     * @param request a requisição, utilizada para avaliar os cabeçalhos condicionais
+     * @return uma ResponseEntity contendo o usuário encontrado e o status HTTP 200 (OK)
      */
     @GetMapping("/{id}")
-    @PreAuthorize("hasRole('ADMIN') or hasRole('PROFESSOR') or #id == authentication.principal.id")
-    public ResponseEntity<UsuarioDTO> getUsuario(@PathVariable Long id) {
-        UsuarioDTO usuario = usuarioService.getUsuario(id);
-        return ResponseEntity.ok(usuario);
+    public ResponseEntity<byte[]> getUsuario(@PathVariable Long id, WebRequest request) {
+        UsuarioVersao versao = usuarioService.getVersao(id);
+        if (request.checkNotModified(versao.etag(), versao.ultimaModificacao())) {
+            return null;
+        }
+        return respostaDeVersao(versao, request, () -> usuarioService.getUsuario(id));
     }
 
     /**
      * Endpoint para buscar o usuário atualmente autenticado.
+     * Responde com ETag e Last-Modified; se o cliente já possuir a versão atual (If-None-Match),
+     * retorna o status HTTP 304 (Not Modified) sem montar o DTO. O corpo de cada versão é serializado
+     * uma única vez por formato negociado (JSON, CBOR ou Smile) e reaproveitado do
+     * {@link RespostaSerializadaCache}.
      *
      * @param authentication o objeto de autenticação contendo os detalhes do usuário autenticado
-     * @return uma ResponseEntity contendo o DTO do usuário autenticado e o status HTTP 200 (OK)
+     * @param request        a requisição, utilizada para avaliar os cabeçalhos condicionais
+     * @return uma ResponseEntity contendo o usuário autenticado e o status HTTP 200 (OK)
      */
     @GetMapping("/me")
-    public ResponseEntity<UsuarioDTO> getCurrentUser(Authentication authentication) {
-        UsuarioDTO usuario = usuarioService.getUsuarioByUsername(authentication.getName());
-        return ResponseEntity.ok(usuario);
+    public ResponseEntity<byte[]> getCurrentUser(Authentication authentication, WebRequest request) {
+        UsuarioVersao versao = usuarioService.getVersaoByUsername(authentication.getName());
+        if (request.checkNotModified(versao.etag(), versao.ultimaModificacao())) {
+            return null;
+        }
+        return respostaDeVersao(versao, request, () -> usuarioService.getUsuarioByUsername(authentication.getName()));
     }
 
     /**
@@ -85,24 +120,116 @@ public class UsuarioController {
      * @return uma ResponseEntity contendo a página de DTOs dos usuários encontrados e o status HTTP 200 (OK)
      */
     @GetMapping
-    @PreAuthorize("hasRole('ADMIN') or hasRole('PROFESSOR')")
     public ResponseEntity<Page<UsuarioDTO>> getAllUsuarios(Pageable pageable) {
         Page<UsuarioDTO> usuarios = usuarioService.getAllUsuarios(pageable);
         return ResponseEntity.ok(usuarios);
     }
 
+    /**
+     * Endpoint para listar usuários com paginação por chave, usado quando o parâmetro {@code apos} é informado.
+     * A próxima página é obtida informando em {@code apos} o id do último usuário retornado.
+     *
+     * @param apos    o id do último usuário da página anterior (0 para a primeira página)
+     * @param tamanho a quantidade máxima de usuários
+     * @return uma ResponseEntity contendo os usuários em ordem crescente de id e o status HTTP 200 (OK)
+     */
+    @GetMapping(params = "apos")
+    public ResponseEntity<List<UsuarioDTO>> listarUsuariosAposId(@RequestParam Long apos,
+                                                                 @RequestParam(defaultValue = "50") int tamanho) {
+        return ResponseEntity.ok(usuarioService.listarAposId(apos, tamanho));
+    }
+
+    /**
+     * Endpoint para buscar vários usuários de uma só vez, pelos identificadores e pelos nomes de usuário.
+     *
+     * @param busca os identificadores e nomes de usuário buscados
+     * @return uma ResponseEntity contendo os usuários indexados pelo valor informado e o status HTTP 200 (OK)
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<ResultadoBuscaLoteDTO> buscarEmLote(@RequestBody BuscaLoteDTO busca) {
+        return ResponseEntity.ok(usuarioService.buscarEmLote(busca));
+    }
+
+    /**
+     * Endpoint para exportar, em uma única requisição, todos os usuários que atendem aos filtros.
+     * Os registros são escritos na resposta à medida que são lidos do banco, um por linha,
+     * em NDJSON ou CSV.
+     *
+     * @param formato    o formato da exportação: ndjson (padrão) ou csv
+     * @param papel      o papel que os usuários devem possuir, opcional
+     * @param tipo       o tipo concreto dos usuários, opcional
+     * @param habilitado se os usuários devem estar habilitados, opcional
+     * @param response   a resposta HTTP em que os registros são escritos
+     * @throws IOException se ocorrer um erro ao escrever a resposta
+     */
+    @GetMapping("/exportacao")
+    public void exportarUsuarios(@RequestParam(defaultValue = "ndjson") String formato,
+                                 @RequestParam(required = false) Papel.NomePapel papel,
+                                 @RequestParam(required = false) TipoUsuario tipo,
+                                 @RequestParam(required = false) Boolean habilitado,
+                                 HttpServletResponse response) throws IOException {
+        FormatoExportacao formatoExportacao = FormatoExportacao.valueOf(formato.toUpperCase(Locale.ROOT));
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(formatoExportacao.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"usuarios." + formatoExportacao.name().toLowerCase(Locale.ROOT) + "\"");
+        usuarioExportador.exportar(formatoExportacao, new FiltroUsuario(papel, tipo, habilitado), response.getOutputStream());
+    }
+
     /**
      * Endpoint para atualizar os dados de um usuário existente.
+     * Se o cabeçalho If-Match for informado, a atualização só ocorre quando o usuário ainda estiver
+     * na versão indicada; caso contrário, retorna o status HTTP 412 (Precondition Failed).
+     * Somente administradores podem alterar os papéis; para os demais, informá-los resulta no status
+     * HTTP 403 (Forbidden), mesmo quando o usuário altera o próprio cadastro.
      *
-     * @param id         o identificador do usuário a ser atualizado
-     * @param usuarioDTO o DTO contendo os novos dados do usuário
+     * @param id             o identificador do usuário a ser atualizado
+     * @param ifMatch        o ETag da versão conhecida pelo cliente, opcional
+     * @param usuarioDTO     o DTO contendo os novos dados do usuário
+     * @param authentication a autenticação do usuário que faz a requisição
      * @return uma ResponseEntity contendo o DTO do usuário atualizado e o status HTTP 200 (OK)
+     * @throws AccessDeniedException se os papéis forem informados por quem não é administrador
      */
     @PutMapping("/{id}")
-    @PreAuthorize("hasRole('ADMIN') or #id == authentication.principal.id")
-    public ResponseEntity<UsuarioDTO> updateUsuario(@PathVariable Long id, @Valid @RequestBody UsuarioDTO usuarioDTO) {
-        UsuarioDTO updatedUsuario = usuarioService.update(id, usuarioDTO);
-        return ResponseEntity.ok(updatedUsuario);
+    public ResponseEntity<UsuarioDTO> updateUsuario(@PathVariable Long id,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                    @Valid @RequestBody UsuarioDTO usuarioDTO,
+                                                    Authentication authentication) {
+        verificarAlteracaoPapeis(usuarioDTO.getPapeis(), authentication);
+        UsuarioDTO updatedUsuario = usuarioService.update(id, usuarioDTO, UsuarioVersao.versoesDoIfMatch(id, ifMatch));
+        if (updatedUsuario.getVersao() == null) {
+            return ResponseEntity.ok(updatedUsuario);
+        }
+        return ResponseEntity.ok().eTag(UsuarioVersao.etag(id, updatedUsuario.getVersao())).body(updatedUsuario);
+    }
+
+    /**
+     * Endpoint para atualizar parcialmente um usuário existente.
+     * Apenas os campos presentes no corpo são alterados e somente as colunas modificadas são gravadas.
+     * Se o cabeçalho If-Match for informado, a atualização só ocorre quando o usuário ainda estiver
+     * na versão indicada; caso contrário, retorna o status HTTP 412 (Precondition Failed).
+     * Somente administradores podem alterar os papéis; para os demais, informá-los resulta no status
+     * HTTP 403 (Forbidden), mesmo quando o usuário altera o próprio cadastro.
+     *
+     * @param id             o identificador do usuário a ser atualizado
+     * @param ifMatch        o ETag da versão conhecida pelo cliente, opcional
+     * @param atualizacao    os campos a serem alterados
+     * @param authentication a autenticação do usuário que faz a requisição
+     * @return uma ResponseEntity contendo o DTO do usuário atualizado e o status HTTP 200 (OK)
+     * @throws AccessDeniedException se os papéis forem informados por quem não é administrador
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<UsuarioDTO> patchUsuario(@PathVariable Long id,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                   @Valid @RequestBody AtualizacaoParcialUsuarioDTO atualizacao,
+                                                   Authentication authentication) {
+        verificarAlteracaoPapeis(atualizacao.getPapeis(), authentication);
+        UsuarioDTO updatedUsuario = usuarioService.atualizarParcialmente(id, atualizacao, UsuarioVersao.versoesDoIfMatch(id, ifMatch));
+        if (updatedUsuario.getVersao() == null) {
+            return ResponseEntity.ok(updatedUsuario);
+        }
+        return ResponseEntity.ok().eTag(UsuarioVersao.etag(id, updatedUsuario.getVersao())).body(updatedUsuario);
     }
 
     /**
@@ -112,12 +239,59 @@ public class UsuarioController {
      * @return uma ResponseEntity com o status HTTP 204 (No Content)
      */
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> deleteUsuario(@PathVariable Long id) {
         usuarioService.deleteUsuario(id);
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Endpoint para conceder um papel a vários usuários de uma só vez.
+     *
+     * @param nomePapel o papel a ser concedido
+     * @param operacao  a lista de ids ou o filtro dos usuários
+     * @return uma ResponseEntity contendo a quantidade de usuários alterados e o status HTTP 200 (OK)
+     */
+    @PostMapping("/lote/papeis/{nomePapel}/concessao")
+    public ResponseEntity<ResultadoLoteDTO> concederPapelEmLote(@PathVariable Papel.NomePapel nomePapel,
+                                                                @RequestBody OperacaoLoteDTO operacao) {
+        return ResponseEntity.ok(usuarioService.concederPapelEmLote(nomePapel, operacao));
+    }
+
+    /**
+     * Endpoint para revogar um papel de vários usuários de uma só vez.
+     *
+     * @param nomePapel o papel a ser revogado
+     * @param operacao  a lista de ids ou o filtro dos usuários
+     * @return uma ResponseEntity contendo a quantidade de usuários alterados e o status HTTP 200 (OK)
+     */
+    @PostMapping("/lote/papeis/{nomePapel}/revogacao")
+    public ResponseEntity<ResultadoLoteDTO> revogarPapelEmLote(@PathVariable Papel.NomePapel nomePapel,
+                                                               @RequestBody OperacaoLoteDTO operacao) {
+        return ResponseEntity.ok(usuarioService.revogarPapelEmLote(nomePapel, operacao));
+    }
+
+    /**
+     * Endpoint para habilitar, desabilitar, bloquear ou desbloquear vários usuários de uma só vez.
+     *
+     * @param operacao a lista de ids ou o filtro dos usuários e os novos valores de enabled e accountNonLocked
+     * @return uma ResponseEntity contendo a quantidade de usuários alterados e o status HTTP 200 (OK)
+     */
+    @PostMapping("/lote/situacao")
+    public ResponseEntity<ResultadoLoteDTO> atualizarSituacaoEmLote(@RequestBody OperacaoLoteDTO operacao) {
+        return ResponseEntity.ok(usuarioService.atualizarSituacaoEmLote(operacao));
+    }
+
+    /**
+     * Endpoint para deletar vários usuários de uma só vez.
+     *
+     * @param operacao a lista de ids ou o filtro dos usuários
+     * @return uma ResponseEntity contendo a quantidade de usuários deletados e o status HTTP 200 (OK)
+     */
+    @PostMapping("/lote/exclusao")
+    public ResponseEntity<ResultadoLoteDTO> deleteUsuariosEmLote(@RequestBody OperacaoLoteDTO operacao) {
+        return ResponseEntity.ok(usuarioService.deleteUsuariosEmLote(operacao));
+    }
+
     /**
      * Endpoint para registrar um novo usuário no sistema.
      *
@@ -135,6 +309,75 @@ public class UsuarioController {
         return ResponseEntity.created(location).body(novoUsuario);
     }
 
+    /**
+     * Monta a resposta de uma versão de usuário a partir dos bytes em cache, no formato negociado pelo
+     * cabeçalho Accept, serializando o DTO somente se essa versão ainda não tiver sido servida nesse formato.
+     * <p>
+     * O corpo é guardado com a versão lida junto com os dados. Se ele for anterior à versão conferida, a
+     * requisição se juntou a um carregamento iniciado antes da escrita, e o DTO é carregado mais uma vez;
+     * o novo carregamento começa depois dela. Um corpo mais novo que o ETag é respondido como está, pois
+     * uma revalidação ou um If-Match com esse ETag apenas leva o cliente a buscar a versão atual.
+     *
+     * @param versao  a versão do usuário
+     * @param request a requisição, utilizada para negociar o formato
+     * @param usuario o fornecedor do DTO, chamado apenas em caso de falha no cache
+     * @return uma ResponseEntity contendo o usuário e os cabeçalhos de cache
+     */
+    private ResponseEntity<byte[]> respostaDeVersao(UsuarioVersao versao, WebRequest request, Supplier<UsuarioDTO> usuario) {
+        FormatoResposta formato = FormatoResposta.negociar(request.getHeader(HttpHeaders.ACCEPT));
+        RespostaSerializadaCache.Resposta resposta = obterCorpo(versao, formato, usuario);
+        if (resposta.versao() < versao.versao()) {
+            resposta = obterCorpo(versao, formato, usuario);
+        }
+        return ResponseEntity.ok()
+                .headers(cabecalhosDeVersao(versao))
+                .varyBy(HttpHeaders.ACCEPT)
+                .contentType(formato.getMediaType())
+                .body(resposta.corpo());
+    }
+
+    /**
+     * Obtém do cache o corpo de um usuário, guardado com a versão do DTO carregado.
+     *
+     * @param versao  a versão conferida do usuário
+     * @param formato o formato da resposta
+     * @param usuario o fornecedor do DTO
+     * @return o corpo e a versão a que ele corresponde
+     */
+    private RespostaSerializadaCache.Resposta obterCorpo(UsuarioVersao versao, FormatoResposta formato,
+                                                        Supplier<UsuarioDTO> usuario) {
+        return respostaCache.obter(RespostaSerializadaCache.USUARIO, versao.id(), versao.versao(), formato,
+                usuario, UsuarioDTO::getVersao);
+    }
+
+    /**
+     * Monta os cabeçalhos de cache de uma versão de usuário.
+     *
+     * @param versao a versão do usuário
+     * @return os cabeçalhos ETag e, se conhecido, Last-Modified
+     */
+    private HttpHeaders cabecalhosDeVersao(UsuarioVersao versao) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(versao.etag());
+        if (versao.ultimaModificacao() >= 0) {
+            headers.setLastModified(versao.ultimaModificacao());
+        }
+        return headers;
+    }
+
+    /**
+     * Garante que apenas administradores informem papéis ao atualizar um usuário.
+     *
+     * @param papeis         os papéis informados no corpo, ou {@code null} se ausentes
+     * @param authentication a autenticação do usuário que faz a requisição
+     * @throws AccessDeniedException se os papéis forem informados por quem não é administrador
+     */
+    private static void verificarAlteracaoPapeis(Set<Papel.NomePapel> papeis, Authentication authentication) {
+        if (papeis != null && !RegrasUsuario.ADMIN.permite(ContextoAutorizacao.de(authentication, null))) {
+            throw new AccessDeniedException("Somente administradores podem alterar os papéis de um usuário");
+        }
+    }
+
     /**
      * Manipulador de exceção para IllegalArgumentException.
      *
@@ -158,4 +401,16 @@ public class UsuarioController {
         ErrorResponse errorResponse = new ErrorResponse(HttpStatus.NOT_FOUND.value(), e.getMessage());
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
     }
+
+    /**
+     * Manipulador de exceção para OptimisticLockingFailureException.
+     *
+     * @param e a exceção lançada
+     * @return uma ResponseEntity contendo a resposta de erro e o status HTTP 412 (Precondition Failed)
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(OptimisticLockingFailureException e) {
+        ErrorResponse errorResponse = new ErrorResponse(HttpStatus.PRECONDITION_FAILED.value(), e.getMessage());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(errorResponse);
+    }
 }
\ No newline at end of file
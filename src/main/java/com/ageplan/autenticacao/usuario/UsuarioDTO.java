@@ -1,6 +1,7 @@
 package com.ageplan.autenticacao.usuario;
 
 import com.ageplan.autenticacao.papel.Papel;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -53,6 +54,13 @@ public class UsuarioDTO implements Serializable {
      */
     private Set<Papel.NomePapel> papeis;
 
+    /**
+     * Versão do registro, utilizada para compor o ETag das respostas.
+     * Não faz parte do corpo JSON.
+     */
+    @JsonIgnore
+    private Long versao;
+
     /**
      * Construtor que aceita uma entidade {@link Usuario}.
      *
@@ -67,6 +75,7 @@ public class UsuarioDTO implements Serializable {
         this.papeis = usuario.getPapeis().stream()
                 .map(Papel::getNomePapel)
                 .collect(java.util.stream.Collectors.toSet());
+        this.versao = usuario.getVersao();
     }
 
     /**
@@ -0,0 +1,108 @@
+package com.ageplan.autenticacao.usuario;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+
+/**
+ * Componente responsável por escrever a exportação de usuários diretamente em um fluxo de saída,
+ * nos formatos definidos em {@link FormatoExportacao}.
+ */
+@Component
+public class UsuarioExportador {
+
+    private static final String CABECALHO_CSV = "id,nomeCompleto,nomeUsuario,email,papeis";
+
+    private final UsuarioService usuarioService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Construtor que injeta as dependências necessárias.
+     *
+     * @param usuarioService o serviço de usuário
+     * @param objectMapper   o mapeador JSON da aplicação
+     */
+    @Autowired
+    public UsuarioExportador(UsuarioService usuarioService, ObjectMapper objectMapper) {
+        this.usuarioService = usuarioService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Exporta os usuários que atendem ao filtro, escrevendo um registro por linha.
+     *
+     * @param formato o formato da exportação
+     * @param filtro  os critérios de seleção
+     * @param saida   o fluxo de saída, que não é fechado por este método
+     * @return a quantidade de usuários exportados
+     * @throws IOException se ocorrer um erro de escrita
+     */
+    public long exportar(FormatoExportacao formato, FiltroUsuario filtro, OutputStream saida) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        if (formato == FormatoExportacao.CSV) {
+            writer.write(CABECALHO_CSV);
+            writer.write('\n');
+        }
+        long total;
+        try {
+            total = usuarioService.exportarUsuarios(filtro, dto -> escrever(formato, dto, writer));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        return total;
+    }
+
+    /**
+     * Escreve um usuário no formato indicado, seguido de uma quebra de linha.
+     *
+     * @param formato o formato da exportação
+     * @param dto     o usuário a ser escrito
+     * @param writer  o destino da escrita
+     */
+    private void escrever(FormatoExportacao formato, UsuarioDTO dto, Writer writer) {
+        try {
+            if (formato == FormatoExportacao.CSV) {
+                writer.write(String.valueOf(dto.getId()));
+                writer.write(',');
+                writer.write(csv(dto.getNomeCompleto()));
+                writer.write(',');
+                writer.write(csv(dto.getNomeUsuario()));
+                writer.write(',');
+                writer.write(csv(dto.getEmail()));
+                writer.write(',');
+                writer.write(dto.getPapeis().stream().map(Enum::name).collect(Collectors.joining("|")));
+            } else {
+                writer.write(objectMapper.writeValueAsString(dto));
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Formata um valor como campo CSV, colocando-o entre aspas quando necessário.
+     *
+     * @param valor o valor a ser formatado
+     * @return o campo CSV
+     */
+    private static String csv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,116 @@
+package com.ageplan.autenticacao.usuario;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tarefa agendada que remove definitivamente os usuários excluídos logicamente e os seus vínculos
+ * em {@code usuario_papel}.
+ * <p>
+ * A remoção é feita em lotes de tamanho limitado, cada um em sua própria transação, para que os
+ * bloqueios sejam curtos. Por padrão roda de madrugada, fora do horário de pico.
+ * <p>
+ * As chaves do índice global da fragmentação já são liberadas na exclusão lógica; o expurgo não as
+ * toca, pois a essa altura podem pertencer a um novo cadastro com o mesmo login.
+ */
+@Component
+public class UsuarioExpurgoJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(UsuarioExpurgoJob.class);
+
+    private final UsuarioRepository usuarioRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoLote;
+    private final int maximoLotes;
+
+    private final AtomicLong pendentes = new AtomicLong();
+    private final Counter removidos;
+    private final Counter lotes;
+    private final Timer duracao;
+
+    /**
+     * Construtor que injeta as dependências necessárias.
+     *
+     * @param usuarioRepository  o repositório de usuários
+     * @param transactionManager o gerenciador de transações, usado para abrir uma transação por lote
+     * @param meterRegistry      o registro de métricas
+     * @param tamanhoLote        a quantidade máxima de usuários removidos por lote
+     * @param maximoLotes        a quantidade máxima de lotes por execução
+     */
+    @Autowired
+    public UsuarioExpurgoJob(UsuarioRepository usuarioRepository,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${usuario.expurgo.tamanho-lote:500}") int tamanhoLote,
+                             @Value("${usuario.expurgo.maximo-lotes:1000}") int maximoLotes) {
+        this.usuarioRepository = usuarioRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoLote = tamanhoLote;
+        this.maximoLotes = maximoLotes;
+        this.removidos = Counter.builder("usuario.expurgo.removidos")
+                .description("Usuários removidos definitivamente pelo expurgo")
+                .register(meterRegistry);
+        this.lotes = Counter.builder("usuario.expurgo.lotes")
+                .description("Lotes executados pelo expurgo")
+                .register(meterRegistry);
+        this.duracao = Timer.builder("usuario.expurgo.duracao")
+                .description("Duração de cada execução do expurgo")
+                .register(meterRegistry);
+        Gauge.builder("usuario.expurgo.pendentes", pendentes, AtomicLong::get)
+                .description("Usuários excluídos aguardando expurgo na última execução")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Executa o expurgo até não restarem usuários excluídos ou até atingir o máximo de lotes.
+     *
+     * @return a quantidade de usuários removidos nesta execução
+     */
+    @Scheduled(cron = "${usuario.expurgo.cron:0 0 3 * * *}")
+    public long expurgar() {
+        return duracao.record(() -> {
+            pendentes.set(usuarioRepository.countExcluidos());
+            long total = 0;
+            for (int lote = 0; lote < maximoLotes && pendentes.get() > 0; lote++) {
+                Integer removidosNoLote = transactionTemplate.execute(status -> expurgarLote());
+                if (removidosNoLote == null || removidosNoLote == 0) {
+                    break;
+                }
+                total += removidosNoLote;
+                pendentes.addAndGet(-removidosNoLote);
+                logger.info("Expurgo de usuários: {} removidos, {} pendentes", total, pendentes.get());
+            }
+            return total;
+        });
+    }
+
+    /**
+     * Remove um lote de usuários excluídos e os seus vínculos de papéis.
+     *
+     * @return a quantidade de usuários removidos
+     */
+    private int expurgarLote() {
+        List<Long> ids = usuarioRepository.findIdsExcluidos(tamanhoLote);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        usuarioRepository.deletePapeisByUsuarioIdIn(ids);
+        int quantidade = usuarioRepository.expurgarByIdIn(ids);
+        removidos.increment(quantidade);
+        lotes.increment();
+        return quantidade;
+    }
+}
@@ -0,0 +1,93 @@
+package com.ageplan.autenticacao.usuario;
+
+import com.ageplan.autenticacao.papel.Papel;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Projeção de leitura de um {@link Usuario}, com uma linha por papel atribuído.
+ * Seleciona apenas as colunas expostas pelo {@link UsuarioDTO}, sem carregar a entidade
+ * no contexto de persistência.
+ *
+ * @param id           o identificador do usuário
+ * @param nomeCompleto o nome completo do usuário
+ * @param nomeUsuario  o nome de usuário
+ * @param email        o email do usuário
+ * @param versao       a versão do registro lida na mesma consulta, que identifica o conteúdo da linha
+ * @param nomePapel    o papel desta linha, ou {@code null} se o usuário não tiver papéis
+ */
+public record UsuarioLinha(Long id, String nomeCompleto, String nomeUsuario, String email, Long versao,
+                           Papel.NomePapel nomePapel) {
+
+    /**
+     * Agrupa as linhas por usuário, mantendo a ordem em que os usuários aparecem.
+     *
+     * @param linhas as linhas retornadas pela consulta
+     * @return a lista de DTOs, um por usuário
+     */
+    public static List<UsuarioDTO> agrupar(Collection<UsuarioLinha> linhas) {
+        Map<Long, UsuarioDTO> usuarios = new LinkedHashMap<>();
+        for (UsuarioLinha linha : linhas) {
+            UsuarioDTO dto = usuarios.computeIfAbsent(linha.id(), id -> linha.toDTO());
+            if (linha.nomePapel() != null) {
+                dto.getPapeis().add(linha.nomePapel());
+            }
+        }
+        return new ArrayList<>(usuarios.values());
+    }
+
+    /**
+     * Agrupa linhas ordenadas por usuário à medida que são lidas, entregando cada DTO assim que
+     * todas as suas linhas forem consumidas. Apenas um usuário é mantido em memória por vez.
+     *
+     * @param linhas  as linhas, ordenadas pelo ID do usuário
+     * @param destino o consumidor que recebe cada DTO completo
+     * @return a quantidade de usuários entregues
+     */
+    public static long agruparEmSequencia(Iterator<UsuarioLinha> linhas, Consumer<UsuarioDTO> destino) {
+        long total = 0;
+        UsuarioDTO atual = null;
+        while (linhas.hasNext()) {
+            UsuarioLinha linha = linhas.next();
+            if (atual == null || !Objects.equals(atual.getId(), linha.id())) {
+                if (atual != null) {
+                    destino.accept(atual);
+                    total++;
+                }
+                atual = linha.toDTO();
+            }
+            if (linha.nomePapel() != null) {
+                atual.getPapeis().add(linha.nomePapel());
+            }
+        }
+        if (atual != null) {
+            destino.accept(atual);
+            total++;
+        }
+        return total;
+    }
+
+    /**
+     * Cria um DTO com os dados desta linha e um conjunto de papéis ainda vazio.
+     *
+     * @return o DTO criado
+     */
+    UsuarioDTO toDTO() {
+        UsuarioDTO dto = new UsuarioDTO();
+        dto.setId(id);
+        dto.setNomeCompleto(nomeCompleto);
+        dto.setNomeUsuario(nomeUsuario);
+        dto.setEmail(email);
+        dto.setVersao(versao);
+        dto.setPapeis(EnumSet.noneOf(Papel.NomePapel.class));
+        return dto;
+    }
+}
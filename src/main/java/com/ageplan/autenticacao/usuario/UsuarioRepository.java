@@ -1,50 +1,63 @@
 package com.ageplan.autenticacao.usuario;
 
+import com.ageplan.autenticacao.papel.HierarquiaPapeis;
+import com.ageplan.autenticacao.papel.Papel;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Interface de repositório para gerenciar entidades Usuario.
+ * A busca pelo nome de usuário é declarada em {@link UsuarioRepositoryCustom}.
  */
 @Repository
-public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
+public interface UsuarioRepository extends JpaRepository<Usuario, Long>, UsuarioRepositoryCustom {
 
     /**
-     * Encontra um Usuario pelo email.
+     * Encontra um Usuario pelo email, sem distinção de maiúsculas e minúsculas.
      *
      * @param email o email do Usuario
      * @return um Optional contendo o Usuario encontrado, ou vazio se não encontrado
      */
-    Optional<Usuario> findByEmail(String email);
+    default Optional<Usuario> findByEmail(String email) {
+        return findByEmailNormalizado(Usuario.normalizar(email));
+    }
 
     /**
-     * Encontra um Usuario pelo nome de usuário.
+     * Encontra um Usuario pelo email normalizado.
      *
-     * @param nomeUsuario o nome de usuário do Usuario
+     * @param emailNormalizado o email normalizado por {@link Usuario#normalizar(String)}
      * @return um Optional contendo o Usuario encontrado, ou vazio se não encontrado
      */
-    Optional<Usuario> findByNomeUsuario(String nomeUsuario);
+    Optional<Usuario> findByEmailNormalizado(String emailNormalizado);
 
     /**
-     * Verifica se um Usuario existe pelo email.
+     * Verifica se um Usuario existe pelo email, sem distinção de maiúsculas e minúsculas.
      *
-     * @param email o email a ser verificado
+     * @param email o email a ser verificado, já normalizado
      * @return true se um Usuario com o email fornecido existir, false caso contrário
      */
-    boolean existsByEmail(String email);
+    @Query("SELECT COUNT(u) > 0 FROM Usuario u WHERE u.emailNormalizado = :email")
+    boolean existsByEmail(@Param("email") String email);
 
     /**
-     * Verifica se um Usuario existe pelo nome de usuário.
+     * Verifica se um Usuario existe pelo nome de usuário, sem distinção de maiúsculas e minúsculas.
      *
-     * @param nomeUsuario o nome de usuário a ser verificado
+     * @param nomeUsuario o nome de usuário a ser verificado, já normalizado
      * @return true se um Usuario com o nome de usuário fornecido existir, false caso contrário
      */
-    boolean existsByNomeUsuario(String nomeUsuario);
+    @Query("SELECT COUNT(u) > 0 FROM Usuario u WHERE u.nomeUsuarioNormalizado = :nomeUsuario")
+    boolean existsByNomeUsuario(@Param("nomeUsuario") String nomeUsuario);
 
     /**
      * Encontra Usuarios cujo nome completo contém a string fornecida.
@@ -56,31 +69,202 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     List<Usuario> findByNomeCompletoContaining(@Param("nome") String nome);
 
     /**
-     * Encontra Usuarios pelo papel.
+     * Encontra Usuarios que possuem o papel, diretamente ou por um papel que o implica na
+     * {@link HierarquiaPapeis}. Assim, administradores continuam entre os resultados de {@code INSTRUTOR}
+     * mesmo guardando apenas o papel {@code ADMIN}.
      *
      * @param nomePapel o nome do papel
      * @return uma lista de Usuarios com o papel fornecido
      */
-    @Query("SELECT u FROM Usuario u JOIN u.papeis p WHERE p.nomePapel = :nomePapel")
-    List<Usuario> findByPapel(@Param("nomePapel") String nomePapel);
+    default List<Usuario> findByPapel(String nomePapel) {
+        return findByNomesPapeis(HierarquiaPapeis.implicantes(Papel.NomePapel.valueOf(nomePapel)));
+    }
+
+    /**
+     * Encontra Usuarios que possuem diretamente algum dos papéis, sem repetições.
+     *
+     * @param nomesPapeis os nomes dos papéis
+     * @return uma lista de Usuarios com algum dos papéis fornecidos
+     */
+    @Query("SELECT DISTINCT u FROM Usuario u JOIN u.papeis p WHERE p.nomePapel IN :nomesPapeis")
+    List<Usuario> findByNomesPapeis(@Param("nomesPapeis") Collection<Papel.NomePapel> nomesPapeis);
 
     /**
      * Verifica se um Usuario existe pelo email, excluindo um Usuario específico pelo ID.
      *
-     * @param email o email a ser verificado
+     * @param email o email a ser verificado, já normalizado
      * @param id    o ID do Usuario a ser excluído
      * @return true se um Usuario com o email fornecido existir, excluindo o Usuario especificado, false caso contrário
      */
-    @Query("SELECT COUNT(u) > 0 FROM Usuario u WHERE u.email = :email AND u.id != :id")
+    @Query("SELECT COUNT(u) > 0 FROM Usuario u WHERE u.emailNormalizado = :email AND u.id != :id")
     boolean existsByEmailAndIdNot(@Param("email") String email, @Param("id") Long id);
 
     /**
      * Verifica se um Usuario existe pelo nome de usuário, excluindo um Usuario específico pelo ID.
      *
-     * @param nomeUsuario o nome de usuário a ser verificado
+     * @param nomeUsuario o nome de usuário a ser verificado, já normalizado
      * @param id          o ID do Usuario a ser excluído
      * @return true se um Usuario com o nome de usuário fornecido existir, excluindo o Usuario especificado, false caso contrário
      */
-    @Query("SELECT COUNT(u) > 0 FROM Usuario u WHERE u.nomeUsuario = :nomeUsuario AND u.id != :id")
+    @Query("SELECT COUNT(u) > 0 FROM Usuario u WHERE u.nomeUsuarioNormalizado = :nomeUsuario AND u.id != :id")
     boolean existsByNomeUsuarioAndIdNot(@Param("nomeUsuario") String nomeUsuario, @Param("id") Long id);
+
+    /**
+     * Busca a projeção de leitura de um Usuario pelo ID, com uma linha por papel.
+     * A consulta seleciona somente as colunas do {@link UsuarioDTO} e não gerencia entidades.
+     *
+     * @param id o ID do Usuario
+     * @return as linhas do Usuario encontrado, ou uma lista vazia se não encontrado
+     */
+    @Query("SELECT new com.ageplan.autenticacao.usuario.UsuarioLinha(u.id, u.nomeCompleto, u.nomeUsuario, u.email, u.versao, p.nomePapel) " +
+            "FROM Usuario u LEFT JOIN u.papeis p WHERE u.id = :id")
+    List<UsuarioLinha> findLinhasById(@Param("id") Long id);
+
+    /**
+     * Busca a projeção de leitura de um Usuario pelo nome de usuário, sem distinção de maiúsculas e
+     * minúsculas, com uma linha por papel.
+     *
+     * @param nomeUsuario o nome de usuário do Usuario
+     * @return as linhas do Usuario encontrado, ou uma lista vazia se não encontrado
+     */
+    default List<UsuarioLinha> findLinhasByNomeUsuario(String nomeUsuario) {
+        return findLinhasByNomeUsuarioNormalizado(Usuario.normalizar(nomeUsuario));
+    }
+
+    /**
+     * Busca a projeção de leitura de um Usuario pelo nome de usuário normalizado, com uma linha por papel.
+     * A consulta seleciona somente as colunas do {@link UsuarioDTO} e não gerencia entidades.
+     *
+     * @param nomeUsuarioNormalizado o nome de usuário normalizado por {@link Usuario#normalizar(String)}
+     * @return as linhas do Usuario encontrado, ou uma lista vazia se não encontrado
+     */
+    @Query("SELECT new com.ageplan.autenticacao.usuario.UsuarioLinha(u.id, u.nomeCompleto, u.nomeUsuario, u.email, u.versao, p.nomePapel) " +
+            "FROM Usuario u LEFT JOIN u.papeis p WHERE u.nomeUsuarioNormalizado = :nomeUsuario")
+    List<UsuarioLinha> findLinhasByNomeUsuarioNormalizado(@Param("nomeUsuario") String nomeUsuarioNormalizado);
+
+    /**
+     * Busca a projeção de leitura de vários usuários pelos IDs, com uma linha por papel.
+     * Os papéis vêm na mesma consulta, sem uma ida ao banco por usuário.
+     *
+     * @param ids os IDs dos usuários
+     * @return as linhas dos usuários encontrados
+     */
+    @Query("SELECT new com.ageplan.autenticacao.usuario.UsuarioLinha(u.id, u.nomeCompleto, u.nomeUsuario, u.email, u.versao, p.nomePapel) " +
+            "FROM Usuario u LEFT JOIN u.papeis p WHERE u.id IN :ids")
+    List<UsuarioLinha> findLinhasByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Busca a projeção de leitura de vários usuários pelos nomes de usuário, sem distinção de maiúsculas e
+     * minúsculas, com uma linha por papel.
+     *
+     * @param nomesUsuario os nomes de usuário
+     * @return as linhas dos usuários encontrados
+     */
+    default List<UsuarioLinha> findLinhasByNomeUsuarioIn(Collection<String> nomesUsuario) {
+        return findLinhasByNomeUsuarioNormalizadoIn(nomesUsuario.stream().map(Usuario::normalizar).distinct().toList());
+    }
+
+    /**
+     * Busca a projeção de leitura de vários usuários pelos nomes de usuário normalizados, com uma linha por papel.
+     * Os papéis vêm na mesma consulta, sem uma ida ao banco por usuário.
+     *
+     * @param nomesUsuarioNormalizados os nomes de usuário normalizados por {@link Usuario#normalizar(String)}
+     * @return as linhas dos usuários encontrados
+     */
+    @Query("SELECT new com.ageplan.autenticacao.usuario.UsuarioLinha(u.id, u.nomeCompleto, u.nomeUsuario, u.email, u.versao, p.nomePapel) " +
+            "FROM Usuario u LEFT JOIN u.papeis p WHERE u.nomeUsuarioNormalizado IN :nomesUsuario")
+    List<UsuarioLinha> findLinhasByNomeUsuarioNormalizadoIn(@Param("nomesUsuario") Collection<String> nomesUsuarioNormalizados);
+
+    /**
+     * Busca os IDs dos Usuarios seguintes ao ID informado, para a paginação por chave.
+     *
+     * @param aposId o ID a partir do qual a busca começa, exclusive
+     * @param limite a quantidade máxima de IDs
+     * @return os IDs encontrados, em ordem crescente
+     */
+    @Query("SELECT u.id FROM Usuario u WHERE u.id > :aposId ORDER BY u.id")
+    List<Long> findIdsAposId(@Param("aposId") Long aposId, Limit limite);
+
+    /**
+     * Busca somente os metadados de versão de um Usuario pelo ID.
+     *
+     * @param id o ID do Usuario
+     * @return um Optional contendo a versão encontrada, ou vazio se não encontrado
+     */
+    @Query("SELECT new com.ageplan.autenticacao.usuario.UsuarioVersao(u.id, u.versao, u.atualizadoEm) " +
+            "FROM Usuario u WHERE u.id = :id")
+    Optional<UsuarioVersao> findVersaoById(@Param("id") Long id);
+
+    /**
+     * Busca somente os metadados de versão de um Usuario pelo nome de usuário, sem distinção de
+     * maiúsculas e minúsculas.
+     *
+     * @param nomeUsuario o nome de usuário do Usuario
+     * @return um Optional contendo a versão encontrada, ou vazio se não encontrado
+     */
+    default Optional<UsuarioVersao> findVersaoByNomeUsuario(String nomeUsuario) {
+        return findVersaoByNomeUsuarioNormalizado(Usuario.normalizar(nomeUsuario));
+    }
+
+    /**
+     * Busca somente os metadados de versão de um Usuario pelo nome de usuário normalizado.
+     *
+     * @param nomeUsuarioNormalizado o nome de usuário normalizado por {@link Usuario#normalizar(String)}
+     * @return um Optional contendo a versão encontrada, ou vazio se não encontrado
+     */
+    @Query("SELECT new com.ageplan.autenticacao.usuario.UsuarioVersao(u.id, u.versao, u.atualizadoEm) " +
+            "FROM Usuario u WHERE u.nomeUsuarioNormalizado = :nomeUsuario")
+    Optional<UsuarioVersao> findVersaoByNomeUsuarioNormalizado(@Param("nomeUsuario") String nomeUsuarioNormalizado);
+
+    /**
+     * Remove os vínculos de papéis dos usuários informados com um único DELETE.
+     *
+     * @param ids os IDs dos usuários
+     * @return a quantidade de vínculos removidos
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "usuario_papel"))
+    @Query(value = "DELETE FROM usuario_papel WHERE usuario_id IN (:ids)", nativeQuery = true)
+    int deletePapeisByUsuarioIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Marca um Usuario como excluído com um único UPDATE, sem carregar a entidade.
+     *
+     * @param id o ID do Usuario
+     * @return 1 se o Usuario foi marcado, 0 se não existir ou já estiver excluído
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "usuario"))
+    @Query(value = "UPDATE usuario SET excluido = true, versao = versao + 1, atualizado_em = CURRENT_TIMESTAMP " +
+            "WHERE id = :id AND excluido = false", nativeQuery = true)
+    int softDeleteById(@Param("id") Long id);
+
+    /**
+     * Conta os Usuarios marcados como excluídos que ainda não foram expurgados.
+     *
+     * @return a quantidade de Usuarios pendentes de expurgo
+     */
+    @Query(value = "SELECT COUNT(*) FROM usuario WHERE excluido = true", nativeQuery = true)
+    long countExcluidos();
+
+    /**
+     * Busca um lote de IDs de Usuarios marcados como excluídos.
+     *
+     * @param limite a quantidade máxima de IDs
+     * @return os IDs encontrados, em ordem crescente
+     */
+    @Query(value = "SELECT id FROM usuario WHERE excluido = true ORDER BY id LIMIT :limite", nativeQuery = true)
+    List<Long> findIdsExcluidos(@Param("limite") int limite);
+
+    /**
+     * Remove definitivamente os Usuarios informados que estejam marcados como excluídos.
+     * Os vínculos em {@code usuario_papel} devem ser removidos antes.
+     *
+     * @param ids os IDs dos Usuarios
+     * @return a quantidade de Usuarios removidos
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "usuario"))
+    @Query(value = "DELETE FROM usuario WHERE id IN (:ids) AND excluido = true", nativeQuery = true)
+    int expurgarByIdIn(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,107 @@
+package com.ageplan.autenticacao.usuario;
+
+import com.ageplan.autenticacao.config.fragmentacao.RoteadorUsuarios;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Fragmento de repositório com consultas de {@link Usuario} que não podem ser expressas
+ * por métodos derivados do Spring Data.
+ */
+public interface UsuarioRepositoryCustom {
+
+    /**
+     * Quantidade máxima de IDs em uma cláusula IN, nas consultas e nos comandos em lote.
+     */
+    int TAMANHO_LOTE = 1000;
+
+    /**
+     * Encontra um Usuario pelo nome de usuário.
+     * A busca é feita pelo identificador natural (o nome de usuário normalizado), sendo resolvida
+     * pelo cache de segundo nível sempre que possível.
+     *
+     * @param nomeUsuario o nome de usuário do Usuario
+     * @return um Optional contendo o Usuario encontrado, ou vazio se não encontrado
+     */
+    Optional<Usuario> findByNomeUsuario(String nomeUsuario);
+
+    /**
+     * Encontra um Usuario pelo nome de usuário ou pelo email, sem distinção de maiúsculas e minúsculas.
+     * Um valor sem "@" só pode ser nome de usuário e é resolvido pelo identificador natural; um valor
+     * com "@" é buscado pelo email normalizado e, apenas se não houver email correspondente, pelo
+     * nome de usuário. Em ambos os casos, o login típico custa uma única busca indexada.
+     *
+     * @param login o nome de usuário ou email informado
+     * @return um Optional contendo o Usuario encontrado, ou vazio se não encontrado
+     */
+    Optional<Usuario> findByLogin(String login);
+
+    /**
+     * Percorre a projeção de leitura dos usuários que atendem ao filtro, com uma linha por papel,
+     * ordenada pelo ID. As linhas são lidas de um cursor somente-avançar no servidor, de modo que
+     * o consumo de memória não depende do tamanho da tabela.
+     * <p>
+     * O stream deve ser consumido dentro de uma transação e fechado ao final.
+     *
+     * @param filtro os critérios de seleção
+     * @return o stream de linhas
+     */
+    Stream<UsuarioLinha> streamLinhas(FiltroUsuario filtro);
+
+    /**
+     * Altera as flags {@code enabled} e {@code accountNonLocked} dos usuários selecionados
+     * com um único UPDATE por lote de IDs, incrementando a versão de cada registro.
+     * Flags nulas não são alteradas.
+     *
+     * @param ids              os IDs dos usuários, ou {@code null} para usar o filtro
+     * @param filtro           os critérios de seleção, usados quando {@code ids} é nulo
+     * @param enabled          o novo valor de {@code enabled}
+     * @param accountNonLocked o novo valor de {@code accountNonLocked}
+     * @return a quantidade de usuários alterados
+     */
+    int atualizarSituacaoEmLote(List<Long> ids, FiltroUsuario filtro, Boolean enabled, Boolean accountNonLocked);
+
+    /**
+     * Concede um papel aos usuários selecionados que ainda não o possuem, com um INSERT ... SELECT
+     * na tabela {@code usuario_papel}, incrementando a versão dos usuários alterados.
+     *
+     * @param ids     os IDs dos usuários, ou {@code null} para usar o filtro
+     * @param filtro  os critérios de seleção, usados quando {@code ids} é nulo
+     * @param papelId o ID do papel concedido
+     * @return a quantidade de usuários que receberam o papel
+     */
+    int concederPapelEmLote(List<Long> ids, FiltroUsuario filtro, Long papelId);
+
+    /**
+     * Revoga um papel dos usuários selecionados com um único DELETE na tabela {@code usuario_papel},
+     * incrementando a versão dos usuários alterados.
+     *
+     * @param ids     os IDs dos usuários, ou {@code null} para usar o filtro
+     * @param filtro  os critérios de seleção, usados quando {@code ids} é nulo
+     * @param papelId o ID do papel revogado
+     * @return a quantidade de usuários que perderam o papel
+     */
+    int revogarPapelEmLote(List<Long> ids, FiltroUsuario filtro, Long papelId);
+
+    /**
+     * Marca como excluídos os usuários selecionados com um único UPDATE por lote de IDs.
+     * Os vínculos de papéis são mantidos até o expurgo.
+     *
+     * @param ids    os IDs dos usuários, ou {@code null} para usar o filtro
+     * @param filtro os critérios de seleção, usados quando {@code ids} é nulo
+     * @return a quantidade de usuários marcados
+     */
+    int softDeleteEmLote(List<Long> ids, FiltroUsuario filtro);
+
+    /**
+     * Busca o nome de usuário e o email normalizados dos usuários não excluídos selecionados, com uma
+     * consulta por lote de IDs. Usado para liberar as chaves do índice global antes da exclusão.
+     *
+     * @param ids    os IDs dos usuários, ou {@code null} para usar o filtro
+     * @param filtro os critérios de seleção, usados quando {@code ids} é nulo
+     * @return as chaves dos usuários selecionados
+     */
+    List<RoteadorUsuarios.ChavesUsuario> findChavesEmLote(List<Long> ids, FiltroUsuario filtro);
+}
@@ -0,0 +1,267 @@
+package com.ageplan.autenticacao.usuario;
+
+import com.ageplan.autenticacao.config.fragmentacao.RoteadorUsuarios;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Implementação do fragmento {@link UsuarioRepositoryCustom}.
+ */
+class UsuarioRepositoryImpl implements UsuarioRepositoryCustom {
+
+    /**
+     * Quantidade de linhas trazidas do banco a cada ida ao cursor.
+     */
+    private static final int TAMANHO_FETCH = 500;
+
+    private static final String SEM_PAPEL =
+            " AND NOT EXISTS (SELECT 1 FROM usuario_papel up WHERE up.usuario_id = u.id AND up.papel_id = :papelId)";
+
+    private static final String COM_PAPEL =
+            " AND EXISTS (SELECT 1 FROM usuario_papel up WHERE up.usuario_id = u.id AND up.papel_id = :papelId)";
+
+    private static final String INCREMENTA_VERSAO = "versao = versao + 1, atualizado_em = CURRENT_TIMESTAMP";
+
+    /**
+     * Tabelas alteradas pelos comandos em lote. Informá-las ao Hibernate restringe a invalidação
+     * automática do cache de segundo nível às regiões de usuários, preservando as de papéis.
+     */
+    private static final String[] TABELAS_USUARIO = {"usuario", "usuario_papel"};
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Usuario> findByNomeUsuario(String nomeUsuario) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Usuario.class)
+                .loadOptional(Usuario.normalizar(nomeUsuario));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Usuario> findByLogin(String login) {
+        if (login == null || login.indexOf('@') < 0) {
+            return findByNomeUsuario(login);
+        }
+        List<Usuario> usuarios = entityManager
+                .createQuery("SELECT u FROM Usuario u WHERE u.emailNormalizado = :email", Usuario.class)
+                .setParameter("email", Usuario.normalizar(login))
+                .getResultList();
+        return usuarios.isEmpty() ? findByNomeUsuario(login) : Optional.of(usuarios.get(0));
+    }
+
+    @Override
+    public Stream<UsuarioLinha> streamLinhas(FiltroUsuario filtro) {
+        StringBuilder jpql = new StringBuilder(
+                "SELECT new com.ageplan.autenticacao.usuario.UsuarioLinha(u.id, u.nomeCompleto, u.nomeUsuario, u.email, u.versao, p.nomePapel) " +
+                        "FROM Usuario u LEFT JOIN u.papeis p WHERE 1 = 1");
+        if (filtro.tipo() != null) {
+            jpql.append(" AND TYPE(u) = ").append(filtro.tipo().getNomeEntidade());
+        }
+        if (filtro.habilitado() != null) {
+            jpql.append(" AND u.enabled = :habilitado");
+        }
+        if (filtro.papel() != null) {
+            jpql.append(" AND u.id IN (SELECT u2.id FROM Usuario u2 JOIN u2.papeis p2 WHERE p2.nomePapel = :papel)");
+        }
+        jpql.append(" ORDER BY u.id");
+
+        TypedQuery<UsuarioLinha> query = entityManager.createQuery(jpql.toString(), UsuarioLinha.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, TAMANHO_FETCH)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (filtro.habilitado() != null) {
+            query.setParameter("habilitado", filtro.habilitado());
+        }
+        if (filtro.papel() != null) {
+            query.setParameter("papel", filtro.papel());
+        }
+        return query.getResultStream();
+    }
+
+    @Override
+    public int atualizarSituacaoEmLote(List<Long> ids, FiltroUsuario filtro, Boolean enabled, Boolean accountNonLocked) {
+        StringBuilder set = new StringBuilder();
+        if (enabled != null) {
+            set.append("enabled = :enabled, ");
+        }
+        if (accountNonLocked != null) {
+            set.append("account_non_locked = :accountNonLocked, ");
+        }
+        set.append(INCREMENTA_VERSAO);
+
+        int total = 0;
+        for (Condicao condicao : Condicao.particionar(ids, filtro)) {
+            Query query = comandoNativo("UPDATE usuario u SET " + set + " WHERE " + condicao.sql());
+            condicao.aplicar(query);
+            if (enabled != null) {
+                query.setParameter("enabled", enabled);
+            }
+            if (accountNonLocked != null) {
+                query.setParameter("accountNonLocked", accountNonLocked);
+            }
+            total += query.executeUpdate();
+        }
+        return total;
+    }
+
+    @Override
+    public int concederPapelEmLote(List<Long> ids, FiltroUsuario filtro, Long papelId) {
+        int total = 0;
+        for (Condicao condicao : Condicao.particionar(ids, filtro)) {
+            executar("UPDATE usuario u SET " + INCREMENTA_VERSAO + " WHERE " + condicao.sql() + SEM_PAPEL,
+                    condicao, papelId);
+            total += executar("INSERT INTO usuario_papel (usuario_id, papel_id) SELECT u.id, :papelId FROM usuario u WHERE "
+                    + condicao.sql() + SEM_PAPEL, condicao, papelId);
+        }
+        return total;
+    }
+
+    @Override
+    public int revogarPapelEmLote(List<Long> ids, FiltroUsuario filtro, Long papelId) {
+        int total = 0;
+        for (Condicao condicao : Condicao.particionar(ids, filtro)) {
+            executar("UPDATE usuario u SET " + INCREMENTA_VERSAO + " WHERE " + condicao.sql() + COM_PAPEL,
+                    condicao, papelId);
+            total += executar("DELETE FROM usuario_papel WHERE papel_id = :papelId AND usuario_id IN "
+                    + "(SELECT u.id FROM usuario u WHERE " + condicao.sql() + ")", condicao, papelId);
+        }
+        return total;
+    }
+
+    @Override
+    public int softDeleteEmLote(List<Long> ids, FiltroUsuario filtro) {
+        int total = 0;
+        for (Condicao condicao : Condicao.particionar(ids, filtro)) {
+            Query query = comandoNativo("UPDATE usuario u SET excluido = true, " + INCREMENTA_VERSAO
+                    + " WHERE " + condicao.sql());
+            condicao.aplicar(query);
+            total += query.executeUpdate();
+        }
+        return total;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<RoteadorUsuarios.ChavesUsuario> findChavesEmLote(List<Long> ids, FiltroUsuario filtro) {
+        List<RoteadorUsuarios.ChavesUsuario> chaves = new ArrayList<>();
+        for (Condicao condicao : Condicao.particionar(ids, filtro)) {
+            Query query = entityManager.createNativeQuery(
+                    "SELECT u.nome_usuario_normalizado, u.email_normalizado FROM usuario u WHERE " + condicao.sql());
+            condicao.aplicar(query);
+            for (Object[] linha : (List<Object[]>) query.getResultList()) {
+                chaves.add(new RoteadorUsuarios.ChavesUsuario((String) linha[0], (String) linha[1]));
+            }
+        }
+        return chaves;
+    }
+
+    /**
+     * Executa um comando SQL nativo que recebe a condição de seleção e o ID de um papel.
+     *
+     * @param sql      o comando a ser executado
+     * @param condicao a condição de seleção dos usuários
+     * @param papelId  o ID do papel
+     * @return a quantidade de linhas afetadas
+     */
+    private int executar(String sql, Condicao condicao, Long papelId) {
+        Query query = comandoNativo(sql);
+        condicao.aplicar(query);
+        query.setParameter("papelId", papelId);
+        return query.executeUpdate();
+    }
+
+    /**
+     * Cria um comando SQL nativo sincronizado apenas com as tabelas de usuários.
+     *
+     * @param sql o comando SQL
+     * @return a consulta criada
+     */
+    private Query comandoNativo(String sql) {
+        return entityManager.createNativeQuery(sql)
+                .setHint(HibernateHints.HINT_NATIVE_SPACES, TABELAS_USUARIO);
+    }
+
+    /**
+     * Condição SQL nativa sobre a tabela {@code usuario} (alias {@code u}) e os seus parâmetros.
+     * Como o SQL nativo não recebe o filtro de exclusão lógica do Hibernate, a condição sempre
+     * desconsidera os usuários excluídos.
+     *
+     * @param sql        o trecho SQL da condição
+     * @param parametros os valores dos parâmetros nomeados usados no trecho
+     */
+    private record Condicao(String sql, Map<String, Object> parametros) {
+
+        /**
+         * Divide a seleção em condições com no máximo {@value UsuarioRepositoryCustom#TAMANHO_LOTE} IDs cada.
+         * Quando a seleção é feita por filtro, retorna uma única condição.
+         *
+         * @param ids    os IDs dos usuários, ou {@code null} para usar o filtro
+         * @param filtro os critérios de seleção
+         * @return as condições a serem executadas
+         */
+        static List<Condicao> particionar(List<Long> ids, FiltroUsuario filtro) {
+            if (ids == null) {
+                return List.of(de(null, filtro));
+            }
+            return IntStream.iterate(0, inicio -> inicio < ids.size(), inicio -> inicio + TAMANHO_LOTE)
+                    .mapToObj(inicio -> de(ids.subList(inicio, Math.min(inicio + TAMANHO_LOTE, ids.size())), null))
+                    .toList();
+        }
+
+        /**
+         * Monta a condição para uma lista de IDs ou um filtro.
+         *
+         * @param ids    os IDs dos usuários, ou {@code null}
+         * @param filtro os critérios de seleção, ou {@code null}
+         * @return a condição montada
+         */
+        static Condicao de(List<Long> ids, FiltroUsuario filtro) {
+            StringBuilder sql = new StringBuilder("u.excluido = false");
+            Map<String, Object> parametros = new HashMap<>();
+            if (ids != null) {
+                sql.append(" AND u.id IN (:ids)");
+                parametros.put("ids", ids);
+            }
+            if (filtro != null) {
+                if (filtro.tipo() != null) {
+                    sql.append(" AND u.tipo_usuario = :tipo");
+                    parametros.put("tipo", filtro.tipo().getValorDiscriminador());
+                }
+                if (filtro.habilitado() != null) {
+                    sql.append(" AND u.enabled = :habilitado");
+                    parametros.put("habilitado", filtro.habilitado());
+                }
+                if (filtro.papel() != null) {
+                    sql.append(" AND EXISTS (SELECT 1 FROM usuario_papel fp JOIN papel fpp ON fpp.id = fp.papel_id "
+                            + "WHERE fp.usuario_id = u.id AND fpp.nome_papel = :papelFiltro)");
+                    parametros.put("papelFiltro", filtro.papel().name());
+                }
+            }
+            return new Condicao(sql.toString(), parametros);
+        }
+
+        /**
+         * Define os parâmetros da condição na consulta.
+         *
+         * @param query a consulta nativa
+         */
+        void aplicar(Query query) {
+            parametros.forEach(query::setParameter);
+        }
+    }
+}
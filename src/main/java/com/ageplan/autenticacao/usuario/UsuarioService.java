@@ -1,9 +1,14 @@
 package com.ageplan.autenticacao.usuario;
 
+import com.ageplan.autenticacao.config.cache.CarregamentoUnico;
 import com.ageplan.autenticacao.config.exceptions.ResourceNotFoundException;
+import com.ageplan.autenticacao.config.fragmentacao.RoteadorUsuarios;
 import com.ageplan.autenticacao.papel.Papel;
 import com.ageplan.autenticacao.papel.PapelRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,9 +18,20 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.ageplan.autenticacao.usuario.UsuarioRepositoryCustom.TAMANHO_LOTE;
 
 /**
  * Serviço responsável por gerenciar as operações relacionadas à entidade {@link Usuario}.
@@ -26,9 +42,26 @@ public class UsuarioService implements UserDetailsService {
 
     private static final String MENSAGEM = "Usuário não encontrado com id: ";
 
+    /**
+     * Tipos das consultas coalescidas pelo {@link CarregamentoUnico}.
+     */
+    private static final String CARGA_LOGIN = "usuario.login";
+    private static final String CARGA_ID = "usuario.id";
+    private static final String CARGA_NOME_USUARIO = "usuario.nome-usuario";
+    private static final String CARGA_VERSAO_ID = "usuario.versao.id";
+    private static final String CARGA_VERSAO_NOME_USUARIO = "usuario.versao.nome-usuario";
+
+    /**
+     * Quantidade máxima de valores aceitos em uma busca em lote.
+     */
+    static final int TAMANHO_MAXIMO_BUSCA = 5000;
+
     private final UsuarioRepository usuarioRepository;
     private final PapelRepository papelRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RoteadorUsuarios roteador;
+    private final CarregamentoUnico carregamentoUnico;
 
     /**
      * Construtor que injeta as dependências necessárias.
@@ -36,25 +69,38 @@ public class UsuarioService implements UserDetailsService {
      * @param usuarioRepository o repositório de usuários
      * @param papelRepository   o repositório de papéis
      * @param passwordEncoder   o codificador de senhas
+     * @param eventPublisher    o publicador dos eventos de alteração de usuários
+     * @param roteador          o roteador que escolhe o banco (fragmento) de cada operação
+     * @param carregamentoUnico a coalescência das consultas concorrentes da mesma chave
      */
     @Autowired
-    public UsuarioService(UsuarioRepository usuarioRepository, PapelRepository papelRepository, PasswordEncoder passwordEncoder) {
+    public UsuarioService(UsuarioRepository usuarioRepository, PapelRepository papelRepository,
+                          PasswordEncoder passwordEncoder, ApplicationEventPublisher eventPublisher,
+                          RoteadorUsuarios roteador, CarregamentoUnico carregamentoUnico) {
         this.usuarioRepository = usuarioRepository;
         this.papelRepository = papelRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
+        this.roteador = roteador;
+        this.carregamentoUnico = carregamentoUnico;
     }
 
     /**
-     * Carrega um usuário pelo nome de usuário.
+     * Carrega um usuário pelo nome de usuário ou pelo email, sem distinção de maiúsculas e minúsculas.
+     * Logins concorrentes do mesmo usuário compartilham uma única consulta pelo {@link CarregamentoUnico},
+     * que também abre a transação de leitura.
      *
-     * @param username o nome de usuário
+     * @param username o nome de usuário ou email informado no login
      * @return os detalhes do usuário
      * @throws UsernameNotFoundException se o usuário não for encontrado
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return usuarioRepository.findByNomeUsuario(username)
-                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + username));
+        return carregamentoUnico.carregar(CARGA_LOGIN, Usuario.normalizar(username), () -> {
+            roteador.porLogin(username);
+            return usuarioRepository.findByLogin(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + username));
+        });
     }
 
     /**
@@ -65,6 +111,7 @@ public class UsuarioService implements UserDetailsService {
      */
     @Transactional
     public UsuarioDTO criarUsuario(UsuarioDTO usuarioDTO) {
+        roteador.paraNovoUsuario(Usuario.normalizar(usuarioDTO.getNomeUsuario()), Usuario.normalizar(usuarioDTO.getEmail()));
         validarEmailENomeUsuario(usuarioDTO.getEmail(), usuarioDTO.getNomeUsuario());
 
         Usuario usuario = new Usuario();
@@ -72,35 +119,68 @@ public class UsuarioService implements UserDetailsService {
         usuario.setSenha(passwordEncoder.encode(usuarioDTO.getSenha()));
 
         Usuario savedUsuario = usuarioRepository.save(usuario);
+        eventPublisher.publishEvent(UsuarioAlteradoEvent.de(savedUsuario.getId()));
         return convertToDTO(savedUsuario);
     }
 
     /**
      * Busca um usuário pelo seu identificador.
+     * Utiliza a projeção {@link UsuarioLinha}, sem carregar a entidade nem os dados que o DTO não expõe.
+     * Buscas concorrentes do mesmo usuário compartilham uma única consulta.
      *
      * @param id o identificador do usuário
      * @return o DTO do usuário encontrado
      * @throws ResourceNotFoundException se o usuário não for encontrado
      */
-    @Transactional(readOnly = true)
     public UsuarioDTO getUsuario(Long id) {
-        Usuario usuario = usuarioRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException(MENSAGEM + id));
-        return convertToDTO(usuario);
+        return carregamentoUnico.carregar(CARGA_ID, id, () -> {
+            roteador.porId(id);
+            return UsuarioLinha.agrupar(usuarioRepository.findLinhasById(id)).stream()
+                    .findFirst()
+                    .orElseThrow(() -> new ResourceNotFoundException(MENSAGEM + id));
+        });
     }
 
     /**
      * Busca um usuário pelo nome de usuário.
+     * Utiliza a projeção {@link UsuarioLinha}, sem carregar a entidade nem os dados que o DTO não expõe.
+     * Buscas concorrentes do mesmo usuário compartilham uma única consulta.
      *
      * @param username o nome de usuário
      * @return o DTO do usuário encontrado
      * @throws UsernameNotFoundException se o usuário não for encontrado
      */
-    @Transactional(readOnly = true)
     public UsuarioDTO getUsuarioByUsername(String username) {
-        Usuario usuario = usuarioRepository.findByNomeUsuario(username)
-                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + username));
-        return convertToDTO(usuario);
+        return carregamentoUnico.carregar(CARGA_NOME_USUARIO, Usuario.normalizar(username), () -> {
+            roteador.porLogin(username);
+            return UsuarioLinha.agrupar(usuarioRepository.findLinhasByNomeUsuario(username)).stream()
+                    .findFirst()
+                    .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + username));
+        });
+    }
+
+    /**
+     * Busca vários usuários de uma só vez, pelos identificadores e pelos nomes de usuário.
+     * Os valores são divididos em blocos de consultas IN que já trazem os papéis, de modo que
+     * a busca faz poucas idas ao banco independentemente da quantidade de usuários.
+     * Com a fragmentação habilitada, cada bloco é consultado em paralelo em todos os fragmentos.
+     *
+     * @param busca os identificadores e nomes de usuário buscados
+     * @return os usuários encontrados, indexados pelo valor informado
+     * @throws IllegalArgumentException se a busca exceder o tamanho máximo
+     */
+    @Transactional(readOnly = true)
+    public ResultadoBuscaLoteDTO buscarEmLote(BuscaLoteDTO busca) {
+        List<Long> ids = busca.getIds() == null ? List.of() : busca.getIds();
+        List<String> nomesUsuario = busca.getNomesUsuario() == null ? List.of() : busca.getNomesUsuario();
+        if (ids.size() + nomesUsuario.size() > TAMANHO_MAXIMO_BUSCA) {
+            throw new IllegalArgumentException("A busca em lote aceita no máximo " + TAMANHO_MAXIMO_BUSCA + " valores");
+        }
+        return new ResultadoBuscaLoteDTO(
+                buscarEmBlocos(ids, UnaryOperator.identity(),
+                        bloco -> emTodos(() -> usuarioRepository.findLinhasByIdIn(bloco)), UsuarioDTO::getId),
+                buscarEmBlocos(nomesUsuario, Usuario::normalizar,
+                        bloco -> emTodos(() -> usuarioRepository.findLinhasByNomeUsuarioIn(bloco)), UsuarioDTO::getNomeUsuario));
     }
 
     /**
@@ -115,6 +195,51 @@ public class UsuarioService implements UserDetailsService {
         return page.map(this::convertToDTO);
     }
 
+    /**
+     * Lista os usuários com paginação por chave: retorna até {@code tamanho} usuários com id maior que
+     * {@code aposId}, em ordem crescente de id. Para obter a próxima página, informe o id do último usuário.
+     * <p>
+     * Com a fragmentação habilitada, cada fragmento retorna a sua própria página em paralelo e as páginas
+     * são intercaladas pelo id, sem deslocamentos (OFFSET) que crescem com o número da página.
+     *
+     * @param aposId  o id do último usuário da página anterior, ou {@code null} para a primeira página
+     * @param tamanho a quantidade máxima de usuários
+     * @return os usuários da página, em ordem crescente de id
+     * @throws IllegalArgumentException se o tamanho estiver fora do intervalo aceito
+     */
+    @Transactional(readOnly = true)
+    public List<UsuarioDTO> listarAposId(Long aposId, int tamanho) {
+        if (tamanho < 1 || tamanho > TAMANHO_LOTE) {
+            throw new IllegalArgumentException("O tamanho da página deve estar entre 1 e " + TAMANHO_LOTE);
+        }
+        long apos = aposId == null ? 0L : aposId;
+        List<List<UsuarioDTO>> paginas = roteador.emTodos(() -> {
+            List<Long> ids = usuarioRepository.findIdsAposId(apos, Limit.of(tamanho));
+            return ids.isEmpty() ? List.<UsuarioDTO>of() : UsuarioLinha.agrupar(usuarioRepository.findLinhasByIdIn(ids));
+        });
+        return paginas.stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(UsuarioDTO::getId))
+                .limit(tamanho)
+                .toList();
+    }
+
+    /**
+     * Percorre todos os usuários que atendem ao filtro, entregando um DTO por vez ao destino.
+     * A leitura usa um cursor no servidor e nenhuma entidade é carregada, de modo que o consumo
+     * de memória permanece constante independentemente da quantidade de usuários.
+     *
+     * @param filtro  os critérios de seleção
+     * @param destino o consumidor que recebe cada DTO
+     * @return a quantidade de usuários exportados
+     */
+    @Transactional(readOnly = true)
+    public long exportarUsuarios(FiltroUsuario filtro, Consumer<UsuarioDTO> destino) {
+        try (Stream<UsuarioLinha> linhas = usuarioRepository.streamLinhas(filtro)) {
+            return UsuarioLinha.agruparEmSequencia(linhas.iterator(), destino);
+        }
+    }
+
     /**
      * Atualiza os dados de um usuário existente.
      *
@@ -125,54 +250,244 @@ public class UsuarioService implements UserDetailsService {
      */
     @Transactional
     public UsuarioDTO update(Long id, UsuarioDTO usuarioDTO) {
+        return update(id, usuarioDTO, null);
+    }
+
+    /**
+     * Atualiza os dados de um usuário existente, desde que ele ainda esteja na versão esperada.
+     *
+     * @param id               o identificador do usuário a ser atualizado
+     * @param usuarioDTO       o DTO contendo os novos dados do usuário
+     * @param versoesEsperadas as versões aceitas pelo cliente, ou {@code null} para não verificar
+     * @return o DTO do usuário atualizado, com a nova versão
+     * @throws ResourceNotFoundException          se o usuário não for encontrado
+     * @throws OptimisticLockingFailureException se o usuário estiver em outra versão
+     */
+    @Transactional
+    public UsuarioDTO update(Long id, UsuarioDTO usuarioDTO, Set<Long> versoesEsperadas) {
+        roteador.porId(id);
         Usuario usuario = usuarioRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(MENSAGEM + id));
+        verificarVersao(usuario, versoesEsperadas);
 
         validarEmailENomeUsuarioParaAtualizacao(usuarioDTO.getEmail(), usuarioDTO.getNomeUsuario(), id);
+        trocarChaveSeAlterada(RoteadorUsuarios.TipoChave.NOME_USUARIO, usuario.getNomeUsuarioNormalizado(),
+                Usuario.normalizar(usuarioDTO.getNomeUsuario()));
+        trocarChaveSeAlterada(RoteadorUsuarios.TipoChave.EMAIL, usuario.getEmailNormalizado(),
+                Usuario.normalizar(usuarioDTO.getEmail()));
 
         updateUsuarioFromDTO(usuario, usuarioDTO);
         Usuario updatedUsuario = usuarioRepository.save(usuario);
+        usuarioRepository.flush();
+        eventPublisher.publishEvent(UsuarioAlteradoEvent.de(id));
         return convertToDTO(updatedUsuario);
     }
 
+    /**
+     * Atualiza parcialmente um usuário existente, alterando apenas os campos informados.
+     * A unicidade do email e do nome de usuário só é verificada quando o valor normalizado muda e,
+     * como a entidade usa {@code @DynamicUpdate}, o UPDATE contém apenas as colunas alteradas.
+     * Se nenhum campo mudar, nada é gravado e nenhum evento é publicado.
+     *
+     * @param id               o identificador do usuário a ser atualizado
+     * @param atualizacao      os campos a serem alterados
+     * @param versoesEsperadas as versões aceitas pelo cliente, ou {@code null} para não verificar
+     * @return o DTO do usuário atualizado, com a versão atual
+     * @throws ResourceNotFoundException          se o usuário não for encontrado
+     * @throws OptimisticLockingFailureException se o usuário estiver em outra versão
+     * @throws IllegalArgumentException           se um campo vier em branco ou já estiver em uso
+     */
+    @Transactional
+    public UsuarioDTO atualizarParcialmente(Long id, AtualizacaoParcialUsuarioDTO atualizacao, Set<Long> versoesEsperadas) {
+        roteador.porId(id);
+        Usuario usuario = usuarioRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(MENSAGEM + id));
+        verificarVersao(usuario, versoesEsperadas);
+
+        boolean alterado = false;
+        if (atualizacao.getNomeCompleto() != null && !atualizacao.getNomeCompleto().equals(usuario.getNomeCompleto())) {
+            exigirPreenchido(atualizacao.getNomeCompleto(), "Nome completo");
+            usuario.setNomeCompleto(atualizacao.getNomeCompleto());
+            alterado = true;
+        }
+        if (atualizacao.getNomeUsuario() != null && !atualizacao.getNomeUsuario().equals(usuario.getNomeUsuario())) {
+            exigirPreenchido(atualizacao.getNomeUsuario(), "Nome de usuário");
+            String normalizado = Usuario.normalizar(atualizacao.getNomeUsuario());
+            if (!normalizado.equals(usuario.getNomeUsuarioNormalizado())
+                    && usuarioRepository.existsByNomeUsuarioAndIdNot(normalizado, id)) {
+                throw new IllegalArgumentException("Nome de usuário já está em uso por outro usuário");
+            }
+            trocarChaveSeAlterada(RoteadorUsuarios.TipoChave.NOME_USUARIO, usuario.getNomeUsuarioNormalizado(), normalizado);
+            usuario.setNomeUsuario(atualizacao.getNomeUsuario());
+            usuario.setNomeUsuarioNormalizado(normalizado);
+            alterado = true;
+        }
+        if (atualizacao.getEmail() != null && !atualizacao.getEmail().equals(usuario.getEmail())) {
+            exigirPreenchido(atualizacao.getEmail(), "Email");
+            String normalizado = Usuario.normalizar(atualizacao.getEmail());
+            if (!normalizado.equals(usuario.getEmailNormalizado())
+                    && usuarioRepository.existsByEmailAndIdNot(normalizado, id)) {
+                throw new IllegalArgumentException("Email já está em uso por outro usuário");
+            }
+            trocarChaveSeAlterada(RoteadorUsuarios.TipoChave.EMAIL, usuario.getEmailNormalizado(), normalizado);
+            usuario.setEmail(atualizacao.getEmail());
+            usuario.setEmailNormalizado(normalizado);
+            alterado = true;
+        }
+        if (atualizacao.getPapeis() != null) {
+            alterado |= atualizarPapeis(usuario, atualizacao.getPapeis());
+        }
+
+        if (!alterado) {
+            return convertToDTO(usuario);
+        }
+        usuarioRepository.flush();
+        eventPublisher.publishEvent(UsuarioAlteradoEvent.de(id));
+        return convertToDTO(usuario);
+    }
+
+    /**
+     * Busca os metadados de versão de um usuário pelo seu identificador.
+     * Buscas concorrentes do mesmo usuário compartilham uma única consulta.
+     *
+     * @param id o identificador do usuário
+     * @return a versão atual do usuário
+     * @throws ResourceNotFoundException se o usuário não for encontrado
+     */
+    public UsuarioVersao getVersao(Long id) {
+        return carregamentoUnico.carregar(CARGA_VERSAO_ID, id, () -> {
+            roteador.porId(id);
+            return usuarioRepository.findVersaoById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException(MENSAGEM + id));
+        });
+    }
+
+    /**
+     * Busca os metadados de versão de um usuário pelo nome de usuário.
+     * Buscas concorrentes do mesmo usuário compartilham uma única consulta.
+     *
+     * @param username o nome de usuário
+     * @return a versão atual do usuário
+     * @throws UsernameNotFoundException se o usuário não for encontrado
+     */
+    public UsuarioVersao getVersaoByUsername(String username) {
+        return carregamentoUnico.carregar(CARGA_VERSAO_NOME_USUARIO, Usuario.normalizar(username), () -> {
+            roteador.porLogin(username);
+            return usuarioRepository.findVersaoByNomeUsuario(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + username));
+        });
+    }
+
     /**
      * Deleta um usuário pelo seu identificador.
+     * A exclusão é lógica e feita com um único UPDATE; o registro e os seus vínculos de papéis
+     * são removidos definitivamente pelo {@link UsuarioExpurgoJob}. Com a fragmentação, o nome de usuário
+     * e o email são liberados no índice global após o commit.
      *
      * @param id o identificador do usuário a ser deletado
      * @throws ResourceNotFoundException se o usuário não for encontrado
      */
     @Transactional
     public void deleteUsuario(Long id) {
-        if (!usuarioRepository.existsById(id)) {
+        roteador.porId(id);
+        roteador.liberarChaves(() -> usuarioRepository.findChavesEmLote(List.of(id), null));
+        if (usuarioRepository.softDeleteById(id) == 0) {
             throw new ResourceNotFoundException(MENSAGEM + id);
         }
-        usuarioRepository.deleteById(id);
+        eventPublisher.publishEvent(UsuarioAlteradoEvent.de(id));
+    }
+
+    /**
+     * Concede um papel a todos os usuários selecionados com comandos SQL em conjunto,
+     * sem carregar as entidades.
+     *
+     * @param nomePapel o papel a ser concedido
+     * @param operacao  a seleção dos usuários
+     * @return a quantidade de usuários que receberam o papel
+     * @throws ResourceNotFoundException se o papel não for encontrado
+     */
+    @Transactional
+    public ResultadoLoteDTO concederPapelEmLote(Papel.NomePapel nomePapel, OperacaoLoteDTO operacao) {
+        operacao.validarSelecao();
+        Papel papel = buscarPapel(nomePapel);
+        int afetados = usuarioRepository.concederPapelEmLote(operacao.getIds(), operacao.getFiltro(), papel.getId());
+        publicarAlteracaoEmLote(operacao);
+        return new ResultadoLoteDTO(afetados);
     }
 
     /**
-     * Registra um novo usuário no sistema com papel padrão.
+     * Revoga um papel de todos os usuários selecionados com comandos SQL em conjunto,
+     * sem carregar as entidades.
+     *
+     * @param nomePapel o papel a ser revogado
+     * @param operacao  a seleção dos usuários
+     * @return a quantidade de usuários que perderam o papel
+     * @throws ResourceNotFoundException se o papel não for encontrado
+     */
+    @Transactional
+    public ResultadoLoteDTO revogarPapelEmLote(Papel.NomePapel nomePapel, OperacaoLoteDTO operacao) {
+        operacao.validarSelecao();
+        Papel papel = buscarPapel(nomePapel);
+        int afetados = usuarioRepository.revogarPapelEmLote(operacao.getIds(), operacao.getFiltro(), papel.getId());
+        publicarAlteracaoEmLote(operacao);
+        return new ResultadoLoteDTO(afetados);
+    }
+
+    /**
+     * Habilita, desabilita, bloqueia ou desbloqueia todos os usuários selecionados com comandos SQL
+     * em conjunto, sem carregar as entidades.
+     *
+     * @param operacao a seleção dos usuários e os novos valores de {@code enabled} e {@code accountNonLocked}
+     * @return a quantidade de usuários alterados
+     * @throws IllegalArgumentException se nenhum dos valores for informado
+     */
+    @Transactional
+    public ResultadoLoteDTO atualizarSituacaoEmLote(OperacaoLoteDTO operacao) {
+        operacao.validarSelecao();
+        if (operacao.getEnabled() == null && operacao.getAccountNonLocked() == null) {
+            throw new IllegalArgumentException("Informe enabled ou accountNonLocked");
+        }
+        int afetados = usuarioRepository.atualizarSituacaoEmLote(operacao.getIds(), operacao.getFiltro(),
+                operacao.getEnabled(), operacao.getAccountNonLocked());
+        publicarAlteracaoEmLote(operacao);
+        return new ResultadoLoteDTO(afetados);
+    }
+
+    /**
+     * Exclui logicamente todos os usuários selecionados com comandos SQL em conjunto,
+     * sem carregar as entidades. Os registros são removidos definitivamente pelo {@link UsuarioExpurgoJob}.
+     * Com a fragmentação, os nomes de usuário e emails são liberados no índice global após o commit.
+     *
+     * @param operacao a seleção dos usuários
+     * @return a quantidade de usuários excluídos
+     */
+    @Transactional
+    public ResultadoLoteDTO deleteUsuariosEmLote(OperacaoLoteDTO operacao) {
+        operacao.validarSelecao();
+        roteador.liberarChaves(() -> usuarioRepository.findChavesEmLote(operacao.getIds(), operacao.getFiltro()));
+        int afetados = usuarioRepository.softDeleteEmLote(operacao.getIds(), operacao.getFiltro());
+        publicarAlteracaoEmLote(operacao);
+        return new ResultadoLoteDTO(afetados);
+    }
+
+    /**
+     * Registra um novo usuário pelo autoatendimento, sem papéis atribuídos. Papéis informados no DTO são
+     * ignorados; eles são concedidos depois por um administrador.
      *
      * @param usuarioDTO o DTO contendo os dados do usuário a ser registrado
      * @return o DTO do usuário registrado
      */
     @Transactional
     public UsuarioDTO registrarUsuario(UsuarioDTO usuarioDTO) {
+        roteador.paraNovoUsuario(Usuario.normalizar(usuarioDTO.getNomeUsuario()), Usuario.normalizar(usuarioDTO.getEmail()));
         validarEmailENomeUsuario(usuarioDTO.getEmail(), usuarioDTO.getNomeUsuario());
 
         Usuario usuario = new Usuario();
-        updateUsuarioFromDTO(usuario, usuarioDTO);
+        updateDadosFromDTO(usuario, usuarioDTO);
         usuario.setSenha(passwordEncoder.encode(usuarioDTO.getSenha()));
 
-        Papel papelAluno = papelRepository.findByNomePapel(Papel.NomePapel.ALUNO)
-                .orElseThrow(() -> new ResourceNotFoundException("Papel ALUNO não encontrado"));
-        if (usuario.getPapeis() == null) {
-            usuario.setPapeis(new ArrayList<>());
-        }
-        if (!usuario.getPapeis().contains(papelAluno)) {
-            usuario.getPapeis().add(papelAluno);
-        }
-
         Usuario savedUsuario = usuarioRepository.save(usuario);
+        eventPublisher.publishEvent(UsuarioAlteradoEvent.de(savedUsuario.getId()));
         return convertToDTO(savedUsuario);
     }
 
@@ -184,10 +499,10 @@ public class UsuarioService implements UserDetailsService {
      * @throws IllegalArgumentException se o email ou nome de usuário já estiverem em uso
      */
     private void validarEmailENomeUsuario(String email, String nomeUsuario) {
-        if (usuarioRepository.existsByEmail(email)) {
+        if (usuarioRepository.existsByEmail(Usuario.normalizar(email))) {
             throw new IllegalArgumentException("Email já está em uso");
         }
-        if (usuarioRepository.existsByNomeUsuario(nomeUsuario)) {
+        if (usuarioRepository.existsByNomeUsuario(Usuario.normalizar(nomeUsuario))) {
             throw new IllegalArgumentException("Nome de usuário já está em uso");
         }
     }
@@ -201,32 +516,167 @@ public class UsuarioService implements UserDetailsService {
      * @throws IllegalArgumentException se o email ou nome de usuário já estiverem em uso por outro usuário
      */
     private void validarEmailENomeUsuarioParaAtualizacao(String email, String nomeUsuario, Long id) {
-        if (usuarioRepository.existsByEmailAndIdNot(email, id)) {
+        if (usuarioRepository.existsByEmailAndIdNot(Usuario.normalizar(email), id)) {
             throw new IllegalArgumentException("Email já está em uso por outro usuário");
         }
-        if (usuarioRepository.existsByNomeUsuarioAndIdNot(nomeUsuario, id)) {
+        if (usuarioRepository.existsByNomeUsuarioAndIdNot(Usuario.normalizar(nomeUsuario), id)) {
             throw new IllegalArgumentException("Nome de usuário já está em uso por outro usuário");
         }
     }
 
+    /**
+     * Busca um papel pelo nome.
+     *
+     * @param nomePapel o nome do papel
+     * @return o papel encontrado
+     * @throws ResourceNotFoundException se o papel não for encontrado
+     */
+    private Papel buscarPapel(Papel.NomePapel nomePapel) {
+        return papelRepository.findByNomePapel(nomePapel)
+                .orElseThrow(() -> new ResourceNotFoundException("Papel não encontrado: " + nomePapel));
+    }
+
+    /**
+     * Executa uma consulta de projeções em blocos de no máximo {@value UsuarioRepositoryCustom#TAMANHO_LOTE} chaves distintas.
+     * Valores com a mesma forma normalizada são consultados uma única vez e recebem o mesmo usuário.
+     *
+     * @param chaves      os valores buscados, na ordem em que foram informados
+     * @param normalizacao a função que leva um valor à forma comparada pela consulta
+     * @param consulta    a consulta que retorna as linhas de um bloco de chaves
+     * @param chave       a função que extrai do DTO o valor buscado
+     * @param <T>         o tipo da chave
+     * @return os usuários encontrados indexados pelo valor informado, com {@code null} para os não encontrados
+     */
+    private static <T> Map<T, UsuarioDTO> buscarEmBlocos(List<T> chaves, UnaryOperator<T> normalizacao,
+                                                         Function<List<T>, List<UsuarioLinha>> consulta,
+                                                         Function<UsuarioDTO, T> chave) {
+        List<T> distintas = chaves.stream().map(normalizacao).distinct().toList();
+        Map<T, UsuarioDTO> encontrados = new HashMap<>();
+        for (int inicio = 0; inicio < distintas.size(); inicio += TAMANHO_LOTE) {
+            List<T> bloco = distintas.subList(inicio, Math.min(inicio + TAMANHO_LOTE, distintas.size()));
+            UsuarioLinha.agrupar(consulta.apply(bloco)).forEach(dto -> encontrados.put(normalizacao.apply(chave.apply(dto)), dto));
+        }
+        Map<T, UsuarioDTO> usuarios = new LinkedHashMap<>();
+        chaves.forEach(valor -> usuarios.put(valor, encontrados.get(normalizacao.apply(valor))));
+        return usuarios;
+    }
+
+    /**
+     * Publica a alteração dos usuários afetados por uma operação em lote. Quando a seleção é feita
+     * por filtro, os usuários afetados não são conhecidos e todos são invalidados.
+     *
+     * @param operacao a operação em lote executada
+     */
+    private void publicarAlteracaoEmLote(OperacaoLoteDTO operacao) {
+        eventPublisher.publishEvent(operacao.getIds() != null
+                ? UsuarioAlteradoEvent.de(operacao.getIds())
+                : UsuarioAlteradoEvent.todos());
+    }
+
+    /**
+     * Verifica se o usuário está em uma das versões aceitas pelo cliente.
+     *
+     * @param usuario          a entidade usuário
+     * @param versoesEsperadas as versões aceitas pelo cliente, ou {@code null} para não verificar
+     * @throws OptimisticLockingFailureException se a versão do usuário não for aceita
+     */
+    private void verificarVersao(Usuario usuario, Set<Long> versoesEsperadas) {
+        if (versoesEsperadas != null && !versoesEsperadas.contains(usuario.getVersao())) {
+            throw new OptimisticLockingFailureException(
+                    "Usuário " + usuario.getId() + " foi alterado por outra requisição");
+        }
+    }
+
+    /**
+     * Executa uma consulta de projeções em todos os fragmentos e junta as linhas.
+     *
+     * @param consulta a consulta executada em cada fragmento
+     * @return as linhas de todos os fragmentos
+     */
+    private List<UsuarioLinha> emTodos(Supplier<List<UsuarioLinha>> consulta) {
+        return roteador.emTodos(consulta).stream()
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    /**
+     * Troca a reserva de um nome de usuário ou email no roteador quando o valor normalizado muda.
+     *
+     * @param tipo     o tipo da chave
+     * @param anterior o valor normalizado atual
+     * @param nova     o novo valor normalizado
+     * @throws IllegalArgumentException se o novo valor já estiver em uso
+     */
+    private void trocarChaveSeAlterada(RoteadorUsuarios.TipoChave tipo, String anterior, String nova) {
+        if (nova != null && !nova.equals(anterior)) {
+            roteador.trocarChave(tipo, anterior, nova);
+        }
+    }
+
+    /**
+     * Verifica se um campo informado em uma atualização parcial não está em branco.
+     *
+     * @param valor o valor informado
+     * @param campo o nome do campo, usado na mensagem de erro
+     * @throws IllegalArgumentException se o valor estiver em branco
+     */
+    private static void exigirPreenchido(String valor, String campo) {
+        if (valor.isBlank()) {
+            throw new IllegalArgumentException(campo + " não pode ficar em branco");
+        }
+    }
+
+    /**
+     * Aplica ao usuário a diferença entre os papéis atuais e os informados, alterando a coleção existente
+     * em vez de substituí-la. Assim o Hibernate insere apenas os vínculos adicionados e remove apenas os
+     * retirados em {@code usuario_papel}; quando os conjuntos são iguais, a tabela de junção não é tocada.
+     *
+     * @param usuario    a entidade usuário
+     * @param nomesPapel os nomes dos papéis desejados
+     * @return {@code true} se os papéis foram alterados
+     * @throws ResourceNotFoundException se algum papel não for encontrado
+     */
+    private boolean atualizarPapeis(Usuario usuario, Set<Papel.NomePapel> nomesPapel) {
+        Set<Papel> papeis = usuario.getPapeis();
+        boolean alterado = papeis.removeIf(papel -> !nomesPapel.contains(papel.getNomePapel()));
+        Set<Papel.NomePapel> mantidos = papeis.stream()
+                .map(Papel::getNomePapel)
+                .collect(Collectors.toSet());
+        for (Papel.NomePapel nomePapel : nomesPapel) {
+            if (!mantidos.contains(nomePapel)) {
+                papeis.add(buscarPapel(nomePapel));
+                alterado = true;
+            }
+        }
+        return alterado;
+    }
+
     /**
      * Atualiza os dados de um usuário a partir de um DTO.
+     * Os papéis são ajustados pela diferença em relação aos atuais, sem recriar a coleção.
      *
      * @param usuario    a entidade usuário a ser atualizada
      * @param usuarioDTO o DTO contendo os novos dados do usuário
      */
     private void updateUsuarioFromDTO(Usuario usuario, UsuarioDTO usuarioDTO) {
+        updateDadosFromDTO(usuario, usuarioDTO);
+        if (usuarioDTO.getPapeis() != null) {
+            atualizarPapeis(usuario, usuarioDTO.getPapeis());
+        }
+    }
+
+    /**
+     * Atualiza os dados cadastrais de um usuário a partir de um DTO, sem tocar nos papéis.
+     *
+     * @param usuario    a entidade usuário a ser atualizada
+     * @param usuarioDTO o DTO contendo os novos dados do usuário
+     */
+    private void updateDadosFromDTO(Usuario usuario, UsuarioDTO usuarioDTO) {
         usuario.setNomeCompleto(usuarioDTO.getNomeCompleto());
         usuario.setNomeUsuario(usuarioDTO.getNomeUsuario());
+        usuario.setNomeUsuarioNormalizado(Usuario.normalizar(usuarioDTO.getNomeUsuario()));
         usuario.setEmail(usuarioDTO.getEmail());
-        if (usuarioDTO.getPapeis() != null) {
-            List<Papel> list = new ArrayList<>();
-            for (Papel.NomePapel nomePapel : usuarioDTO.getPapeis()) {
-                Papel papel = papelRepository.findByNomePapel(nomePapel).orElseThrow(() -> new ResourceNotFoundException("Papel não encontrado: " + nomePapel));
-                list.add(papel);
-            }
-            usuario.setPapeis(list);
-        }
+        usuario.setEmailNormalizado(Usuario.normalizar(usuarioDTO.getEmail()));
     }
 
     /**
@@ -243,6 +693,7 @@ public class UsuarioService implements UserDetailsService {
         dto.setPapeis(usuario.getPapeis().stream()
                 .map(Papel::getNomePapel)
                 .collect(Collectors.toSet()));
+        dto.setVersao(usuario.getVersao());
         return dto;
     }
 }
\ No newline at end of file
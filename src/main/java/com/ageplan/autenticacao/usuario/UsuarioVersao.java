@@ -0,0 +1,107 @@
+package com.ageplan.autenticacao.usuario;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Projeção com os metadados de versão de um {@link Usuario}.
+ * Permite responder a requisições condicionais sem carregar os dados do usuário.
+ *
+ * @param id           o identificador do usuário
+ * @param versao       a versão atual do registro
+ * @param atualizadoEm o momento da última escrita, ou {@code null} se desconhecido
+ */
+public record UsuarioVersao(Long id, Long versao, Instant atualizadoEm) {
+
+    /**
+     * Retorna o ETag forte que identifica esta versão do usuário.
+     *
+     * @return o ETag, já entre aspas
+     */
+    public String etag() {
+        return etag(id, versao);
+    }
+
+    /**
+     * Retorna o momento da última escrita em milissegundos.
+     *
+     * @return o momento da última escrita, ou -1 se desconhecido
+     */
+    public long ultimaModificacao() {
+        return atualizadoEm != null ? atualizadoEm.toEpochMilli() : -1;
+    }
+
+    /**
+     * Monta o ETag forte de um usuário a partir do identificador e da versão.
+     *
+     * @param id     o identificador do usuário
+     * @param versao a versão do registro
+     * @return o ETag, já entre aspas
+     */
+    public static String etag(Long id, Long versao) {
+        return "\"" + id + "-" + versao + "\"";
+    }
+
+    /**
+     * Extrai de um cabeçalho If-Match as versões do usuário que satisfazem a pré-condição.
+     * O cabeçalho é uma lista de ETags separados por vírgula, comparados de forma forte: ETags fracos
+     * ({@code W/"..."}) e os de outros usuários nunca correspondem e são ignorados. Se nenhum ETag da
+     * lista puder corresponder, a pré-condição falha sem consultar o usuário.
+     *
+     * @param id      o identificador do usuário alvo da requisição
+     * @param ifMatch o valor do cabeçalho, possivelmente nulo
+     * @return as versões aceitas, ou {@code null} se o cabeçalho estiver ausente ou for "*"
+     * @throws IllegalArgumentException          se o cabeçalho não for uma lista de ETags
+     * @throws OptimisticLockingFailureException se nenhum ETag da lista puder corresponder ao usuário
+     */
+    public static Set<Long> versoesDoIfMatch(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        Set<Long> versoes = new HashSet<>();
+        String prefixo = id + "-";
+        int posicao = 0;
+        while (posicao < ifMatch.length()) {
+            char atual = ifMatch.charAt(posicao);
+            if (atual == ',' || Character.isWhitespace(atual)) {
+                posicao++;
+                continue;
+            }
+            if (atual == '*') {
+                return null;
+            }
+            boolean fraco = ifMatch.startsWith("W/", posicao);
+            int abertura = fraco ? posicao + 2 : posicao;
+            int fechamento = abertura < ifMatch.length() && ifMatch.charAt(abertura) == '"'
+                    ? ifMatch.indexOf('"', abertura + 1)
+                    : -1;
+            if (fechamento < 0) {
+                throw new IllegalArgumentException("If-Match inválido: " + ifMatch);
+            }
+            String opaco = ifMatch.substring(abertura + 1, fechamento);
+            if (!fraco && opaco.startsWith(prefixo)) {
+                versaoDe(opaco.substring(prefixo.length())).ifPresent(versoes::add);
+            }
+            posicao = fechamento + 1;
+        }
+        if (versoes.isEmpty()) {
+            throw new OptimisticLockingFailureException("Nenhum ETag de " + ifMatch + " corresponde ao usuário " + id);
+        }
+        return versoes;
+    }
+
+    private static Optional<Long> versaoDe(String valor) {
+        if (valor.isEmpty() || !valor.chars().allMatch(Character::isDigit)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Long.valueOf(valor));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+}
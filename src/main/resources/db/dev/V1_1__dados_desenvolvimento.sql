@@ -0,0 +1,15 @@
+-- Dados de desenvolvimento, aplicados apenas no perfil dev.
+INSERT INTO usuario (tipo_usuario, nome_completo, nome_usuario, email, senha, account_non_expired, account_non_locked,
+                     credentials_non_expired, enabled, versao, atualizado_em, excluido)
+VALUES ('ADMIN', 'Admin', 'admin', 'admin@example.com', 'senha123', true, true, true, true, 0, CURRENT_TIMESTAMP, false);
+INSERT INTO usuario (tipo_usuario, nome_completo, nome_usuario, email, senha, account_non_expired, account_non_locked,
+                     credentials_non_expired, enabled, versao, atualizado_em, excluido)
+VALUES ('INSTRUTOR', 'Professor', 'professor', 'professor@example.com', 'senha123', true, true, true, true, 0, CURRENT_TIMESTAMP, false);
+INSERT INTO usuario (tipo_usuario, nome_completo, nome_usuario, email, senha, account_non_expired, account_non_locked,
+                     credentials_non_expired, enabled, versao, atualizado_em, excluido)
+VALUES ('Usuario', 'Aluno', 'aluno', 'aluno@example.com', 'senha123', true, true, true, true, 0, CURRENT_TIMESTAMP, false);
+
+INSERT INTO usuario_papel (usuario_id, papel_id)
+SELECT u.id, p.id FROM usuario u, papel p WHERE u.nome_usuario = 'admin' AND p.nome_papel = 'ADMIN';
+INSERT INTO usuario_papel (usuario_id, papel_id)
+SELECT u.id, p.id FROM usuario u, papel p WHERE u.nome_usuario = 'professor' AND p.nome_papel = 'INSTRUTOR';
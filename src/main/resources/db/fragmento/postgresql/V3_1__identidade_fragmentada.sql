@@ -0,0 +1,6 @@
+-- Aplicado somente aos fragmentos (fragmentacao.habilitada=true): cada fragmento gera ids a partir de
+-- ${primeiro_id} com incremento ${total_fragmentos}, de modo que os ids não se repetem entre fragmentos
+-- e o fragmento de um id é (id - 1) mod ${total_fragmentos}.
+
+ALTER TABLE usuario ALTER COLUMN id SET INCREMENT BY ${total_fragmentos};
+ALTER TABLE usuario ALTER COLUMN id RESTART WITH ${primeiro_id};
@@ -0,0 +1,9 @@
+-- Índice global da fragmentação: cada nome de usuário e email normalizado aponta para o fragmento
+-- que guarda o usuário. A chave primária garante a unicidade entre todos os fragmentos.
+
+CREATE TABLE indice_usuario (
+    tipo      VARCHAR(16)  NOT NULL,
+    chave     VARCHAR(255) NOT NULL,
+    fragmento INTEGER      NOT NULL,
+    CONSTRAINT pk_indice_usuario PRIMARY KEY (tipo, chave)
+);
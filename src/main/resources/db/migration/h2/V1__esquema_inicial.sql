@@ -0,0 +1,41 @@
+-- Esquema inicial, equivalente ao gerado pelo Hibernate para as entidades Papel e Usuario
+-- (tabela única para Usuario, Administrador e Instrutor).
+
+CREATE TABLE papel (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    nome_papel VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_papel PRIMARY KEY (id),
+    CONSTRAINT uk_papel_nome_papel UNIQUE (nome_papel)
+);
+
+CREATE TABLE usuario (
+    id                      BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    tipo_usuario            VARCHAR(31)  NOT NULL,
+    nome_completo           VARCHAR(255),
+    nome_usuario            VARCHAR(255) NOT NULL,
+    email                   VARCHAR(255) NOT NULL,
+    senha                   VARCHAR(255),
+    account_non_expired     BOOLEAN      NOT NULL,
+    account_non_locked      BOOLEAN      NOT NULL,
+    credentials_non_expired BOOLEAN      NOT NULL,
+    enabled                 BOOLEAN      NOT NULL,
+    versao                  BIGINT       NOT NULL,
+    atualizado_em           TIMESTAMP(6) WITH TIME ZONE,
+    excluido                BOOLEAN      NOT NULL,
+    departamento            VARCHAR(255),
+    especialidade           VARCHAR(255),
+    CONSTRAINT pk_usuario PRIMARY KEY (id),
+    CONSTRAINT uk_usuario_nome_usuario UNIQUE (nome_usuario),
+    CONSTRAINT uk_usuario_email UNIQUE (email)
+);
+
+CREATE TABLE usuario_papel (
+    usuario_id BIGINT NOT NULL,
+    papel_id   BIGINT NOT NULL,
+    CONSTRAINT pk_usuario_papel PRIMARY KEY (usuario_id, papel_id),
+    CONSTRAINT fk_usuario_papel_usuario FOREIGN KEY (usuario_id) REFERENCES usuario (id),
+    CONSTRAINT fk_usuario_papel_papel FOREIGN KEY (papel_id) REFERENCES papel (id)
+);
+
+INSERT INTO papel (nome_papel) VALUES ('ADMIN');
+INSERT INTO papel (nome_papel) VALUES ('INSTRUTOR');
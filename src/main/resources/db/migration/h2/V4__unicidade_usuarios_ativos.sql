@@ -0,0 +1,20 @@
+-- Nome de usuário e email só precisam ser únicos entre os usuários ativos: um usuário excluído
+-- logicamente não pode impedir o cadastro de outro com o mesmo login enquanto aguarda o expurgo.
+-- A unicidade fica nas colunas normalizadas, já que valores iguais também são iguais normalizados.
+ALTER TABLE usuario DROP CONSTRAINT uk_usuario_nome_usuario;
+ALTER TABLE usuario DROP CONSTRAINT uk_usuario_email;
+ALTER TABLE usuario DROP CONSTRAINT uk_usuario_nome_usuario_normalizado;
+ALTER TABLE usuario DROP CONSTRAINT uk_usuario_email_normalizado;
+
+-- O H2 não tem índices parciais: colunas geradas guardam a chave apenas enquanto o usuário está ativo
+-- (nula após a exclusão lógica), e as restrições únicas aceitam vários nulos.
+ALTER TABLE usuario ADD COLUMN nome_usuario_ativo VARCHAR(255)
+    GENERATED ALWAYS AS (CASE WHEN excluido THEN NULL ELSE nome_usuario_normalizado END);
+ALTER TABLE usuario ADD COLUMN email_ativo VARCHAR(255)
+    GENERATED ALWAYS AS (CASE WHEN excluido THEN NULL ELSE email_normalizado END);
+ALTER TABLE usuario ADD CONSTRAINT uk_usuario_nome_usuario_ativo UNIQUE (nome_usuario_ativo);
+ALTER TABLE usuario ADD CONSTRAINT uk_usuario_email_ativo UNIQUE (email_ativo);
+
+-- Buscas de login pelas colunas normalizadas, que perderam o índice das restrições removidas.
+CREATE INDEX idx_usuario_nome_usuario_normalizado ON usuario (nome_usuario_normalizado);
+CREATE INDEX idx_usuario_email_normalizado ON usuario (email_normalizado);
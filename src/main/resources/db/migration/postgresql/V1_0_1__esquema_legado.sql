@@ -0,0 +1,49 @@
+-- Alinha à V1 os bancos criados pelo Hibernate (ddl-auto=update) antes do Flyway, que recebem a
+-- linha de base na versão 1 e, portanto, não executam a V1. Em bancos criados pela V1 nada muda.
+
+-- Colunas acrescentadas às entidades depois do ddl-auto=update.
+ALTER TABLE usuario ADD COLUMN IF NOT EXISTS versao BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE usuario ALTER COLUMN versao DROP DEFAULT;
+ALTER TABLE usuario ADD COLUMN IF NOT EXISTS atualizado_em TIMESTAMP(6) WITH TIME ZONE;
+ALTER TABLE usuario ADD COLUMN IF NOT EXISTS excluido BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE usuario ALTER COLUMN excluido DROP DEFAULT;
+ALTER TABLE usuario ADD COLUMN IF NOT EXISTS departamento VARCHAR(255);
+ALTER TABLE usuario ADD COLUMN IF NOT EXISTS especialidade VARCHAR(255);
+
+-- O Hibernate gera nomes aleatórios para as restrições únicas; as migrações seguintes removem
+-- as de usuario pelo nome da V1. Cada restrição única de uma coluna é localizada no catálogo e
+-- renomeada, ou criada se não existir.
+DO $$
+DECLARE
+    alvo      RECORD;
+    existente NAME;
+BEGIN
+    FOR alvo IN
+        SELECT *
+        FROM (VALUES ('papel', 'nome_papel', 'uk_papel_nome_papel'),
+                     ('usuario', 'nome_usuario', 'uk_usuario_nome_usuario'),
+                     ('usuario', 'email', 'uk_usuario_email')) AS restricoes (tabela, coluna, nome)
+    LOOP
+        SELECT c.conname INTO existente
+        FROM pg_constraint c
+                 JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = c.conkey[1]
+        WHERE c.conrelid = alvo.tabela::regclass
+          AND c.contype = 'u'
+          AND cardinality(c.conkey) = 1
+          AND a.attname = alvo.coluna
+        LIMIT 1;
+
+        IF existente IS NULL THEN
+            EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I UNIQUE (%I)', alvo.tabela, alvo.nome, alvo.coluna);
+        ELSIF existente <> alvo.nome THEN
+            EXECUTE format('ALTER TABLE %I RENAME CONSTRAINT %I TO %I', alvo.tabela, existente, alvo.nome);
+        END IF;
+    END LOOP;
+END
+$$;
+
+-- Papéis que a V1 insere e que o ddl-auto=update não criava.
+INSERT INTO papel (nome_papel)
+SELECT nome_papel
+FROM (VALUES ('ADMIN'), ('INSTRUTOR')) AS papeis (nome_papel)
+WHERE NOT EXISTS (SELECT 1 FROM papel p WHERE p.nome_papel = papeis.nome_papel);
@@ -0,0 +1,24 @@
+-- Índices derivados das consultas dos repositórios. Como quase todas as consultas filtram
+-- excluido = false, os índices de leitura são parciais e ignoram os usuários excluídos.
+
+-- findByPapel e os EXISTS das operações em lote filtram usuario_papel por papel_id;
+-- a chave primária (usuario_id, papel_id) só atende buscas por usuario_id.
+CREATE INDEX IF NOT EXISTS idx_usuario_papel_papel ON usuario_papel (papel_id, usuario_id);
+
+-- Exportação e operações em lote filtradas por tipo, ordenadas por id.
+CREATE INDEX IF NOT EXISTS idx_usuario_tipo ON usuario (tipo_usuario, id) WHERE excluido = false;
+
+-- Listagem paginada ordenada por nome.
+CREATE INDEX IF NOT EXISTS idx_usuario_nome_completo ON usuario (nome_completo, id) WHERE excluido = false;
+
+-- Filtro por situação da conta nas exportações e operações em lote.
+CREATE INDEX IF NOT EXISTS idx_usuario_habilitado ON usuario (enabled, id) WHERE excluido = false;
+
+-- Expurgo dos usuários excluídos, em ordem de id; contém apenas as linhas aguardando expurgo.
+CREATE INDEX IF NOT EXISTS idx_usuario_excluido ON usuario (id) WHERE excluido = true;
+
+-- Administradores gravados antes da hierarquia de papéis carregam INSTRUTOR de forma redundante.
+DELETE FROM usuario_papel up
+WHERE up.papel_id = (SELECT p.id FROM papel p WHERE p.nome_papel = 'INSTRUTOR')
+  AND EXISTS (SELECT 1 FROM usuario_papel a JOIN papel p ON p.id = a.papel_id
+              WHERE a.usuario_id = up.usuario_id AND p.nome_papel = 'ADMIN');
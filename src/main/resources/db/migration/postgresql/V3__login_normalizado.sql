@@ -0,0 +1,14 @@
+-- Colunas de sombra em minúsculas para o login sem distinção de maiúsculas e minúsculas,
+-- por nome de usuário ou email. As restrições únicas também servem de índice da busca.
+ALTER TABLE usuario ADD COLUMN nome_usuario_normalizado VARCHAR(255);
+ALTER TABLE usuario ADD COLUMN email_normalizado VARCHAR(255);
+
+UPDATE usuario
+SET nome_usuario_normalizado = LOWER(TRIM(nome_usuario)),
+    email_normalizado        = LOWER(TRIM(email));
+
+ALTER TABLE usuario ALTER COLUMN nome_usuario_normalizado SET NOT NULL;
+ALTER TABLE usuario ALTER COLUMN email_normalizado SET NOT NULL;
+
+ALTER TABLE usuario ADD CONSTRAINT uk_usuario_nome_usuario_normalizado UNIQUE (nome_usuario_normalizado);
+ALTER TABLE usuario ADD CONSTRAINT uk_usuario_email_normalizado UNIQUE (email_normalizado);
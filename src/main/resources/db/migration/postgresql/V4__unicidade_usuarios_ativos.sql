@@ -0,0 +1,11 @@
+-- Nome de usuário e email só precisam ser únicos entre os usuários ativos: um usuário excluído
+-- logicamente não pode impedir o cadastro de outro com o mesmo login enquanto aguarda o expurgo.
+-- A unicidade fica nas colunas normalizadas, já que valores iguais também são iguais normalizados.
+ALTER TABLE usuario DROP CONSTRAINT uk_usuario_nome_usuario;
+ALTER TABLE usuario DROP CONSTRAINT uk_usuario_email;
+ALTER TABLE usuario DROP CONSTRAINT uk_usuario_nome_usuario_normalizado;
+ALTER TABLE usuario DROP CONSTRAINT uk_usuario_email_normalizado;
+
+-- Índices únicos parciais, que também atendem as buscas de login (sempre com excluido = false).
+CREATE UNIQUE INDEX uk_usuario_nome_usuario_ativo ON usuario (nome_usuario_normalizado) WHERE excluido = false;
+CREATE UNIQUE INDEX uk_usuario_email_ativo ON usuario (email_normalizado) WHERE excluido = false;
@@ -0,0 +1,25 @@
+package com.ageplan.autenticacao.reativo;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+/**
+ * Aplicação da variante reativa da API, servida pelo WebFlux com acesso ao banco pelo R2DBC.
+ * Expõe os mesmos contratos de {@code /api/usuarios} e {@code /api/papeis} da pilha de servlets,
+ * sobre o mesmo esquema versionado pelo Flyway. Disponível apenas no build com o perfil Maven {@code reativo}.
+ * <p>
+ * A varredura de componentes se limita a este pacote, de modo que os controladores, serviços e a
+ * configuração de segurança da pilha de servlets não são carregados. Os componentes deste pacote só são
+ * registrados em aplicações reativas, o que também os mantém fora da aplicação de servlets.
+ */
+@SpringBootApplication
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class AutenticacaoReativaApplication {
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(AutenticacaoReativaApplication.class)
+                .profiles("reativo")
+                .run(args);
+    }
+}
@@ -0,0 +1,56 @@
+package com.ageplan.autenticacao.reativo.config;
+
+import com.ageplan.autenticacao.config.autorizacao.ContextoAutorizacao;
+import com.ageplan.autenticacao.config.autorizacao.RegraAutorizacao;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.ReactiveAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link ReactiveAuthorizationManager} que aplica uma {@link RegraAutorizacao} às requisições do WebFlux.
+ * Equivale ao {@link com.ageplan.autenticacao.config.autorizacao.RegraAutorizacaoManager} da pilha de servlets.
+ * Requisições anônimas são sempre negadas.
+ */
+public final class RegraAutorizacaoReativaManager implements ReactiveAuthorizationManager<AuthorizationContext> {
+
+    private static final AuthorizationDecision PERMITIDO = new AuthorizationDecision(true);
+    private static final AuthorizationDecision NEGADO = new AuthorizationDecision(false);
+
+    private final AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+    private final RegraAutorizacao regra;
+
+    private RegraAutorizacaoReativaManager(RegraAutorizacao regra) {
+        this.regra = regra;
+    }
+
+    /**
+     * Cria um gerenciador para uma regra.
+     *
+     * @param regra a regra a ser aplicada
+     * @return o gerenciador criado
+     */
+    public static RegraAutorizacaoReativaManager de(RegraAutorizacao regra) {
+        return new RegraAutorizacaoReativaManager(regra);
+    }
+
+    @Override
+    public Mono<AuthorizationDecision> check(Mono<Authentication> authentication, AuthorizationContext object) {
+        return authentication
+                .filter(autenticacao -> autenticacao.isAuthenticated() && !trustResolver.isAnonymous(autenticacao))
+                .map(autenticacao -> regra.permite(ContextoAutorizacao.de(autenticacao, variaveis(object))) ? PERMITIDO : NEGADO)
+                .defaultIfEmpty(NEGADO);
+    }
+
+    private static Map<String, String> variaveis(AuthorizationContext contexto) {
+        Map<String, String> variaveis = new HashMap<>();
+        contexto.getVariables().forEach((nome, valor) -> variaveis.put(nome, String.valueOf(valor)));
+        return variaveis;
+    }
+}
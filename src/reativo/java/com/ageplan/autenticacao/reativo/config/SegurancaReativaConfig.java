@@ -0,0 +1,95 @@
+package com.ageplan.autenticacao.reativo.config;
+
+import com.ageplan.autenticacao.reativo.usuario.UsuarioReativoService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
+import reactor.core.scheduler.Schedulers;
+
+import static com.ageplan.autenticacao.config.autorizacao.RegrasUsuario.*;
+import static com.ageplan.autenticacao.reativo.config.RegraAutorizacaoReativaManager.de;
+
+/**
+ * Configuração de segurança da variante reativa.
+ * Reproduz as regras de autorização da {@link com.ageplan.autenticacao.config.SecurityConfig} para os
+ * endpoints servidos por esta variante, com as mesmas
+ * {@link com.ageplan.autenticacao.config.autorizacao.RegraAutorizacao} tipadas.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class SegurancaReativaConfig {
+
+    /**
+     * Define o codificador de senhas, o mesmo BCrypt da pilha de servlets.
+     *
+     * @return uma instância de {@link BCryptPasswordEncoder}
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+
+    /**
+     * Configura o gerenciador de autenticação reativo sobre o {@link UsuarioReativoService}.
+     * A verificação do BCrypt consome CPU e é executada no scheduler {@link Schedulers#boundedElastic()},
+     * fora das threads do event loop.
+     *
+     * @param usuarioService  o serviço reativo de usuários
+     * @param passwordEncoder o codificador de senhas
+     * @return uma instância de {@link ReactiveAuthenticationManager}
+     */
+    @Bean
+    public ReactiveAuthenticationManager reactiveAuthenticationManager(UsuarioReativoService usuarioService,
+                                                                       PasswordEncoder passwordEncoder) {
+        UserDetailsRepositoryReactiveAuthenticationManager authenticationManager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(usuarioService);
+        authenticationManager.setPasswordEncoder(passwordEncoder);
+        authenticationManager.setScheduler(Schedulers.boundedElastic());
+        return authenticationManager;
+    }
+
+    /**
+     * Configura a cadeia de filtros de segurança do WebFlux.
+     *
+     * @param http                  o objeto {@link ServerHttpSecurity} a ser configurado
+     * @param authenticationManager o gerenciador de autenticação reativo
+     * @return uma instância de {@link SecurityWebFilterChain}
+     */
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http,
+                                                         ReactiveAuthenticationManager authenticationManager) {
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .authenticationManager(authenticationManager)
+                .authorizeExchange(exchange -> exchange
+                        .pathMatchers("/api/public/**", "/api/auth/**", "/api/usuarios/registro").permitAll()
+                        .pathMatchers(HttpMethod.GET, "/api/usuarios/me").authenticated()
+                        .pathMatchers(HttpMethod.GET, "/api/usuarios/{id}").access(de(ADMIN_INSTRUTOR_OU_PROPRIO))
+                        .pathMatchers(HttpMethod.PUT, "/api/usuarios/{id}").access(de(ADMIN_OU_PROPRIO))
+                        .pathMatchers(HttpMethod.PATCH, "/api/usuarios/{id}").access(de(ADMIN_OU_PROPRIO))
+                        .pathMatchers(HttpMethod.DELETE, "/api/usuarios/{id}").access(de(ADMIN))
+                        .pathMatchers(HttpMethod.GET, "/api/usuarios").access(de(ADMIN_OU_INSTRUTOR))
+                        .pathMatchers(HttpMethod.POST, "/api/usuarios").access(de(ADMIN))
+                        .anyExchange().authenticated()
+                )
+                .formLogin(form -> form
+                        .requiresAuthenticationMatcher(ServerWebExchangeMatchers.pathMatchers(HttpMethod.POST, "/api/login"))
+                )
+                .logout(logout -> logout
+                        .logoutUrl("/api/logout")
+                )
+                .httpBasic(httpBasic -> {
+                })
+                .build();
+    }
+}
@@ -0,0 +1,13 @@
+package com.ageplan.autenticacao.reativo.papel;
+
+import com.ageplan.autenticacao.papel.Papel;
+
+/**
+ * Projeção de um vínculo de {@code usuario_papel} com o nome do papel.
+ *
+ * @param usuarioId o identificador do usuário
+ * @param papelId   o identificador do papel
+ * @param nomePapel o nome do papel
+ */
+public record PapelDeUsuario(Long usuarioId, Long papelId, Papel.NomePapel nomePapel) {
+}
@@ -0,0 +1,108 @@
+package com.ageplan.autenticacao.reativo.papel;
+
+import com.ageplan.autenticacao.config.exceptions.ErrorResponse;
+import com.ageplan.autenticacao.config.exceptions.ResourceNotFoundException;
+import com.ageplan.autenticacao.papel.PapelDTO;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Controlador REST reativo dos papéis, com o mesmo contrato do
+ * {@link com.ageplan.autenticacao.papel.PapelController}. A lista de papéis é sempre respondida em JSON.
+ */
+@RestController
+@RequestMapping("/api/papeis")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class PapelReativoController {
+
+    private final PapelReativoService papelService;
+
+    public PapelReativoController(PapelReativoService papelService) {
+        this.papelService = papelService;
+    }
+
+    /**
+     * Endpoint para criar um novo papel.
+     *
+     * @param papelDTO o DTO contendo os dados do papel a ser criado
+     * @return uma ResponseEntity contendo o DTO do papel criado e o status HTTP 201 (Created)
+     */
+    @PostMapping
+    public Mono<ResponseEntity<PapelDTO>> criarPapel(@Valid @RequestBody PapelDTO papelDTO) {
+        return papelService.insert(papelDTO).map(novoPapel -> new ResponseEntity<>(novoPapel, HttpStatus.CREATED));
+    }
+
+    /**
+     * Endpoint para buscar um papel pelo seu identificador.
+     *
+     * @param id o identificador do papel a ser buscado
+     * @return uma ResponseEntity contendo o DTO do papel encontrado e o status HTTP 200 (OK)
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<PapelDTO>> getPapel(@PathVariable Long id) {
+        return papelService.getPapel(id).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Endpoint para buscar todos os papéis cadastrados no sistema.
+     *
+     * @return uma ResponseEntity contendo a lista de papéis encontrados e o status HTTP 200 (OK)
+     */
+    @GetMapping
+    public Mono<ResponseEntity<List<PapelDTO>>> getAllPapeis() {
+        return papelService.getAllPapeis().map(ResponseEntity::ok);
+    }
+
+    /**
+     * Endpoint para atualizar os dados de um papel existente.
+     *
+     * @param id       o identificador do papel a ser atualizado
+     * @param papelDTO o DTO contendo os novos dados do papel
+     * @return uma ResponseEntity contendo o DTO do papel atualizado e o status HTTP 200 (OK)
+     */
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<PapelDTO>> updatePapel(@PathVariable Long id, @Valid @RequestBody PapelDTO papelDTO) {
+        return papelService.update(id, papelDTO).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Endpoint para deletar um papel pelo seu identificador.
+     *
+     * @param id o identificador do papel a ser deletado
+     * @return uma ResponseEntity com o status HTTP 204 (No Content)
+     */
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deletePapel(@PathVariable Long id) {
+        return papelService.delete(id).then(Mono.fromSupplier(() -> ResponseEntity.noContent().build()));
+    }
+
+    /**
+     * Manipulador de exceção para IllegalArgumentException.
+     *
+     * @param e a exceção lançada
+     * @return uma ResponseEntity contendo a resposta de erro e o status HTTP 400 (Bad Request)
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException e) {
+        ErrorResponse errorResponse = new ErrorResponse(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    /**
+     * Manipulador de exceção para ResourceNotFoundException.
+     *
+     * @param e a exceção lançada
+     * @return uma ResponseEntity contendo a resposta de erro e o status HTTP 404 (Not Found)
+     */
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleResourceNotFoundException(ResourceNotFoundException e) {
+        ErrorResponse errorResponse = new ErrorResponse(HttpStatus.NOT_FOUND.value(), e.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+    }
+}
@@ -0,0 +1,66 @@
+package com.ageplan.autenticacao.reativo.papel;
+
+import com.ageplan.autenticacao.papel.Papel;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Repositório reativo dos papéis, equivalente ao {@link com.ageplan.autenticacao.papel.PapelRepository}.
+ * Também mantém a tabela de junção {@code usuario_papel}, que na pilha de servlets é gerida pelo Hibernate.
+ */
+public interface PapelReativoRepository extends ReactiveCrudRepository<PapelRegistro, Long> {
+
+    /**
+     * Busca um papel pelo nome.
+     *
+     * @param nomePapel o nome do papel
+     * @return o papel encontrado, ou vazio se não encontrado
+     */
+    Mono<PapelRegistro> findByNomePapel(Papel.NomePapel nomePapel);
+
+    /**
+     * Verifica se existe um papel com o nome informado.
+     *
+     * @param nomePapel o nome do papel
+     * @return {@code true} se o papel existir
+     */
+    Mono<Boolean> existsByNomePapel(Papel.NomePapel nomePapel);
+
+    /**
+     * Busca os papéis de vários usuários em uma única consulta.
+     *
+     * @param usuarioIds os identificadores dos usuários
+     * @return os vínculos encontrados, com o nome de cada papel
+     */
+    @Query("SELECT up.usuario_id, up.papel_id, p.nome_papel FROM usuario_papel up " +
+            "JOIN papel p ON p.id = up.papel_id WHERE up.usuario_id IN (:usuarioIds)")
+    Flux<PapelDeUsuario> findPapeisByUsuarioIdIn(@Param("usuarioIds") Collection<Long> usuarioIds);
+
+    /**
+     * Vincula um papel a um usuário.
+     *
+     * @param usuarioId o identificador do usuário
+     * @param papelId   o identificador do papel
+     * @return a quantidade de linhas inseridas
+     */
+    @Modifying
+    @Query("INSERT INTO usuario_papel (usuario_id, papel_id) VALUES (:usuarioId, :papelId)")
+    Mono<Integer> vincular(@Param("usuarioId") Long usuarioId, @Param("papelId") Long papelId);
+
+    /**
+     * Remove o vínculo de um papel com um usuário.
+     *
+     * @param usuarioId o identificador do usuário
+     * @param papelId   o identificador do papel
+     * @return a quantidade de linhas removidas
+     */
+    @Modifying
+    @Query("DELETE FROM usuario_papel WHERE usuario_id = :usuarioId AND papel_id = :papelId")
+    Mono<Integer> desvincular(@Param("usuarioId") Long usuarioId, @Param("papelId") Long papelId);
+}
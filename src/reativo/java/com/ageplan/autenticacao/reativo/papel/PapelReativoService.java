@@ -0,0 +1,98 @@
+package com.ageplan.autenticacao.reativo.papel;
+
+import com.ageplan.autenticacao.config.exceptions.ResourceNotFoundException;
+import com.ageplan.autenticacao.papel.PapelDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Serviço reativo dos papéis, com as mesmas regras do {@link com.ageplan.autenticacao.papel.PapelService}.
+ * A variante reativa não mantém caches locais, por isso as alterações não publicam eventos de invalidação.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class PapelReativoService {
+
+    private static final String MENSAGEM = "Papel não encontrado";
+
+    private final PapelReativoRepository papelRepository;
+
+    public PapelReativoService(PapelReativoRepository papelRepository) {
+        this.papelRepository = papelRepository;
+    }
+
+    /**
+     * Cria um novo papel.
+     *
+     * @param papelDTO o DTO contendo o nome do papel
+     * @return o DTO do papel criado
+     */
+    @Transactional
+    public Mono<PapelDTO> insert(PapelDTO papelDTO) {
+        return papelRepository.existsByNomePapel(papelDTO.getNomePapel())
+                .flatMap(existe -> existe
+                        ? Mono.error(new IllegalArgumentException("Papel já existe"))
+                        : papelRepository.save(new PapelRegistro(papelDTO.getNomePapel())))
+                .map(PapelRegistro::paraDTO);
+    }
+
+    /**
+     * Busca um papel pelo seu identificador.
+     *
+     * @param id o identificador do papel
+     * @return o DTO do papel encontrado
+     */
+    @Transactional(readOnly = true)
+    public Mono<PapelDTO> getPapel(Long id) {
+        return buscar(id).map(PapelRegistro::paraDTO);
+    }
+
+    /**
+     * Busca todos os papéis.
+     *
+     * @return os DTOs dos papéis
+     */
+    @Transactional(readOnly = true)
+    public Mono<List<PapelDTO>> getAllPapeis() {
+        return papelRepository.findAll()
+                .map(PapelRegistro::paraDTO)
+                .collectList();
+    }
+
+    /**
+     * Atualiza o nome de um papel.
+     *
+     * @param id       o identificador do papel
+     * @param papelDTO o DTO contendo o novo nome
+     * @return o DTO do papel atualizado
+     */
+    @Transactional
+    public Mono<PapelDTO> update(Long id, PapelDTO papelDTO) {
+        return buscar(id)
+                .flatMap(papel -> {
+                    papel.setNomePapel(papelDTO.getNomePapel());
+                    return papelRepository.save(papel);
+                })
+                .map(PapelRegistro::paraDTO);
+    }
+
+    /**
+     * Exclui um papel.
+     *
+     * @param id o identificador do papel
+     * @return a conclusão da exclusão
+     */
+    @Transactional
+    public Mono<Void> delete(Long id) {
+        return buscar(id).flatMap(papelRepository::delete);
+    }
+
+    private Mono<PapelRegistro> buscar(Long id) {
+        return papelRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(MENSAGEM)));
+    }
+}
@@ -0,0 +1,38 @@
+package com.ageplan.autenticacao.reativo.papel;
+
+import com.ageplan.autenticacao.papel.Papel;
+import com.ageplan.autenticacao.papel.PapelDTO;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Linha da tabela {@code papel} lida e gravada pelo R2DBC.
+ * Corresponde à entidade {@link Papel} da pilha de servlets.
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+@Table("papel")
+public class PapelRegistro {
+
+    @Id
+    private Long id;
+
+    private Papel.NomePapel nomePapel;
+
+    public PapelRegistro(Papel.NomePapel nomePapel) {
+        this.nomePapel = nomePapel;
+    }
+
+    /**
+     * Converte o registro para o DTO exposto pela API.
+     *
+     * @return o DTO do papel
+     */
+    public PapelDTO paraDTO() {
+        return new PapelDTO(id, nomePapel);
+    }
+}
@@ -0,0 +1,254 @@
+package com.ageplan.autenticacao.reativo.usuario;
+
+import com.ageplan.autenticacao.config.autorizacao.ContextoAutorizacao;
+import com.ageplan.autenticacao.config.autorizacao.RegrasUsuario;
+import com.ageplan.autenticacao.config.exceptions.ErrorResponse;
+import com.ageplan.autenticacao.config.exceptions.ResourceNotFoundException;
+import com.ageplan.autenticacao.papel.Papel;
+import com.ageplan.autenticacao.usuario.AtualizacaoParcialUsuarioDTO;
+import com.ageplan.autenticacao.usuario.UsuarioDTO;
+import com.ageplan.autenticacao.usuario.UsuarioVersao;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Controlador REST reativo dos usuários, com o mesmo contrato do
+ * {@link com.ageplan.autenticacao.usuario.UsuarioController} para criação, busca, atualização e exclusão.
+ * As respostas individuais são sempre JSON; as operações em lote, a exportação e a busca em lote
+ * permanecem apenas na pilha de servlets.
+ */
+@RestController
+@RequestMapping("/api/usuarios")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class UsuarioReativoController {
+
+    private static final String MENSAGEM_PAPEIS = "Somente administradores podem alterar os papéis de um usuário";
+
+    private final UsuarioReativoService usuarioService;
+
+    public UsuarioReativoController(UsuarioReativoService usuarioService) {
+        this.usuarioService = usuarioService;
+    }
+
+    /**
+     * Endpoint para criar um novo usuário.
+     *
+     * @param usuarioDTO o DTO contendo os dados do usuário a ser criado
+     * @param request    a requisição, usada para montar o cabeçalho Location
+     * @return uma ResponseEntity contendo o DTO do usuário criado e o status HTTP 201 (Created)
+     */
+    @PostMapping
+    public Mono<ResponseEntity<UsuarioDTO>> criarUsuario(@Valid @RequestBody UsuarioDTO usuarioDTO,
+                                                         ServerHttpRequest request) {
+        return usuarioService.criarUsuario(usuarioDTO)
+                .map(novoUsuario -> ResponseEntity.created(localDe(request, novoUsuario)).body(novoUsuario));
+    }
+
+    /**
+     * Endpoint para buscar um usuário pelo seu identificador.
+     * Responde com ETag e Last-Modified; se o cliente já possuir a versão atual (If-None-Match),
+     * retorna o status HTTP 304 (Not Modified) sem consultar os papéis.
+     *
+     * @param id       o identificador do usuário a ser buscado
+     * @param exchange a troca corrente, utilizada para avaliar os cabeçalhos condicionais
+     * @return uma ResponseEntity contendo o usuário encontrado e o status HTTP 200 (OK)
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<UsuarioDTO>> getUsuario(@PathVariable Long id, ServerWebExchange exchange) {
+        return usuarioService.getVersao(id)
+                .flatMap(versao -> naoModificado(exchange, versao)
+                        ? Mono.empty()
+                        : usuarioService.getUsuario(id).map(usuario -> respostaDeVersao(versao, usuario)));
+    }
+
+    /**
+     * Endpoint para buscar o usuário atualmente autenticado.
+     * Responde com ETag e Last-Modified; se o cliente já possuir a versão atual (If-None-Match),
+     * retorna o status HTTP 304 (Not Modified) sem consultar os papéis.
+     *
+     * @param authentication o objeto de autenticação contendo os detalhes do usuário autenticado
+     * @param exchange       a troca corrente, utilizada para avaliar os cabeçalhos condicionais
+     * @return uma ResponseEntity contendo o usuário autenticado e o status HTTP 200 (OK)
+     */
+    @GetMapping("/me")
+    public Mono<ResponseEntity<UsuarioDTO>> getCurrentUser(Authentication authentication, ServerWebExchange exchange) {
+        return usuarioService.getVersaoByUsername(authentication.getName())
+                .flatMap(versao -> naoModificado(exchange, versao)
+                        ? Mono.empty()
+                        : usuarioService.getUsuarioByUsername(authentication.getName())
+                        .map(usuario -> respostaDeVersao(versao, usuario)));
+    }
+
+    /**
+     * Endpoint para buscar todos os usuários cadastrados no sistema com paginação.
+     *
+     * @param pageable o objeto de paginação
+     * @return uma ResponseEntity contendo a página de DTOs dos usuários encontrados e o status HTTP 200 (OK)
+     */
+    @GetMapping
+    public Mono<ResponseEntity<Page<UsuarioDTO>>> getAllUsuarios(Pageable pageable) {
+        return usuarioService.getAllUsuarios(pageable).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Endpoint para atualizar os dados de um usuário existente.
+     * Se o cabeçalho If-Match for informado, a atualização só ocorre quando o usuário ainda estiver
+     * na versão indicada; caso contrário, retorna o status HTTP 412 (Precondition Failed).
+     * Somente administradores podem alterar os papéis; para os demais, informá-los resulta no status
+     * HTTP 403 (Forbidden).
+     *
+     * @param id             o identificador do usuário a ser atualizado
+     * @param ifMatch        o ETag da versão conhecida pelo cliente, opcional
+     * @param usuarioDTO     o DTO contendo os novos dados do usuário
+     * @param authentication a autenticação do usuário que faz a requisição
+     * @return uma ResponseEntity contendo o DTO do usuário atualizado e o status HTTP 200 (OK)
+     */
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<UsuarioDTO>> updateUsuario(@PathVariable Long id,
+                                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                          @Valid @RequestBody UsuarioDTO usuarioDTO,
+                                                          Authentication authentication) {
+        if (!podeAlterarPapeis(usuarioDTO.getPapeis(), authentication)) {
+            return Mono.error(new AccessDeniedException(MENSAGEM_PAPEIS));
+        }
+        return usuarioService.update(id, usuarioDTO, UsuarioVersao.versoesDoIfMatch(id, ifMatch))
+                .map(usuario -> comEtag(id, usuario));
+    }
+
+    /**
+     * Endpoint para atualizar parcialmente um usuário existente.
+     * Apenas os campos presentes no corpo são alterados.
+     * Se o cabeçalho If-Match for informado, a atualização só ocorre quando o usuário ainda estiver
+     * na versão indicada; caso contrário, retorna o status HTTP 412 (Precondition Failed).
+     * Somente administradores podem alterar os papéis; para os demais, informá-los resulta no status
+     * HTTP 403 (Forbidden).
+     *
+     * @param id             o identificador do usuário a ser atualizado
+     * @param ifMatch        o ETag da versão conhecida pelo cliente, opcional
+     * @param atualizacao    os campos a serem alterados
+     * @param authentication a autenticação do usuário que faz a requisição
+     * @return uma ResponseEntity contendo o DTO do usuário atualizado e o status HTTP 200 (OK)
+     */
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<UsuarioDTO>> patchUsuario(@PathVariable Long id,
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                         @Valid @RequestBody AtualizacaoParcialUsuarioDTO atualizacao,
+                                                         Authentication authentication) {
+        if (!podeAlterarPapeis(atualizacao.getPapeis(), authentication)) {
+            return Mono.error(new AccessDeniedException(MENSAGEM_PAPEIS));
+        }
+        return usuarioService.atualizarParcialmente(id, atualizacao, UsuarioVersao.versoesDoIfMatch(id, ifMatch))
+                .map(usuario -> comEtag(id, usuario));
+    }
+
+    /**
+     * Endpoint para deletar um usuário pelo seu identificador.
+     *
+     * @param id o identificador do usuário a ser deletado
+     * @return uma ResponseEntity com o status HTTP 204 (No Content)
+     */
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteUsuario(@PathVariable Long id) {
+        return usuarioService.deleteUsuario(id).then(Mono.fromSupplier(() -> ResponseEntity.noContent().build()));
+    }
+
+    /**
+     * Endpoint para registrar um novo usuário no sistema.
+     *
+     * @param usuarioDTO o DTO contendo os dados do usuário a ser registrado
+     * @param request    a requisição, usada para montar o cabeçalho Location
+     * @return uma ResponseEntity contendo o DTO do usuário registrado e o status HTTP 201 (Created)
+     */
+    @PostMapping("/registro")
+    public Mono<ResponseEntity<UsuarioDTO>> registrarUsuario(@Valid @RequestBody UsuarioDTO usuarioDTO,
+                                                             ServerHttpRequest request) {
+        return usuarioService.registrarUsuario(usuarioDTO)
+                .map(novoUsuario -> ResponseEntity.created(localDe(request, novoUsuario)).body(novoUsuario));
+    }
+
+    private static boolean podeAlterarPapeis(Set<Papel.NomePapel> papeis, Authentication authentication) {
+        return papeis == null || RegrasUsuario.ADMIN.permite(ContextoAutorizacao.de(authentication, null));
+    }
+
+    private static boolean naoModificado(ServerWebExchange exchange, UsuarioVersao versao) {
+        // Uma data anterior à época desliga a comparação por If-Modified-Since quando a data é desconhecida
+        return exchange.checkNotModified(versao.etag(), Instant.ofEpochMilli(versao.ultimaModificacao()));
+    }
+
+    private static ResponseEntity<UsuarioDTO> respostaDeVersao(UsuarioVersao versao, UsuarioDTO usuario) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(versao.etag());
+        if (versao.ultimaModificacao() >= 0) {
+            headers.setLastModified(versao.ultimaModificacao());
+        }
+        return ResponseEntity.ok().headers(headers).body(usuario);
+    }
+
+    private static ResponseEntity<UsuarioDTO> comEtag(Long id, UsuarioDTO usuario) {
+        if (usuario.getVersao() == null) {
+            return ResponseEntity.ok(usuario);
+        }
+        return ResponseEntity.ok().eTag(UsuarioVersao.etag(id, usuario.getVersao())).body(usuario);
+    }
+
+    private static URI localDe(ServerHttpRequest request, UsuarioDTO usuario) {
+        return UriComponentsBuilder.fromUri(request.getURI())
+                .replacePath(request.getPath().value().replaceFirst("/registro$", ""))
+                .path("/{id}")
+                .buildAndExpand(usuario.getId())
+                .toUri();
+    }
+
+    /**
+     * Manipulador de exceção para IllegalArgumentException.
+     *
+     * @param e a exceção lançada
+     * @return uma ResponseEntity contendo a resposta de erro e o status HTTP 400 (Bad Request)
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException e) {
+        ErrorResponse errorResponse = new ErrorResponse(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    /**
+     * Manipulador de exceção para ResourceNotFoundException.
+     *
+     * @param e a exceção lançada
+     * @return uma ResponseEntity contendo a resposta de erro e o status HTTP 404 (Not Found)
+     */
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleResourceNotFoundException(ResourceNotFoundException e) {
+        ErrorResponse errorResponse = new ErrorResponse(HttpStatus.NOT_FOUND.value(), e.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+    }
+
+    /**
+     * Manipulador de exceção para OptimisticLockingFailureException.
+     *
+     * @param e a exceção lançada
+     * @return uma ResponseEntity contendo a resposta de erro e o status HTTP 412 (Precondition Failed)
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(OptimisticLockingFailureException e) {
+        ErrorResponse errorResponse = new ErrorResponse(HttpStatus.PRECONDITION_FAILED.value(), e.getMessage());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(errorResponse);
+    }
+}
@@ -0,0 +1,100 @@
+package com.ageplan.autenticacao.reativo.usuario;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Repositório reativo dos usuários, equivalente ao {@link com.ageplan.autenticacao.usuario.UsuarioRepository}.
+ * Os valores de nome de usuário e email recebidos já devem estar normalizados por
+ * {@link com.ageplan.autenticacao.usuario.Usuario#normalizar(String)}.
+ */
+public interface UsuarioReativoRepository extends ReactiveCrudRepository<UsuarioRegistro, Long> {
+
+    /**
+     * Busca um usuário não excluído pelo identificador.
+     *
+     * @param id o identificador do usuário
+     * @return o usuário encontrado, ou vazio se não encontrado
+     */
+    Mono<UsuarioRegistro> findByIdAndExcluidoFalse(Long id);
+
+    /**
+     * Busca um usuário não excluído pelo nome de usuário normalizado.
+     *
+     * @param nomeUsuarioNormalizado o nome de usuário normalizado
+     * @return o usuário encontrado, ou vazio se não encontrado
+     */
+    Mono<UsuarioRegistro> findByNomeUsuarioNormalizadoAndExcluidoFalse(String nomeUsuarioNormalizado);
+
+    /**
+     * Busca um usuário não excluído pelo email normalizado.
+     *
+     * @param emailNormalizado o email normalizado
+     * @return o usuário encontrado, ou vazio se não encontrado
+     */
+    Mono<UsuarioRegistro> findByEmailNormalizadoAndExcluidoFalse(String emailNormalizado);
+
+    /**
+     * Busca uma página de usuários não excluídos.
+     *
+     * @param pageable a paginação e a ordenação
+     * @return os usuários da página
+     */
+    Flux<UsuarioRegistro> findAllByExcluidoFalse(Pageable pageable);
+
+    /**
+     * Conta os usuários não excluídos.
+     *
+     * @return a quantidade de usuários
+     */
+    Mono<Long> countByExcluidoFalse();
+
+    /**
+     * Verifica se um email normalizado já está em uso.
+     *
+     * @param emailNormalizado o email normalizado
+     * @return {@code true} se o email estiver em uso
+     */
+    Mono<Boolean> existsByEmailNormalizado(String emailNormalizado);
+
+    /**
+     * Verifica se um nome de usuário normalizado já está em uso.
+     *
+     * @param nomeUsuarioNormalizado o nome de usuário normalizado
+     * @return {@code true} se o nome de usuário estiver em uso
+     */
+    Mono<Boolean> existsByNomeUsuarioNormalizado(String nomeUsuarioNormalizado);
+
+    /**
+     * Verifica se um email normalizado está em uso por outro usuário.
+     *
+     * @param emailNormalizado o email normalizado
+     * @param id               o identificador do usuário a ser desconsiderado
+     * @return {@code true} se o email estiver em uso por outro usuário
+     */
+    Mono<Boolean> existsByEmailNormalizadoAndIdNot(String emailNormalizado, Long id);
+
+    /**
+     * Verifica se um nome de usuário normalizado está em uso por outro usuário.
+     *
+     * @param nomeUsuarioNormalizado o nome de usuário normalizado
+     * @param id                     o identificador do usuário a ser desconsiderado
+     * @return {@code true} se o nome de usuário estiver em uso por outro usuário
+     */
+    Mono<Boolean> existsByNomeUsuarioNormalizadoAndIdNot(String nomeUsuarioNormalizado, Long id);
+
+    /**
+     * Marca um usuário como excluído com um único UPDATE, como o {@code @SoftDelete} da pilha de servlets.
+     *
+     * @param id o identificador do usuário
+     * @return a quantidade de linhas alteradas
+     */
+    @Modifying
+    @Query("UPDATE usuario SET excluido = TRUE WHERE id = :id AND excluido = FALSE")
+    Mono<Integer> softDeleteById(@Param("id") Long id);
+}
@@ -0,0 +1,457 @@
+package com.ageplan.autenticacao.reativo.usuario;
+
+import com.ageplan.autenticacao.config.exceptions.ResourceNotFoundException;
+import com.ageplan.autenticacao.papel.Papel;
+import com.ageplan.autenticacao.reativo.papel.PapelDeUsuario;
+import com.ageplan.autenticacao.reativo.papel.PapelReativoRepository;
+import com.ageplan.autenticacao.reativo.papel.PapelRegistro;
+import com.ageplan.autenticacao.usuario.AtualizacaoParcialUsuarioDTO;
+import com.ageplan.autenticacao.usuario.Usuario;
+import com.ageplan.autenticacao.usuario.UsuarioDTO;
+import com.ageplan.autenticacao.usuario.UsuarioVersao;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Serviço reativo dos usuários, com as mesmas regras do {@link com.ageplan.autenticacao.usuario.UsuarioService}.
+ * Nenhum método bloqueia a thread do event loop: as consultas são feitas pelo R2DBC e a codificação das
+ * senhas, que consome CPU, é executada no scheduler {@link Schedulers#boundedElastic()}.
+ * A variante reativa não mantém caches locais, por isso as alterações não publicam eventos de invalidação.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class UsuarioReativoService implements ReactiveUserDetailsService {
+
+    private static final String MENSAGEM = "Usuário não encontrado com id: ";
+
+    private final UsuarioReativoRepository usuarioRepository;
+    private final PapelReativoRepository papelRepository;
+    private final PasswordEncoder passwordEncoder;
+
+    /**
+     * Construtor que injeta as dependências do serviço.
+     *
+     * @param usuarioRepository o repositório reativo de usuários
+     * @param papelRepository   o repositório reativo de papéis
+     * @param passwordEncoder   o codificador de senhas
+     */
+    public UsuarioReativoService(UsuarioReativoRepository usuarioRepository, PapelReativoRepository papelRepository,
+                                 PasswordEncoder passwordEncoder) {
+        this.usuarioRepository = usuarioRepository;
+        this.papelRepository = papelRepository;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    /**
+     * Carrega o usuário autenticável pelo login, que pode ser o nome de usuário ou o email.
+     * Como na pilha de servlets, um login com {@code @} é procurado primeiro entre os emails e depois entre
+     * os nomes de usuário, e os demais apenas entre os nomes de usuário.
+     * O principal é um {@link Usuario} com id e papéis, o mesmo tipo usado pela pilha de servlets,
+     * de modo que as regras de autorização são avaliadas da mesma forma.
+     *
+     * @param username o nome de usuário ou email informado no login
+     * @return o usuário encontrado, ou vazio se não encontrado
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Mono<UserDetails> findByUsername(String username) {
+        if (username == null) {
+            return Mono.empty();
+        }
+        String login = Usuario.normalizar(username);
+        Mono<UsuarioRegistro> porNomeUsuario = usuarioRepository.findByNomeUsuarioNormalizadoAndExcluidoFalse(login);
+        Mono<UsuarioRegistro> registro = login.indexOf('@') < 0
+                ? porNomeUsuario
+                : usuarioRepository.findByEmailNormalizadoAndExcluidoFalse(login).switchIfEmpty(porNomeUsuario);
+        return registro
+                .flatMap(encontrado -> papeisDe(encontrado.getId())
+                        .map(papeis -> paraPrincipal(encontrado, papeis)));
+    }
+
+    /**
+     * Cria um novo usuário no sistema.
+     *
+     * @param usuarioDTO o DTO contendo os dados do usuário a ser criado
+     * @return o DTO do usuário criado
+     */
+    @Transactional
+    public Mono<UsuarioDTO> criarUsuario(UsuarioDTO usuarioDTO) {
+        return criar(usuarioDTO, usuarioDTO.getPapeis() != null ? usuarioDTO.getPapeis() : Set.of());
+    }
+
+    /**
+     * Registra um novo usuário pelo autoatendimento, sem papéis atribuídos.
+     *
+     * @param usuarioDTO o DTO contendo os dados do usuário a ser registrado
+     * @return o DTO do usuário registrado
+     */
+    @Transactional
+    public Mono<UsuarioDTO> registrarUsuario(UsuarioDTO usuarioDTO) {
+        return criar(usuarioDTO, Set.of());
+    }
+
+    /**
+     * Busca um usuário pelo seu identificador.
+     *
+     * @param id o identificador do usuário
+     * @return o DTO do usuário encontrado
+     */
+    @Transactional(readOnly = true)
+    public Mono<UsuarioDTO> getUsuario(Long id) {
+        return buscar(id).flatMap(this::comPapeis);
+    }
+
+    /**
+     * Busca um usuário pelo nome de usuário.
+     *
+     * @param username o nome de usuário
+     * @return o DTO do usuário encontrado
+     */
+    @Transactional(readOnly = true)
+    public Mono<UsuarioDTO> getUsuarioByUsername(String username) {
+        return buscarPorNomeUsuario(username).flatMap(this::comPapeis);
+    }
+
+    /**
+     * Busca os metadados de versão de um usuário pelo seu identificador, sem consultar os papéis.
+     *
+     * @param id o identificador do usuário
+     * @return a versão atual do usuário
+     */
+    @Transactional(readOnly = true)
+    public Mono<UsuarioVersao> getVersao(Long id) {
+        return buscar(id).map(UsuarioReativoService::versaoDe);
+    }
+
+    /**
+     * Busca os metadados de versão de um usuário pelo nome de usuário, sem consultar os papéis.
+     *
+     * @param username o nome de usuário
+     * @return a versão atual do usuário
+     */
+    @Transactional(readOnly = true)
+    public Mono<UsuarioVersao> getVersaoByUsername(String username) {
+        return buscarPorNomeUsuario(username).map(UsuarioReativoService::versaoDe);
+    }
+
+    /**
+     * Busca uma página de usuários. Os papéis de todos os usuários da página são lidos em uma única consulta.
+     *
+     * @param pageable a paginação e a ordenação
+     * @return a página de DTOs dos usuários
+     */
+    @Transactional(readOnly = true)
+    public Mono<Page<UsuarioDTO>> getAllUsuarios(Pageable pageable) {
+        return usuarioRepository.findAllByExcluidoFalse(pageable)
+                .collectList()
+                .flatMap(this::comPapeis)
+                .zipWith(usuarioRepository.countByExcluidoFalse())
+                .map(pagina -> new PageImpl<>(pagina.getT1(), pageable, pagina.getT2()));
+    }
+
+    /**
+     * Atualiza um usuário existente, exigindo que ele ainda esteja na versão informada pelo cliente.
+     *
+     * @param id               o identificador do usuário a ser atualizado
+     * @param usuarioDTO       o DTO contendo os novos dados do usuário
+     * @param versoesEsperadas as versões aceitas pelo cliente, ou {@code null} para não verificar
+     * @return o DTO do usuário atualizado, com a nova versão
+     */
+    @Transactional
+    public Mono<UsuarioDTO> update(Long id, UsuarioDTO usuarioDTO, Set<Long> versoesEsperadas) {
+        return buscar(id)
+                .doOnNext(usuario -> verificarVersao(usuario, versoesEsperadas))
+                .flatMap(usuario -> falharSe(usuarioRepository.existsByEmailNormalizadoAndIdNot(
+                                Usuario.normalizar(usuarioDTO.getEmail()), id), "Email já está em uso por outro usuário")
+                        .then(falharSe(usuarioRepository.existsByNomeUsuarioNormalizadoAndIdNot(
+                                Usuario.normalizar(usuarioDTO.getNomeUsuario()), id), "Nome de usuário já está em uso por outro usuário"))
+                        .then(usuarioDTO.getPapeis() != null ? atualizarPapeis(id, usuarioDTO.getPapeis()) : Mono.just(false))
+                        .then(Mono.fromSupplier(() -> aplicar(usuario, usuarioDTO))))
+                .flatMap(this::salvar)
+                .flatMap(this::comPapeis);
+    }
+
+    /**
+     * Atualiza parcialmente um usuário existente, alterando apenas os campos informados.
+     * A unicidade do email e do nome de usuário só é verificada quando o valor normalizado muda.
+     * Se nenhum campo nem papel mudar, nada é gravado e a versão é mantida.
+     *
+     * @param id               o identificador do usuário a ser atualizado
+     * @param atualizacao      os campos a serem alterados
+     * @param versoesEsperadas as versões aceitas pelo cliente, ou {@code null} para não verificar
+     * @return o DTO do usuário atualizado, com a versão atual
+     */
+    @Transactional
+    public Mono<UsuarioDTO> atualizarParcialmente(Long id, AtualizacaoParcialUsuarioDTO atualizacao, Set<Long> versoesEsperadas) {
+        return buscar(id)
+                .doOnNext(usuario -> verificarVersao(usuario, versoesEsperadas))
+                .flatMap(usuario -> aplicarParcialmente(usuario, atualizacao)
+                        .zipWith(atualizacao.getPapeis() != null ? atualizarPapeis(id, atualizacao.getPapeis()) : Mono.just(false))
+                        .flatMap(alterado -> alterado.getT1() || alterado.getT2() ? salvar(usuario) : Mono.just(usuario)))
+                .flatMap(this::comPapeis);
+    }
+
+    /**
+     * Deleta um usuário pelo seu identificador. A exclusão é lógica e feita com um único UPDATE.
+     *
+     * @param id o identificador do usuário a ser deletado
+     * @return a conclusão da exclusão
+     */
+    @Transactional
+    public Mono<Void> deleteUsuario(Long id) {
+        return usuarioRepository.softDeleteById(id)
+                .filter(alterados -> alterados > 0)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(MENSAGEM + id)))
+                .then();
+    }
+
+    /**
+     * Valida a unicidade, codifica a senha fora do event loop e grava o usuário com os papéis informados.
+     *
+     * @param usuarioDTO o DTO contendo os dados do usuário
+     * @param papeis     os papéis do novo usuário
+     * @return o DTO do usuário criado
+     */
+    private Mono<UsuarioDTO> criar(UsuarioDTO usuarioDTO, Set<Papel.NomePapel> papeis) {
+        return falharSe(usuarioRepository.existsByEmailNormalizado(Usuario.normalizar(usuarioDTO.getEmail())),
+                "Email já está em uso")
+                .then(falharSe(usuarioRepository.existsByNomeUsuarioNormalizado(Usuario.normalizar(usuarioDTO.getNomeUsuario())),
+                        "Nome de usuário já está em uso"))
+                .then(Mono.fromCallable(() -> passwordEncoder.encode(usuarioDTO.getSenha()))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .flatMap(senha -> {
+                    UsuarioRegistro usuario = aplicar(new UsuarioRegistro(), usuarioDTO);
+                    usuario.setSenha(senha);
+                    return salvar(usuario);
+                })
+                .flatMap(usuario -> atualizarPapeis(usuario.getId(), papeis).thenReturn(usuario))
+                .flatMap(this::comPapeis);
+    }
+
+    /**
+     * Aplica a diferença entre os papéis atuais e os desejados em {@code usuario_papel}, inserindo apenas os
+     * vínculos adicionados e removendo apenas os retirados.
+     *
+     * @param usuarioId  o identificador do usuário
+     * @param nomesPapel os nomes dos papéis desejados
+     * @return {@code true} se os papéis foram alterados
+     */
+    private Mono<Boolean> atualizarPapeis(Long usuarioId, Set<Papel.NomePapel> nomesPapel) {
+        return papelRepository.findPapeisByUsuarioIdIn(List.of(usuarioId))
+                .collectList()
+                .flatMap(atuais -> {
+                    Set<Papel.NomePapel> mantidos = EnumSet.noneOf(Papel.NomePapel.class);
+                    List<Mono<Integer>> comandos = new ArrayList<>();
+                    for (PapelDeUsuario atual : atuais) {
+                        if (nomesPapel.contains(atual.nomePapel())) {
+                            mantidos.add(atual.nomePapel());
+                        } else {
+                            comandos.add(papelRepository.desvincular(usuarioId, atual.papelId()));
+                        }
+                    }
+                    for (Papel.NomePapel nomePapel : nomesPapel) {
+                        if (!mantidos.contains(nomePapel)) {
+                            comandos.add(buscarPapel(nomePapel)
+                                    .flatMap(papel -> papelRepository.vincular(usuarioId, papel.getId())));
+                        }
+                    }
+                    return Flux.concat(comandos).then(Mono.just(!comandos.isEmpty()));
+                });
+    }
+
+    /**
+     * Aplica ao registro os campos informados em uma atualização parcial, verificando a unicidade dos
+     * valores normalizados que mudaram.
+     *
+     * @param usuario     o registro do usuário
+     * @param atualizacao os campos a serem alterados
+     * @return {@code true} se alguma coluna foi alterada
+     */
+    private Mono<Boolean> aplicarParcialmente(UsuarioRegistro usuario, AtualizacaoParcialUsuarioDTO atualizacao) {
+        List<Mono<Void>> verificacoes = new ArrayList<>();
+        boolean alterado = false;
+        if (atualizacao.getNomeCompleto() != null && !atualizacao.getNomeCompleto().equals(usuario.getNomeCompleto())) {
+            exigirPreenchido(atualizacao.getNomeCompleto(), "Nome completo");
+            usuario.setNomeCompleto(atualizacao.getNomeCompleto());
+            alterado = true;
+        }
+        if (atualizacao.getNomeUsuario() != null && !atualizacao.getNomeUsuario().equals(usuario.getNomeUsuario())) {
+            exigirPreenchido(atualizacao.getNomeUsuario(), "Nome de usuário");
+            String normalizado = Usuario.normalizar(atualizacao.getNomeUsuario());
+            if (!normalizado.equals(usuario.getNomeUsuarioNormalizado())) {
+                verificacoes.add(falharSe(usuarioRepository.existsByNomeUsuarioNormalizadoAndIdNot(normalizado, usuario.getId()),
+                        "Nome de usuário já está em uso por outro usuário"));
+            }
+            usuario.setNomeUsuario(atualizacao.getNomeUsuario());
+            usuario.setNomeUsuarioNormalizado(normalizado);
+            alterado = true;
+        }
+        if (atualizacao.getEmail() != null && !atualizacao.getEmail().equals(usuario.getEmail())) {
+            exigirPreenchido(atualizacao.getEmail(), "Email");
+            String normalizado = Usuario.normalizar(atualizacao.getEmail());
+            if (!normalizado.equals(usuario.getEmailNormalizado())) {
+                verificacoes.add(falharSe(usuarioRepository.existsByEmailNormalizadoAndIdNot(normalizado, usuario.getId()),
+                        "Email já está em uso por outro usuário"));
+            }
+            usuario.setEmail(atualizacao.getEmail());
+            usuario.setEmailNormalizado(normalizado);
+            alterado = true;
+        }
+        return Flux.concat(verificacoes).then(Mono.just(alterado));
+    }
+
+    /**
+     * Grava o registro com a data de atualização corrente. A coluna {@code versao} é verificada e
+     * incrementada pelo Spring Data; uma versão divergente resulta em {@link OptimisticLockingFailureException}.
+     *
+     * @param usuario o registro do usuário
+     * @return o registro gravado
+     */
+    private Mono<UsuarioRegistro> salvar(UsuarioRegistro usuario) {
+        usuario.setAtualizadoEm(OffsetDateTime.now());
+        return usuarioRepository.save(usuario);
+    }
+
+    /**
+     * Junta os papéis ao registro de um usuário.
+     *
+     * @param usuario o registro do usuário
+     * @return o DTO do usuário
+     */
+    private Mono<UsuarioDTO> comPapeis(UsuarioRegistro usuario) {
+        return papeisDe(usuario.getId()).map(papeis -> paraDTO(usuario, papeis));
+    }
+
+    /**
+     * Junta os papéis aos registros de vários usuários, lendo todos os vínculos em uma única consulta.
+     *
+     * @param usuarios os registros dos usuários
+     * @return os DTOs dos usuários, na mesma ordem
+     */
+    private Mono<List<UsuarioDTO>> comPapeis(List<UsuarioRegistro> usuarios) {
+        if (usuarios.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        List<Long> ids = usuarios.stream().map(UsuarioRegistro::getId).toList();
+        return papelRepository.findPapeisByUsuarioIdIn(ids)
+                .collectMultimap(PapelDeUsuario::usuarioId, PapelDeUsuario::nomePapel)
+                .map(papeis -> usuarios.stream()
+                        .map(usuario -> paraDTO(usuario, papeisDe(papeis, usuario.getId())))
+                        .toList());
+    }
+
+    private Mono<Set<Papel.NomePapel>> papeisDe(Long usuarioId) {
+        return papelRepository.findPapeisByUsuarioIdIn(List.of(usuarioId))
+                .map(PapelDeUsuario::nomePapel)
+                .collect(() -> EnumSet.noneOf(Papel.NomePapel.class), Set::add);
+    }
+
+    private static Set<Papel.NomePapel> papeisDe(Map<Long, Collection<Papel.NomePapel>> papeis, Long usuarioId) {
+        Set<Papel.NomePapel> nomes = EnumSet.noneOf(Papel.NomePapel.class);
+        nomes.addAll(papeis.getOrDefault(usuarioId, List.of()));
+        return nomes;
+    }
+
+    private Mono<UsuarioRegistro> buscar(Long id) {
+        return usuarioRepository.findByIdAndExcluidoFalse(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(MENSAGEM + id)));
+    }
+
+    private Mono<UsuarioRegistro> buscarPorNomeUsuario(String username) {
+        return usuarioRepository.findByNomeUsuarioNormalizadoAndExcluidoFalse(Usuario.normalizar(username))
+                .switchIfEmpty(Mono.error(() -> new UsernameNotFoundException("Usuário não encontrado: " + username)));
+    }
+
+    private Mono<PapelRegistro> buscarPapel(Papel.NomePapel nomePapel) {
+        return papelRepository.findByNomePapel(nomePapel)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Papel não encontrado: " + nomePapel)));
+    }
+
+    /**
+     * Resulta em {@link IllegalArgumentException} quando a condição for verdadeira.
+     *
+     * @param condicao a condição verificada no banco
+     * @param mensagem a mensagem de erro
+     * @return a conclusão da verificação
+     */
+    private static Mono<Void> falharSe(Mono<Boolean> condicao, String mensagem) {
+        return condicao.flatMap(verdadeira -> verdadeira
+                ? Mono.error(new IllegalArgumentException(mensagem))
+                : Mono.empty());
+    }
+
+    private static void verificarVersao(UsuarioRegistro usuario, Set<Long> versoesEsperadas) {
+        if (versoesEsperadas != null && !versoesEsperadas.contains(usuario.getVersao())) {
+            throw new OptimisticLockingFailureException(
+                    "Usuário " + usuario.getId() + " foi alterado por outra requisição");
+        }
+    }
+
+    private static void exigirPreenchido(String valor, String campo) {
+        if (valor.isBlank()) {
+            throw new IllegalArgumentException(campo + " não pode ficar em branco");
+        }
+    }
+
+    private static UsuarioRegistro aplicar(UsuarioRegistro usuario, UsuarioDTO usuarioDTO) {
+        usuario.setNomeCompleto(usuarioDTO.getNomeCompleto());
+        usuario.setNomeUsuario(usuarioDTO.getNomeUsuario());
+        usuario.setNomeUsuarioNormalizado(Usuario.normalizar(usuarioDTO.getNomeUsuario()));
+        usuario.setEmail(usuarioDTO.getEmail());
+        usuario.setEmailNormalizado(Usuario.normalizar(usuarioDTO.getEmail()));
+        return usuario;
+    }
+
+    private static UsuarioVersao versaoDe(UsuarioRegistro usuario) {
+        return new UsuarioVersao(usuario.getId(), usuario.getVersao(),
+                usuario.getAtualizadoEm() != null ? usuario.getAtualizadoEm().toInstant() : null);
+    }
+
+    private static UsuarioDTO paraDTO(UsuarioRegistro usuario, Set<Papel.NomePapel> papeis) {
+        UsuarioDTO dto = new UsuarioDTO();
+        dto.setId(usuario.getId());
+        dto.setNomeCompleto(usuario.getNomeCompleto());
+        dto.setNomeUsuario(usuario.getNomeUsuario());
+        dto.setEmail(usuario.getEmail());
+        dto.setPapeis(papeis);
+        dto.setVersao(usuario.getVersao());
+        return dto;
+    }
+
+    private static Usuario paraPrincipal(UsuarioRegistro registro, Set<Papel.NomePapel> papeis) {
+        Usuario usuario = new Usuario();
+        usuario.setId(registro.getId());
+        usuario.setNomeUsuario(registro.getNomeUsuario());
+        usuario.setEmail(registro.getEmail());
+        usuario.setSenha(registro.getSenha());
+        usuario.setAccountNonExpired(registro.isAccountNonExpired());
+        usuario.setAccountNonLocked(registro.isAccountNonLocked());
+        usuario.setCredentialsNonExpired(registro.isCredentialsNonExpired());
+        usuario.setEnabled(registro.isEnabled());
+        usuario.setVersao(registro.getVersao());
+        for (Papel.NomePapel nomePapel : papeis) {
+            usuario.addPapel(new Papel(nomePapel));
+        }
+        return usuario;
+    }
+}
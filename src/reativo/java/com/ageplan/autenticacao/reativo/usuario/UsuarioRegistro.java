@@ -0,0 +1,61 @@
+package com.ageplan.autenticacao.reativo.usuario;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Linha da tabela {@code usuario} lida e gravada pelo R2DBC.
+ * Corresponde à entidade {@link com.ageplan.autenticacao.usuario.Usuario} da pilha de servlets, sem as
+ * associações: os papéis são lidos e gravados em {@code usuario_papel} pelo
+ * {@link com.ageplan.autenticacao.reativo.papel.PapelReativoRepository}. A exclusão lógica não é aplicada
+ * automaticamente, por isso as consultas filtram {@code excluido} explicitamente.
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+@Table("usuario")
+public class UsuarioRegistro {
+
+    /**
+     * Valor do discriminador {@code tipo_usuario} dos usuários comuns, o mesmo gravado pelo Hibernate.
+     */
+    public static final String TIPO_USUARIO = "Usuario";
+
+    @Id
+    private Long id;
+
+    private String tipoUsuario = TIPO_USUARIO;
+
+    private String nomeCompleto;
+
+    private String nomeUsuario;
+
+    private String nomeUsuarioNormalizado;
+
+    private String email;
+
+    private String emailNormalizado;
+
+    private String senha;
+
+    private boolean accountNonExpired = true;
+
+    private boolean accountNonLocked = true;
+
+    private boolean credentialsNonExpired = true;
+
+    private boolean enabled = true;
+
+    @Version
+    private Long versao;
+
+    private OffsetDateTime atualizadoEm;
+
+    private boolean excluido;
+}
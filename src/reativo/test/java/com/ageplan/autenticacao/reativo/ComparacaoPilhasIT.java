@@ -0,0 +1,193 @@
+package com.ageplan.autenticacao.reativo;
+
+import com.ageplan.autenticacao.AutenticacaoApplication;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Comparação de vazão, latência e memória entre a pilha de servlets e a variante reativa sob alta concorrência.
+ * Cada pilha sobe isolada, com banco H2 próprio, e atende a mesma carga de {@code GET /api/usuarios/{id}}
+ * autenticada por HTTP Basic. A senha do usuário de carga usa BCrypt de custo baixo para que o tempo medido
+ * seja o da pilha e não o do hash.
+ * <p>
+ * Os números são indicativos: cliente e servidor dividem a mesma JVM, e a pilha de servlets responde a partir
+ * do cache de respostas serializadas, enquanto a reativa consulta o banco a cada requisição. O limite adaptativo
+ * de concorrência da pilha de servlets fica desligado, para que ambas atendam toda a carga.
+ * <p>
+ * Por subir as duas aplicações e gerar dezenas de milhares de requisições, é um teste de integração executado
+ * pelo failsafe com {@code mvn -Preativo verify}, e não pelo {@code mvn test}. Os números são publicados no
+ * relatório do teste, em {@code target/failsafe-reports}.
+ */
+class ComparacaoPilhasIT {
+
+    private static final int CONCORRENCIA = 1_000;
+    private static final int AQUECIMENTO = 2_000;
+    private static final int REQUISICOES = 20_000;
+    private static final String USUARIO = "carga";
+    private static final String SENHA = "carga123";
+    private static final String EXCLUSAO_R2DBC = "--spring.autoconfigure.exclude="
+            + "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration,"
+            + "org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration,"
+            + "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration,"
+            + "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcRepositoriesAutoConfiguration";
+
+    @Test
+    void pilhasDeveriamAtenderAMesmaCargaConcorrente(TestReporter relatorio) throws Exception {
+        Resultado servlet = medir("servlet", "jdbc:h2:mem:pilhaServlet",
+                new SpringApplicationBuilder(AutenticacaoApplication.class).web(WebApplicationType.SERVLET),
+                "--server.port=0",
+                "--spring.profiles.active=dev",
+                "--spring.datasource.url=jdbc:h2:mem:pilhaServlet;DB_CLOSE_DELAY=-1",
+                "--introspeccao.principal.snapshot.arquivo=",
+                "--limite.concorrencia.habilitado=false",
+                EXCLUSAO_R2DBC);
+        Resultado reativo = medir("reativo", "jdbc:h2:mem:pilhaReativa",
+                new SpringApplicationBuilder(AutenticacaoReativaApplication.class)
+                        .web(WebApplicationType.REACTIVE)
+                        .profiles("reativo"),
+                "--server.port=0",
+                "--spring.r2dbc.url=r2dbc:h2:mem:///pilhaReativa?options=DB_CLOSE_DELAY=-1",
+                "--spring.flyway.url=jdbc:h2:mem:pilhaReativa;DB_CLOSE_DELAY=-1");
+
+        for (Resultado resultado : List.of(servlet, reativo)) {
+            relatorio.publishEntry(resultado.pilha(), String.format(Locale.ROOT,
+                    "%.0f req/s, p50 %.2f ms, p99 %.2f ms, pico de heap %d MB, pico de threads %d",
+                    resultado.vazao(), resultado.p50Ns() / 1e6, resultado.p99Ns() / 1e6,
+                    resultado.picoHeap() >> 20, resultado.picoThreads()));
+        }
+        Assertions.assertEquals(REQUISICOES, servlet.sucessos());
+        Assertions.assertEquals(REQUISICOES, reativo.sucessos());
+    }
+
+    private static Resultado medir(String pilha, String urlBanco, SpringApplicationBuilder aplicacao,
+                                   String... argumentos) throws Exception {
+        try (ConfigurableApplicationContext contexto = aplicacao.run(argumentos);
+             HttpClient cliente = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .build()) {
+            long id = semearUsuario(urlBanco + ";DB_CLOSE_DELAY=-1");
+            URI uri = URI.create("http://localhost:" + contexto.getEnvironment().getProperty("local.server.port")
+                    + "/api/usuarios/" + id);
+            HttpRequest requisicao = HttpRequest.newBuilder(uri)
+                    .header(HttpHeaders.AUTHORIZATION, "Basic " + Base64.getEncoder()
+                            .encodeToString((USUARIO + ":" + SENHA).getBytes(StandardCharsets.UTF_8)))
+                    .GET()
+                    .build();
+
+            executar(cliente, requisicao, AQUECIMENTO);
+
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            List<MemoryPoolMXBean> heap = ManagementFactory.getMemoryPoolMXBeans().stream()
+                    .filter(pool -> pool.getType() == MemoryType.HEAP)
+                    .toList();
+            System.gc();
+            heap.forEach(MemoryPoolMXBean::resetPeakUsage);
+            threads.resetPeakThreadCount();
+
+            long inicio = System.nanoTime();
+            Carga carga = executar(cliente, requisicao, REQUISICOES);
+            long duracao = System.nanoTime() - inicio;
+
+            long picoHeap = heap.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+            return new Resultado(pilha, carga.sucessos(), carga.sucessos() * 1e9 / duracao,
+                    carga.percentil(0.50), carga.percentil(0.99), picoHeap, threads.getPeakThreadCount());
+        }
+    }
+
+    private static Carga executar(HttpClient cliente, HttpRequest requisicao, int total) throws InterruptedException {
+        Semaphore vagas = new Semaphore(CONCORRENCIA);
+        CountDownLatch concluidas = new CountDownLatch(total);
+        AtomicInteger sucessos = new AtomicInteger();
+        long[] latencias = new long[total];
+        for (int i = 0; i < total; i++) {
+            vagas.acquire();
+            int indice = i;
+            long envio = System.nanoTime();
+            cliente.sendAsync(requisicao, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((resposta, erro) -> {
+                        latencias[indice] = System.nanoTime() - envio;
+                        if (erro == null && resposta.statusCode() == 200) {
+                            sucessos.incrementAndGet();
+                        }
+                        vagas.release();
+                        concluidas.countDown();
+                    });
+        }
+        Assertions.assertTrue(concluidas.await(5, TimeUnit.MINUTES), "A carga não terminou a tempo");
+        Arrays.sort(latencias);
+        return new Carga(sucessos.get(), latencias);
+    }
+
+    private static long semearUsuario(String url) throws SQLException {
+        String senha = new BCryptPasswordEncoder(4).encode(SENHA);
+        try (Connection conexao = DriverManager.getConnection(url, "sa", "")) {
+            long id;
+            try (PreparedStatement insert = conexao.prepareStatement(
+                    "INSERT INTO usuario (tipo_usuario, nome_completo, nome_usuario, nome_usuario_normalizado, email, " +
+                            "email_normalizado, senha, account_non_expired, account_non_locked, credentials_non_expired, " +
+                            "enabled, versao, atualizado_em, excluido) " +
+                            "VALUES ('Usuario', 'Carga', ?, ?, ?, ?, ?, TRUE, TRUE, TRUE, TRUE, 0, CURRENT_TIMESTAMP, FALSE)",
+                    Statement.RETURN_GENERATED_KEYS)) {
+                insert.setString(1, USUARIO);
+                insert.setString(2, USUARIO);
+                insert.setString(3, USUARIO + "@example.com");
+                insert.setString(4, USUARIO + "@example.com");
+                insert.setString(5, senha);
+                insert.executeUpdate();
+                try (ResultSet chaves = insert.getGeneratedKeys()) {
+                    chaves.next();
+                    id = chaves.getLong(1);
+                }
+            }
+            try (PreparedStatement papel = conexao.prepareStatement(
+                    "INSERT INTO usuario_papel (usuario_id, papel_id) SELECT ?, id FROM papel WHERE nome_papel = 'INSTRUTOR'")) {
+                papel.setLong(1, id);
+                papel.executeUpdate();
+            }
+            return id;
+        }
+    }
+
+    private record Carga(int sucessos, long[] latencias) {
+
+        long percentil(double fracao) {
+            return latencias[Math.min(latencias.length - 1, (int) (latencias.length * fracao))];
+        }
+    }
+
+    private record Resultado(String pilha, int sucessos, double vazao, long p50Ns, long p99Ns,
+                             long picoHeap, int picoThreads) {
+    }
+}
@@ -0,0 +1,79 @@
+package com.ageplan.autenticacao.reativo.usuario;
+
+import com.ageplan.autenticacao.papel.Papel;
+import com.ageplan.autenticacao.reativo.papel.PapelDeUsuario;
+import com.ageplan.autenticacao.reativo.papel.PapelReativoRepository;
+import com.ageplan.autenticacao.usuario.Usuario;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Classe de testes para o login do serviço reativo de usuários.
+ */
+class UsuarioReativoServiceTests {
+
+    private UsuarioReativoRepository usuarioRepository;
+    private UsuarioReativoService service;
+    private UsuarioRegistro registro;
+
+    @BeforeEach
+    void setUp() {
+        usuarioRepository = Mockito.mock(UsuarioReativoRepository.class);
+        PapelReativoRepository papelRepository = Mockito.mock(PapelReativoRepository.class);
+        service = new UsuarioReativoService(usuarioRepository, papelRepository, NoOpPasswordEncoder.getInstance());
+        registro = new UsuarioRegistro();
+        registro.setId(1L);
+        registro.setNomeUsuario("Admin");
+        registro.setEmail("Admin@Example.com");
+        Mockito.when(usuarioRepository.findByNomeUsuarioNormalizadoAndExcluidoFalse(ArgumentMatchers.anyString()))
+                .thenReturn(Mono.empty());
+        Mockito.when(usuarioRepository.findByEmailNormalizadoAndExcluidoFalse(ArgumentMatchers.anyString()))
+                .thenReturn(Mono.empty());
+        Mockito.when(papelRepository.findPapeisByUsuarioIdIn(ArgumentMatchers.anyCollection()))
+                .thenReturn(Flux.just(new PapelDeUsuario(1L, 1L, Papel.NomePapel.ADMIN)));
+    }
+
+    @Test
+    void findByUsernameDeveriaAceitarOEmail() {
+        Mockito.when(usuarioRepository.findByEmailNormalizadoAndExcluidoFalse("admin@example.com"))
+                .thenReturn(Mono.just(registro));
+
+        UserDetails usuario = service.findByUsername(" ADMIN@example.com ").block();
+
+        Assertions.assertNotNull(usuario);
+        Assertions.assertEquals(1L, ((Usuario) usuario).getId());
+        Mockito.verify(usuarioRepository, Mockito.never())
+                .findByNomeUsuarioNormalizadoAndExcluidoFalse(ArgumentMatchers.anyString());
+    }
+
+    @Test
+    void findByUsernameComArrobaDeveriaRecorrerAoNomeDeUsuario() {
+        Mockito.when(usuarioRepository.findByNomeUsuarioNormalizadoAndExcluidoFalse("admin@local"))
+                .thenReturn(Mono.just(registro));
+
+        Assertions.assertNotNull(service.findByUsername("admin@local").block());
+    }
+
+    @Test
+    void findByUsernameSemArrobaNaoDeveriaConsultarOsEmails() {
+        Mockito.when(usuarioRepository.findByNomeUsuarioNormalizadoAndExcluidoFalse("admin"))
+                .thenReturn(Mono.just(registro));
+
+        Assertions.assertNotNull(service.findByUsername("Admin").block());
+        Mockito.verify(usuarioRepository, Mockito.never())
+                .findByEmailNormalizadoAndExcluidoFalse(ArgumentMatchers.anyString());
+    }
+
+    @Test
+    void findByUsernameDesconhecidoDeveriaSerVazio() {
+        Assertions.assertNull(service.findByUsername("ninguem@example.com").block());
+        Assertions.assertNull(service.findByUsername(null).block());
+    }
+}
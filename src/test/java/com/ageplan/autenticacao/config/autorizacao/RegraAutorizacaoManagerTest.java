@@ -0,0 +1,76 @@
+package com.ageplan.autenticacao.config.autorizacao;
+
+import com.ageplan.autenticacao.usuario.Usuario;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.access.expression.WebExpressionAuthorizationManager;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.Map;
+
+/**
+ * Testes das regras tipadas de autorização, incluindo a equivalência com a expressão SpEL que elas
+ * substituem. O custo por requisição de cada uma é medido no benchmark {@code RegraAutorizacaoBenchmark}
+ * do perfil {@code desempenho}.
+ */
+class RegraAutorizacaoManagerTests {
+
+    @Test
+    void adminInstrutorOuProprioDeveriaPermitirPapeisEProprioUsuario() {
+        RegraAutorizacaoManager manager = RegraAutorizacaoManager.de(RegrasUsuario.ADMIN_INSTRUTOR_OU_PROPRIO);
+
+        Assertions.assertTrue(manager.check(() -> autenticacao(1L, "ADMIN"), contexto("2")).isGranted());
+        Assertions.assertTrue(manager.check(() -> autenticacao(1L, "ROLE_INSTRUTOR"), contexto("2")).isGranted());
+        Assertions.assertTrue(manager.check(() -> autenticacao(2L), contexto("2")).isGranted());
+        Assertions.assertFalse(manager.check(() -> autenticacao(1L), contexto("2")).isGranted());
+    }
+
+    @Test
+    void adminDeveriaNegarRequisicaoAnonima() {
+        RegraAutorizacaoManager manager = RegraAutorizacaoManager.de(RegrasUsuario.ADMIN);
+        Authentication anonima = new AnonymousAuthenticationToken("chave", "anonymousUser",
+                AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+
+        Assertions.assertFalse(manager.check(() -> anonima, contexto("1")).isGranted());
+    }
+
+    @Test
+    void regraTipadaDeveriaDecidirComoSpel() {
+        AuthorizationManager<RequestAuthorizationContext> spel = new WebExpressionAuthorizationManager(
+                "hasRole('ADMIN') or hasRole('INSTRUTOR') or #id == authentication.principal.id.toString()");
+        AuthorizationManager<RequestAuthorizationContext> tipada =
+                RegraAutorizacaoManager.de(RegrasUsuario.ADMIN_INSTRUTOR_OU_PROPRIO);
+        Authentication[] autenticacoes = {
+                autenticacao(2L),
+                autenticacao(1L, "ROLE_ADMIN"),
+                autenticacao(1L, "ROLE_INSTRUTOR"),
+                autenticacao(3L)
+        };
+
+        for (String id : new String[]{"1", "2", "3"}) {
+            RequestAuthorizationContext contexto = contexto(id);
+            for (Authentication autenticacao : autenticacoes) {
+                Assertions.assertEquals(spel.check(() -> autenticacao, contexto).isGranted(),
+                        tipada.check(() -> autenticacao, contexto).isGranted(),
+                        () -> autenticacao.getAuthorities() + " em /api/usuarios/" + id);
+            }
+        }
+    }
+
+    private static Authentication autenticacao(Long id, String... autoridades) {
+        Usuario usuario = new Usuario();
+        usuario.setId(id);
+        return UsernamePasswordAuthenticationToken.authenticated(usuario, null,
+                AuthorityUtils.createAuthorityList(autoridades));
+    }
+
+    private static RequestAuthorizationContext contexto(String id) {
+        return new RequestAuthorizationContext(new MockHttpServletRequest("GET", "/api/usuarios/" + id), Map.of("id", id));
+    }
+}
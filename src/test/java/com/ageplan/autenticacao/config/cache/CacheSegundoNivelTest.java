@@ -0,0 +1,64 @@
+package com.ageplan.autenticacao.config.cache;
+
+import com.ageplan.autenticacao.papel.Papel;
+import com.ageplan.autenticacao.papel.PapelRepository;
+import com.ageplan.autenticacao.suporte.ConsultasExecutadas;
+import com.ageplan.autenticacao.suporte.MedidorConsultas;
+import com.ageplan.autenticacao.suporte.RegistroSqlConfig;
+import com.ageplan.autenticacao.usuario.Usuario;
+import com.ageplan.autenticacao.usuario.UsuarioRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Classe de testes para o cache de segundo nível e o cache de identificadores naturais.
+ * Cada busca roda na sua própria transação, de modo que a segunda só evita o banco se o cache compartilhado
+ * entre sessões responder.
+ */
+@SpringBootTest
+@ActiveProfiles("dev")
+@Import(RegistroSqlConfig.class)
+class CacheSegundoNivelTests {
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PapelRepository papelRepository;
+
+    @Autowired
+    private MedidorConsultas medidor;
+
+    @Test
+    void segundaBuscaPorNomeDeUsuarioNaoDeveriaExecutarSql() {
+        ConsultasExecutadas primeira = medidor.medir(() -> usuarioRepository.findByNomeUsuario("professor").orElseThrow());
+        ConsultasExecutadas segunda = medidor.medirComCache(() -> usuarioRepository.findByNomeUsuario("Professor").orElseThrow());
+
+        Assertions.assertTrue(primeira.total() > 0, primeira::toString);
+        Assertions.assertEquals(0, segunda.total(), segunda::toString);
+    }
+
+    @Test
+    void segundaBuscaPorIdNaoDeveriaExecutarSql() {
+        Long id = usuarioRepository.findByNomeUsuario("professor").map(Usuario::getId).orElseThrow();
+
+        ConsultasExecutadas primeira = medidor.medir(() -> usuarioRepository.findById(id).orElseThrow());
+        ConsultasExecutadas segunda = medidor.medirComCache(() -> usuarioRepository.findById(id).orElseThrow());
+
+        Assertions.assertTrue(primeira.total() > 0, primeira::toString);
+        Assertions.assertEquals(0, segunda.total(), segunda::toString);
+    }
+
+    @Test
+    void segundaBuscaPorNomeDePapelNaoDeveriaExecutarSql() {
+        ConsultasExecutadas primeira = medidor.medir(() -> papelRepository.findByNomePapel(Papel.NomePapel.INSTRUTOR).orElseThrow());
+        ConsultasExecutadas segunda = medidor.medirComCache(() -> papelRepository.findByNomePapel(Papel.NomePapel.INSTRUTOR).orElseThrow());
+
+        Assertions.assertTrue(primeira.total() > 0, primeira::toString);
+        Assertions.assertEquals(0, segunda.total(), segunda::toString);
+    }
+}
@@ -0,0 +1,189 @@
+package com.ageplan.autenticacao.config.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Classe de testes para a coalescência de carregamentos concorrentes.
+ */
+class CarregamentoUnicoTests {
+
+    private static final int CHAMADAS = 50;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CarregamentoUnico carregamentoUnico;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        carregamentoUnico = new CarregamentoUnico(meterRegistry, Mockito.mock(PlatformTransactionManager.class), 2000);
+    }
+
+    @Test
+    void chamadasConcorrentesDaMesmaChaveDeveriamCompartilharUmaConsulta() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        AtomicInteger consultas = new AtomicInteger();
+
+        List<Future<String>> resultados = disparar(CHAMADAS, () -> carregamentoUnico.carregar("teste", "admin", () -> {
+            consultas.incrementAndGet();
+            aguardar(liberar);
+            return "usuario-admin";
+        }));
+        aguardarCoalescidos(CHAMADAS - 1);
+        liberar.countDown();
+
+        for (Future<String> resultado : resultados) {
+            Assertions.assertEquals("usuario-admin", resultado.get(5, TimeUnit.SECONDS));
+        }
+        Assertions.assertEquals(1, consultas.get());
+        Assertions.assertEquals(1, meterRegistry.get("carregamento.unico.carregamentos").tag("tipo", "teste").counter().count());
+        Assertions.assertEquals(CHAMADAS - 1, meterRegistry.get("carregamento.unico.coalescidos").tag("tipo", "teste").counter().count());
+    }
+
+    @Test
+    void chavesOuTiposDiferentesNaoDeveriamSerCoalescidos() {
+        AtomicInteger consultas = new AtomicInteger();
+
+        carregamentoUnico.carregar("teste", 1L, consultas::incrementAndGet);
+        carregamentoUnico.carregar("teste", 2L, consultas::incrementAndGet);
+        carregamentoUnico.carregar("outro", 1L, consultas::incrementAndGet);
+        carregamentoUnico.carregar("teste", 1L, consultas::incrementAndGet);
+
+        Assertions.assertEquals(4, consultas.get());
+    }
+
+    @Test
+    void falhaDaConsultaDeveriaSerPropagadaATodasAsChamadas() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        List<Future<String>> resultados = disparar(10, () -> carregamentoUnico.carregar("teste", "inexistente", () -> {
+            aguardar(liberar);
+            throw new IllegalArgumentException("Usuário não encontrado");
+        }));
+        aguardarCoalescidos(9);
+        liberar.countDown();
+
+        for (Future<String> resultado : resultados) {
+            Exception e = Assertions.assertThrows(Exception.class, () -> resultado.get(5, TimeUnit.SECONDS));
+            Assertions.assertInstanceOf(IllegalArgumentException.class, e.getCause());
+        }
+    }
+
+    @Test
+    void esperaDeveriaSerInterrompidaAoAtingirOTempoLimite() throws Exception {
+        CarregamentoUnico rapido = new CarregamentoUnico(meterRegistry, Mockito.mock(PlatformTransactionManager.class), 50);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch iniciada = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> lenta = executor.submit(() -> rapido.carregar("lento", 1L, () -> {
+                iniciada.countDown();
+                aguardar(liberar);
+                return "valor";
+            }));
+            Assertions.assertTrue(iniciada.await(5, TimeUnit.SECONDS));
+
+            Assertions.assertThrows(QueryTimeoutException.class, () -> rapido.carregar("lento", 1L, () -> "outro"));
+            liberar.countDown();
+            Assertions.assertEquals("valor", lenta.get(5, TimeUnit.SECONDS));
+        }
+        Assertions.assertEquals(1, meterRegistry.get("carregamento.unico.tempo.esgotado").tag("tipo", "lento").counter().count());
+    }
+
+    @Test
+    void consultaDeveriaRespeitarOTempoLimiteEmMilissegundos() {
+        JdbcDataSource banco = new JdbcDataSource();
+        banco.setURL("jdbc:h2:mem:" + UUID.randomUUID());
+        CarregamentoUnico limitado = new CarregamentoUnico(meterRegistry, new DataSourceTransactionManager(banco), 100);
+
+        Assertions.assertThrows(TransactionTimedOutException.class, () -> limitado.carregar("lento", 1L, () -> {
+            dormir(300);
+            return new JdbcTemplate(banco).queryForObject("SELECT 1", Integer.class);
+        }));
+    }
+
+    @Test
+    void carregamentoConcluidoNaoDeveriaSerReaproveitado() {
+        AtomicInteger consultas = new AtomicInteger();
+
+        carregamentoUnico.carregar("teste", "admin", consultas::incrementAndGet);
+        carregamentoUnico.carregar("teste", "admin", consultas::incrementAndGet);
+
+        Assertions.assertEquals(2, consultas.get());
+    }
+
+    @Test
+    void coalescenciaDeveriaReduzirAsConsultasSobConcorrencia() throws Exception {
+        int chamadas = 10_000;
+        AtomicInteger consultas = new AtomicInteger();
+
+        List<Future<Integer>> resultados = disparar(chamadas, () -> carregamentoUnico.carregar("carga", "popular", () -> {
+            consultas.incrementAndGet();
+            dormir(2);
+            return 1;
+        }));
+        for (Future<Integer> resultado : resultados) {
+            resultado.get(30, TimeUnit.SECONDS);
+        }
+        double carregamentos = meterRegistry.get("carregamento.unico.carregamentos").tag("tipo", "carga").counter().count();
+        double coalescidos = meterRegistry.get("carregamento.unico.coalescidos").tag("tipo", "carga").counter().count();
+
+        Assertions.assertEquals(consultas.get(), carregamentos);
+        Assertions.assertEquals(chamadas, carregamentos + coalescidos);
+        Assertions.assertTrue(coalescidos > carregamentos, () -> carregamentos + " consultas para " + chamadas + " chamadas");
+    }
+
+    private <T> List<Future<T>> disparar(int quantidade, Callable<T> chamada) {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        List<Future<T>> resultados = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            resultados.add(executor.submit(chamada));
+        }
+        executor.shutdown();
+        return resultados;
+    }
+
+    private void aguardarCoalescidos(int esperados) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.find("carregamento.unico.coalescidos").counters().stream()
+                .mapToDouble(contador -> contador.count()).sum() < esperados && System.nanoTime() < limite) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void dormir(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
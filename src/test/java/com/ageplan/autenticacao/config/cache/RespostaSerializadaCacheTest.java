@@ -0,0 +1,99 @@
+package com.ageplan.autenticacao.config.cache;
+
+import com.ageplan.autenticacao.config.serializacao.FormatoResposta;
+import com.ageplan.autenticacao.papel.PapelAlteradoEvent;
+import com.ageplan.autenticacao.usuario.UsuarioAlteradoEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Classe de testes para o cache das respostas serializadas.
+ */
+class RespostaSerializadaCacheTests {
+
+    private RespostaSerializadaCache cache;
+    private AtomicInteger serializacoes;
+
+    @BeforeEach
+    void setUp() {
+        cache = new RespostaSerializadaCache(new ObjectMapper(), new SimpleMeterRegistry(), 1024 * 1024);
+        serializacoes = new AtomicInteger();
+    }
+
+    @Test
+    void mesmaVersaoEFormatoDeveriamReaproveitarOsBytes() {
+        byte[] primeiro = obterUsuario(1L, 3, FormatoResposta.JSON, "ADMIN");
+        byte[] segundo = obterUsuario(1L, 3, FormatoResposta.JSON, "ADMIN");
+
+        Assertions.assertSame(primeiro, segundo);
+        Assertions.assertEquals(1, serializacoes.get());
+    }
+
+    @Test
+    void formatosDiferentesDeveriamConviverNaMesmaVersao() {
+        byte[] json = obterUsuario(1L, 3, FormatoResposta.JSON, "ADMIN");
+        obterUsuario(1L, 3, FormatoResposta.SMILE, "ADMIN");
+
+        Assertions.assertSame(json, obterUsuario(1L, 3, FormatoResposta.JSON, "ADMIN"));
+        Assertions.assertEquals(2, serializacoes.get());
+    }
+
+    @Test
+    void novaVersaoNaoDeveriaReaproveitarBytesAntigos() {
+        obterUsuario(1L, 3, FormatoResposta.JSON, "ADMIN");
+
+        byte[] novo = obterUsuario(1L, 4, FormatoResposta.JSON, "INSTRUTOR");
+
+        Assertions.assertTrue(new String(novo, StandardCharsets.UTF_8).contains("INSTRUTOR"));
+        Assertions.assertEquals(2, serializacoes.get());
+    }
+
+    @Test
+    void alteracaoDePapelDeveriaInvalidarAsRespostasDeUsuarios() {
+        obterUsuario(1L, 3, FormatoResposta.JSON, "INSTRUTOR");
+
+        cache.onPapelAlterado(new PapelAlteradoEvent(2L));
+        byte[] depois = obterUsuario(1L, 3, FormatoResposta.JSON, "PROFESSOR");
+
+        Assertions.assertTrue(new String(depois, StandardCharsets.UTF_8).contains("PROFESSOR"));
+        Assertions.assertEquals(2, serializacoes.get());
+    }
+
+    @Test
+    void alteracaoDeUsuarioDeveriaRemoverApenasAsRespostasDele() {
+        obterUsuario(1L, 3, FormatoResposta.JSON, "ADMIN");
+        obterUsuario(2L, 3, FormatoResposta.JSON, "ADMIN");
+
+        cache.onUsuarioAlterado(UsuarioAlteradoEvent.de(1L));
+        obterUsuario(1L, 3, FormatoResposta.JSON, "ADMIN");
+        obterUsuario(2L, 3, FormatoResposta.JSON, "ADMIN");
+
+        Assertions.assertEquals(3, serializacoes.get());
+    }
+
+    @Test
+    void corpoCarregadoDeveriaSerGuardadoComAVersaoDoValor() {
+        RespostaSerializadaCache.Resposta anterior = cache.obter(RespostaSerializadaCache.USUARIO, 1L, 4,
+                FormatoResposta.JSON, () -> Map.of("id", 1L, "versao", 3L, "papel", "ADMIN"),
+                valor -> (Long) valor.get("versao"));
+
+        Assertions.assertEquals(3, anterior.versao());
+        byte[] atual = obterUsuario(1L, 4, FormatoResposta.JSON, "INSTRUTOR");
+        Assertions.assertTrue(new String(atual, StandardCharsets.UTF_8).contains("INSTRUTOR"));
+        Assertions.assertEquals(1, serializacoes.get());
+    }
+
+    private byte[] obterUsuario(Long id, long versao, FormatoResposta formato, String papel) {
+        return cache.obter(RespostaSerializadaCache.USUARIO, id, versao, formato, () -> {
+            serializacoes.incrementAndGet();
+            return Map.of("id", id, "papel", papel);
+        });
+    }
+}
@@ -0,0 +1,176 @@
+package com.ageplan.autenticacao.config.concorrencia;
+
+import com.ageplan.autenticacao.config.concorrencia.LimitadorAdaptativo.Permissao;
+import com.ageplan.autenticacao.config.concorrencia.LimitadorAdaptativo.Prioridade;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Testes do limite adaptativo de concorrência e do filtro que o aplica.
+ */
+class LimitadorAdaptativoTests {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicLong relogioNs;
+    private LimitadorAdaptativo limitador;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        relogioNs = new AtomicLong();
+        limitador = new LimitadorAdaptativo(meterRegistry, true, 10, 2, 100, 2.0, 0.5, 1000, relogioNs::get);
+    }
+
+    @Test
+    void novasRequisicoesDeveriamSerRecusadasAntesDasAutenticadas() {
+        List<Permissao> permissoes = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            permissoes.add(limitador.adquirir(Prioridade.NOVA).orElseThrow());
+        }
+
+        Assertions.assertTrue(limitador.adquirir(Prioridade.NOVA).isEmpty());
+        for (int i = 0; i < 5; i++) {
+            permissoes.add(limitador.adquirir(Prioridade.AUTENTICADA).orElseThrow());
+        }
+        Assertions.assertTrue(limitador.adquirir(Prioridade.AUTENTICADA).isEmpty());
+        Assertions.assertEquals(10, limitador.getEmAndamento());
+        Assertions.assertEquals(1, meterRegistry.get("limite.concorrencia.rejeitadas").tag("prioridade", "nova").counter().count());
+        Assertions.assertEquals(1, meterRegistry.get("limite.concorrencia.rejeitadas").tag("prioridade", "autenticada").counter().count());
+
+        permissoes.forEach(permissao -> permissao.concluir(false));
+        Assertions.assertEquals(0, limitador.getEmAndamento());
+    }
+
+    @Test
+    void limiteDeveriaCrescerComLatenciaEstavelEDiminuirComFalhas() {
+        int inicial = limitador.getLimite();
+        SimulacaoLatencia simulacao = new SimulacaoLatencia(Integer.MAX_VALUE, relogioNs);
+        for (int i = 0; i < 20; i++) {
+            List<Permissao> lote = new ArrayList<>();
+            for (int j = 0; j < limitador.getLimite(); j++) {
+                limitador.adquirir(Prioridade.AUTENTICADA).ifPresent(lote::add);
+            }
+            simulacao.aguardar(lote.size());
+            lote.forEach(permissao -> permissao.concluir(false));
+        }
+        int aposCrescimento = limitador.getLimite();
+        Assertions.assertTrue(aposCrescimento > inicial);
+        Assertions.assertEquals(aposCrescimento, meterRegistry.get("limite.concorrencia.limite").gauge().value());
+
+        for (int i = 0; i < 5; i++) {
+            limitador.adquirir(Prioridade.AUTENTICADA).orElseThrow().concluir(true);
+        }
+        Assertions.assertTrue(limitador.getLimite() < aposCrescimento);
+    }
+
+    @Test
+    void limiteDeveriaConvergirQuandoALatenciaCresceComAConcorrencia() {
+        int capacidade = 16;
+        int recusadas = 0;
+        List<Integer> limites = new ArrayList<>();
+        SimulacaoLatencia simulacao = new SimulacaoLatencia(capacidade, relogioNs);
+
+        for (int rodada = 0; rodada < 200; rodada++) {
+            List<Permissao> lote = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                Optional<Permissao> permissao = limitador.adquirir(i % 4 == 0 ? Prioridade.AUTENTICADA : Prioridade.NOVA);
+                if (permissao.isPresent()) {
+                    lote.add(permissao.get());
+                } else {
+                    recusadas++;
+                }
+            }
+            simulacao.aguardar(lote.size());
+            lote.forEach(permissao -> permissao.concluir(false));
+            limites.add(limitador.getLimite());
+        }
+
+        for (int limite : limites.subList(limites.size() / 2, limites.size())) {
+            Assertions.assertTrue(limite >= 2 && limite <= capacidade * 2,
+                    () -> "O limite deveria acompanhar a capacidade simulada: " + limites);
+        }
+        Assertions.assertTrue(recusadas > 0);
+    }
+
+    @Test
+    void filtroDeveriaRecusarLoginComServicoIndisponivelQuandoNaoHaVaga() throws Exception {
+        LimiteConcorrenciaFilter filtro = new LimiteConcorrenciaFilter(limitador, new ObjectMapper());
+        List<Permissao> ocupadas = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ocupadas.add(limitador.adquirir(Prioridade.NOVA).orElseThrow());
+        }
+
+        MockHttpServletResponse login = executar(filtro, new MockHttpServletRequest("POST", "/api/login"));
+        MockHttpServletRequest basic = new MockHttpServletRequest("GET", "/api/usuarios/1");
+        basic.addHeader(HttpHeaders.AUTHORIZATION, "Basic YWRtaW46YWRtaW4=");
+        MockHttpServletResponse respostaBasic = executar(filtro, basic);
+        MockHttpServletRequest sessao = new MockHttpServletRequest("PUT", "/api/usuarios/1");
+        sessao.setSession(sessaoAutenticada());
+        MockHttpServletResponse respostaSessao = executar(filtro, sessao);
+
+        Assertions.assertEquals(503, login.getStatus());
+        Assertions.assertEquals("1", login.getHeader(HttpHeaders.RETRY_AFTER));
+        Assertions.assertTrue(login.getContentAsString().contains("\"status\":503"));
+        Assertions.assertEquals(503, respostaBasic.getStatus());
+        Assertions.assertEquals(200, respostaSessao.getStatus());
+        ocupadas.forEach(permissao -> permissao.concluir(false));
+    }
+
+    @Test
+    void filtroNaoDeveriaLimitarLeiturasDeSessao() throws Exception {
+        LimiteConcorrenciaFilter filtro = new LimiteConcorrenciaFilter(limitador, new ObjectMapper());
+        AtomicReference<Integer> emAndamento = new AtomicReference<>();
+        MockHttpServletRequest leitura = new MockHttpServletRequest("GET", "/api/usuarios/1");
+        leitura.setSession(sessaoAutenticada());
+
+        filtro.doFilter(leitura, new MockHttpServletResponse(),
+                (request, response) -> emAndamento.set(limitador.getEmAndamento()));
+
+        Assertions.assertEquals(0, emAndamento.get());
+    }
+
+    private static MockHttpServletResponse executar(LimiteConcorrenciaFilter filtro, MockHttpServletRequest request)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filtro.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpSession sessaoAutenticada() {
+        MockHttpSession sessao = new MockHttpSession();
+        sessao.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
+                new SecurityContextImpl(UsernamePasswordAuthenticationToken.authenticated("admin", null,
+                        AuthorityUtils.createAuthorityList("ROLE_ADMIN"))));
+        return sessao;
+    }
+
+    /**
+     * Serviço simulado cuja latência é constante até a capacidade e cresce com a concorrência acima dela.
+     * A latência avança o relógio do limitador, sem depender do tempo real da máquina.
+     */
+    private record SimulacaoLatencia(int capacidade, AtomicLong relogioNs) {
+
+        void aguardar(int simultaneas) {
+            long latenciaNs = simultaneas <= capacidade ? 200_000L : 600_000L * simultaneas / capacidade;
+            relogioNs.addAndGet(latenciaNs);
+        }
+    }
+}
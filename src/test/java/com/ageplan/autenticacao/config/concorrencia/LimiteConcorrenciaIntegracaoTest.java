@@ -0,0 +1,57 @@
+package com.ageplan.autenticacao.config.concorrencia;
+
+import com.ageplan.autenticacao.config.concorrencia.LimitadorAdaptativo.Permissao;
+import com.ageplan.autenticacao.config.concorrencia.LimitadorAdaptativo.Prioridade;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testes do limite de concorrência pela cadeia de filtros real do Spring Security: sem vaga, a requisição
+ * é recusada antes que as credenciais sejam verificadas.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("dev")
+class LimiteConcorrenciaIntegracaoTests {
+
+    private static final String CREDENCIAIS_INVALIDAS = "Basic ZGVzY29uaGVjaWRvOmVycmFkYQ==";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LimitadorAdaptativo limitador;
+
+    @Test
+    void semVagaAAutenticacaoBasicDeveriaSerRecusadaAntesDeVerificarAsCredenciais() throws Exception {
+        List<Permissao> ocupadas = new ArrayList<>();
+        try {
+            Optional<Permissao> vaga;
+            while ((vaga = limitador.adquirir(Prioridade.NOVA)).isPresent()) {
+                ocupadas.add(vaga.get());
+            }
+
+            mockMvc.perform(get("/api/usuarios/1").header(HttpHeaders.AUTHORIZATION, CREDENCIAIS_INVALIDAS))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+        } finally {
+            ocupadas.forEach(permissao -> permissao.concluir(false));
+        }
+
+        mockMvc.perform(get("/api/usuarios/1").header(HttpHeaders.AUTHORIZATION, CREDENCIAIS_INVALIDAS))
+                .andExpect(status().isUnauthorized());
+    }
+}
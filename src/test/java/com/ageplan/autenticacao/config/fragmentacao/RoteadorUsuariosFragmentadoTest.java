@@ -0,0 +1,250 @@
+package com.ageplan.autenticacao.config.fragmentacao;
+
+import com.ageplan.autenticacao.config.cache.CarregamentoUnico;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Classe de testes para a fragmentação de usuários, com vários bancos H2 em memória.
+ */
+class RoteadorUsuariosFragmentadoTests {
+
+    private static final int TOTAL_FRAGMENTOS = 3;
+
+    private FragmentoRoutingDataSource dataSource;
+    private IndiceGlobalUsuarios indice;
+    private RoteadorUsuariosFragmentado roteador;
+    private TransactionTemplate transacao;
+
+    @BeforeEach
+    void setUp() {
+        Map<Object, Object> destinos = new HashMap<>();
+        for (int fragmento = 0; fragmento < TOTAL_FRAGMENTOS; fragmento++) {
+            DataSource banco = criarBanco();
+            Flyway.configure()
+                    .dataSource(banco)
+                    .locations("classpath:db/migration/h2", "classpath:db/fragmento/h2")
+                    .placeholders(Map.of(
+                            "primeiro_id", String.valueOf(fragmento + 1),
+                            "total_fragmentos", String.valueOf(TOTAL_FRAGMENTOS)))
+                    .load()
+                    .migrate();
+            destinos.put(fragmento, banco);
+        }
+        dataSource = new FragmentoRoutingDataSource();
+        dataSource.setTargetDataSources(destinos);
+        dataSource.setDefaultTargetDataSource(destinos.get(0));
+        dataSource.afterPropertiesSet();
+
+        DataSource bancoIndice = criarBanco();
+        Flyway.configure().dataSource(bancoIndice).locations("classpath:db/indice/h2").load().migrate();
+        indice = new IndiceGlobalUsuarios(bancoIndice);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        roteador = new RoteadorUsuariosFragmentado(indice, TOTAL_FRAGMENTOS, transactionManager);
+        transacao = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        roteador.close();
+    }
+
+    @Test
+    void fragmentoDoIdDeveriaSeguirAGeracaoDeIdsDeCadaFragmento() {
+        for (int fragmento = 0; fragmento < TOTAL_FRAGMENTOS; fragmento++) {
+            long id = inserirUsuario(fragmento, "usuario" + fragmento);
+            Assertions.assertEquals(fragmento + 1L, id);
+            Assertions.assertEquals(fragmento, RoteadorUsuariosFragmentado.fragmentoDoId(id, TOTAL_FRAGMENTOS));
+        }
+        long segundo = inserirUsuario(1, "outro");
+        Assertions.assertEquals(5L, segundo);
+        Assertions.assertEquals(1, RoteadorUsuariosFragmentado.fragmentoDoId(segundo, TOTAL_FRAGMENTOS));
+    }
+
+    @Test
+    void fragmentoDaChaveDeveriaSerEstavelEDistribuirAsChaves() {
+        int[] contagem = new int[TOTAL_FRAGMENTOS];
+        for (int i = 0; i < 3000; i++) {
+            String chave = "usuario" + i;
+            int fragmento = RoteadorUsuariosFragmentado.fragmentoDaChave(chave, TOTAL_FRAGMENTOS);
+            Assertions.assertEquals(fragmento, RoteadorUsuariosFragmentado.fragmentoDaChave(chave, TOTAL_FRAGMENTOS));
+            contagem[fragmento]++;
+        }
+        for (int quantidade : contagem) {
+            Assertions.assertTrue(quantidade > 800, "distribuição desigual: " + quantidade);
+        }
+    }
+
+    @Test
+    void paraNovoUsuarioDeveriaReservarChavesEDirecionarATransacao() {
+        int fragmento = transacao.execute(status -> {
+            roteador.paraNovoUsuario("ana", "ana@example.com");
+            return ContextoFragmento.atual();
+        });
+
+        Assertions.assertEquals(RoteadorUsuariosFragmentado.fragmentoDaChave("ana", TOTAL_FRAGMENTOS), fragmento);
+        Assertions.assertNull(ContextoFragmento.atual());
+        Assertions.assertEquals(fragmento, indice.localizar(RoteadorUsuarios.TipoChave.EMAIL, "ana@example.com").getAsInt());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> transacao.executeWithoutResult(
+                status -> roteador.paraNovoUsuario("ana", "outra@example.com")));
+        Assertions.assertTrue(indice.localizar(RoteadorUsuarios.TipoChave.EMAIL, "outra@example.com").isEmpty());
+    }
+
+    @Test
+    void reservaDeveriaSerDesfeitaQuandoATransacaoNaoEConfirmada() {
+        transacao.executeWithoutResult(status -> {
+            roteador.paraNovoUsuario("bruno", "bruno@example.com");
+            status.setRollbackOnly();
+        });
+
+        Assertions.assertTrue(indice.localizar(RoteadorUsuarios.TipoChave.NOME_USUARIO, "bruno").isEmpty());
+        Assertions.assertTrue(indice.localizar(RoteadorUsuarios.TipoChave.EMAIL, "bruno@example.com").isEmpty());
+    }
+
+    @Test
+    void liberarChavesDeveriaSoltarAsChavesSomenteQuandoAExclusaoEConfirmada() {
+        transacao.executeWithoutResult(status -> roteador.paraNovoUsuario("davi", "davi@example.com"));
+        List<RoteadorUsuarios.ChavesUsuario> chaves =
+                List.of(new RoteadorUsuarios.ChavesUsuario("davi", "davi@example.com"));
+
+        transacao.executeWithoutResult(status -> {
+            roteador.liberarChaves(() -> chaves);
+            status.setRollbackOnly();
+        });
+
+        Assertions.assertTrue(indice.localizar(RoteadorUsuarios.TipoChave.NOME_USUARIO, "davi").isPresent());
+        Assertions.assertTrue(indice.localizar(RoteadorUsuarios.TipoChave.EMAIL, "davi@example.com").isPresent());
+
+        transacao.executeWithoutResult(status -> roteador.liberarChaves(() -> chaves));
+
+        Assertions.assertTrue(indice.localizar(RoteadorUsuarios.TipoChave.NOME_USUARIO, "davi").isEmpty());
+        Assertions.assertTrue(indice.localizar(RoteadorUsuarios.TipoChave.EMAIL, "davi@example.com").isEmpty());
+        transacao.executeWithoutResult(status -> roteador.paraNovoUsuario("davi", "davi@example.com"));
+    }
+
+    @Test
+    void transacaoJpaSomenteLeituraDeveriaSerDirecionadaAoFragmentoEscolhido() {
+        long id = inserirUsuario(2, "carla");
+        LocalContainerEntityManagerFactoryBean fabrica = criarEntityManagerFactory();
+        EntityManagerFactory entityManagerFactory = fabrica.getObject();
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        TransactionTemplate leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+
+        try (RoteadorUsuariosFragmentado roteadorJpa =
+                     new RoteadorUsuariosFragmentado(indice, TOTAL_FRAGMENTOS, transactionManager)) {
+            String nomeUsuario = leitura.execute(status -> {
+                roteadorJpa.porId(id);
+                return buscarNomeUsuario(entityManagerFactory, id);
+            });
+
+            Assertions.assertEquals("carla", nomeUsuario);
+        } finally {
+            fabrica.destroy();
+        }
+    }
+
+    @Test
+    void carregamentoUnicoDeveriaLerNoFragmentoDoUsuario() {
+        long id = inserirUsuario(1, "diana");
+        LocalContainerEntityManagerFactoryBean fabrica = criarEntityManagerFactory();
+        EntityManagerFactory entityManagerFactory = fabrica.getObject();
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        CarregamentoUnico carregamentoUnico = new CarregamentoUnico(new SimpleMeterRegistry(), transactionManager, 2000);
+
+        try (RoteadorUsuariosFragmentado roteadorJpa =
+                     new RoteadorUsuariosFragmentado(indice, TOTAL_FRAGMENTOS, transactionManager)) {
+            String nomeUsuario = carregamentoUnico.carregar("teste", id, () -> {
+                roteadorJpa.porId(id);
+                return buscarNomeUsuario(entityManagerFactory, id);
+            });
+
+            Assertions.assertEquals("diana", nomeUsuario);
+            Assertions.assertNull(ContextoFragmento.atual());
+        } finally {
+            fabrica.destroy();
+        }
+    }
+
+    @Test
+    void emTodosDeveriaConsultarCadaFragmento() {
+        inserirUsuario(0, "a");
+        inserirUsuario(2, "b");
+        inserirUsuario(2, "c");
+
+        List<Integer> quantidades = roteador.emTodos(() -> new JdbcTemplate(dataSource)
+                .queryForObject("SELECT COUNT(*) FROM usuario", Integer.class));
+
+        Assertions.assertEquals(List.of(1, 0, 2), quantidades);
+    }
+
+    private long inserirUsuario(int fragmento, String nomeUsuario) {
+        ContextoFragmento.definir(fragmento);
+        try {
+            return transacao.execute(status -> {
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+                jdbcTemplate.update("INSERT INTO usuario (tipo_usuario, nome_usuario, nome_usuario_normalizado, email, " +
+                                "email_normalizado, account_non_expired, account_non_locked, credentials_non_expired, " +
+                                "enabled, versao, excluido) VALUES ('Usuario', ?, ?, ?, ?, true, true, true, true, 0, false)",
+                        nomeUsuario, nomeUsuario, nomeUsuario + "@example.com", nomeUsuario + "@example.com");
+                return jdbcTemplate.queryForObject("SELECT id FROM usuario WHERE nome_usuario = ?", Long.class, nomeUsuario);
+            });
+        } finally {
+            ContextoFragmento.limpar();
+        }
+    }
+
+    /**
+     * Cria a fábrica de EntityManagers como a aplicação: sobre os fragmentos, com conexão tardia.
+     */
+    private LocalContainerEntityManagerFactoryBean criarEntityManagerFactory() {
+        LazyConnectionDataSourceProxy conexaoTardia = new LazyConnectionDataSourceProxy(dataSource);
+        conexaoTardia.setDefaultAutoCommit(false);
+        LocalContainerEntityManagerFactoryBean fabrica = new LocalContainerEntityManagerFactoryBean();
+        fabrica.setDataSource(conexaoTardia);
+        fabrica.setPackagesToScan("com.ageplan.autenticacao");
+        fabrica.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        fabrica.setJpaPropertyMap(Map.of(
+                "hibernate.cache.use_second_level_cache", "false",
+                "hibernate.connection.provider_disables_autocommit", "true",
+                "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName()));
+        fabrica.afterPropertiesSet();
+        return fabrica;
+    }
+
+    private static String buscarNomeUsuario(EntityManagerFactory entityManagerFactory, long id) {
+        return EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory)
+                .createQuery("SELECT u.nomeUsuario FROM Usuario u WHERE u.id = :id", String.class)
+                .setParameter("id", id)
+                .getSingleResult();
+    }
+
+    private static DataSource criarBanco() {
+        JdbcDataSource banco = new JdbcDataSource();
+        banco.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        banco.setUser("sa");
+        return banco;
+    }
+}
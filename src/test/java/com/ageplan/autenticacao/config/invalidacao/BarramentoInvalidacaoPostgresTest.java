@@ -0,0 +1,128 @@
+package com.ageplan.autenticacao.config.invalidacao;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classe de testes para o barramento de invalidação sobre o LISTEN/NOTIFY do PostgreSQL.
+ * Requer Docker; sem ele, os testes são ignorados.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class BarramentoInvalidacaoPostgresTests {
+
+    private static final long ESPERA_S = 10;
+    private static final String PRONTO = "pronto";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private final BlockingQueue<String> recebidas = new LinkedBlockingQueue<>();
+    private BarramentoInvalidacaoPostgres barramento;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        barramento = new BarramentoInvalidacaoPostgres(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword(), "invalidacao_teste");
+        barramento.assinar(new FilaReceptor(recebidas));
+        aguardarEscuta();
+    }
+
+    @AfterEach
+    void tearDown() {
+        barramento.close();
+    }
+
+    @Test
+    void falhaDeUmReceptorNaoDeveriaInterromperAEntrega() throws InterruptedException {
+        barramento.assinar(new FilaReceptor(null) {
+            @Override
+            public void receber(String mensagem) {
+                throw new IllegalStateException("receptor com defeito");
+            }
+        });
+
+        barramento.publicar("1");
+        barramento.publicar("2");
+
+        Assertions.assertEquals("1", proxima());
+        Assertions.assertEquals("2", proxima());
+    }
+
+    @Test
+    void mensagemQueFalhouDeveriaSerReenviadaAoReconectar() throws InterruptedException, SQLException {
+        barramento.publicar("1");
+        Assertions.assertEquals("1", proxima());
+
+        executar("SELECT pg_terminate_backend(pid) FROM pg_stat_activity " +
+                "WHERE pid <> pg_backend_pid() AND query LIKE 'SELECT pg_notify%'");
+        barramento.publicar("2");
+        barramento.publicar("3");
+
+        Assertions.assertEquals("2", proxima());
+        Assertions.assertEquals("3", proxima());
+    }
+
+    /**
+     * Publica até a primeira mensagem chegar, já que a escuta é aberta em outra thread.
+     */
+    private void aguardarEscuta() throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(ESPERA_S);
+        while (System.nanoTime() < limite) {
+            barramento.publicar(PRONTO);
+            if (recebidas.poll(200, TimeUnit.MILLISECONDS) != null) {
+                return;
+            }
+        }
+        Assertions.fail("A escuta do canal não foi aberta");
+    }
+
+    /**
+     * Aguarda a próxima mensagem, ignorando as publicadas enquanto a escuta era aberta.
+     */
+    private String proxima() throws InterruptedException {
+        String mensagem;
+        do {
+            mensagem = recebidas.poll(ESPERA_S, TimeUnit.SECONDS);
+        } while (PRONTO.equals(mensagem));
+        return mensagem;
+    }
+
+    private static void executar(String sql) throws SQLException {
+        try (Connection conexao = DriverManager.getConnection(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+             Statement comando = conexao.createStatement()) {
+            comando.execute(sql);
+        }
+    }
+
+    private static class FilaReceptor implements BarramentoInvalidacao.Receptor {
+
+        private final BlockingQueue<String> fila;
+
+        FilaReceptor(BlockingQueue<String> fila) {
+            this.fila = fila;
+        }
+
+        @Override
+        public void receber(String mensagem) {
+            fila.add(mensagem);
+        }
+
+        @Override
+        public void mensagensPerdidas() {
+        }
+    }
+}
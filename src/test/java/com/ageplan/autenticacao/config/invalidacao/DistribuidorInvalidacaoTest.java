@@ -0,0 +1,93 @@
+package com.ageplan.autenticacao.config.invalidacao;
+
+import com.ageplan.autenticacao.papel.PapelAlteradoEvent;
+import com.ageplan.autenticacao.usuario.UsuarioAlteradoEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Classe de testes para a invalidação de caches entre nós, com o barramento em processo.
+ */
+class DistribuidorInvalidacaoTests {
+
+    private static final long JANELA_LONGA_MS = 60_000;
+
+    private final List<String> enviadas = new CopyOnWriteArrayList<>();
+    private final List<Object> eventosNo1 = new CopyOnWriteArrayList<>();
+    private final List<Object> eventosNo2 = new CopyOnWriteArrayList<>();
+    private DistribuidorInvalidacao no1;
+    private DistribuidorInvalidacao no2;
+
+    @BeforeEach
+    void setUp() {
+        BarramentoInvalidacaoLocal barramento = new BarramentoInvalidacaoLocal() {
+            @Override
+            public void publicar(String mensagem) {
+                enviadas.add(mensagem);
+                super.publicar(mensagem);
+            }
+        };
+        no1 = new DistribuidorInvalidacao(barramento, eventosNo1::add, JANELA_LONGA_MS);
+        no2 = new DistribuidorInvalidacao(barramento, eventosNo2::add, JANELA_LONGA_MS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        no1.close();
+        no2.close();
+    }
+
+    @Test
+    void mensagemDeveriaSerCodificadaDeFormaCompacta() {
+        MensagemInvalidacao mensagem = new MensagemInvalidacao("no", 7, Set.of(15L), null);
+
+        Assertions.assertEquals("no;7;15;*", mensagem.codificar());
+        Assertions.assertEquals(mensagem, MensagemInvalidacao.decodificar(mensagem.codificar()));
+        Assertions.assertEquals(Set.of(), MensagemInvalidacao.decodificar("no;1;;").papeis());
+    }
+
+    @Test
+    void alteracoesDeveriamSerAcumuladasEmUmaMensagemEAplicadasNosOutrosNos() {
+        no1.onUsuarioAlterado(UsuarioAlteradoEvent.de(1L));
+        no1.onUsuarioAlterado(UsuarioAlteradoEvent.de(List.of(2L, 3L)));
+        no1.onPapelAlterado(new PapelAlteradoEvent(9L));
+        no1.enviarPendentes();
+
+        Assertions.assertEquals(1, enviadas.size());
+        Assertions.assertEquals(List.of(UsuarioAlteradoEvent.de(List.of(1L, 2L, 3L)), new PapelAlteradoEvent(9L)), eventosNo2);
+        Assertions.assertTrue(eventosNo1.isEmpty());
+    }
+
+    @Test
+    void alteracoesRecebidasNaoDeveriamSerReenviadas() {
+        no1.onUsuarioAlterado(UsuarioAlteradoEvent.de(1L));
+        no1.enviarPendentes();
+        no2.enviarPendentes();
+
+        Assertions.assertEquals(1, enviadas.size());
+    }
+
+    @Test
+    void saltoNaSequenciaDeveriaDescartarTodosOsCaches() {
+        no2.receber(new MensagemInvalidacao("outro", 1, Set.of(1L), Set.of()).codificar());
+        no2.receber(new MensagemInvalidacao("outro", 3, Set.of(2L), Set.of()).codificar());
+
+        Assertions.assertEquals(List.of(UsuarioAlteradoEvent.de(1L), UsuarioAlteradoEvent.todos(), PapelAlteradoEvent.todos()),
+                eventosNo2);
+    }
+
+    @Test
+    void mensagemRepetidaDeveriaSerIgnorada() {
+        String mensagem = new MensagemInvalidacao("outro", 1, Set.of(1L), Set.of()).codificar();
+        no2.receber(mensagem);
+        no2.receber(mensagem);
+
+        Assertions.assertEquals(List.of(UsuarioAlteradoEvent.de(1L)), eventosNo2);
+    }
+}
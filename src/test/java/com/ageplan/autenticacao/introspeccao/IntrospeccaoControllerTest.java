@@ -0,0 +1,72 @@
+package com.ageplan.autenticacao.introspeccao;
+
+import com.ageplan.autenticacao.usuario.Usuario;
+import com.ageplan.autenticacao.usuario.UsuarioFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Classe de testes para os endpoints de tokens de acesso.
+ */
+class IntrospeccaoControllerTests {
+
+    private IntrospeccaoService introspeccaoService;
+    private MockMvc mockMvc;
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        introspeccaoService = Mockito.mock(IntrospeccaoService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new IntrospeccaoController(introspeccaoService))
+                .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+                .build();
+        usuario = UsuarioFactory.createUsuario();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void revogarTokenDeveriaReceberOTokenNoCorpo() throws Exception {
+        mockMvc.perform(post("/api/tokens/revogacao")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"token\":\"segredo\"}"))
+                .andExpect(status().isNoContent());
+
+        Mockito.verify(introspeccaoService).revogarToken(usuario, "segredo");
+    }
+
+    @Test
+    void revogarTokenSemTokenDeveriaRetornarBadRequest() throws Exception {
+        mockMvc.perform(post("/api/tokens/revogacao")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"token\":\" \"}"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(introspeccaoService);
+    }
+
+    @Test
+    void revogarTokenPelaUrlNaoDeveriaSerAceito() throws Exception {
+        mockMvc.perform(delete("/api/tokens/{token}", "segredo"))
+                .andExpect(status().is4xxClientError());
+
+        Mockito.verifyNoInteractions(introspeccaoService);
+    }
+}
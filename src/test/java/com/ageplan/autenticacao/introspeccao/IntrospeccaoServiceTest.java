@@ -0,0 +1,105 @@
+package com.ageplan.autenticacao.introspeccao;
+
+import com.ageplan.autenticacao.papel.Papel;
+import com.ageplan.autenticacao.usuario.Usuario;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.session.SessionInformation;
+import org.springframework.security.core.session.SessionRegistry;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Classe de testes para o serviço IntrospeccaoService.
+ */
+class IntrospeccaoServiceTests {
+
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private SessionRegistry sessionRegistry;
+
+    private TokenAcessoStore tokenAcessoStore;
+    private IntrospeccaoService service;
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        Clock clock = Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC);
+        tokenAcessoStore = new TokenAcessoStore(1000, Duration.ofHours(1), clock);
+        service = new IntrospeccaoService(tokenAcessoStore, principalCache, sessionRegistry, 10);
+
+        usuario = new Usuario();
+        usuario.setId(1L);
+        usuario.setNomeUsuario("admin");
+    }
+
+    @Test
+    void introspectarDeveriaResolverTokensESessoesComUmaBuscaDePrincipais() {
+        String token = service.emitirToken(usuario).token();
+        Mockito.when(sessionRegistry.getSessionInformation("sessao-1"))
+                .thenReturn(new SessionInformation(usuario, "sessao-1", new Date()));
+        Mockito.when(principalCache.obterTodos(Set.of(1L)))
+                .thenReturn(Map.of(1L, new UsuarioPrincipal(1L, "admin", true, Set.of(Papel.NomePapel.ADMIN))));
+
+        RequisicaoIntrospeccaoDTO requisicao = new RequisicaoIntrospeccaoDTO();
+        requisicao.setTokens(List.of(token, "desconhecido"));
+        requisicao.setSessoes(List.of("sessao-1"));
+
+        RespostaIntrospeccaoDTO resposta = service.introspectar(requisicao);
+
+        Assertions.assertTrue(resposta.tokens().get(0).ativo());
+        Assertions.assertEquals(1L, resposta.tokens().get(0).usuarioId());
+        Assertions.assertEquals(Set.of(Papel.NomePapel.ADMIN), resposta.tokens().get(0).papeis());
+        Assertions.assertFalse(resposta.tokens().get(1).ativo());
+        Assertions.assertNull(resposta.tokens().get(1).usuarioId());
+        Assertions.assertTrue(resposta.sessoes().get(0).ativo());
+        Mockito.verify(principalCache, Mockito.times(1)).obterTodos(ArgumentMatchers.anyCollection());
+    }
+
+    @Test
+    void introspectarDeveriaMarcarComoInativoUsuarioDesabilitado() {
+        String token = service.emitirToken(usuario).token();
+        Mockito.when(principalCache.obterTodos(Set.of(1L)))
+                .thenReturn(Map.of(1L, new UsuarioPrincipal(1L, "admin", false, Set.of(Papel.NomePapel.ADMIN))));
+
+        RequisicaoIntrospeccaoDTO requisicao = new RequisicaoIntrospeccaoDTO();
+        requisicao.setTokens(List.of(token));
+
+        RespostaIntrospeccaoDTO resposta = service.introspectar(requisicao);
+
+        Assertions.assertFalse(resposta.tokens().get(0).ativo());
+        Assertions.assertTrue(resposta.tokens().get(0).papeis().isEmpty());
+    }
+
+    @Test
+    void introspectarDeveriaLancarExcecaoQuandoLoteExcedeLimite() {
+        RequisicaoIntrospeccaoDTO requisicao = new RequisicaoIntrospeccaoDTO();
+        requisicao.setTokens(List.of("1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11"));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> service.introspectar(requisicao));
+    }
+
+    @Test
+    void revogarTokenDeveriaInvalidarTokenDoProprioUsuario() {
+        String token = service.emitirToken(usuario).token();
+
+        service.revogarToken(usuario, token);
+
+        Assertions.assertTrue(tokenAcessoStore.validar(List.of(token)).isEmpty());
+    }
+}
@@ -0,0 +1,95 @@
+package com.ageplan.autenticacao.introspeccao;
+
+import com.ageplan.autenticacao.papel.Papel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Classe de testes para o snapshot do cache de principais.
+ */
+class PrincipalCacheSnapshotTests {
+
+    @TempDir
+    private Path diretorio;
+
+    @Mock
+    private IntrospeccaoRepository introspeccaoRepository;
+
+    private Path arquivo;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        arquivo = diretorio.resolve("snapshot").resolve("principais.snapshot");
+    }
+
+    @Test
+    void arquivoDeveriaPreservarOsIds() throws IOException {
+        PrincipalCacheSnapshot.gravar(arquivo, List.of(1L, 2L));
+
+        Assertions.assertEquals(List.of(1L, 2L), PrincipalCacheSnapshot.ler(arquivo));
+    }
+
+    @Test
+    @EnabledOnOs({OS.LINUX, OS.MAC})
+    void arquivoDeveriaSerAcessivelApenasAoDono() throws IOException {
+        PrincipalCacheSnapshot.gravar(arquivo, List.of(1L));
+
+        Assertions.assertEquals(PosixFilePermissions.fromString("rw-------"), Files.getPosixFilePermissions(arquivo));
+        Assertions.assertEquals(PosixFilePermissions.fromString("rwx------"),
+                Files.getPosixFilePermissions(arquivo.getParent()));
+    }
+
+    @Test
+    void restaurarDeveriaCarregarOsPrincipaisAtuaisEmUmaConsulta() throws IOException {
+        PrincipalCacheSnapshot.gravar(arquivo, List.of(1L, 2L));
+        Mockito.when(introspeccaoRepository.findPrincipaisByIdIn(ArgumentMatchers.anyCollection())).thenReturn(List.of(
+                new PrincipalLinha(1L, "admin", true, true, true, true, Papel.NomePapel.ADMIN)));
+        PrincipalCache cache = new PrincipalCache(introspeccaoRepository, 100, Duration.ofMinutes(10));
+
+        new PrincipalCacheSnapshot(cache, arquivo.toString(), 100).restaurar();
+
+        Assertions.assertEquals(Set.of(Papel.NomePapel.ADMIN, Papel.NomePapel.INSTRUTOR),
+                cache.obterTodos(List.of(1L)).get(1L).papeis());
+        Mockito.verify(introspeccaoRepository, Mockito.times(1)).findPrincipaisByIdIn(ArgumentMatchers.anyCollection());
+    }
+
+    @Test
+    void gravarDeveriaSalvarOsIdsDoCache() throws IOException {
+        Mockito.when(introspeccaoRepository.findPrincipaisByIdIn(ArgumentMatchers.anyCollection())).thenReturn(List.of(
+                new PrincipalLinha(1L, "admin", true, true, true, true, Papel.NomePapel.ADMIN)));
+        PrincipalCache cache = new PrincipalCache(introspeccaoRepository, 100, Duration.ofMinutes(10));
+        cache.obterTodos(List.of(1L));
+
+        new PrincipalCacheSnapshot(cache, arquivo.toString(), 100).gravar();
+
+        Assertions.assertEquals(List.of(1L), PrincipalCacheSnapshot.ler(arquivo));
+    }
+
+    @Test
+    void arquivoInvalidoDeveriaSerIgnorado() throws IOException {
+        Files.createDirectories(arquivo.getParent());
+        Files.writeString(arquivo, "qualquer coisa");
+        PrincipalCache cache = Mockito.mock(PrincipalCache.class);
+
+        new PrincipalCacheSnapshot(cache, arquivo.toString(), 100).restaurar();
+
+        Mockito.verifyNoInteractions(cache);
+    }
+}
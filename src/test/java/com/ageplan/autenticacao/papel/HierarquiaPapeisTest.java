@@ -0,0 +1,50 @@
+package com.ageplan.autenticacao.papel;
+
+import com.ageplan.autenticacao.config.autorizacao.HierarquiaPapeisRoleHierarchy;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Classe de testes para a hierarquia de papéis.
+ */
+class HierarquiaPapeisTests {
+
+    @Test
+    void adminDeveriaImplicarInstrutor() {
+        Assertions.assertTrue(HierarquiaPapeis.implica(Papel.NomePapel.ADMIN, Papel.NomePapel.INSTRUTOR));
+        Assertions.assertFalse(HierarquiaPapeis.implica(Papel.NomePapel.INSTRUTOR, Papel.NomePapel.ADMIN));
+    }
+
+    @Test
+    void expandirDeveriaIncluirPapeisDiretosEImplicados() {
+        Assertions.assertEquals(Set.of(Papel.NomePapel.ADMIN, Papel.NomePapel.INSTRUTOR),
+                HierarquiaPapeis.expandir(List.of(Papel.NomePapel.ADMIN)));
+        Assertions.assertEquals(Set.of(Papel.NomePapel.INSTRUTOR),
+                HierarquiaPapeis.expandir(List.of(Papel.NomePapel.INSTRUTOR)));
+    }
+
+    @Test
+    void implicantesDeveriaIncluirOProprioPapelEOsQueOImplicam() {
+        Assertions.assertEquals(Set.of(Papel.NomePapel.ADMIN, Papel.NomePapel.INSTRUTOR),
+                HierarquiaPapeis.implicantes(Papel.NomePapel.INSTRUTOR));
+        Assertions.assertEquals(Set.of(Papel.NomePapel.ADMIN), HierarquiaPapeis.implicantes(Papel.NomePapel.ADMIN));
+    }
+
+    @Test
+    void roleHierarchyDeveriaResolverAutoridadesComESemPrefixo() {
+        HierarquiaPapeisRoleHierarchy roleHierarchy = new HierarquiaPapeisRoleHierarchy();
+
+        Set<String> alcancadas = AuthorityUtils.authorityListToSet(
+                roleHierarchy.getReachableGrantedAuthorities(AuthorityUtils.createAuthorityList("ADMIN", "OUTRA")));
+
+        Assertions.assertEquals(Set.of("ROLE_ADMIN", "ROLE_INSTRUTOR", "OUTRA"), alcancadas);
+        List<GrantedAuthority> instrutor = AuthorityUtils.createAuthorityList("ROLE_INSTRUTOR");
+        Assertions.assertEquals(Set.of("ROLE_INSTRUTOR"),
+                AuthorityUtils.authorityListToSet(roleHierarchy.getReachableGrantedAuthorities(instrutor)));
+    }
+}
@@ -10,7 +10,7 @@ public class PapelFactory {
     public static Papel createPapel() {
         Papel papel = new Papel();
         papel.setId(1L);
-        papel.setNomePapel(Papel.NomePapel.ROLE_ADMIN);
+        papel.setNomePapel(Papel.NomePapel.ADMIN);
         return papel;
     }
 
@@ -30,16 +30,4 @@ public class PapelFactory {
         Papel papel = createProfessorPapel();
         return new PapelDTO(papel);
     }
-
-    public static Papel createAlunoPapel() {
-        Papel papel = new Papel();
-        papel.setId(3L);
-        papel.setNomePapel(Papel.NomePapel.ALUNO);
-        return papel;
-    }
-
-    public static PapelDTO createAlunoPapelDTO() {
-        Papel papel = createAlunoPapel();
-        return new PapelDTO(papel);
-    }
 }
\ No newline at end of file
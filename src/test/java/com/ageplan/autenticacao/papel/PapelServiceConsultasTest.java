@@ -0,0 +1,109 @@
+package com.ageplan.autenticacao.papel;
+
+import com.ageplan.autenticacao.suporte.ConsultasExecutadas;
+import com.ageplan.autenticacao.suporte.MedidorConsultas;
+import com.ageplan.autenticacao.suporte.OrcamentoConsultas;
+import com.ageplan.autenticacao.suporte.RegistroSqlConfig;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Orçamento de comandos SQL dos métodos do {@link PapelService}, medidos com o cache de segundo nível vazio.
+ * Os papéis são um conjunto fixo ({@link Papel.NomePapel}) já criado pelas migrações, por isso a inserção
+ * e a exclusão são medidas pelos caminhos de rejeição, que não alteram os dados compartilhados entre os testes.
+ */
+@SpringBootTest
+@ActiveProfiles("dev")
+@Import(RegistroSqlConfig.class)
+class PapelServiceConsultasTests {
+
+    private static final OrcamentoConsultas ORCAMENTO = new OrcamentoConsultas(Map.of(
+            "GET /api/papeis/{id}", 1,
+            "GET /api/papeis", 1,
+            "POST /api/papeis", 1,
+            "PUT /api/papeis/{id}", 1,
+            "DELETE /api/papeis/{id}", 1));
+    private static final String SELECT_PAPEL = "SELECT papel";
+
+    @Autowired
+    private PapelService papelService;
+
+    @Autowired
+    private PapelRepository papelRepository;
+
+    @Autowired
+    private MedidorConsultas medidor;
+
+    @AfterAll
+    static void relatarOrcamento(TestReporter relatorio) {
+        ORCAMENTO.relatar(relatorio);
+    }
+
+    @Test
+    void getPapelDeveriaUsarUmaConsulta() {
+        Long id = idDe(Papel.NomePapel.ADMIN);
+
+        ConsultasExecutadas consultas = medidor.medir(() -> papelService.getPapel(id));
+
+        verificar("GET /api/papeis/{id}", "getPapel", consultas, SELECT_PAPEL);
+    }
+
+    @Test
+    void getAllPapeisDeveriaUsarUmaConsulta() {
+        ConsultasExecutadas consultas = medidor.medir(() -> papelService.getAllPapeis());
+
+        verificar("GET /api/papeis", "getAllPapeis", consultas, SELECT_PAPEL);
+    }
+
+    @Test
+    void insertDePapelExistenteDeveriaSerRecusadoComUmaConsulta() {
+        PapelDTO dto = new PapelDTO();
+        dto.setNomePapel(Papel.NomePapel.INSTRUTOR);
+
+        ConsultasExecutadas consultas = medidor.medir(() ->
+                Assertions.assertThrows(IllegalArgumentException.class, () -> papelService.insert(dto)));
+
+        verificar("POST /api/papeis", "insert(existente)", consultas, SELECT_PAPEL);
+    }
+
+    @Test
+    void updateSemAlteracaoDeveriaReaproveitarOPapelCarregado() {
+        Long id = idDe(Papel.NomePapel.INSTRUTOR);
+        PapelDTO dto = new PapelDTO();
+        dto.setNomePapel(Papel.NomePapel.INSTRUTOR);
+
+        ConsultasExecutadas consultas = medidor.medir(() -> papelService.update(id, dto));
+
+        verificar("PUT /api/papeis/{id}", "update(sem mudança)", consultas, SELECT_PAPEL);
+    }
+
+    @Test
+    void deleteDePapelInexistenteDeveriaSerRecusadoComUmaConsulta() {
+        ConsultasExecutadas consultas = medidor.medir(() ->
+                Assertions.assertThrows(EntityNotFoundException.class, () -> papelService.delete(Long.MAX_VALUE)));
+
+        verificar("DELETE /api/papeis/{id}", "delete(inexistente)", consultas, SELECT_PAPEL);
+    }
+
+    /**
+     * Registra a medição no orçamento do endpoint e verifica a forma de cada comando.
+     */
+    private static void verificar(String endpoint, String metodo, ConsultasExecutadas consultas, String... formas) {
+        ORCAMENTO.verificar(endpoint, metodo, consultas);
+        Assertions.assertEquals(List.of(formas), consultas.formas(), consultas::toString);
+    }
+
+    private Long idDe(Papel.NomePapel nomePapel) {
+        return papelRepository.findByNomePapel(nomePapel).orElseThrow().getId();
+    }
+}
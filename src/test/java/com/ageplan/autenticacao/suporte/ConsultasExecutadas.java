@@ -0,0 +1,74 @@
+package com.ageplan.autenticacao.suporte;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Comandos SQL executados por uma chamada medida pelo {@link RegistroSql}.
+ * <p>
+ * A forma de um comando é o seu verbo seguido da tabela principal, como {@code SELECT usuario} ou
+ * {@code INSERT usuario_papel}; comparar as formas detecta consultas a mais, a menos ou trocadas sem
+ * depender dos aliases e da formatação que o Hibernate gera.
+ *
+ * @param sql os comandos, na ordem em que foram preparados
+ */
+public record ConsultasExecutadas(List<String> sql) {
+
+    private static final Pattern FORMA = Pattern.compile(
+            "^\\s*(?:(select)\\b.*?\\bfrom\\s+|(insert)\\s+into\\s+|(update)\\s+|(delete)\\s+from\\s+)([\\w.]+)",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    /**
+     * Retorna a quantidade de comandos executados.
+     *
+     * @return a quantidade de comandos
+     */
+    public int total() {
+        return sql.size();
+    }
+
+    /**
+     * Retorna a forma de cada comando executado.
+     *
+     * @return as formas, na ordem de execução
+     */
+    public List<String> formas() {
+        return sql.stream()
+                .map(ConsultasExecutadas::forma)
+                .toList();
+    }
+
+    /**
+     * Retorna a quantidade de comandos com uma forma.
+     *
+     * @param forma a forma procurada, como {@code SELECT papel}
+     * @return a quantidade de comandos com a forma
+     */
+    public long contar(String forma) {
+        return formas().stream()
+                .filter(forma::equals)
+                .count();
+    }
+
+    private static String forma(String comando) {
+        Matcher matcher = FORMA.matcher(comando);
+        if (!matcher.find()) {
+            return comando.strip().split("\\s+", 2)[0].toUpperCase(Locale.ROOT);
+        }
+        for (int grupo = 1; grupo <= 4; grupo++) {
+            if (matcher.group(grupo) != null) {
+                return matcher.group(grupo).toUpperCase(Locale.ROOT) + " " + matcher.group(5).toLowerCase(Locale.ROOT);
+            }
+        }
+        throw new IllegalStateException(comando);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder texto = new StringBuilder(total() + " comandos SQL:");
+        sql.forEach(comando -> texto.append(System.lineSeparator()).append("  ").append(comando));
+        return texto.toString();
+    }
+}
@@ -0,0 +1,49 @@
+package com.ageplan.autenticacao.suporte;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Mede os comandos SQL de uma chamada a partir do cache de segundo nível vazio, de modo que a contagem
+ * reflete o pior caso (primeiro acesso, entradas expiradas ou invalidadas por outro nó) e não depende
+ * da ordem em que os testes rodam.
+ */
+public class MedidorConsultas {
+
+    private final RegistroSql registroSql;
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Construtor que injeta as dependências necessárias.
+     *
+     * @param registroSql          o registro dos comandos SQL
+     * @param entityManagerFactory a fábrica cujo cache de segundo nível é esvaziado antes de cada medição
+     */
+    public MedidorConsultas(RegistroSql registroSql, EntityManagerFactory entityManagerFactory) {
+        this.registroSql = registroSql;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Esvazia o cache de segundo nível e executa a chamada registrando os comandos SQL.
+     * Usa {@link org.hibernate.Cache#evictAllRegions()} porque o {@code evictAll()} da JPA remove apenas as
+     * entidades e mantém as coleções e os identificadores naturais em cache.
+     *
+     * @param chamada a chamada medida
+     * @return os comandos executados pela chamada
+     */
+    public ConsultasExecutadas medir(Runnable chamada) {
+        entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class).evictAllRegions();
+        return registroSql.capturar(chamada);
+    }
+
+    /**
+     * Executa a chamada registrando os comandos SQL, sem esvaziar o cache de segundo nível antes, de modo
+     * que a contagem mostra o que o cache já aquecido poupa.
+     *
+     * @param chamada a chamada medida
+     * @return os comandos executados pela chamada
+     */
+    public ConsultasExecutadas medirComCache(Runnable chamada) {
+        return registroSql.capturar(chamada);
+    }
+}
@@ -0,0 +1,59 @@
+package com.ageplan.autenticacao.suporte;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.TestReporter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Orçamento de comandos SQL por endpoint. A tabela de orçamentos é fixada pela classe de testes; cada medição é
+ * comparada com o orçamento do seu endpoint, e a primeira que o exceder, ou que não tiver orçamento, falha o
+ * teste e, com ele, o build. Ao final da classe de testes, as medições são publicadas no relatório do JUnit.
+ */
+public class OrcamentoConsultas {
+
+    private final Map<String, Integer> orcamentos;
+    private final List<Linha> linhas = new ArrayList<>();
+
+    /**
+     * Construtor que recebe a tabela de orçamentos.
+     *
+     * @param orcamentos a quantidade máxima de comandos SQL de cada endpoint, pelo método HTTP e a rota
+     */
+    public OrcamentoConsultas(Map<String, Integer> orcamentos) {
+        this.orcamentos = Map.copyOf(orcamentos);
+    }
+
+    /**
+     * Registra a medição de um endpoint e falha se ela exceder o orçamento dele.
+     *
+     * @param endpoint  o método HTTP e a rota
+     * @param metodo    o método do serviço medido
+     * @param consultas os comandos executados
+     */
+    public synchronized void verificar(String endpoint, String metodo, ConsultasExecutadas consultas) {
+        Integer orcamento = orcamentos.get(endpoint);
+        Assertions.assertNotNull(orcamento, () -> endpoint + " não tem orçamento de comandos SQL");
+        linhas.add(new Linha(endpoint, metodo, orcamento, consultas.total()));
+        Assertions.assertTrue(consultas.total() <= orcamento, () -> endpoint + " (" + metodo + ") excedeu o orçamento de "
+                + orcamento + " comandos SQL com " + consultas);
+    }
+
+    /**
+     * Publica as medições no relatório do JUnit, ordenadas pelo endpoint.
+     *
+     * @param relatorio o relatório da classe de testes
+     */
+    public synchronized void relatar(TestReporter relatorio) {
+        linhas.stream()
+                .sorted(Comparator.comparing(Linha::endpoint).thenComparing(Linha::metodo))
+                .forEach(linha -> relatorio.publishEntry(linha.endpoint() + " " + linha.metodo(),
+                        linha.executados() + " de " + linha.orcamento() + " comandos SQL"));
+    }
+
+    private record Linha(String endpoint, String metodo, int orcamento, int executados) {
+    }
+}
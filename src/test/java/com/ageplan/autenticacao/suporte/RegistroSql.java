@@ -0,0 +1,42 @@
+package com.ageplan.autenticacao.suporte;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link StatementInspector} que registra os comandos SQL preparados pelo Hibernate enquanto uma captura
+ * está aberta na thread atual. Comandos de outras threads, como os dos jobs agendados, são ignorados.
+ * O SQL é devolvido sem alterações.
+ */
+public class RegistroSql implements StatementInspector {
+
+    private final ThreadLocal<List<String>> captura = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> comandos = captura.get();
+        if (comandos != null) {
+            comandos.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Executa uma chamada registrando os comandos SQL que ela prepara na thread atual.
+     *
+     * @param chamada a chamada medida
+     * @return os comandos executados, na ordem em que foram preparados
+     */
+    public ConsultasExecutadas capturar(Runnable chamada) {
+        List<String> comandos = new ArrayList<>();
+        captura.set(comandos);
+        try {
+            chamada.run();
+        } finally {
+            captura.remove();
+        }
+        return new ConsultasExecutadas(List.copyOf(comandos));
+    }
+}
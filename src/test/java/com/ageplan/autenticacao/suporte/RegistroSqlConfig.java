@@ -0,0 +1,30 @@
+package com.ageplan.autenticacao.suporte;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Configuração de testes que instala o {@link RegistroSql} como {@code StatementInspector} do Hibernate
+ * e disponibiliza o {@link MedidorConsultas}. Importada pelos testes de orçamento de consultas.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class RegistroSqlConfig {
+
+    @Bean
+    public RegistroSql registroSql() {
+        return new RegistroSql();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer registroSqlCustomizer(RegistroSql registroSql) {
+        return propriedades -> propriedades.put(AvailableSettings.STATEMENT_INSPECTOR, registroSql);
+    }
+
+    @Bean
+    public MedidorConsultas medidorConsultas(RegistroSql registroSql, EntityManagerFactory entityManagerFactory) {
+        return new MedidorConsultas(registroSql, entityManagerFactory);
+    }
+}
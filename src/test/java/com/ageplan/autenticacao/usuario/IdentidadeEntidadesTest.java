@@ -0,0 +1,114 @@
+package com.ageplan.autenticacao.usuario;
+
+import com.ageplan.autenticacao.administrador.Administrador;
+import com.ageplan.autenticacao.papel.Papel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Classe de testes para a identidade (equals/hashCode) das entidades de pessoa e papel.
+ */
+class IdentidadeEntidadesTests {
+
+    @Test
+    void usuariosComMesmoIdDeveriamSerIguaisIndependenteDoEstado() {
+        Usuario usuario = criarUsuario(1L);
+        Usuario copia = criarUsuario(1L);
+        copia.setSenha("outra");
+        copia.setNomeCompleto("Outro Nome");
+        copia.removePapel(copia.getPapeis().iterator().next());
+
+        Assertions.assertEquals(usuario, copia);
+        Assertions.assertEquals(usuario.hashCode(), copia.hashCode());
+        Assertions.assertNotEquals(usuario, criarUsuario(2L));
+    }
+
+    @Test
+    void usuariosNaoPersistidosDeveriamSerIguaisApenasASiMesmos() {
+        Usuario usuario = new Usuario();
+        Usuario outro = new Usuario();
+
+        Assertions.assertEquals(usuario, usuario);
+        Assertions.assertNotEquals(usuario, outro);
+        Assertions.assertNotEquals(outro, usuario);
+    }
+
+    @Test
+    void hashCodeDeveriaPermanecerEstavelAoPersistirEAlterar() {
+        Usuario usuario = new Usuario();
+        Set<Usuario> usuarios = new HashSet<>();
+        usuarios.add(usuario);
+
+        usuario.setId(10L);
+        usuario.setSenha("alterada");
+        usuario.addPapel(criarPapel(2L, Papel.NomePapel.INSTRUTOR));
+
+        Assertions.assertTrue(usuarios.contains(usuario));
+    }
+
+    @Test
+    void hashCodeDeveriaCoincidirEntreInstanciaNovaEComId() {
+        Usuario novo = new Usuario();
+        novo.setNomeUsuario("Usuario10");
+        int hashAntes = novo.hashCode();
+        novo.setId(10L);
+
+        Assertions.assertEquals(hashAntes, novo.hashCode());
+        Assertions.assertEquals(criarUsuario(10L).hashCode(), novo.hashCode());
+    }
+
+    @Test
+    void hashCodeDeveriaDistribuirUsuariosDistintos() {
+        Set<Integer> hashes = new HashSet<>();
+        for (long id = 1; id <= 100; id++) {
+            hashes.add(criarUsuario(id).hashCode());
+        }
+
+        Assertions.assertEquals(100, hashes.size());
+    }
+
+    @Test
+    void subclasseDeveriaSerIgualAoUsuarioComMesmoId() {
+        Administrador administrador = new Administrador("Financeiro");
+        administrador.setId(5L);
+        Usuario referencia = new Usuario();
+        referencia.setId(5L);
+
+        Assertions.assertEquals(referencia, administrador);
+        Assertions.assertEquals(administrador, referencia);
+        Assertions.assertEquals(referencia.hashCode(), administrador.hashCode());
+    }
+
+    @Test
+    void papeisDeveriamSerComparadosPeloNome() {
+        Papel persistido = criarPapel(1L, Papel.NomePapel.ADMIN);
+        Papel novo = new Papel(Papel.NomePapel.ADMIN);
+
+        Assertions.assertEquals(persistido, novo);
+        Assertions.assertEquals(persistido.hashCode(), novo.hashCode());
+        Assertions.assertNotEquals(persistido, new Papel(Papel.NomePapel.INSTRUTOR));
+        Assertions.assertNotEquals(new Papel(), new Papel());
+        Assertions.assertDoesNotThrow(() -> new Papel().hashCode());
+    }
+
+    private static Usuario criarUsuario(Long id) {
+        Usuario usuario = new Usuario();
+        usuario.setId(id);
+        usuario.setNomeCompleto("Usuário " + id);
+        usuario.setNomeUsuario("usuario" + id);
+        usuario.setEmail("usuario" + id + "@example.com");
+        usuario.setSenha("senha" + id);
+        usuario.addPapel(criarPapel(1L, Papel.NomePapel.ADMIN));
+        usuario.addPapel(criarPapel(2L, Papel.NomePapel.INSTRUTOR));
+        return usuario;
+    }
+
+    private static Papel criarPapel(Long id, Papel.NomePapel nomePapel) {
+        Papel papel = new Papel(nomePapel);
+        papel.setId(id);
+        return papel;
+    }
+}
@@ -1,22 +1,32 @@
 package com.ageplan.autenticacao.usuario;
 
+import com.ageplan.autenticacao.config.cache.RespostaSerializadaCache;
+import com.ageplan.autenticacao.config.serializacao.FormatoResposta;
 import com.ageplan.autenticacao.papel.Papel;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.servlet.mvc.method.annotation.ExceptionHandlerExceptionResolver;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Set;
 
@@ -26,18 +36,22 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 class UsuarioControllerTests {
 
-    @InjectMocks
     private UsuarioController usuarioController;
 
     @Mock
     private UsuarioService usuarioService;
 
+    @Mock
+    private UsuarioExportador usuarioExportador;
+
     private MockMvc mockMvc;
     private ObjectMapper objectMapper;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        RespostaSerializadaCache respostaCache = new RespostaSerializadaCache(new ObjectMapper(), new SimpleMeterRegistry(), 1024 * 1024);
+        usuarioController = new UsuarioController(usuarioService, usuarioExportador, respostaCache);
         mockMvc = MockMvcBuilders.standaloneSetup(usuarioController)
                 .setControllerAdvice(new ExceptionHandlerExceptionResolver()) // Configura o tratamento global de exceções
                 .build();
@@ -51,7 +65,7 @@ class UsuarioControllerTests {
         usuarioDTO.setNomeCompleto("Admin User");
         usuarioDTO.setNomeUsuario("admin");
         usuarioDTO.setEmail("admin@example.com");
-        usuarioDTO.setPapeis(Set.of(Papel.NomePapel.valueOf("ROLE_ADMIN")));
+        usuarioDTO.setPapeis(Set.of(Papel.NomePapel.ADMIN));
 
         Mockito.when(usuarioService.criarUsuario(Mockito.any(UsuarioDTO.class))).thenReturn(usuarioDTO);
 
@@ -73,20 +87,100 @@ class UsuarioControllerTests {
         usuarioDTO.setNomeCompleto("Admin User");
         usuarioDTO.setNomeUsuario("admin");
         usuarioDTO.setEmail("admin@example.com");
+        usuarioDTO.setVersao(3L);
 
+        Mockito.when(usuarioService.getVersao(1L)).thenReturn(new UsuarioVersao(1L, 3L, Instant.now()));
         Mockito.when(usuarioService.getUsuario(1L)).thenReturn(usuarioDTO);
 
         mockMvc.perform(get("/api/usuarios/{id}", 1))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-3\""))
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.nomeCompleto").value("Admin User"))
                 .andExpect(jsonPath("$.nomeUsuario").value("admin"))
                 .andExpect(jsonPath("$.email").value("admin@example.com"));
     }
 
+    @Test
+    void getUsuarioDeveriaReaproveitarRespostaSerializadaDaMesmaVersao() throws Exception {
+        UsuarioDTO usuarioDTO = new UsuarioDTO();
+        usuarioDTO.setId(1L);
+        usuarioDTO.setNomeUsuario("admin");
+        usuarioDTO.setVersao(3L);
+
+        Mockito.when(usuarioService.getVersao(1L)).thenReturn(new UsuarioVersao(1L, 3L, Instant.now()));
+        Mockito.when(usuarioService.getUsuario(1L)).thenReturn(usuarioDTO);
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/usuarios/{id}", 1))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.nomeUsuario").value("admin"));
+        }
+
+        Mockito.verify(usuarioService, Mockito.times(1)).getUsuario(1L);
+    }
+
+    @Test
+    void getUsuarioDeveriaRecarregarQuandoOCorpoForAnteriorAVersaoConferida() throws Exception {
+        UsuarioDTO anterior = new UsuarioDTO();
+        anterior.setId(1L);
+        anterior.setNomeUsuario("admin");
+        anterior.setVersao(2L);
+        UsuarioDTO atual = new UsuarioDTO();
+        atual.setId(1L);
+        atual.setNomeUsuario("administrador");
+        atual.setVersao(3L);
+
+        Mockito.when(usuarioService.getVersao(1L)).thenReturn(new UsuarioVersao(1L, 3L, Instant.now()));
+        Mockito.when(usuarioService.getUsuario(1L)).thenReturn(anterior, atual);
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/usuarios/{id}", 1))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"1-3\""))
+                    .andExpect(jsonPath("$.nomeUsuario").value("administrador"));
+        }
+
+        Mockito.verify(usuarioService, Mockito.times(2)).getUsuario(1L);
+    }
+
+    @Test
+    void getUsuarioDeveriaRetornarCborQuandoSolicitado() throws Exception {
+        UsuarioDTO usuarioDTO = new UsuarioDTO();
+        usuarioDTO.setId(1L);
+        usuarioDTO.setNomeUsuario("admin");
+        usuarioDTO.setVersao(3L);
+
+        Mockito.when(usuarioService.getVersao(1L)).thenReturn(new UsuarioVersao(1L, 3L, Instant.now()));
+        Mockito.when(usuarioService.getUsuario(1L)).thenReturn(usuarioDTO);
+
+        byte[] corpo = mockMvc.perform(get("/api/usuarios/{id}", 1)
+                        .accept(FormatoResposta.CBOR.getMediaType()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(FormatoResposta.CBOR.getMediaType()))
+                .andExpect(header().string("Vary", containsString("Accept")))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        UsuarioDTO lido = objectMapper.copyWith(FormatoResposta.CBOR.criarFactory()).readValue(corpo, UsuarioDTO.class);
+        Assertions.assertEquals("admin", lido.getNomeUsuario());
+    }
+
+    @Test
+    void getUsuarioDeveriaRetornarNotModifiedQuandoEtagNaoMudou() throws Exception {
+        Mockito.when(usuarioService.getVersao(1L)).thenReturn(new UsuarioVersao(1L, 3L, Instant.now()));
+
+        mockMvc.perform(get("/api/usuarios/{id}", 1)
+                        .header("If-None-Match", "\"1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        Mockito.verify(usuarioService, Mockito.never()).getUsuario(1L);
+    }
+
     @Test
     void getUsuarioDeveriaRetornarNotFoundQuandoIdNaoExiste() throws Exception {
-        Mockito.when(usuarioService.getUsuario(1L)).thenThrow(new jakarta.persistence.EntityNotFoundException("Usuário não encontrado com id: 1"));
+        Mockito.when(usuarioService.getVersao(1L)).thenThrow(new jakarta.persistence.EntityNotFoundException("Usuário não encontrado com id: 1"));
 
         mockMvc.perform(get("/api/usuarios/{id}", 1))
                 .andExpect(status().isNotFound())
@@ -124,7 +218,7 @@ class UsuarioControllerTests {
         usuarioDTO.setNomeUsuario("admin");
         usuarioDTO.setEmail("admin_updated@example.com");
 
-        Mockito.when(usuarioService.update(Mockito.eq(1L), Mockito.any(UsuarioDTO.class))).thenReturn(usuarioDTO);
+        Mockito.when(usuarioService.update(Mockito.eq(1L), Mockito.any(UsuarioDTO.class), Mockito.isNull())).thenReturn(usuarioDTO);
 
         mockMvc.perform(put("/api/usuarios/{id}", 1)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -135,6 +229,39 @@ class UsuarioControllerTests {
                 .andExpect(jsonPath("$.email").value("admin_updated@example.com"));
     }
 
+    @Test
+    void updateUsuarioDeveriaRetornarPreconditionFailedQuandoVersaoMudou() throws Exception {
+        UsuarioDTO usuarioDTO = new UsuarioDTO();
+        usuarioDTO.setNomeCompleto("Admin User Updated");
+        usuarioDTO.setNomeUsuario("admin");
+        usuarioDTO.setEmail("admin@example.com");
+
+        Mockito.when(usuarioService.update(Mockito.eq(1L), Mockito.any(UsuarioDTO.class), Mockito.eq(Set.of(2L))))
+                .thenThrow(new OptimisticLockingFailureException("Usuário 1 foi alterado por outra requisição"));
+
+        mockMvc.perform(put("/api/usuarios/{id}", 1)
+                        .header("If-Match", "\"1-2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(usuarioDTO)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void updateUsuarioDeveriaRetornarPreconditionFailedQuandoEtagForDeOutroUsuario() throws Exception {
+        UsuarioDTO usuarioDTO = new UsuarioDTO();
+        usuarioDTO.setNomeCompleto("Admin User Updated");
+        usuarioDTO.setNomeUsuario("admin");
+        usuarioDTO.setEmail("admin@example.com");
+
+        mockMvc.perform(put("/api/usuarios/{id}", 1)
+                        .header("If-Match", "\"2-2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(usuarioDTO)))
+                .andExpect(status().isPreconditionFailed());
+
+        Mockito.verify(usuarioService, Mockito.never()).update(Mockito.anyLong(), Mockito.any(UsuarioDTO.class), Mockito.any());
+    }
+
     @Test
     void deleteUsuarioDeveriaRetornarNoContentQuandoIdExiste() throws Exception {
         Mockito.doNothing().when(usuarioService).deleteUsuario(1L);
@@ -168,4 +295,140 @@ class UsuarioControllerTests {
                 .andExpect(jsonPath("$.status").value(HttpStatus.BAD_REQUEST.value()))
                 .andExpect(jsonPath("$.message").value("Email já está em uso"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void updateUsuarioDeveriaRetornarPreconditionFailedQuandoEtagForFraco() throws Exception {
+        UsuarioDTO usuarioDTO = new UsuarioDTO();
+        usuarioDTO.setNomeCompleto("Admin User Updated");
+        usuarioDTO.setNomeUsuario("admin");
+        usuarioDTO.setEmail("admin@example.com");
+
+        mockMvc.perform(put("/api/usuarios/{id}", 1)
+                        .header("If-Match", "W/\"1-2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(usuarioDTO)))
+                .andExpect(status().isPreconditionFailed());
+
+        Mockito.verify(usuarioService, Mockito.never()).update(Mockito.anyLong(), Mockito.any(UsuarioDTO.class), Mockito.any());
+    }
+
+    @Test
+    void updateUsuarioDeveriaAceitarQualquerEtagDaListaDoIfMatch() throws Exception {
+        UsuarioDTO usuarioDTO = new UsuarioDTO();
+        usuarioDTO.setId(1L);
+        usuarioDTO.setNomeCompleto("Admin User Updated");
+        usuarioDTO.setNomeUsuario("admin");
+        usuarioDTO.setEmail("admin@example.com");
+        usuarioDTO.setVersao(4L);
+        Mockito.when(usuarioService.update(Mockito.eq(1L), Mockito.any(UsuarioDTO.class), Mockito.eq(Set.of(2L, 3L))))
+                .thenReturn(usuarioDTO);
+
+        mockMvc.perform(put("/api/usuarios/{id}", 1)
+                        .header("If-Match", "W/\"1-1\", \"1-2\", \"2-9\", \"1-3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(usuarioDTO)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-4\""));
+    }
+
+    @Test
+    void updateUsuarioComPapeisDeveriaSerNegadoParaQuemNaoEAdmin() {
+        UsuarioDTO usuarioDTO = new UsuarioDTO();
+        usuarioDTO.setNomeCompleto("Instrutor");
+        usuarioDTO.setNomeUsuario("instrutor");
+        usuarioDTO.setEmail("instrutor@example.com");
+        usuarioDTO.setPapeis(Set.of(Papel.NomePapel.ADMIN));
+
+        ServletException erro = Assertions.assertThrows(ServletException.class, () -> mockMvc.perform(put("/api/usuarios/{id}", 2L)
+                .principal(autenticacao(2L, "ROLE_INSTRUTOR"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(usuarioDTO))));
+
+        Assertions.assertInstanceOf(AccessDeniedException.class, erro.getCause());
+        Mockito.verifyNoInteractions(usuarioService);
+    }
+
+    @Test
+    void updateUsuarioComPapeisDeveriaSerPermitidoParaAdmin() throws Exception {
+        UsuarioDTO usuarioDTO = new UsuarioDTO();
+        usuarioDTO.setId(2L);
+        usuarioDTO.setNomeCompleto("Instrutor");
+        usuarioDTO.setNomeUsuario("instrutor");
+        usuarioDTO.setEmail("instrutor@example.com");
+        usuarioDTO.setPapeis(Set.of(Papel.NomePapel.INSTRUTOR));
+        Mockito.when(usuarioService.update(Mockito.eq(2L), Mockito.any(UsuarioDTO.class), Mockito.isNull())).thenReturn(usuarioDTO);
+
+        mockMvc.perform(put("/api/usuarios/{id}", 2L)
+                        .principal(autenticacao(1L, "ROLE_ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(usuarioDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.papeis[0]").value("INSTRUTOR"));
+    }
+
+    @Test
+    void updateUsuarioSemPapeisDeveriaSerPermitidoAoProprioUsuario() throws Exception {
+        UsuarioDTO usuarioDTO = new UsuarioDTO();
+        usuarioDTO.setId(2L);
+        usuarioDTO.setNomeCompleto("Novo Nome");
+        usuarioDTO.setNomeUsuario("instrutor");
+        usuarioDTO.setEmail("instrutor@example.com");
+        Mockito.when(usuarioService.update(Mockito.eq(2L), Mockito.any(UsuarioDTO.class), Mockito.isNull())).thenReturn(usuarioDTO);
+
+        mockMvc.perform(put("/api/usuarios/{id}", 2L)
+                        .principal(autenticacao(2L, "ROLE_INSTRUTOR"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(usuarioDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nomeCompleto").value("Novo Nome"));
+    }
+
+    @Test
+    void patchUsuarioComPapeisDeveriaSerNegadoParaQuemNaoEAdmin() {
+        ServletException erro = Assertions.assertThrows(ServletException.class, () -> mockMvc.perform(patch("/api/usuarios/{id}", 2L)
+                .principal(autenticacao(2L, "ROLE_INSTRUTOR"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"papeis\":[\"ADMIN\"]}")));
+
+        Assertions.assertInstanceOf(AccessDeniedException.class, erro.getCause());
+        Mockito.verifyNoInteractions(usuarioService);
+    }
+
+    @Test
+    void patchUsuarioComPapeisDeveriaSerPermitidoParaAdmin() throws Exception {
+        UsuarioDTO usuarioDTO = new UsuarioDTO();
+        usuarioDTO.setId(2L);
+        usuarioDTO.setPapeis(Set.of(Papel.NomePapel.INSTRUTOR));
+        Mockito.when(usuarioService.atualizarParcialmente(Mockito.eq(2L), Mockito.any(AtualizacaoParcialUsuarioDTO.class),
+                Mockito.isNull())).thenReturn(usuarioDTO);
+
+        mockMvc.perform(patch("/api/usuarios/{id}", 2L)
+                        .principal(autenticacao(1L, "ROLE_ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"papeis\":[\"INSTRUTOR\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.papeis[0]").value("INSTRUTOR"));
+    }
+
+    @Test
+    void patchUsuarioSemPapeisDeveriaSerPermitidoAoProprioUsuario() throws Exception {
+        UsuarioDTO usuarioDTO = new UsuarioDTO();
+        usuarioDTO.setId(2L);
+        usuarioDTO.setNomeCompleto("Novo Nome");
+        Mockito.when(usuarioService.atualizarParcialmente(Mockito.eq(2L), Mockito.any(AtualizacaoParcialUsuarioDTO.class),
+                Mockito.isNull())).thenReturn(usuarioDTO);
+
+        mockMvc.perform(patch("/api/usuarios/{id}", 2L)
+                        .principal(autenticacao(2L))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nomeCompleto\":\"Novo Nome\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nomeCompleto").value("Novo Nome"));
+    }
+
+    private static Authentication autenticacao(Long id, String... autoridades) {
+        Usuario usuario = new Usuario();
+        usuario.setId(id);
+        return UsernamePasswordAuthenticationToken.authenticated(usuario, null, AuthorityUtils.createAuthorityList(autoridades));
+    }
+}
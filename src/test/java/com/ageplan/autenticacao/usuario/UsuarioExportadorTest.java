@@ -0,0 +1,93 @@
+package com.ageplan.autenticacao.usuario;
+
+import com.ageplan.autenticacao.config.cache.CarregamentoUnico;
+import com.ageplan.autenticacao.config.fragmentacao.RoteadorUsuariosUnico;
+import com.ageplan.autenticacao.papel.Papel;
+import com.ageplan.autenticacao.papel.PapelRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Classe de testes para a escrita da exportação de usuários.
+ */
+class UsuarioExportadorTests {
+
+    private UsuarioRepository usuarioRepository;
+    private UsuarioExportador exportador;
+
+    @BeforeEach
+    void setUp() {
+        usuarioRepository = Mockito.mock(UsuarioRepository.class);
+        UsuarioService usuarioService = new UsuarioService(usuarioRepository, Mockito.mock(PapelRepository.class),
+                Mockito.mock(PasswordEncoder.class), Mockito.mock(ApplicationEventPublisher.class),
+                new RoteadorUsuariosUnico(), Mockito.mock(CarregamentoUnico.class));
+        exportador = new UsuarioExportador(usuarioService, new ObjectMapper());
+    }
+
+    @Test
+    void csvDeveriaEscaparVirgulasAspasEQuebrasDeLinha() throws Exception {
+        Mockito.when(usuarioRepository.streamLinhas(FiltroUsuario.TODOS)).thenReturn(Stream.of(
+                new UsuarioLinha(1L, "Silva, Ana", "ana", "ana@example.com", 1L, null),
+                new UsuarioLinha(2L, "Bruno \"Bê\" Souza", "bruno", "bruno@example.com", 1L, null),
+                new UsuarioLinha(3L, "Carla\nLima", "carla", null, 1L, null)));
+
+        String csv = exportar(FormatoExportacao.CSV, FiltroUsuario.TODOS);
+
+        Assertions.assertEquals("""
+                id,nomeCompleto,nomeUsuario,email,papeis
+                1,"Silva, Ana",ana,ana@example.com,
+                2,"Bruno ""Bê"" Souza",bruno,bruno@example.com,
+                3,"Carla
+                Lima",carla,,
+                """, csv);
+    }
+
+    @Test
+    void csvDeveriaAgruparOsPapeisDeUmUsuarioEmUmaLinha() throws Exception {
+        Mockito.when(usuarioRepository.streamLinhas(FiltroUsuario.TODOS)).thenReturn(Stream.of(
+                new UsuarioLinha(1L, "Admin", "admin", "admin@example.com", 1L, Papel.NomePapel.ADMIN),
+                new UsuarioLinha(1L, "Admin", "admin", "admin@example.com", 1L, Papel.NomePapel.INSTRUTOR),
+                new UsuarioLinha(2L, "Professor", "professor", "professor@example.com", 1L, Papel.NomePapel.INSTRUTOR)));
+
+        String csv = exportar(FormatoExportacao.CSV, FiltroUsuario.TODOS);
+
+        Assertions.assertEquals("""
+                id,nomeCompleto,nomeUsuario,email,papeis
+                1,Admin,admin,admin@example.com,ADMIN|INSTRUTOR
+                2,Professor,professor,professor@example.com,INSTRUTOR
+                """, csv);
+    }
+
+    @Test
+    void ndjsonDeveriaEscreverUmUsuarioPorLinhaComTodosOsPapeis() throws Exception {
+        FiltroUsuario filtro = new FiltroUsuario(Papel.NomePapel.ADMIN, TipoUsuario.ADMINISTRADOR, true);
+        Mockito.when(usuarioRepository.streamLinhas(filtro)).thenReturn(Stream.of(
+                new UsuarioLinha(1L, "Admin", "admin", "admin@example.com", 1L, Papel.NomePapel.ADMIN),
+                new UsuarioLinha(1L, "Admin", "admin", "admin@example.com", 1L, Papel.NomePapel.INSTRUTOR)));
+
+        String ndjson = exportar(FormatoExportacao.NDJSON, filtro);
+
+        String[] linhas = ndjson.split("\n");
+        Assertions.assertEquals(1, linhas.length);
+        UsuarioDTO dto = new ObjectMapper().readValue(linhas[0], UsuarioDTO.class);
+        Assertions.assertEquals(1L, dto.getId());
+        Assertions.assertEquals(Set.of(Papel.NomePapel.ADMIN, Papel.NomePapel.INSTRUTOR), dto.getPapeis());
+        Mockito.verify(usuarioRepository).streamLinhas(filtro);
+    }
+
+    private String exportar(FormatoExportacao formato, FiltroUsuario filtro) throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        exportador.exportar(formato, filtro, saida);
+        return saida.toString(StandardCharsets.UTF_8);
+    }
+}
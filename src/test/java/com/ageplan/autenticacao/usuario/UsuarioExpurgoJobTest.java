@@ -0,0 +1,105 @@
+package com.ageplan.autenticacao.usuario;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+/**
+ * Classe de testes para o expurgo dos usuários excluídos logicamente, sobre o esquema das migrações.
+ */
+@DataJpaTest
+class UsuarioExpurgoJobTests {
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void expurgarDeveriaRemoverSomenteOsExcluidosEOsSeusPapeis() {
+        long ativo = inserir("ativo", "INSTRUTOR");
+        List<Long> excluidos = List.of(inserir("excluido1", "ADMIN"), inserir("excluido2", "INSTRUTOR"), inserir("excluido3"));
+        usuarioRepository.softDeleteEmLote(excluidos, null);
+
+        long removidos = job(2, 10).expurgar();
+
+        Assertions.assertEquals(3, removidos);
+        Assertions.assertEquals(List.of(ativo), jdbcTemplate.queryForList("SELECT id FROM usuario", Long.class));
+        Assertions.assertEquals(List.of(ativo), jdbcTemplate.queryForList("SELECT usuario_id FROM usuario_papel", Long.class));
+        Assertions.assertEquals(3.0, meterRegistry.get("usuario.expurgo.removidos").counter().count());
+        Assertions.assertEquals(2.0, meterRegistry.get("usuario.expurgo.lotes").counter().count());
+    }
+
+    @Test
+    void expurgarDeveriaPararNoMaximoDeLotes() {
+        usuarioRepository.softDeleteEmLote(List.of(inserir("excluido1"), inserir("excluido2"), inserir("excluido3")), null);
+
+        long removidos = job(1, 2).expurgar();
+
+        Assertions.assertEquals(2, removidos);
+        Assertions.assertEquals(1, usuarioRepository.countExcluidos());
+        Assertions.assertEquals(1.0, meterRegistry.get("usuario.expurgo.pendentes").gauge().value());
+    }
+
+    @Test
+    void expurgarNaoDeveriaRemoverONovoUsuarioComOLoginDeUmExcluido() {
+        long excluido = inserir("aluno", "INSTRUTOR");
+        usuarioRepository.softDeleteEmLote(List.of(excluido), null);
+        long novo = inserir("aluno");
+
+        Assertions.assertEquals(1, job(500, 10).expurgar());
+
+        Assertions.assertEquals(List.of(novo), jdbcTemplate.queryForList("SELECT id FROM usuario", Long.class));
+    }
+
+    @Test
+    void expurgarSemExcluidosNaoDeveriaExecutarLotes() {
+        inserir("ativo");
+
+        Assertions.assertEquals(0, job(500, 10).expurgar());
+        Assertions.assertEquals(0.0, meterRegistry.get("usuario.expurgo.lotes").counter().count());
+    }
+
+    private UsuarioExpurgoJob job(int tamanhoLote, int maximoLotes) {
+        return new UsuarioExpurgoJob(usuarioRepository, transactionManager, meterRegistry, tamanhoLote, maximoLotes);
+    }
+
+    /**
+     * Insere um usuário ativo diretamente na tabela, com os papéis informados.
+     *
+     * @return o identificador gerado
+     */
+    private long inserir(String nomeUsuario, String... papeis) {
+        String email = nomeUsuario + "@example.com";
+        jdbcTemplate.update("INSERT INTO usuario (tipo_usuario, nome_completo, nome_usuario, nome_usuario_normalizado, " +
+                        "email, email_normalizado, senha, account_non_expired, account_non_locked, credentials_non_expired, " +
+                        "enabled, versao, atualizado_em, excluido) " +
+                        "VALUES ('Usuario', ?, ?, ?, ?, ?, 'senha123', true, true, true, true, 0, CURRENT_TIMESTAMP, false)",
+                "Usuário " + nomeUsuario, nomeUsuario, nomeUsuario, email, email);
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM usuario WHERE nome_usuario = ? AND excluido = false",
+                Long.class, nomeUsuario);
+        for (String papel : papeis) {
+            jdbcTemplate.update("INSERT INTO usuario_papel (usuario_id, papel_id) SELECT ?, id FROM papel WHERE nome_papel = ?",
+                    id, papel);
+        }
+        return id;
+    }
+}
@@ -2,7 +2,6 @@ package com.ageplan.autenticacao.usuario;
 
 import com.ageplan.autenticacao.papel.Papel;
 
-import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -23,7 +22,7 @@ public class UsuarioFactory {
 
         Set<Papel> papeis = new HashSet<>();
         papeis.add(createAdminPapel());
-        usuario.setPapeis(new ArrayList<>(papeis));
+        usuario.setPapeis(papeis);
 
         return usuario;
     }
@@ -36,7 +35,7 @@ public class UsuarioFactory {
     private static Papel createAdminPapel() {
         Papel papel = new Papel();
         papel.setId(1L);
-        papel.setNomePapel(Papel.NomePapel.ROLE_ADMIN);
+        papel.setNomePapel(Papel.NomePapel.ADMIN);
         return papel;
     }
 
@@ -50,7 +49,7 @@ public class UsuarioFactory {
 
         Set<Papel> papeis = new HashSet<>();
         papeis.add(createProfessorPapel());
-        usuario.setPapeis(new ArrayList<>(papeis));
+        usuario.setPapeis(papeis);
 
         return usuario;
     }
@@ -75,10 +74,6 @@ public class UsuarioFactory {
         usuario.setEmail("aluno@example.com");
         usuario.setSenha("aluno123");
 
-        Set<Papel> papeis = new HashSet<>();
-        papeis.add(createAlunoPapel());
-        usuario.setPapeis(new ArrayList<>(papeis));
-
         return usuario;
     }
 
@@ -86,11 +81,4 @@ public class UsuarioFactory {
         Usuario usuario = createAlunoUsuario();
         return new UsuarioDTO(usuario);
     }
-
-    private static Papel createAlunoPapel() {
-        Papel papel = new Papel();
-        papel.setId(3L);
-        papel.setNomePapel(Papel.NomePapel.ALUNO);
-        return papel;
-    }
 }
\ No newline at end of file
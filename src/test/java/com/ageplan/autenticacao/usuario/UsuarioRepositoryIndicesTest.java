@@ -0,0 +1,111 @@
+package com.ageplan.autenticacao.usuario;
+
+import com.ageplan.autenticacao.papel.Papel;
+import com.ageplan.autenticacao.suporte.ConsultasExecutadas;
+import com.ageplan.autenticacao.suporte.RegistroSql;
+import com.ageplan.autenticacao.suporte.RegistroSqlConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Verifica, com o EXPLAIN do PostgreSQL sobre o esquema das migrações, que o SQL gerado pelas consultas
+ * dos repositórios de usuários é resolvido por índices e nunca por varredura completa de tabela.
+ * <p>
+ * Os comandos são capturados pelo {@link RegistroSql} durante a chamada real ao repositório e explicados
+ * como plano genérico, com {@code enable_seqscan} desligado para que tabelas pequenas não mascarem a
+ * ausência de um índice utilizável. Requer Docker; sem ele, os testes são ignorados.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import(RegistroSqlConfig.class)
+class UsuarioRepositoryIndicesTests {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private RegistroSql registroSql;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    static Stream<Arguments> consultas() {
+        return Stream.of(
+                consulta("findByLogin por nome de usuário", repositorio -> repositorio.findByLogin("admin")),
+                consulta("findByLogin por email", repositorio -> repositorio.findByLogin("admin@example.com")),
+                consulta("findLinhasByIdIn", repositorio -> repositorio.findLinhasByIdIn(List.of(1L, 2L, 3L))),
+                consulta("findByPapel", repositorio -> repositorio.findByPapel("INSTRUTOR")),
+                consulta("streamLinhas por tipo", repositorio -> {
+                    try (Stream<UsuarioLinha> linhas = repositorio.streamLinhas(
+                            new FiltroUsuario(null, TipoUsuario.INSTRUTOR, null))) {
+                        linhas.forEach(linha -> {
+                        });
+                    }
+                }),
+                consulta("operação em lote por papel", repositorio ->
+                        repositorio.concederPapelEmLote(null, new FiltroUsuario(Papel.NomePapel.ADMIN, null, null), 1L)),
+                consulta("operação em lote por IDs", repositorio -> repositorio.softDeleteEmLote(List.of(1L, 2L, 3L), null)),
+                consulta("getAllUsuarios ordenado por nome", repositorio ->
+                        repositorio.findAll(PageRequest.of(0, 20, Sort.by("nomeCompleto", "id")))),
+                consulta("findIdsExcluidos", repositorio -> repositorio.findIdsExcluidos(500))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("consultas")
+    void consultaDeveriaUsarIndice(String nome, Consumer<UsuarioRepository> chamada) {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+
+        ConsultasExecutadas consultas = registroSql.capturar(() -> chamada.accept(usuarioRepository));
+
+        Assertions.assertNotEquals(0, consultas.total(), () -> nome + " não executou SQL");
+        for (String sql : consultas.sql()) {
+            String plano = String.join(System.lineSeparator(),
+                    jdbcTemplate.queryForList("EXPLAIN (GENERIC_PLAN) " + numerarParametros(sql), String.class));
+            Assertions.assertFalse(plano.contains("Seq Scan"),
+                    () -> nome + " faz varredura completa:\n" + sql + "\n" + plano);
+        }
+    }
+
+    private static Arguments consulta(String nome, Consumer<UsuarioRepository> chamada) {
+        return Arguments.of(nome, chamada);
+    }
+
+    /**
+     * Troca os parâmetros posicionais do JDBC pelos numerados do PostgreSQL, aceitos pelo plano genérico.
+     */
+    private static String numerarParametros(String sql) {
+        StringBuilder numerado = new StringBuilder(sql.length() + 16);
+        int parametro = 0;
+        for (char caractere : sql.toCharArray()) {
+            if (caractere == '?') {
+                numerado.append('$').append(++parametro);
+            } else {
+                numerado.append(caractere);
+            }
+        }
+        return numerado.toString();
+    }
+}
@@ -0,0 +1,263 @@
+package com.ageplan.autenticacao.usuario;
+
+import com.ageplan.autenticacao.papel.Papel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Classe de testes para as consultas e os comandos em lote próprios do {@link UsuarioRepository}, sobre o
+ * esquema das migrações. Os usuários são inseridos por SQL em cada teste e descartados no rollback.
+ */
+@DataJpaTest
+class UsuarioRepositoryTests {
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private long admin;
+    private long instrutor;
+    private long instrutorDesabilitado;
+    private long aluno;
+
+    @BeforeEach
+    void setUp() {
+        admin = inserir("ADMIN", "admin", true, "ADMIN", "INSTRUTOR");
+        instrutor = inserir("INSTRUTOR", "professor", true, "INSTRUTOR");
+        instrutorDesabilitado = inserir("INSTRUTOR", "substituto", false, "INSTRUTOR");
+        aluno = inserir("Usuario", "aluno", true);
+    }
+
+    @Test
+    void streamLinhasSemFiltroDeveriaTrazerTodosEmOrdemDeIdComTodosOsPapeis() {
+        List<UsuarioDTO> usuarios = streamLinhas(FiltroUsuario.TODOS);
+
+        Assertions.assertEquals(List.of(admin, instrutor, instrutorDesabilitado, aluno), ids(usuarios));
+        Assertions.assertEquals(Set.of(Papel.NomePapel.ADMIN, Papel.NomePapel.INSTRUTOR), usuarios.get(0).getPapeis());
+        Assertions.assertTrue(usuarios.get(3).getPapeis().isEmpty());
+    }
+
+    @Test
+    void streamLinhasPorPapelNaoDeveriaOmitirOsDemaisPapeisDoUsuario() {
+        List<UsuarioDTO> usuarios = streamLinhas(new FiltroUsuario(Papel.NomePapel.INSTRUTOR, null, null));
+
+        Assertions.assertEquals(List.of(admin, instrutor, instrutorDesabilitado), ids(usuarios));
+        Assertions.assertEquals(Set.of(Papel.NomePapel.ADMIN, Papel.NomePapel.INSTRUTOR), usuarios.get(0).getPapeis());
+    }
+
+    @Test
+    void streamLinhasPorTipoDeveriaConsiderarApenasOTipoExato() {
+        Assertions.assertEquals(List.of(aluno), ids(streamLinhas(new FiltroUsuario(null, TipoUsuario.USUARIO, null))));
+        Assertions.assertEquals(List.of(instrutor, instrutorDesabilitado),
+                ids(streamLinhas(new FiltroUsuario(null, TipoUsuario.INSTRUTOR, null))));
+    }
+
+    @Test
+    void streamLinhasPorSituacaoDeveriaSepararHabilitadosEDesabilitados() {
+        Assertions.assertEquals(List.of(instrutorDesabilitado), ids(streamLinhas(new FiltroUsuario(null, null, false))));
+        Assertions.assertEquals(List.of(admin, instrutor, aluno), ids(streamLinhas(new FiltroUsuario(null, null, true))));
+    }
+
+    @Test
+    void streamLinhasDeveriaCombinarTodosOsCriterios() {
+        Assertions.assertEquals(List.of(instrutor),
+                ids(streamLinhas(new FiltroUsuario(Papel.NomePapel.INSTRUTOR, TipoUsuario.INSTRUTOR, true))));
+        Assertions.assertEquals(List.of(admin),
+                ids(streamLinhas(new FiltroUsuario(Papel.NomePapel.INSTRUTOR, TipoUsuario.ADMINISTRADOR, true))));
+        Assertions.assertTrue(streamLinhas(new FiltroUsuario(Papel.NomePapel.ADMIN, TipoUsuario.INSTRUTOR, null)).isEmpty());
+    }
+
+    @Test
+    void findByPapelDeveriaIncluirQuemPossuiOPapelPelaHierarquia() {
+        long adminSemInstrutor = inserir("ADMIN", "diretor", true, "ADMIN");
+
+        List<Long> instrutores = usuarioRepository.findByPapel("INSTRUTOR").stream().map(Usuario::getId).toList();
+
+        Assertions.assertEquals(Set.of(admin, instrutor, instrutorDesabilitado, adminSemInstrutor), Set.copyOf(instrutores));
+        Assertions.assertEquals(4, instrutores.size());
+        Assertions.assertEquals(List.of(admin, adminSemInstrutor),
+                usuarioRepository.findByPapel("ADMIN").stream().map(Usuario::getId).sorted().toList());
+    }
+
+    @Test
+    void concederPapelEmLoteDeveriaSerIdempotente() {
+        Long papel = papelId(Papel.NomePapel.INSTRUTOR);
+
+        Assertions.assertEquals(1, usuarioRepository.concederPapelEmLote(List.of(aluno, instrutor), null, papel));
+        Assertions.assertEquals(0, usuarioRepository.concederPapelEmLote(List.of(aluno, instrutor), null, papel));
+
+        Assertions.assertEquals(Set.of("INSTRUTOR"), papeis(aluno));
+        Assertions.assertEquals(1L, versao(aluno));
+        Assertions.assertEquals(0L, versao(instrutor));
+    }
+
+    @Test
+    void revogarPapelEmLoteDeveriaSerIdempotente() {
+        Long papel = papelId(Papel.NomePapel.ADMIN);
+
+        Assertions.assertEquals(1, usuarioRepository.revogarPapelEmLote(List.of(admin, aluno), null, papel));
+        Assertions.assertEquals(0, usuarioRepository.revogarPapelEmLote(List.of(admin, aluno), null, papel));
+
+        Assertions.assertEquals(Set.of("INSTRUTOR"), papeis(admin));
+        Assertions.assertEquals(1L, versao(admin));
+        Assertions.assertEquals(0L, versao(aluno));
+    }
+
+    @Test
+    void comandosEmLoteDeveriamIgnorarUsuariosExcluidos() {
+        Assertions.assertEquals(1, usuarioRepository.softDeleteEmLote(List.of(aluno), null));
+        Assertions.assertEquals(0, usuarioRepository.softDeleteEmLote(List.of(aluno), null));
+        long versaoExcluido = versao(aluno);
+
+        Assertions.assertEquals(0, usuarioRepository.atualizarSituacaoEmLote(List.of(aluno), null, false, null));
+        Assertions.assertEquals(0, usuarioRepository.concederPapelEmLote(List.of(aluno), null, papelId(Papel.NomePapel.ADMIN)));
+        Assertions.assertEquals(3, usuarioRepository.atualizarSituacaoEmLote(null, FiltroUsuario.TODOS, null, true));
+
+        Assertions.assertEquals(versaoExcluido, versao(aluno));
+        Assertions.assertTrue(papeis(aluno).isEmpty());
+    }
+
+    @Test
+    void comandosEmLoteDeveriamCobrirIdsEmVariosBlocosDaClausulaIn() {
+        int tamanho = 2 * UsuarioRepositoryCustom.TAMANHO_LOTE + 1;
+        List<Long> ids = new ArrayList<>(LongStream.rangeClosed(1, tamanho).map(i -> -i).boxed().toList());
+        ids.set(0, instrutor);
+        ids.set(UsuarioRepositoryCustom.TAMANHO_LOTE, instrutorDesabilitado);
+        ids.set(tamanho - 1, aluno);
+
+        Assertions.assertEquals(3, usuarioRepository.atualizarSituacaoEmLote(ids, null, null, false));
+        Assertions.assertEquals(1, usuarioRepository.concederPapelEmLote(ids, null, papelId(Papel.NomePapel.INSTRUTOR)));
+        Assertions.assertEquals(3, usuarioRepository.revogarPapelEmLote(ids, null, papelId(Papel.NomePapel.INSTRUTOR)));
+        Assertions.assertEquals(3, usuarioRepository.softDeleteEmLote(ids, null));
+
+        Assertions.assertEquals(List.of(admin), ids(streamLinhas(FiltroUsuario.TODOS)));
+    }
+
+    @Test
+    void loginDeveriaIgnorarMaiusculasEMinusculasPorNomeDeUsuarioEEmail() {
+        long diretora = inserir("ADMIN", "Diretora", true, "ADMIN");
+
+        for (String login : List.of("Diretora", "diretora", "DIRETORA", " Diretora ", "DIRETORA@Example.com")) {
+            Assertions.assertEquals(diretora, usuarioRepository.findByLogin(login).orElseThrow().getId(), login);
+        }
+        for (String login : List.of("admin", "ADMIN", "admin@example.com")) {
+            Assertions.assertEquals(admin, usuarioRepository.findByLogin(login).orElseThrow().getId(), login);
+        }
+    }
+
+    @Test
+    void consultasPorNomeDeUsuarioDeveriamIgnorarMaiusculasEMinusculas() {
+        long diretora = inserir("ADMIN", "Diretora", true, "ADMIN");
+
+        for (String nomeUsuario : List.of("ADMIN", "admin", "Admin")) {
+            Assertions.assertEquals(List.of(admin, admin), usuarioRepository.findLinhasByNomeUsuario(nomeUsuario).stream()
+                    .map(UsuarioLinha::id).toList(), nomeUsuario);
+            Assertions.assertEquals(admin, usuarioRepository.findVersaoByNomeUsuario(nomeUsuario).orElseThrow().id(), nomeUsuario);
+        }
+        Assertions.assertEquals(Set.of(admin, diretora), usuarioRepository.findLinhasByNomeUsuarioIn(List.of("ADMIN", "diretora", "DIRETORA"))
+                .stream().map(UsuarioLinha::id).collect(Collectors.toSet()));
+        Assertions.assertTrue(usuarioRepository.findLinhasByNomeUsuario("admin@example.com").isEmpty());
+    }
+
+    @Test
+    void usuarioPersistidoDeveriaSerIgualAoRecarregadoComOMesmoHash() {
+        Usuario novo = new Usuario("Usuário novo", "novo", "novo@example.com", "senha123");
+        novo.setNomeUsuarioNormalizado("novo");
+        novo.setEmailNormalizado("novo@example.com");
+        Set<Usuario> usuarios = new HashSet<>();
+        usuarios.add(novo);
+
+        entityManager.persistAndFlush(novo);
+        entityManager.clear();
+        Usuario recarregado = usuarioRepository.findById(novo.getId()).orElseThrow();
+        Usuario referencia = usuarioRepository.getReferenceById(novo.getId());
+
+        Assertions.assertNotSame(novo, recarregado);
+        Assertions.assertEquals(novo, recarregado);
+        Assertions.assertEquals(novo.hashCode(), recarregado.hashCode());
+        Assertions.assertTrue(usuarios.contains(novo));
+        Assertions.assertTrue(usuarios.contains(recarregado));
+        Assertions.assertTrue(usuarios.contains(referencia));
+    }
+
+    @Test
+    void loginDeUsuarioAtivoDeveriaSerUnico() {
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> inserir("Usuario", "aluno", true));
+    }
+
+    @Test
+    void usuarioExcluidoNaoDeveriaImpedirNovoCadastroComOMesmoLogin() {
+        usuarioRepository.softDeleteEmLote(List.of(aluno), null);
+
+        long novoAluno = inserir("Usuario", "aluno", true);
+
+        Assertions.assertNotEquals(aluno, novoAluno);
+        Assertions.assertEquals(novoAluno, usuarioRepository.findByLogin("aluno@example.com").orElseThrow().getId());
+    }
+
+    private List<UsuarioDTO> streamLinhas(FiltroUsuario filtro) {
+        List<UsuarioDTO> usuarios = new ArrayList<>();
+        try (Stream<UsuarioLinha> linhas = usuarioRepository.streamLinhas(filtro)) {
+            UsuarioLinha.agruparEmSequencia(linhas.iterator(), usuarios::add);
+        }
+        return usuarios;
+    }
+
+    private static List<Long> ids(List<UsuarioDTO> usuarios) {
+        return usuarios.stream().map(UsuarioDTO::getId).toList();
+    }
+
+    private Long papelId(Papel.NomePapel nomePapel) {
+        return jdbcTemplate.queryForObject("SELECT id FROM papel WHERE nome_papel = ?", Long.class, nomePapel.name());
+    }
+
+    private Set<String> papeis(long usuarioId) {
+        return Set.copyOf(jdbcTemplate.queryForList("SELECT p.nome_papel FROM usuario_papel up JOIN papel p ON p.id = up.papel_id "
+                + "WHERE up.usuario_id = ?", String.class, usuarioId));
+    }
+
+    private long versao(long usuarioId) {
+        return jdbcTemplate.queryForObject("SELECT versao FROM usuario WHERE id = ?", Long.class, usuarioId);
+    }
+
+    /**
+     * Insere um usuário diretamente na tabela, com os papéis informados.
+     *
+     * @return o identificador gerado
+     */
+    private long inserir(String tipo, String nomeUsuario, boolean habilitado, String... papeis) {
+        String email = nomeUsuario + "@example.com";
+        jdbcTemplate.update("INSERT INTO usuario (tipo_usuario, nome_completo, nome_usuario, nome_usuario_normalizado, " +
+                        "email, email_normalizado, senha, account_non_expired, account_non_locked, credentials_non_expired, " +
+                        "enabled, versao, atualizado_em, excluido) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, 'senha123', true, true, true, ?, 0, CURRENT_TIMESTAMP, false)",
+                tipo, "Usuário " + nomeUsuario, nomeUsuario, Usuario.normalizar(nomeUsuario), email, Usuario.normalizar(email),
+                habilitado);
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM usuario WHERE nome_usuario = ? AND excluido = false",
+                Long.class, nomeUsuario);
+        for (String papel : papeis) {
+            jdbcTemplate.update("INSERT INTO usuario_papel (usuario_id, papel_id) SELECT ?, id FROM papel WHERE nome_papel = ?",
+                    id, papel);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,94 @@
+package com.ageplan.autenticacao.usuario;
+
+import com.ageplan.autenticacao.config.serializacao.FormatoResposta;
+import com.ageplan.autenticacao.papel.Papel;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Comparação de tamanho e ida e volta do {@link UsuarioDTO} em JSON, CBOR e Smile, para um único usuário
+ * e para uma página completa, e negociação do formato pelo cabeçalho Accept.
+ */
+class UsuarioSerializacaoBinariaTests {
+
+    private static final int TAMANHO_PAGINA = 500;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void formatosBinariosDeveriamSerMenoresQueJsonParaUmUsuario() throws Exception {
+        Map<FormatoResposta, Integer> tamanhos = codificar(usuario(1L), new TypeReference<UsuarioDTO>() {
+        });
+
+        Assertions.assertTrue(tamanhos.get(FormatoResposta.CBOR) < tamanhos.get(FormatoResposta.JSON));
+        Assertions.assertTrue(tamanhos.get(FormatoResposta.SMILE) < tamanhos.get(FormatoResposta.JSON));
+    }
+
+    @Test
+    void formatosBinariosDeveriamSerMenoresQueJsonParaUmaPagina() throws Exception {
+        List<UsuarioDTO> pagina = new ArrayList<>();
+        for (long id = 1; id <= TAMANHO_PAGINA; id++) {
+            pagina.add(usuario(id));
+        }
+
+        Map<FormatoResposta, Integer> tamanhos = codificar(pagina, new TypeReference<List<UsuarioDTO>>() {
+        });
+
+        Assertions.assertTrue(tamanhos.get(FormatoResposta.CBOR) < tamanhos.get(FormatoResposta.JSON));
+        Assertions.assertTrue(tamanhos.get(FormatoResposta.SMILE) < tamanhos.get(FormatoResposta.JSON));
+    }
+
+    @Test
+    void negociarDeveriaRespeitarAcceptEQualidade() {
+        Assertions.assertEquals(FormatoResposta.JSON, FormatoResposta.negociar(null));
+        Assertions.assertEquals(FormatoResposta.JSON, FormatoResposta.negociar("*/*"));
+        Assertions.assertEquals(FormatoResposta.CBOR, FormatoResposta.negociar("application/cbor"));
+        Assertions.assertEquals(FormatoResposta.SMILE,
+                FormatoResposta.negociar("application/json;q=0.5, application/x-jackson-smile"));
+        Assertions.assertEquals(FormatoResposta.JSON, FormatoResposta.negociar("text/html, application/json"));
+    }
+
+    @Test
+    void negociarDeveriaIgnorarFormatosRecusadosComQualidadeZero() {
+        Assertions.assertEquals(FormatoResposta.SMILE,
+                FormatoResposta.negociar("application/cbor;q=0, application/x-jackson-smile;q=0.1"));
+        Assertions.assertEquals(FormatoResposta.CBOR, FormatoResposta.negociar("*/*, application/json;q=0"));
+        Assertions.assertEquals(FormatoResposta.SMILE,
+                FormatoResposta.negociar("application/*;q=0.5, application/json;q=0, application/cbor;q=0.2"));
+        Assertions.assertEquals(FormatoResposta.JSON, FormatoResposta.negociar("application/cbor;q=0"));
+    }
+
+    /**
+     * Codifica e decodifica o valor em cada formato, confere a ida e volta e retorna o tamanho codificado.
+     */
+    private <T> Map<FormatoResposta, Integer> codificar(T valor, TypeReference<T> tipo) throws Exception {
+        Map<FormatoResposta, Integer> tamanhos = new EnumMap<>(FormatoResposta.class);
+        for (FormatoResposta formato : FormatoResposta.values()) {
+            ObjectMapper mapper = objectMapper.copyWith(formato.criarFactory());
+            byte[] bytes = mapper.writeValueAsBytes(valor);
+            T lido = mapper.readValue(bytes, tipo);
+
+            Assertions.assertArrayEquals(objectMapper.writeValueAsBytes(valor), objectMapper.writeValueAsBytes(lido));
+            tamanhos.put(formato, bytes.length);
+        }
+        return tamanhos;
+    }
+
+    private static UsuarioDTO usuario(Long id) {
+        UsuarioDTO usuarioDTO = new UsuarioDTO();
+        usuarioDTO.setId(id);
+        usuarioDTO.setNomeCompleto("Usuário de Teste " + id);
+        usuarioDTO.setNomeUsuario("usuario" + id);
+        usuarioDTO.setEmail("usuario" + id + "@example.com");
+        usuarioDTO.setPapeis(Set.of(Papel.NomePapel.INSTRUTOR));
+        return usuarioDTO;
+    }
+}
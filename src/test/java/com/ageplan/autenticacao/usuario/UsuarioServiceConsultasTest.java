@@ -0,0 +1,275 @@
+package com.ageplan.autenticacao.usuario;
+
+import com.ageplan.autenticacao.papel.Papel;
+import com.ageplan.autenticacao.suporte.ConsultasExecutadas;
+import com.ageplan.autenticacao.suporte.MedidorConsultas;
+import com.ageplan.autenticacao.suporte.OrcamentoConsultas;
+import com.ageplan.autenticacao.suporte.RegistroSqlConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Orçamento de comandos SQL dos métodos do {@link UsuarioService}, medidos com o cache de segundo nível vazio.
+ * <p>
+ * Cada teste fixa a quantidade e a forma dos comandos de um método, de modo que uma consulta N+1 (por exemplo,
+ * uma coleção EAGER carregada por usuário ou um papel buscado por vez) falha o build em vez de passar despercebida.
+ * Além da forma, o total de comandos de cada endpoint é limitado pela tabela de orçamentos abaixo, e as medições
+ * são publicadas no relatório do JUnit. A listagem paginada ainda carrega os papéis de cada usuário da página com
+ * um SELECT próprio; o seu orçamento registra esse custo para que ele não cresça.
+ */
+@SpringBootTest
+@ActiveProfiles("dev")
+@Import(RegistroSqlConfig.class)
+class UsuarioServiceConsultasTests {
+
+    private static final OrcamentoConsultas ORCAMENTO = new OrcamentoConsultas(Map.ofEntries(
+            Map.entry("POST /api/login", 2),
+            Map.entry("POST /api/usuarios", 5),
+            Map.entry("POST /api/usuarios/registro", 3),
+            Map.entry("GET /api/usuarios/{id}", 1),
+            Map.entry("GET /api/usuarios/me", 1),
+            Map.entry("POST /api/usuarios/lookup", 2),
+            Map.entry("GET /api/usuarios?size=2", 4),
+            Map.entry("GET /api/usuarios?apos", 2),
+            Map.entry("GET /api/usuarios/exportacao", 1),
+            Map.entry("PUT /api/usuarios/{id}", 7),
+            Map.entry("PATCH /api/usuarios/{id}", 2),
+            Map.entry("DELETE /api/usuarios/{id}", 1),
+            Map.entry("POST /api/usuarios/lote/papeis/{nomePapel}/concessao", 3),
+            Map.entry("POST /api/usuarios/lote/papeis/{nomePapel}/revogacao", 3),
+            Map.entry("POST /api/usuarios/lote/situacao", 1),
+            Map.entry("POST /api/usuarios/lote/exclusao", 1)));
+    private static final AtomicInteger SEQUENCIA = new AtomicInteger();
+    private static final String SELECT_USUARIO = "SELECT usuario";
+    private static final String SELECT_PAPEIS = "SELECT usuario_papel";
+    private static final String SELECT_PAPEL = "SELECT papel";
+    private static final String UPDATE_USUARIO = "UPDATE usuario";
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private MedidorConsultas medidor;
+
+    @AfterAll
+    static void relatarOrcamento(TestReporter relatorio) {
+        ORCAMENTO.relatar(relatorio);
+    }
+
+    @Test
+    void loginPorNomeDeUsuarioDeveriaCarregarUsuarioEPapeisEmUmaConsulta() {
+        ConsultasExecutadas consultas = medidor.medir(() -> usuarioService.loadUserByUsername("ADMIN"));
+
+        verificar("POST /api/login", "loadUserByUsername(nome)", consultas, SELECT_USUARIO);
+    }
+
+    @Test
+    void loginPorEmailDeveriaCarregarOsPapeisEmUmaSegundaConsulta() {
+        ConsultasExecutadas consultas = medidor.medir(() -> usuarioService.loadUserByUsername("admin@example.com"));
+
+        verificar("POST /api/login", "loadUserByUsername(email)", consultas, SELECT_USUARIO, SELECT_PAPEIS);
+    }
+
+    @Test
+    void criarUsuarioDeveriaBuscarCadaPapelUmaVez() {
+        UsuarioDTO dto = novoUsuario(Set.of(Papel.NomePapel.INSTRUTOR));
+
+        ConsultasExecutadas consultas = medidor.medir(() -> usuarioService.criarUsuario(dto));
+
+        verificar("POST /api/usuarios", "criarUsuario", consultas,
+                SELECT_USUARIO, SELECT_USUARIO, SELECT_PAPEL, "INSERT usuario", "INSERT usuario_papel");
+    }
+
+    @Test
+    void registrarUsuarioDeveriaValidarEInserirSemConsultarPapeis() {
+        UsuarioDTO dto = novoUsuario(Set.of(Papel.NomePapel.ADMIN));
+
+        ConsultasExecutadas consultas = medidor.medir(() -> usuarioService.registrarUsuario(dto));
+
+        verificar("POST /api/usuarios/registro", "registrarUsuario", consultas,
+                SELECT_USUARIO, SELECT_USUARIO, "INSERT usuario");
+    }
+
+    @Test
+    void getUsuarioDeveriaUsarUmaConsulta() {
+        Long id = criar(Set.of(Papel.NomePapel.ADMIN, Papel.NomePapel.INSTRUTOR));
+
+        ConsultasExecutadas versao = medidor.medir(() -> usuarioService.getVersao(id));
+        ConsultasExecutadas usuario = medidor.medir(() -> usuarioService.getUsuario(id));
+
+        verificar("GET /api/usuarios/{id}", "getVersao", versao, SELECT_USUARIO);
+        verificar("GET /api/usuarios/{id}", "getUsuario", usuario, SELECT_USUARIO);
+    }
+
+    @Test
+    void getUsuarioByUsernameDeveriaUsarUmaConsulta() {
+        ConsultasExecutadas versao = medidor.medir(() -> usuarioService.getVersaoByUsername("professor"));
+        ConsultasExecutadas usuario = medidor.medir(() -> usuarioService.getUsuarioByUsername("professor"));
+
+        verificar("GET /api/usuarios/me", "getVersaoByUsername", versao, SELECT_USUARIO);
+        verificar("GET /api/usuarios/me", "getUsuarioByUsername", usuario, SELECT_USUARIO);
+    }
+
+    @Test
+    void buscarEmLoteDeveriaUsarUmaConsultaPorTipoDeChaveIndependenteDaQuantidade() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(criar(Set.of(Papel.NomePapel.INSTRUTOR)));
+        }
+        BuscaLoteDTO um = new BuscaLoteDTO();
+        um.setIds(ids.subList(0, 1));
+        um.setNomesUsuario(List.of("admin"));
+        BuscaLoteDTO varios = new BuscaLoteDTO();
+        varios.setIds(ids);
+        varios.setNomesUsuario(List.of("admin", "professor", "aluno"));
+
+        ConsultasExecutadas poucos = medidor.medir(() -> usuarioService.buscarEmLote(um));
+        ConsultasExecutadas muitos = medidor.medir(() -> usuarioService.buscarEmLote(varios));
+
+        verificar("POST /api/usuarios/lookup", "buscarEmLote(1 + 1)", poucos, SELECT_USUARIO, SELECT_USUARIO);
+        verificar("POST /api/usuarios/lookup", "buscarEmLote(5 + 3)", muitos, SELECT_USUARIO, SELECT_USUARIO);
+    }
+
+    @Test
+    void getAllUsuariosDeveriaCarregarOsPapeisDeCadaUsuarioDaPagina() {
+        ConsultasExecutadas consultas = medidor.medir(() ->
+                usuarioService.getAllUsuarios(PageRequest.of(0, 2, Sort.by("id"))));
+
+        verificar("GET /api/usuarios?size=2", "getAllUsuarios", consultas,
+                SELECT_USUARIO, SELECT_PAPEIS, SELECT_PAPEIS, SELECT_USUARIO);
+    }
+
+    @Test
+    void listarAposIdDeveriaUsarDuasConsultasIndependenteDoTamanho() {
+        ConsultasExecutadas pequena = medidor.medir(() -> usuarioService.listarAposId(null, 1));
+        ConsultasExecutadas grande = medidor.medir(() -> usuarioService.listarAposId(null, 100));
+
+        verificar("GET /api/usuarios?apos", "listarAposId(1)", pequena, SELECT_USUARIO, SELECT_USUARIO);
+        verificar("GET /api/usuarios?apos", "listarAposId(100)", grande, SELECT_USUARIO, SELECT_USUARIO);
+    }
+
+    @Test
+    void exportarUsuariosDeveriaUsarUmCursor() {
+        AtomicInteger exportados = new AtomicInteger();
+
+        ConsultasExecutadas consultas = medidor.medir(() ->
+                usuarioService.exportarUsuarios(new FiltroUsuario(null, null, null), dto -> exportados.incrementAndGet()));
+
+        Assertions.assertTrue(exportados.get() >= 3);
+        verificar("GET /api/usuarios/exportacao", "exportarUsuarios", consultas, SELECT_USUARIO);
+    }
+
+    @Test
+    void updateSemAlterarPapeisNaoDeveriaTocarUsuarioPapel() {
+        Long id = criar(Set.of(Papel.NomePapel.ADMIN));
+        UsuarioDTO dto = usuarioService.getUsuario(id);
+        dto.setNomeCompleto("Nome alterado");
+        dto.setPapeis(Set.of(Papel.NomePapel.ADMIN));
+
+        ConsultasExecutadas consultas = medidor.medir(() -> usuarioService.update(id, dto, null));
+
+        verificar("PUT /api/usuarios/{id}", "update(mesmos papéis)", consultas,
+                SELECT_USUARIO, SELECT_USUARIO, SELECT_USUARIO, UPDATE_USUARIO);
+    }
+
+    @Test
+    void updateTrocandoPapelDeveriaBuscarApenasOPapelAdicionado() {
+        Long id = criar(Set.of(Papel.NomePapel.ADMIN));
+        UsuarioDTO dto = usuarioService.getUsuario(id);
+        dto.setPapeis(Set.of(Papel.NomePapel.INSTRUTOR));
+
+        ConsultasExecutadas consultas = medidor.medir(() -> usuarioService.update(id, dto, null));
+
+        verificar("PUT /api/usuarios/{id}", "update(troca de papel)", consultas,
+                SELECT_USUARIO, SELECT_USUARIO, SELECT_USUARIO, SELECT_PAPEL, UPDATE_USUARIO,
+                "DELETE usuario_papel", "INSERT usuario_papel");
+    }
+
+    @Test
+    void atualizarParcialmenteDeveriaGravarApenasQuandoHaAlteracao() {
+        Long id = criar(Set.of(Papel.NomePapel.ADMIN));
+        AtualizacaoParcialUsuarioDTO nome = new AtualizacaoParcialUsuarioDTO();
+        nome.setNomeCompleto("Nome parcial");
+
+        ConsultasExecutadas alterado = medidor.medir(() -> usuarioService.atualizarParcialmente(id, nome, null));
+        ConsultasExecutadas inalterado = medidor.medir(() -> usuarioService.atualizarParcialmente(id, nome, null));
+
+        verificar("PATCH /api/usuarios/{id}", "atualizarParcialmente", alterado, SELECT_USUARIO, UPDATE_USUARIO);
+        verificar("PATCH /api/usuarios/{id}", "atualizarParcialmente(sem mudança)", inalterado, SELECT_USUARIO);
+    }
+
+    @Test
+    void deleteUsuarioDeveriaUsarUmUpdate() {
+        Long id = criar(Set.of(Papel.NomePapel.INSTRUTOR));
+
+        ConsultasExecutadas consultas = medidor.medir(() -> usuarioService.deleteUsuario(id));
+
+        verificar("DELETE /api/usuarios/{id}", "deleteUsuario", consultas, UPDATE_USUARIO);
+    }
+
+    @Test
+    void operacoesEmLoteNaoDeveriamCrescerComAQuantidadeDeUsuarios() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(criar(Set.of()));
+        }
+        OperacaoLoteDTO operacao = new OperacaoLoteDTO();
+        operacao.setIds(ids);
+        OperacaoLoteDTO situacao = new OperacaoLoteDTO();
+        situacao.setIds(ids);
+        situacao.setEnabled(false);
+
+        ConsultasExecutadas concessao = medidor.medir(() ->
+                usuarioService.concederPapelEmLote(Papel.NomePapel.INSTRUTOR, operacao));
+        ConsultasExecutadas revogacao = medidor.medir(() ->
+                usuarioService.revogarPapelEmLote(Papel.NomePapel.INSTRUTOR, operacao));
+        ConsultasExecutadas atualizacao = medidor.medir(() -> usuarioService.atualizarSituacaoEmLote(situacao));
+        ConsultasExecutadas exclusao = medidor.medir(() -> usuarioService.deleteUsuariosEmLote(operacao));
+
+        verificar("POST /api/usuarios/lote/papeis/{nomePapel}/concessao", "concederPapelEmLote", concessao,
+                SELECT_PAPEL, UPDATE_USUARIO, "INSERT usuario_papel");
+        verificar("POST /api/usuarios/lote/papeis/{nomePapel}/revogacao", "revogarPapelEmLote", revogacao,
+                SELECT_PAPEL, UPDATE_USUARIO, "DELETE usuario_papel");
+        verificar("POST /api/usuarios/lote/situacao", "atualizarSituacaoEmLote", atualizacao, UPDATE_USUARIO);
+        verificar("POST /api/usuarios/lote/exclusao", "deleteUsuariosEmLote", exclusao, UPDATE_USUARIO);
+    }
+
+    /**
+     * Registra a medição no orçamento do endpoint e verifica a forma de cada comando.
+     */
+    private static void verificar(String endpoint, String metodo, ConsultasExecutadas consultas, String... formas) {
+        ORCAMENTO.verificar(endpoint, metodo, consultas);
+        Assertions.assertEquals(List.of(formas), consultas.formas(), consultas::toString);
+    }
+
+    private Long criar(Set<Papel.NomePapel> papeis) {
+        UsuarioDTO dto = novoUsuario(papeis);
+        usuarioService.criarUsuario(dto);
+        return usuarioService.getUsuarioByUsername(dto.getNomeUsuario()).getId();
+    }
+
+    private static UsuarioDTO novoUsuario(Set<Papel.NomePapel> papeis) {
+        String nome = "consulta" + SEQUENCIA.incrementAndGet();
+        UsuarioDTO dto = new UsuarioDTO();
+        dto.setNomeCompleto("Usuário " + nome);
+        dto.setNomeUsuario(nome);
+        dto.setEmail(nome + "@example.com");
+        dto.setSenha("senha123");
+        dto.setPapeis(papeis);
+        return dto;
+    }
+}
@@ -1,5 +1,10 @@
 package com.ageplan.autenticacao.usuario;
 
+import com.ageplan.autenticacao.config.cache.CarregamentoUnico;
+import com.ageplan.autenticacao.config.fragmentacao.RoteadorUsuariosUnico;
+import com.ageplan.autenticacao.papel.Papel;
+import com.ageplan.autenticacao.papel.PapelRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,8 +14,9 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
-import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.dao.EmptyResultDataAccessException;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -18,9 +24,13 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 /**
  * Classe de testes para o serviço UsuarioService.
@@ -34,9 +44,22 @@ class UsuarioServiceTests {
     @Mock
     private UsuarioRepository usuarioRepository;
 
+    @Mock
+    private PapelRepository papelRepository;
+
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private RoteadorUsuariosUnico roteador = new RoteadorUsuariosUnico();
+
+    @Spy
+    private CarregamentoUnico carregamentoUnico = new CarregamentoUnico(new SimpleMeterRegistry(),
+            Mockito.mock(PlatformTransactionManager.class), 5000);
+
     private long idExistente;
     private long idInexistente;
     private UsuarioDTO usuarioDTO;
@@ -51,7 +74,6 @@ class UsuarioServiceTests {
     void setUp() {
         idExistente = 1L;
         idInexistente = 1000L;
-        long idDependente = 4L;
         nomeUsuarioExistente = "usuarioExistente";
         nomeUsuarioInexistente = "usuarioInexistente";
         usuario = UsuarioFactory.createUsuario();
@@ -60,27 +82,29 @@ class UsuarioServiceTests {
         // Configuração dos comportamentos simulados
         Mockito.when(usuarioRepository.findById(idExistente)).thenReturn(Optional.of(usuario));
         Mockito.when(usuarioRepository.findById(idInexistente)).thenReturn(Optional.empty());
-        Mockito.when(usuarioRepository.findByNomeUsuario(nomeUsuarioExistente)).thenReturn(Optional.of(usuario));
-        Mockito.when(usuarioRepository.findByNomeUsuario(nomeUsuarioInexistente)).thenReturn(Optional.empty());
+        Mockito.when(usuarioRepository.findLinhasById(idExistente)).thenReturn(List.of(
+                new UsuarioLinha(idExistente, "Admin User", "admin", "admin@example.com", 1L, Papel.NomePapel.ADMIN)));
+        Mockito.when(usuarioRepository.findLinhasById(idInexistente)).thenReturn(List.of());
+        Mockito.when(usuarioRepository.findByLogin(nomeUsuarioExistente)).thenReturn(Optional.of(usuario));
+        Mockito.when(usuarioRepository.findByLogin(nomeUsuarioInexistente)).thenReturn(Optional.empty());
         Mockito.when(usuarioRepository.save(ArgumentMatchers.any(Usuario.class))).thenReturn(usuario);
         Mockito.when(passwordEncoder.encode(ArgumentMatchers.anyString())).thenReturn("encodedPassword");
 
-        Mockito.doNothing().when(usuarioRepository).deleteById(idExistente);
-        Mockito.doThrow(EmptyResultDataAccessException.class).when(usuarioRepository).deleteById(idInexistente);
-        Mockito.doThrow(DataIntegrityViolationException.class).when(usuarioRepository).deleteById(idDependente);
+        Mockito.when(usuarioRepository.softDeleteById(idExistente)).thenReturn(1);
+        Mockito.when(usuarioRepository.softDeleteById(idInexistente)).thenReturn(0);
     }
 
     @Test
     void loadUserByUsernameDeveriaRetornarUserDetailsQuandoUsuarioExiste() {
         UserDetails result = service.loadUserByUsername(nomeUsuarioExistente);
         Assertions.assertNotNull(result);
-        Mockito.verify(usuarioRepository).findByNomeUsuario(nomeUsuarioExistente);
+        Mockito.verify(usuarioRepository).findByLogin(nomeUsuarioExistente);
     }
 
     @Test
     void loadUserByUsernameDeveriaLancarUsernameNotFoundExceptionQuandoUsuarioNaoExiste() {
         Assertions.assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername(nomeUsuarioInexistente));
-        Mockito.verify(usuarioRepository).findByNomeUsuario(nomeUsuarioInexistente);
+        Mockito.verify(usuarioRepository).findByLogin(nomeUsuarioInexistente);
     }
 
     @Test
@@ -99,17 +123,79 @@ class UsuarioServiceTests {
         Assertions.assertThrows(IllegalArgumentException.class, () -> service.criarUsuario(usuarioDTO));
     }
 
+    @Test
+    void registrarUsuarioDeveriaCriarUsuarioSemPapeisMesmoQuandoInformados() {
+        Mockito.when(usuarioRepository.save(ArgumentMatchers.any(Usuario.class))).thenAnswer(invocacao -> {
+            Usuario salvo = invocacao.getArgument(0);
+            salvo.setId(3L);
+            return salvo;
+        });
+        UsuarioDTO registro = UsuarioFactory.createAlunoUsuarioDTO();
+        registro.setSenha("aluno123");
+        registro.setPapeis(Set.of(Papel.NomePapel.ADMIN));
+
+        UsuarioDTO result = service.registrarUsuario(registro);
+
+        Assertions.assertTrue(result.getPapeis().isEmpty());
+        Mockito.verifyNoInteractions(papelRepository);
+        Mockito.verify(passwordEncoder).encode("aluno123");
+        Mockito.verify(roteador).paraNovoUsuario("aluno", "aluno@example.com");
+        Mockito.verify(eventPublisher).publishEvent(UsuarioAlteradoEvent.de(3L));
+    }
+
+    @Test
+    void buscarEmLoteDeveriaIndexarResultadosPelosValoresInformados() {
+        Mockito.when(usuarioRepository.findLinhasByIdIn(List.of(idExistente, idInexistente))).thenReturn(List.of(
+                new UsuarioLinha(idExistente, "Admin User", "admin", "admin@example.com", 1L, Papel.NomePapel.ADMIN),
+                new UsuarioLinha(idExistente, "Admin User", "admin", "admin@example.com", 1L, Papel.NomePapel.INSTRUTOR)));
+        BuscaLoteDTO busca = new BuscaLoteDTO();
+        busca.setIds(List.of(idExistente, idInexistente, idExistente));
+
+        ResultadoBuscaLoteDTO result = service.buscarEmLote(busca);
+
+        Assertions.assertEquals(List.of(idExistente, idInexistente), List.copyOf(result.porId().keySet()));
+        Assertions.assertEquals(Set.of(Papel.NomePapel.ADMIN, Papel.NomePapel.INSTRUTOR), result.porId().get(idExistente).getPapeis());
+        Assertions.assertNull(result.porId().get(idInexistente));
+        Assertions.assertTrue(result.porNomeUsuario().isEmpty());
+        Mockito.verify(usuarioRepository, Mockito.times(1)).findLinhasByIdIn(ArgumentMatchers.anyCollection());
+    }
+
+    @Test
+    void buscarEmLoteDeveriaIndexarNomesDeUsuarioSemDistinguirMaiusculas() {
+        Mockito.when(usuarioRepository.findLinhasByNomeUsuarioIn(List.of("admin", "outro"))).thenReturn(List.of(
+                new UsuarioLinha(idExistente, "Admin User", "Admin", "admin@example.com", 1L, Papel.NomePapel.ADMIN)));
+        BuscaLoteDTO busca = new BuscaLoteDTO();
+        busca.setNomesUsuario(List.of("ADMIN", "admin", "outro"));
+
+        ResultadoBuscaLoteDTO result = service.buscarEmLote(busca);
+
+        Assertions.assertEquals(List.of("ADMIN", "admin", "outro"), List.copyOf(result.porNomeUsuario().keySet()));
+        Assertions.assertEquals(idExistente, result.porNomeUsuario().get("ADMIN").getId());
+        Assertions.assertEquals(idExistente, result.porNomeUsuario().get("admin").getId());
+        Assertions.assertNull(result.porNomeUsuario().get("outro"));
+    }
+
+    @Test
+    void buscarEmLoteDeveriaLancarIllegalArgumentExceptionQuandoExcedeLimite() {
+        BuscaLoteDTO busca = new BuscaLoteDTO();
+        busca.setIds(LongStream.rangeClosed(1, UsuarioService.TAMANHO_MAXIMO_BUSCA + 1).boxed().toList());
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> service.buscarEmLote(busca));
+    }
+
     @Test
     void getUsuarioDeveriaRetornarUsuarioDTOQuandoIdExiste() {
         UsuarioDTO result = service.getUsuario(idExistente);
         Assertions.assertNotNull(result);
-        Mockito.verify(usuarioRepository).findById(idExistente);
+        Assertions.assertEquals(Set.of(Papel.NomePapel.ADMIN), result.getPapeis());
+        Mockito.verify(usuarioRepository).findLinhasById(idExistente);
+        Mockito.verify(usuarioRepository, Mockito.never()).findById(idExistente);
     }
 
     @Test
     void getUsuarioDeveriaLancarEntityNotFoundExceptionQuandoIdNaoExiste() {
         Assertions.assertThrows(EntityNotFoundException.class, () -> service.getUsuario(idInexistente));
-        Mockito.verify(usuarioRepository).findById(idInexistente);
+        Mockito.verify(usuarioRepository).findLinhasById(idInexistente);
     }
 
     @Test
@@ -122,6 +208,23 @@ class UsuarioServiceTests {
         Mockito.verify(usuarioRepository).findAll(Mockito.any(Pageable.class));
     }
 
+    @Test
+    void listarAposIdDeveriaRetornarUsuariosSeguintesEmOrdemDeId() {
+        Mockito.when(usuarioRepository.findIdsAposId(0L, Limit.of(2))).thenReturn(List.of(1L, 2L));
+        Mockito.when(usuarioRepository.findLinhasByIdIn(List.of(1L, 2L))).thenReturn(List.of(
+                new UsuarioLinha(2L, "Professor User", "professor", "professor@example.com", 1L, Papel.NomePapel.INSTRUTOR),
+                new UsuarioLinha(1L, "Admin User", "admin", "admin@example.com", 1L, Papel.NomePapel.ADMIN)));
+
+        List<UsuarioDTO> result = service.listarAposId(null, 2);
+
+        Assertions.assertEquals(List.of(1L, 2L), result.stream().map(UsuarioDTO::getId).toList());
+    }
+
+    @Test
+    void listarAposIdDeveriaLancarIllegalArgumentExceptionQuandoTamanhoInvalido() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> service.listarAposId(null, 0));
+    }
+
     @Test
     void updateDeveriaRetornarUsuarioDTOQuandoAtualizaUsuarioExistente() {
         Mockito.when(usuarioRepository.existsByEmailAndIdNot(ArgumentMatchers.anyString(), ArgumentMatchers.anyLong())).thenReturn(false);
@@ -138,15 +241,96 @@ class UsuarioServiceTests {
         Assertions.assertThrows(IllegalArgumentException.class, () -> service.update(idExistente, usuarioDTO));
     }
 
+    @Test
+    void atualizarParcialmenteDeveriaAlterarSomenteNomeCompletoSemVerificarUnicidade() {
+        AtualizacaoParcialUsuarioDTO atualizacao = new AtualizacaoParcialUsuarioDTO();
+        atualizacao.setNomeCompleto("Novo Nome");
+
+        UsuarioDTO result = service.atualizarParcialmente(idExistente, atualizacao, null);
+
+        Assertions.assertEquals("Novo Nome", result.getNomeCompleto());
+        Assertions.assertEquals("admin", result.getNomeUsuario());
+        Mockito.verify(usuarioRepository, Mockito.never()).existsByEmailAndIdNot(ArgumentMatchers.anyString(), ArgumentMatchers.anyLong());
+        Mockito.verify(usuarioRepository, Mockito.never()).existsByNomeUsuarioAndIdNot(ArgumentMatchers.anyString(), ArgumentMatchers.anyLong());
+        Mockito.verify(eventPublisher).publishEvent(ArgumentMatchers.any(UsuarioAlteradoEvent.class));
+    }
+
+    @Test
+    void atualizarParcialmenteDeveriaIgnorarMudancaApenasDeCaixaNaUnicidade() {
+        usuario.setNomeUsuarioNormalizado("admin");
+        AtualizacaoParcialUsuarioDTO atualizacao = new AtualizacaoParcialUsuarioDTO();
+        atualizacao.setNomeUsuario("Admin");
+
+        UsuarioDTO result = service.atualizarParcialmente(idExistente, atualizacao, null);
+
+        Assertions.assertEquals("Admin", result.getNomeUsuario());
+        Mockito.verify(usuarioRepository, Mockito.never()).existsByNomeUsuarioAndIdNot(ArgumentMatchers.anyString(), ArgumentMatchers.anyLong());
+    }
+
+    @Test
+    void atualizarParcialmenteDeveriaLancarIllegalArgumentExceptionQuandoEmailJaExiste() {
+        Mockito.when(usuarioRepository.existsByEmailAndIdNot("outro@example.com", idExistente)).thenReturn(true);
+        AtualizacaoParcialUsuarioDTO atualizacao = new AtualizacaoParcialUsuarioDTO();
+        atualizacao.setEmail("Outro@Example.com");
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> service.atualizarParcialmente(idExistente, atualizacao, null));
+    }
+
+    @Test
+    void atualizarParcialmenteNaoDeveriaGravarQuandoNadaMuda() {
+        AtualizacaoParcialUsuarioDTO atualizacao = new AtualizacaoParcialUsuarioDTO();
+        atualizacao.setNomeCompleto(usuario.getNomeCompleto());
+        atualizacao.setEmail(usuario.getEmail());
+
+        service.atualizarParcialmente(idExistente, atualizacao, null);
+
+        Mockito.verify(usuarioRepository, Mockito.never()).flush();
+        Mockito.verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void atualizarParcialmenteDeveriaAplicarSomenteADiferencaDosPapeis() {
+        Papel admin = new Papel(Papel.NomePapel.ADMIN);
+        Set<Papel> papeis = new HashSet<>(Set.of(admin));
+        usuario.setPapeis(papeis);
+        Mockito.when(papelRepository.findByNomePapel(Papel.NomePapel.INSTRUTOR))
+                .thenReturn(Optional.of(new Papel(Papel.NomePapel.INSTRUTOR)));
+        AtualizacaoParcialUsuarioDTO atualizacao = new AtualizacaoParcialUsuarioDTO();
+        atualizacao.setPapeis(Set.of(Papel.NomePapel.ADMIN, Papel.NomePapel.INSTRUTOR));
+
+        service.atualizarParcialmente(idExistente, atualizacao, null);
+
+        Assertions.assertSame(papeis, usuario.getPapeis());
+        Assertions.assertTrue(usuario.getPapeis().contains(admin));
+        Assertions.assertEquals(2, usuario.getPapeis().size());
+        Mockito.verify(papelRepository, Mockito.never()).findByNomePapel(Papel.NomePapel.ADMIN);
+    }
+
+    @Test
+    void atualizarParcialmenteNaoDeveriaTocarPapeisQuandoConjuntoIgual() {
+        Set<Papel> papeis = new HashSet<>(Set.of(new Papel(Papel.NomePapel.ADMIN)));
+        usuario.setPapeis(papeis);
+        AtualizacaoParcialUsuarioDTO atualizacao = new AtualizacaoParcialUsuarioDTO();
+        atualizacao.setPapeis(Set.of(Papel.NomePapel.ADMIN));
+
+        service.atualizarParcialmente(idExistente, atualizacao, null);
+
+        Assertions.assertSame(papeis, usuario.getPapeis());
+        Mockito.verifyNoInteractions(papelRepository);
+        Mockito.verify(usuarioRepository, Mockito.never()).flush();
+    }
+
     @Test
     void deleteUsuarioDeveriaExecutarQuandoIdExistente() {
         service.deleteUsuario(idExistente);
-        Mockito.verify(usuarioRepository).deleteById(idExistente);
+        Mockito.verify(usuarioRepository).softDeleteById(idExistente);
+        Mockito.verify(usuarioRepository, Mockito.never()).deleteById(idExistente);
     }
 
     @Test
     void deleteUsuarioDeveriaLancarEntityNotFoundExceptionQuandoIdNaoExiste() {
         Assertions.assertThrows(EntityNotFoundException.class, () -> service.deleteUsuario(idInexistente));
-        Mockito.verify(usuarioRepository).deleteById(idInexistente);
+        Mockito.verify(usuarioRepository).softDeleteById(idInexistente);
     }
 }
@@ -0,0 +1,44 @@
+package com.ageplan.autenticacao.usuario;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.Set;
+
+/**
+ * Classe de testes para a interpretação do cabeçalho If-Match em {@link UsuarioVersao}.
+ */
+class UsuarioVersaoTests {
+
+    @Test
+    void ifMatchAusenteOuCuringaNaoDeveriaVerificarAVersao() {
+        Assertions.assertNull(UsuarioVersao.versoesDoIfMatch(1L, null));
+        Assertions.assertNull(UsuarioVersao.versoesDoIfMatch(1L, " "));
+        Assertions.assertNull(UsuarioVersao.versoesDoIfMatch(1L, "*"));
+    }
+
+    @Test
+    void ifMatchDeveriaAceitarOEtagDoUsuario() {
+        Assertions.assertEquals(Set.of(2L), UsuarioVersao.versoesDoIfMatch(1L, UsuarioVersao.etag(1L, 2L)));
+    }
+
+    @Test
+    void ifMatchComVariosEtagsDeveriaAceitarTodasAsVersoesDoUsuario() {
+        Assertions.assertEquals(Set.of(2L, 3L), UsuarioVersao.versoesDoIfMatch(1L, "\"1-2\",\"2-5\" , W/\"1-4\", \"1-3\""));
+    }
+
+    @Test
+    void ifMatchSemEtagForteDoUsuarioDeveriaFalharAPreCondicao() {
+        Assertions.assertThrows(OptimisticLockingFailureException.class, () -> UsuarioVersao.versoesDoIfMatch(1L, "W/\"1-2\""));
+        Assertions.assertThrows(OptimisticLockingFailureException.class, () -> UsuarioVersao.versoesDoIfMatch(1L, "\"2-2\", \"11-2\""));
+        Assertions.assertThrows(OptimisticLockingFailureException.class, () -> UsuarioVersao.versoesDoIfMatch(1L, "\"abc\""));
+    }
+
+    @Test
+    void ifMatchMalFormadoDeveriaSerRejeitado() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> UsuarioVersao.versoesDoIfMatch(1L, "1-2"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> UsuarioVersao.versoesDoIfMatch(1L, "\"1-2"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> UsuarioVersao.versoesDoIfMatch(1L, "\"1-2\"x"));
+    }
+}